@@ -7,6 +7,8 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import sampl.cafekiosk.spring.api.service.order.OrderIdempotencyKeyMismatchException;
+import sampl.cafekiosk.spring.api.service.order.OrderLineAnalyticsDisabledException;
 
 
 @RestControllerAdvice
@@ -22,4 +24,34 @@ public class ApiControllerAdvice {
         );
     }
 
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ApiResponse<Object> illegalArgumentException(IllegalArgumentException e) {
+        return ApiResponse.of(
+                HttpStatus.BAD_REQUEST,
+                e.getMessage(),
+                null
+        );
+    }
+
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    @ExceptionHandler(OrderIdempotencyKeyMismatchException.class)
+    public ApiResponse<Object> orderIdempotencyKeyMismatchException(OrderIdempotencyKeyMismatchException e) {
+        return ApiResponse.of(
+                HttpStatus.UNPROCESSABLE_ENTITY,
+                e.getMessage(),
+                null
+        );
+    }
+
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    @ExceptionHandler(OrderLineAnalyticsDisabledException.class)
+    public ApiResponse<Object> orderLineAnalyticsDisabledException(OrderLineAnalyticsDisabledException e) {
+        return ApiResponse.of(
+                HttpStatus.NOT_FOUND,
+                e.getMessage(),
+                null
+        );
+    }
+
 }
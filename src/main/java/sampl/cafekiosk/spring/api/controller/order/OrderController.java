@@ -1,28 +1,60 @@
 package sampl.cafekiosk.spring.api.controller.order;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 import sampl.cafekiosk.spring.api.ApiResponse;
+import sampl.cafekiosk.spring.api.controller.order.request.OrderBatchCreateRequest;
 import sampl.cafekiosk.spring.api.controller.order.request.OrderCreateServiceRequest;
+import sampl.cafekiosk.spring.api.service.order.OrderGroupCommitter;
+import sampl.cafekiosk.spring.api.service.order.OrderIdempotencyService;
 import sampl.cafekiosk.spring.api.service.order.OrderService;
+import sampl.cafekiosk.spring.api.service.order.response.OrderBatchResponse;
 import sampl.cafekiosk.spring.api.service.order.response.OrderResponse;
 
 import javax.validation.Valid;
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
 
 @RequiredArgsConstructor
 @RestController
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderIdempotencyService orderIdempotencyService;
+    private final OrderGroupCommitter orderGroupCommitter;
 
     @PostMapping("/api/v1/orders/new")
-    public ApiResponse<OrderResponse> createOrder(@Valid @RequestBody OrderCreateServiceRequest request) {
+    public ApiResponse<OrderResponse> createOrder(@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                  @Valid @RequestBody OrderCreateServiceRequest request) {
         LocalDateTime registeredDateTime = LocalDateTime.now();
 
-        return ApiResponse.ok(orderService.createOrder(request.toServiceRequest(), registeredDateTime));
+        return ApiResponse.ok(orderIdempotencyService.createOrder(idempotencyKey, request.toServiceRequest(), registeredDateTime));
+    }
+
+    /**
+     * 주문을 대기열에 넣고 다른 주문들과 함께 커밋되면 응답한다.
+     */
+    @PostMapping("/api/v1/orders/async")
+    public CompletableFuture<ApiResponse<OrderResponse>> createOrderAsync(@Valid @RequestBody OrderCreateServiceRequest request) {
+        return orderGroupCommitter.submit(request.toServiceRequest())
+                .thenApply(ApiResponse::ok);
+    }
+
+    @PostMapping("/api/v1/orders/batch")
+    public ApiResponse<OrderBatchResponse> createOrders(@Valid @RequestBody OrderBatchCreateRequest request) {
+        LocalDateTime registeredDateTime = LocalDateTime.now();
+
+        return ApiResponse.ok(orderService.createOrders(request.toServiceRequests(), registeredDateTime));
+    }
+
+    @GetMapping("/api/v1/orders/{orderId}")
+    public ApiResponse<OrderResponse> getOrder(@PathVariable Long orderId) {
+        return ApiResponse.ok(orderService.getOrder(orderId));
     }
 
 }
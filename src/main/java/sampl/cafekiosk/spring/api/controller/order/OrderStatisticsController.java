@@ -0,0 +1,98 @@
+package sampl.cafekiosk.spring.api.controller.order;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import sampl.cafekiosk.spring.api.ApiResponse;
+import sampl.cafekiosk.spring.api.service.order.OrderLineDimension;
+import sampl.cafekiosk.spring.api.service.order.OrderStatisticsService;
+import sampl.cafekiosk.spring.api.service.order.response.BestSellerResponse;
+import sampl.cafekiosk.spring.api.service.order.response.OrderLineAggregateResponse;
+import sampl.cafekiosk.spring.api.service.order.response.RealtimeSalesWindowResponse;
+import sampl.cafekiosk.spring.api.service.order.response.SalesStatisticsResponse;
+import sampl.cafekiosk.spring.domain.order.OrderStatus;
+
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.springframework.format.annotation.DateTimeFormat.ISO.DATE;
+import static org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME;
+
+@RequiredArgsConstructor
+@RestController
+public class OrderStatisticsController {
+
+    private final OrderStatisticsService orderStatisticsService;
+
+    /**
+     * GET /api/v1/orders/statistics?startDate=2023-03-01&endDate=2023-03-05&orderStatuses=PAYMENT_COMPLETED,RECEIVED
+     */
+    @GetMapping("/api/v1/orders/statistics")
+    public ApiResponse<SalesStatisticsResponse> getSalesStatistics(@RequestParam @DateTimeFormat(iso = DATE) LocalDate startDate,
+                                                                   @RequestParam @DateTimeFormat(iso = DATE) LocalDate endDate,
+                                                                   @RequestParam(defaultValue = "PAYMENT_COMPLETED") List<OrderStatus> orderStatuses) {
+        return ApiResponse.ok(orderStatisticsService.getSalesStatistics(startDate, endDate, orderStatuses));
+    }
+
+    /**
+     * 최근 5, 15, 60분 동안의 주문 수와 매출 (실시간 대시보드)
+     */
+    @GetMapping("/api/v1/orders/realtime-sales")
+    public ApiResponse<List<RealtimeSalesWindowResponse>> getRealtimeSales() {
+        return ApiResponse.ok(orderStatisticsService.getRealtimeSales());
+    }
+
+    /**
+     * GET /api/v1/orders/best-sellers?days=7&limit=10 (오늘: days=1, 최근 일주일: days=7)
+     */
+    @GetMapping("/api/v1/orders/best-sellers")
+    public ApiResponse<List<BestSellerResponse>> getBestSellers(@RequestParam(defaultValue = "1") int days,
+                                                                @RequestParam(defaultValue = "10") int limit) {
+        return ApiResponse.ok(orderStatisticsService.getBestSellers(days, limit));
+    }
+
+    /**
+     * GET /api/v1/orders/analytics?startDateTime=2023-03-01T00:00:00&endDateTime=2023-03-08T00:00:00&groupBy=PRODUCT,HOUR
+     * groupBy 를 비우면 기간 전체를 하나로 합친다.
+     */
+    @GetMapping("/api/v1/orders/analytics")
+    public ApiResponse<List<OrderLineAggregateResponse>> getOrderLineAnalytics(@RequestParam @DateTimeFormat(iso = DATE_TIME) LocalDateTime startDateTime,
+                                                                               @RequestParam @DateTimeFormat(iso = DATE_TIME) LocalDateTime endDateTime,
+                                                                               @RequestParam(defaultValue = "PAYMENT_COMPLETED") List<OrderStatus> orderStatuses,
+                                                                               @RequestParam(defaultValue = "") Set<OrderLineDimension> groupBy) {
+        return ApiResponse.ok(orderStatisticsService.getOrderLineAnalytics(startDateTime, endDateTime, orderStatuses, groupBy));
+    }
+
+    /**
+     * 기간 안의 주문을 CSV 로 내려받는다. 주문을 읽는 대로 응답에 쓰므로 응답 전체를 메모리에 모으지 않는다.
+     * 잘못된 요청은 200 과 CSV 헤더를 보내기 전에 400 으로 응답한다.
+     */
+    @GetMapping("/api/v1/orders/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(@RequestParam @DateTimeFormat(iso = DATE) LocalDate startDate,
+                                                              @RequestParam @DateTimeFormat(iso = DATE) LocalDate endDate,
+                                                              @RequestParam(defaultValue = "PAYMENT_COMPLETED") List<OrderStatus> orderStatuses) {
+        orderStatisticsService.validateExport(startDate, endDate, orderStatuses);
+
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+            orderStatisticsService.exportOrders(startDate, endDate, orderStatuses, writer);
+        };
+
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, String.format("attachment; filename=\"orders-%s-%s.csv\"", startDate, endDate))
+                .body(body);
+    }
+
+}
@@ -0,0 +1,32 @@
+package sampl.cafekiosk.spring.api.controller.order.request;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Getter
+@NoArgsConstructor
+public class OrderBatchCreateRequest {
+
+    @Valid
+    @NotEmpty(message = "주문 리스트는 필수입니다.")
+    @Size(max = 500, message = "한 번에 등록할 수 있는 주문은 최대 500건입니다.")
+    private List<OrderCreateServiceRequest> orders;
+
+    @Builder
+    private OrderBatchCreateRequest(List<OrderCreateServiceRequest> orders) {
+        this.orders = orders;
+    }
+
+    public List<OrderCreateServiceRequest> toServiceRequests() {
+        return orders.stream()
+                .map(OrderCreateServiceRequest::toServiceRequest)
+                .collect(Collectors.toList());
+    }
+}
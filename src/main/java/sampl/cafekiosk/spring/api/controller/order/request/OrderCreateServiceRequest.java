@@ -1,27 +1,86 @@
 package sampl.cafekiosk.spring.api.controller.order.request;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.google.common.hash.Hashing;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
-import javax.validation.constraints.NotEmpty;
+import javax.validation.Valid;
+import javax.validation.constraints.AssertTrue;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
+/**
+ * 상품 번호를 수량만큼 반복하는 productNumbers 와 상품 번호별 수량을 담는 orderLines 중 하나 이상으로 주문한다.
+ */
 @Getter
 @NoArgsConstructor
 public class OrderCreateServiceRequest {
 
-    @NotEmpty(message = "상품 번호 리스트는 필수입니다.")
     private List<String> productNumbers;
 
+    @Valid
+    private List<OrderLineRequest> orderLines;
+
     @Builder
-    private OrderCreateServiceRequest(List<String> productNumbers) {
+    private OrderCreateServiceRequest(List<String> productNumbers, List<OrderLineRequest> orderLines) {
         this.productNumbers = productNumbers;
+        this.orderLines = orderLines;
     }
 
     public OrderCreateServiceRequest toServiceRequest() {
         return OrderCreateServiceRequest.builder()
                 .productNumbers(productNumbers)
+                .orderLines(orderLines)
                 .build();
     }
+
+    @JsonIgnore
+    @AssertTrue(message = "상품 번호 리스트는 필수입니다.")
+    public boolean isProductSpecified() {
+        return (productNumbers != null && !productNumbers.isEmpty())
+                || (orderLines != null && !orderLines.isEmpty());
+    }
+
+    /**
+     * 두 형식을 합쳐 상품 번호별 주문 수량을 요청한 순서대로 돌려준다.
+     * 합친 수량도 상품마다 OrderLineRequest.MAX_QUANTITY 를 넘을 수 없다.
+     */
+    @JsonIgnore
+    public Map<String, Integer> getProductQuantities() {
+        Map<String, Integer> productQuantities = new LinkedHashMap<>();
+        if (productNumbers != null) {
+            productNumbers.forEach(productNumber -> productQuantities.merge(productNumber, 1, OrderCreateServiceRequest::addQuantity));
+        }
+        if (orderLines != null) {
+            orderLines.forEach(orderLine -> productQuantities.merge(orderLine.getProductNumber(), orderLine.getQuantity(), OrderCreateServiceRequest::addQuantity));
+        }
+        return productQuantities;
+    }
+
+    private static int addQuantity(int quantity, int addedQuantity) {
+        try {
+            int total = Math.addExact(quantity, addedQuantity);
+            if (total <= OrderLineRequest.MAX_QUANTITY) {
+                return total;
+            }
+        } catch (ArithmeticException e) {
+            // 아래에서 수량 초과로 처리한다.
+        }
+        throw new IllegalArgumentException(String.format("상품별 주문 수량은 %d개 이하여야 합니다.", OrderLineRequest.MAX_QUANTITY));
+    }
+
+    /**
+     * 같은 멱등성 키로 다른 주문을 보냈는지 비교하기 위한 해시.
+     * 상품 번호 순서나 형식(productNumbers/orderLines)이 달라도 상품 번호별 수량이 같으면 같은 값이다.
+     */
+    public String hashProductQuantities() {
+        return Hashing.sha256()
+                .hashString(new TreeMap<>(getProductQuantities()).toString(), StandardCharsets.UTF_8)
+                .toString();
+    }
 }
@@ -0,0 +1,32 @@
+package sampl.cafekiosk.spring.api.controller.order.request;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Positive;
+
+@Getter
+@NoArgsConstructor
+public class OrderLineRequest {
+
+    /**
+     * 한 주문에서 상품 하나에 주문할 수 있는 최대 수량. 같은 상품을 여러 번 담은 경우 합친 수량에도 적용한다.
+     */
+    public static final int MAX_QUANTITY = 1000;
+
+    @NotBlank(message = "상품 번호는 필수입니다.")
+    private String productNumber;
+
+    @Positive(message = "주문 수량은 1개 이상이어야 합니다.")
+    @Max(value = MAX_QUANTITY, message = "주문 수량은 1000개 이하여야 합니다.")
+    private int quantity;
+
+    @Builder
+    private OrderLineRequest(String productNumber, int quantity) {
+        this.productNumber = productNumber;
+        this.quantity = quantity;
+    }
+}
@@ -1,30 +1,55 @@
 package sampl.cafekiosk.spring.api.controller.product;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 import sampl.cafekiosk.spring.api.ApiResponse;
 import sampl.cafekiosk.spring.api.controller.product.dto.request.ProductCreateRequest;
+import sampl.cafekiosk.spring.api.service.product.ProductImportFormat;
+import sampl.cafekiosk.spring.api.service.product.ProductImportService;
 import sampl.cafekiosk.spring.api.service.product.ProductService;
+import sampl.cafekiosk.spring.api.service.product.response.ProductImportResponse;
 import sampl.cafekiosk.spring.api.service.product.response.ProductResponse;
 
 import javax.validation.Valid;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Optional;
 
 @RequiredArgsConstructor
 @RestController
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
 
     @PostMapping("/api/v1/product/new")
     public ApiResponse<ProductResponse> createProduct(@Valid @RequestBody ProductCreateRequest request) {
         return ApiResponse.ok(productService.createProduct(request.toServiceRequest()));
     }
 
+    /**
+     * 요청 본문을 메모리에 모으지 않고 스트림으로 읽어 등록한다.
+     */
+    @PostMapping(value = "/api/v1/products/import", consumes = {ProductImportFormat.TEXT_CSV_VALUE, ProductImportFormat.NDJSON_VALUE})
+    public ApiResponse<ProductImportResponse> importProducts(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                             InputStream body) {
+        Charset charset = Optional.ofNullable(contentType.getCharset()).orElse(StandardCharsets.UTF_8);
+        return ApiResponse.ok(productImportService.importProducts(
+                new InputStreamReader(body, charset),
+                ProductImportFormat.from(contentType)
+        ));
+    }
+
     @GetMapping("/api/v1/products/selling")
     public ApiResponse<List<ProductResponse>> getSellingProducts() {
         return ApiResponse.ok(productService.getSellingProducts());
@@ -0,0 +1,32 @@
+package sampl.cafekiosk.spring.api.controller.stock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import sampl.cafekiosk.spring.api.ApiResponse;
+import sampl.cafekiosk.spring.api.controller.stock.request.StockStripeRequest;
+import sampl.cafekiosk.spring.api.service.stock.StockService;
+import sampl.cafekiosk.spring.api.service.stock.response.StockResponse;
+
+import javax.validation.Valid;
+
+@RequiredArgsConstructor
+@RestController
+public class StockController {
+
+    private final StockService stockService;
+
+    @GetMapping("/api/v1/stocks/{productNumber}")
+    public ApiResponse<StockResponse> getStock(@PathVariable String productNumber) {
+        return ApiResponse.ok(stockService.getStock(productNumber));
+    }
+
+    @PostMapping("/api/v1/stocks/{productNumber}/stripe")
+    public ApiResponse<StockResponse> stripe(@PathVariable String productNumber, @Valid @RequestBody StockStripeRequest request) {
+        return ApiResponse.ok(stockService.stripe(productNumber, request.getShardCount()));
+    }
+
+}
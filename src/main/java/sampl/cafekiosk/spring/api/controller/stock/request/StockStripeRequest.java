@@ -0,0 +1,22 @@
+package sampl.cafekiosk.spring.api.controller.stock.request;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Positive;
+
+@Getter
+@NoArgsConstructor
+public class StockStripeRequest {
+
+    @Positive(message = "재고 조각 수는 1 이상이어야 합니다.")
+    @Max(value = 64, message = "재고 조각 수는 64 이하여야 합니다.")
+    private int shardCount;
+
+    @Builder
+    private StockStripeRequest(int shardCount) {
+        this.shardCount = shardCount;
+    }
+}
@@ -0,0 +1,200 @@
+package sampl.cafekiosk.spring.api.service.mail;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sampl.cafekiosk.spring.client.MailSendClient;
+import sampl.cafekiosk.spring.domain.history.mail.MailSendHistory;
+import sampl.cafekiosk.spring.domain.history.mail.MailSendHistoryRepository;
+import sampl.cafekiosk.spring.domain.mail.MailOutbox;
+import sampl.cafekiosk.spring.domain.mail.MailOutboxRepository;
+import sampl.cafekiosk.spring.domain.mail.MailOutboxStatus;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * outbox 에 쌓인 메일을 batch-size 개씩 가져가 parallelism 개까지 동시에 보낸다.
+ * <p>
+ * 가져가기(claim)와 결과 기록은 각각 짧은 트랜잭션으로 하고, 메일을 보내는 동안에는 DB 커넥션을 잡지 않는다.
+ * 메일 한 통은 send-timeout-millis 안에 보내지 못하면 실패로 본다. 그래서 한 번에 가져간 메일은 많아야 ceil(batch-size / parallelism) 번의 send-timeout-millis 안에 결과가 나오고,
+ * 가져간 메일은 그보다 send-timeout-millis 한 번만큼 더 긴 동안 다른 서버가 가져가지 못한다. 그 안에 결과를 기록하지 못하면(서버가 죽은 경우 등) 다시 보낸다.
+ * 가져갈 차례와 가져간 기한은 서버마다 다를 수 있는 시계가 아니라 DB 의 current_timestamp 로 정한다.
+ * 보내지 못한 메일은 retry-backoff-millis 부터 두 배씩 늘린 간격으로 max-attempts 번까지 보내고, 그래도 실패하면 전송실패로 남긴다.
+ * 다시 보낼 시각도 DB 의 current_timestamp 로 정한다.
+ * <p>
+ * 주기 작업 스레드는 다른 @Scheduled 작업과 나눠 쓰므로(spring.task.scheduling.pool.size), 한 번의 dispatchAll 은 max-dispatch-millis 를 넘겨 계속하지 않는다.
+ */
+@Slf4j
+@Component
+public class MailOutboxDispatcher {
+
+    private final MailOutboxRepository mailOutboxRepository;
+    private final MailSendHistoryRepository mailSendHistoryRepository;
+    private final MailSendClient mailSendClient;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final int parallelism;
+    private final long sendTimeoutMillis;
+    private final long claimMillis;
+    private final long maxDispatchNanos;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final ExecutorService mailSender;
+
+    public MailOutboxDispatcher(MailOutboxRepository mailOutboxRepository,
+                                MailSendHistoryRepository mailSendHistoryRepository,
+                                MailSendClient mailSendClient,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${cafekiosk.mail.outbox.batch-size:100}") int batchSize,
+                                @Value("${cafekiosk.mail.outbox.parallelism:4}") int parallelism,
+                                @Value("${cafekiosk.mail.outbox.max-attempts:5}") int maxAttempts,
+                                @Value("${cafekiosk.mail.outbox.retry-backoff-millis:1000}") long retryBackoffMillis,
+                                @Value("${cafekiosk.mail.outbox.send-timeout-millis:10000}") long sendTimeoutMillis,
+                                @Value("${cafekiosk.mail.outbox.max-dispatch-millis:30000}") long maxDispatchMillis) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.mailSendHistoryRepository = mailSendHistoryRepository;
+        this.mailSendClient = mailSendClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.parallelism = parallelism;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        this.claimMillis = sendTimeoutMillis * ((batchSize + parallelism - 1) / parallelism + 1);
+        this.maxDispatchNanos = TimeUnit.MILLISECONDS.toNanos(maxDispatchMillis);
+        this.sentCounter = meterRegistry.counter("mail.outbox.sent", "result", "success");
+        this.failedCounter = meterRegistry.counter("mail.outbox.sent", "result", "failure");
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.mailSender = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "mail-outbox-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 보낼 차례가 된 메일이 batch-size 개보다 적게 남을 때까지 보낸다.
+     * max-dispatch-millis 가 지나면 새로 가져가지 않고 남은 메일은 다음 주기에 보낸다. (한 번 가져간 메일은 결과를 기록할 때까지 기다린다)
+     */
+    @Scheduled(fixedDelayString = "${cafekiosk.mail.outbox.poll-interval-millis:1000}")
+    public void dispatchAll() {
+        long deadline = System.nanoTime() + maxDispatchNanos;
+        int dispatched;
+        do {
+            dispatched = dispatch();
+        } while (dispatched == batchSize && System.nanoTime() - deadline < 0);
+    }
+
+    /**
+     * 보낼 차례가 된 메일을 batch-size 개까지 가져가 보내고 결과를 기록한다.
+     *
+     * @return 가져간 메일 수
+     */
+    public int dispatch() {
+        String claimToken = UUID.randomUUID().toString();
+        List<MailOutbox> mails = claim(claimToken);
+        if (mails.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<Boolean>> sends = new ArrayList<>();
+        for (int i = 0; i < mails.size(); i++) {
+            // i 번째 메일은 앞선 메일들이 모두 send-timeout-millis 를 채워도 (i / parallelism + 1) 번째 차례 안에 끝난다.
+            sends.add(sendAsync(mails.get(i), sendTimeoutMillis * (i / parallelism + 1)));
+        }
+        Map<Long, Boolean> results = new HashMap<>();
+        for (int i = 0; i < mails.size(); i++) {
+            results.put(mails.get(i).getId(), sends.get(i).join());
+        }
+
+        record(claimToken, results);
+        return mails.size();
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        mailSender.shutdown();
+        mailSender.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private List<MailOutbox> claim(String claimToken) {
+        List<Long> ids = mailOutboxRepository.findIdsToDispatch(MailOutboxStatus.forDispatch(), PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        mailOutboxRepository.claim(ids, MailOutboxStatus.forDispatch(), MailOutboxStatus.SENDING, claimToken, claimMillis);
+        return mailOutboxRepository.findAllByClaimToken(claimToken);
+    }
+
+    /**
+     * timeoutMillis 안에 보내지 못하면 실패로 끝난다. 기한이 지난 뒤에 차례가 온 메일은 보내지 않는다.
+     * 이미 보내기 시작한 메일은 멈출 수 없으므로, MailSendClient 자체의 타임아웃은 send-timeout-millis 보다 짧아야 한다.
+     */
+    private CompletableFuture<Boolean> sendAsync(MailOutbox mail, long timeoutMillis) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        mailSender.execute(() -> {
+            if (!result.isDone()) {
+                result.complete(send(mail));
+            }
+        });
+        return result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    log.warn("메일(id={})을 {}ms 안에 {} 에게 보내지 못했습니다.", mail.getId(), timeoutMillis, mail.getToEmail());
+                    return false;
+                });
+    }
+
+    private boolean send(MailOutbox mail) {
+        try {
+            return Boolean.TRUE.equals(mailSendClient.sendEmail(mail.getFromEmail(), mail.getToEmail(), mail.getSubject(), mail.getContent()));
+        } catch (RuntimeException e) {
+            log.warn("메일(id={})을 {} 에게 보내지 못했습니다.", mail.getId(), mail.getToEmail(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 보낸 메일의 전송 이력과 outbox 의 상태를 한 트랜잭션에 기록한다.
+     * 가져간 기한이 지나 다른 서버가 다시 가져간 메일은 그 서버가 기록하도록 건너뛴다.
+     */
+    private void record(String claimToken, Map<Long, Boolean> results) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<MailSendHistory> histories = new ArrayList<>();
+            for (MailOutbox mail : mailOutboxRepository.findAllById(results.keySet())) {
+                if (!claimToken.equals(mail.getClaimToken())) {
+                    continue;
+                }
+                if (results.get(mail.getId())) {
+                    histories.add(mail.recordSent());
+                    sentCounter.increment();
+                    continue;
+                }
+                mailOutboxRepository.recordFailure(mail.getId(), claimToken, mail.statusAfterFailure(maxAttempts),
+                        mail.retryBackoffMillis(retryBackoffMillis));
+                failedCounter.increment();
+            }
+            mailSendHistoryRepository.saveAll(histories);
+        });
+    }
+
+}
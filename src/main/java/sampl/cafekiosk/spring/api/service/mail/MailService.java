@@ -2,32 +2,24 @@ package sampl.cafekiosk.spring.api.service.mail;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import sampl.cafekiosk.spring.client.MailSendClient;
-import sampl.cafekiosk.spring.domain.history.mail.MailSendHistory;
-import sampl.cafekiosk.spring.domain.history.mail.MailSendHistoryRepository;
+import org.springframework.transaction.annotation.Transactional;
+import sampl.cafekiosk.spring.domain.mail.MailOutbox;
+import sampl.cafekiosk.spring.domain.mail.MailOutboxRepository;
 
+import java.time.LocalDateTime;
+
+/**
+ * 메일을 바로 보내지 않고 outbox 에 쌓는다. 호출한 쪽의 트랜잭션에 함께 저장되므로 그 트랜잭션이 롤백되면 메일도 보내지 않는다.
+ * 실제 전송과 전송 이력(MailSendHistory) 기록은 MailOutboxDispatcher 가 한다.
+ */
 @RequiredArgsConstructor
 @Service
 public class MailService {
 
-    private final MailSendClient mailSendClient;
-
-    private final MailSendHistoryRepository mailSendHistoryRepository;
-
-    public Boolean sendMail(String fromEmail, String toEmail, String subject, String content) {
-
-        Boolean result = mailSendClient.sendEmail(fromEmail, toEmail, subject, content);
-
-        if (result) {
-            mailSendHistoryRepository.save(MailSendHistory.builder()
-                            .fromEmail(fromEmail)
-                            .toEmail(toEmail)
-                            .subject(subject)
-                            .content(content)
-                    .build());
-            return true;
-        }
+    private final MailOutboxRepository mailOutboxRepository;
 
-        return false;
+    @Transactional
+    public void sendMail(String fromEmail, String toEmail, String subject, String content) {
+        mailOutboxRepository.save(MailOutbox.create(fromEmail, toEmail, subject, content, LocalDateTime.now()));
     }
 }
@@ -0,0 +1,247 @@
+package sampl.cafekiosk.spring.api.service.order;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sampl.cafekiosk.spring.api.service.order.response.BestSellerResponse;
+import sampl.cafekiosk.spring.domain.order.Order;
+import sampl.cafekiosk.spring.domain.order.OrderStatusChangedEvent;
+import sampl.cafekiosk.spring.domain.orderproduct.OrderProduct;
+import sampl.cafekiosk.spring.domain.product.Product;
+import sampl.cafekiosk.spring.domain.product.ProductCatalogCache;
+import sampl.cafekiosk.spring.domain.sales.ProductSalesSketch;
+import sampl.cafekiosk.spring.domain.sales.ProductSalesSketchRepository;
+import sampl.cafekiosk.spring.support.CountMinSketch;
+import sampl.cafekiosk.spring.support.SpaceSaving;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 날짜별로 상품 판매 수량을 스케치에 모아 order_product 를 읽지 않고 많이 팔린 상품 순위를 근사한다.
+ * Space-Saving 이 순위 후보를 추적하고, 후보의 수량은 Count-Min Sketch 추정치와 비교해 더 작은 값을 쓴다. (둘 다 실제보다 작지 않다)
+ * 여러 날짜의 순위는 날짜별 스케치를 합쳐서 구한다.
+ * <p>
+ * 주문이 생성될 때 주문 상품의 수량을 커밋 후에 더한다. 스케치는 더하기만 하므로 취소된 주문도 순위에 남는다.
+ * <p>
+ * 서버마다 자기가 더한 수량만 스케치에 모아 checkpoint-interval-millis 마다 바뀐 날짜를 자기 instanceId 의 행에 저장한다.
+ * 다른 서버(다시 뜨기 전의 자신 포함)의 행은 서버가 뜰 때와 체크포인트할 때마다 읽어 두고, 순위를 구할 때 자기 스케치와 합친다.
+ * 다른 서버의 행을 자기 행에 합쳐 저장하지 않으므로 같은 수량이 두 번 세지지 않는다.
+ * 다른 서버의 판매는 한 체크포인트 주기만큼 늦게 보이고, 마지막 체크포인트 이후에 더한 수량은 서버가 비정상 종료되면 사라진다.
+ */
+@Component
+public class BestSellerTracker {
+
+    private final ProductSalesSketchRepository productSalesSketchRepository;
+    private final ProductCatalogCache productCatalogCache;
+    private final int depth;
+    private final int width;
+    private final int capacity;
+    private final int retentionDays;
+    private final String instanceId = UUID.randomUUID().toString();
+    // 이 서버가 더한 수량
+    private final Map<LocalDate, DailySketch> dailySketches = new ConcurrentHashMap<>();
+    // 다른 서버가 체크포인트한 수량을 날짜별로 합친 것
+    private volatile Map<LocalDate, DailySketch> otherSketches = Map.of();
+
+    public BestSellerTracker(ProductSalesSketchRepository productSalesSketchRepository,
+                             ProductCatalogCache productCatalogCache,
+                             @Value("${cafekiosk.order.best-sellers.sketch-depth:5}") int depth,
+                             @Value("${cafekiosk.order.best-sellers.sketch-width:2048}") int width,
+                             @Value("${cafekiosk.order.best-sellers.capacity:200}") int capacity,
+                             @Value("${cafekiosk.order.best-sellers.retention-days:7}") int retentionDays) {
+        this.productSalesSketchRepository = productSalesSketchRepository;
+        this.productCatalogCache = productCatalogCache;
+        this.depth = depth;
+        this.width = width;
+        this.capacity = capacity;
+        this.retentionDays = retentionDays;
+    }
+
+    @EventListener
+    public void record(OrderStatusChangedEvent event) {
+        if (event.getPreviousStatus() != null) {
+            return;
+        }
+
+        Order order = event.getOrder();
+        LocalDate salesDate = order.getRegisteredDateTime().toLocalDate();
+        if (!isRetained(salesDate)) {
+            return;
+        }
+
+        Map<String, Long> quantities = new HashMap<>();
+        for (OrderProduct orderProduct : order.getOrderProducts()) {
+            quantities.merge(orderProduct.getProduct().getProductNumber(), (long) orderProduct.getQuantity(), Long::sum);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(salesDate, quantities);
+                }
+            });
+        } else {
+            add(salesDate, quantities);
+        }
+    }
+
+    /**
+     * 오늘을 포함한 최근 days 일 동안 많이 팔린 상품을 limit 개까지 반환한다.
+     */
+    public List<BestSellerResponse> getBestSellers(int days, int limit) {
+        if (days < 1 || days > retentionDays) {
+            throw new IllegalArgumentException(String.format("조회 기간은 1일 이상 %d일 이하여야 합니다.", retentionDays));
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("조회할 상품 수는 1개 이상이어야 합니다.");
+        }
+
+        LocalDate today = LocalDate.now();
+        Map<LocalDate, DailySketch> others = otherSketches;
+        DailySketch merged = new DailySketch(depth, width, capacity);
+        for (LocalDate date = today.minusDays(days - 1); !date.isAfter(today); date = date.plusDays(1)) {
+            DailySketch dailySketch = dailySketches.get(date);
+            if (dailySketch != null) {
+                merged = merged.merge(dailySketch);
+            }
+            DailySketch otherSketch = others.get(date);
+            if (otherSketch != null) {
+                merged = merged.merge(otherSketch);
+            }
+        }
+
+        CountMinSketch countMinSketch = merged.countMinSketch;
+        List<SpaceSaving.Entry> candidates = merged.topProducts.top(capacity).stream()
+                .sorted(Comparator.comparingLong((SpaceSaving.Entry entry) -> Math.min(entry.getCount(), countMinSketch.estimate(entry.getKey())))
+                        .reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+
+        Map<String, Product> products = productCatalogCache.getProducts(candidates.stream()
+                .map(SpaceSaving.Entry::getKey)
+                .collect(Collectors.toList()));
+
+        List<BestSellerResponse> bestSellers = new ArrayList<>();
+        for (SpaceSaving.Entry candidate : candidates) {
+            Product product = products.get(candidate.getKey());
+            bestSellers.add(BestSellerResponse.builder()
+                    .rank(bestSellers.size() + 1)
+                    .productNumber(candidate.getKey())
+                    .name(product == null ? null : product.getName())
+                    .estimatedQuantity(Math.min(candidate.getCount(), countMinSketch.estimate(candidate.getKey())))
+                    .minimumQuantity(candidate.getCount() - candidate.getError())
+                    .build());
+        }
+        return bestSellers;
+    }
+
+    /**
+     * 마지막 체크포인트 이후 바뀐 날짜의 스케치를 이 서버의 행에 저장하고, 다른 서버의 행을 다시 읽는다.
+     * 보관 기간이 지난 날짜는 메모리와 DB 에서 내린다.
+     */
+    @Scheduled(fixedDelayString = "${cafekiosk.order.best-sellers.checkpoint-interval-millis:60000}")
+    @PreDestroy
+    public void checkpoint() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ProductSalesSketch> sketches = new ArrayList<>();
+        dailySketches.forEach((salesDate, dailySketch) -> {
+            // 저장하는 동안 더해진 수량은 다음 체크포인트에서 저장되도록 먼저 표시를 지운다.
+            if (dailySketch.clearDirty()) {
+                sketches.add(ProductSalesSketch.of(salesDate, instanceId, dailySketch.countMinSketch.toBytes(), dailySketch.topProducts.toBytes(), now));
+            }
+        });
+        productSalesSketchRepository.saveAll(sketches);
+
+        dailySketches.keySet().removeIf(salesDate -> !isRetained(salesDate));
+        productSalesSketchRepository.deleteAllSalesDateBefore(oldestRetainedDate());
+        restore();
+    }
+
+    /**
+     * 보관 기간 안의 다른 서버의 체크포인트를 날짜별로 합쳐 둔다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        Map<LocalDate, DailySketch> others = new HashMap<>();
+        for (ProductSalesSketch sketch : productSalesSketchRepository.findAllBySalesDateGreaterThanEqual(oldestRetainedDate())) {
+            if (instanceId.equals(sketch.getInstanceId())) {
+                continue;
+            }
+            DailySketch checkpointed = new DailySketch(
+                    CountMinSketch.fromBytes(sketch.getCountMinSketch()),
+                    SpaceSaving.fromBytes(sketch.getTopProducts())
+            );
+            others.merge(sketch.getSalesDate(), checkpointed, DailySketch::merge);
+        }
+        otherSketches = others;
+    }
+
+    /**
+     * 테스트에서 주문을 벌크 삭제한 뒤 이 서버와 다른 서버의 스케치를 모두 비운다.
+     */
+    @VisibleForTesting
+    public void reset() {
+        dailySketches.clear();
+        otherSketches = Map.of();
+    }
+
+    private void add(LocalDate salesDate, Map<String, Long> quantities) {
+        DailySketch dailySketch = dailySketches.computeIfAbsent(salesDate, ignored -> new DailySketch(depth, width, capacity));
+        quantities.forEach(dailySketch::add);
+    }
+
+    private boolean isRetained(LocalDate salesDate) {
+        return !salesDate.isBefore(oldestRetainedDate());
+    }
+
+    private LocalDate oldestRetainedDate() {
+        return LocalDate.now().minusDays(retentionDays - 1);
+    }
+
+    private static class DailySketch {
+        private final CountMinSketch countMinSketch;
+        private final SpaceSaving topProducts;
+        private volatile boolean dirty;
+
+        private DailySketch(int depth, int width, int capacity) {
+            this(new CountMinSketch(depth, width), new SpaceSaving(capacity));
+        }
+
+        private DailySketch(CountMinSketch countMinSketch, SpaceSaving topProducts) {
+            this.countMinSketch = countMinSketch;
+            this.topProducts = topProducts;
+        }
+
+        private void add(String productNumber, long quantity) {
+            countMinSketch.add(productNumber, quantity);
+            topProducts.add(productNumber, quantity);
+            dirty = true;
+        }
+
+        private DailySketch merge(DailySketch other) {
+            return new DailySketch(countMinSketch.merge(other.countMinSketch), topProducts.merge(other.topProducts));
+        }
+
+        private boolean clearDirty() {
+            boolean wasDirty = dirty;
+            dirty = false;
+            return wasDirty;
+        }
+    }
+
+}
@@ -0,0 +1,179 @@
+package sampl.cafekiosk.spring.api.service.order;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import sampl.cafekiosk.spring.api.controller.order.request.OrderCreateServiceRequest;
+import sampl.cafekiosk.spring.api.service.order.response.OrderBatchResponse;
+import sampl.cafekiosk.spring.api.service.order.response.OrderBatchResultResponse;
+import sampl.cafekiosk.spring.api.service.order.response.OrderResponse;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 주문 요청을 대기열에 모았다가 한 명의 writer 가 묶음 단위로 한 트랜잭션에 커밋한다. (group commit)
+ * 주문마다 트랜잭션을 여닫는 비용을 묶음 안의 주문들이 나눠 낸다.
+ * <p>
+ * 묶음은 max-batch-size 건이 모이거나 첫 주문 이후 max-wait-millis 가 지나면 커밋하고, 주문 등록 시각은 묶음을 커밋한 시각이다.
+ * 묶음 전체가 실패하면(다른 주문이 재고를 먼저 가져간 경우 등) 주문을 하나씩 다시 커밋해 서로 영향을 주지 않게 한다.
+ */
+@Slf4j
+@Component
+public class OrderGroupCommitter {
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final OrderService orderService;
+    private final BlockingQueue<PendingOrder> queue;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final DistributionSummary batchSizeSummary;
+    private final DistributionSummary queueDepthSummary;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-group-committer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean running = true;
+
+    public OrderGroupCommitter(OrderService orderService,
+                               MeterRegistry meterRegistry,
+                               @Value("${cafekiosk.order.group-commit.queue-capacity:10000}") int queueCapacity,
+                               @Value("${cafekiosk.order.group-commit.max-batch-size:64}") int maxBatchSize,
+                               @Value("${cafekiosk.order.group-commit.max-wait-millis:5}") long maxWaitMillis) {
+        this.orderService = orderService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.batchSizeSummary = DistributionSummary.builder("order.group-commit.batch.size")
+                .description("한 트랜잭션에 커밋한 주문 수")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.queueDepthSummary = DistributionSummary.builder("order.group-commit.queue.depth")
+                .description("묶음을 꺼낼 때 대기열에 남아 있던 주문 수")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.execute(this::drainLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 대기열이 가득 차면 바로 실패시켜 요청 스레드가 무한정 쌓이지 않게 한다.
+     */
+    public CompletableFuture<OrderResponse> submit(OrderCreateServiceRequest request) {
+        PendingOrder pendingOrder = new PendingOrder(request);
+        if (!running || !queue.offer(pendingOrder)) {
+            throw new IllegalStateException("주문 대기열이 가득 찼습니다. 잠시 후 다시 시도해 주세요.");
+        }
+        return pendingOrder.result;
+    }
+
+    private void drainLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                List<PendingOrder> batch = nextBatch();
+                if (!batch.isEmpty()) {
+                    commit(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("주문 묶음 커밋 중 예상하지 못한 오류가 발생했습니다.", e);
+            }
+        }
+    }
+
+    private List<PendingOrder> nextBatch() throws InterruptedException {
+        List<PendingOrder> batch = new ArrayList<>(maxBatchSize);
+        PendingOrder first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remainingNanos = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remainingNanos <= 0) {
+                break;
+            }
+
+            PendingOrder next = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+
+        batchSizeSummary.record(batch.size());
+        queueDepthSummary.record(queue.size());
+        return batch;
+    }
+
+    private void commit(List<PendingOrder> batch) {
+        LocalDateTime registeredDateTime = LocalDateTime.now();
+        List<OrderCreateServiceRequest> requests = batch.stream()
+                .map(pendingOrder -> pendingOrder.request)
+                .collect(Collectors.toList());
+
+        OrderBatchResponse batchResponse;
+        try {
+            batchResponse = orderService.createOrders(requests, registeredDateTime);
+        } catch (RuntimeException e) {
+            batch.forEach(pendingOrder -> commitAlone(pendingOrder, registeredDateTime));
+            return;
+        }
+
+        for (OrderBatchResultResponse result : batchResponse.getResults()) {
+            PendingOrder pendingOrder = batch.get(result.getIndex());
+            if (result.isSuccess()) {
+                pendingOrder.result.complete(result.getOrder());
+            } else {
+                pendingOrder.result.completeExceptionally(new IllegalArgumentException(result.getMessage()));
+            }
+        }
+    }
+
+    private void commitAlone(PendingOrder pendingOrder, LocalDateTime registeredDateTime) {
+        try {
+            pendingOrder.result.complete(orderService.createOrder(pendingOrder.request, registeredDateTime));
+        } catch (RuntimeException e) {
+            pendingOrder.result.completeExceptionally(e);
+        }
+    }
+
+    private static class PendingOrder {
+        private final OrderCreateServiceRequest request;
+        private final CompletableFuture<OrderResponse> result = new CompletableFuture<>();
+
+        private PendingOrder(OrderCreateServiceRequest request) {
+            this.request = request;
+        }
+    }
+}
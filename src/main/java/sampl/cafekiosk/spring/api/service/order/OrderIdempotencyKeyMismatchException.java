@@ -0,0 +1,11 @@
+package sampl.cafekiosk.spring.api.service.order;
+
+/**
+ * 이미 쓰인 멱등성 키로 다른 내용의 주문을 요청한 경우. 재시도가 아니므로 처음 주문을 돌려주지 않는다.
+ */
+public class OrderIdempotencyKeyMismatchException extends IllegalArgumentException {
+
+    public OrderIdempotencyKeyMismatchException() {
+        super("이미 다른 주문에 사용된 멱등성 키입니다.");
+    }
+}
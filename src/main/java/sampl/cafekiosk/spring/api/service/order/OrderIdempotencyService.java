@@ -0,0 +1,104 @@
+package sampl.cafekiosk.spring.api.service.order;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import sampl.cafekiosk.spring.api.controller.order.request.OrderCreateServiceRequest;
+import sampl.cafekiosk.spring.api.service.order.response.OrderResponse;
+import sampl.cafekiosk.spring.domain.order.OrderIdempotencyKey;
+import sampl.cafekiosk.spring.domain.order.OrderIdempotencyKeyRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency-Key 헤더로 재시도된 주문 요청에 처음 생성한 주문을 그대로 돌려준다.
+ * 최근 응답은 메모리 캐시에서, 캐시에 없으면 멱등성 키 테이블의 유니크 제약으로 중복을 막는다.
+ * 재시도 요청은 상품/재고를 다시 조회하거나 차감하지 않는다.
+ * 같은 키로 내용이 다른 주문을 보내면 재시도가 아니므로 OrderIdempotencyKeyMismatchException 으로 거절한다.
+ * 멱등성 키는 key-ttl-hours 가 지나면 지운다.
+ * <p>
+ * 주문 생성 트랜잭션이 끝난 뒤에 중복을 판단해야 하므로 이 클래스에는 트랜잭션을 걸지 않는다.
+ */
+@Service
+public class OrderIdempotencyService {
+
+    private final OrderService orderService;
+    private final OrderIdempotencyKeyRepository orderIdempotencyKeyRepository;
+    private final Cache<String, CachedOrderResponse> orderResponseCache;
+    private final Duration keyTtl;
+
+    public OrderIdempotencyService(OrderService orderService,
+                                   OrderIdempotencyKeyRepository orderIdempotencyKeyRepository,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${cafekiosk.order.idempotency.cache-size:10000}") long cacheSize,
+                                   @Value("${cafekiosk.order.idempotency.cache-expire-minutes:30}") long cacheExpireMinutes,
+                                   @Value("${cafekiosk.order.idempotency.key-ttl-hours:24}") long keyTtlHours) {
+        this.orderService = orderService;
+        this.orderIdempotencyKeyRepository = orderIdempotencyKeyRepository;
+        this.keyTtl = Duration.ofHours(keyTtlHours);
+        this.orderResponseCache = CacheBuilder.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofMinutes(cacheExpireMinutes))
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, orderResponseCache, "order.idempotency");
+    }
+
+    public OrderResponse createOrder(String idempotencyKey, OrderCreateServiceRequest request, LocalDateTime registeredDateTime) {
+        if (idempotencyKey == null) {
+            return orderService.createOrder(request, registeredDateTime);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > OrderIdempotencyKey.MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("멱등성 키는 1자 이상 " + OrderIdempotencyKey.MAX_KEY_LENGTH + "자 이하여야 합니다.");
+        }
+
+        String requestHash = request.hashProductQuantities();
+        CachedOrderResponse cachedResponse = orderResponseCache.getIfPresent(idempotencyKey);
+        if (cachedResponse != null) {
+            if (!cachedResponse.requestHash.equals(requestHash)) {
+                throw new OrderIdempotencyKeyMismatchException();
+            }
+            return cachedResponse.orderResponse;
+        }
+
+        OrderResponse orderResponse = createOrFindOrder(idempotencyKey, requestHash, request, registeredDateTime);
+        orderResponseCache.put(idempotencyKey, new CachedOrderResponse(requestHash, orderResponse));
+        return orderResponse;
+    }
+
+    /**
+     * key-ttl-hours 보다 오래된 멱등성 키를 지운다.
+     *
+     * @return 지운 키 수
+     */
+    @Scheduled(fixedDelayString = "${cafekiosk.order.idempotency.cleanup-interval-millis:3600000}")
+    public int deleteExpiredKeys() {
+        return orderIdempotencyKeyRepository.deleteAllCreatedBefore(LocalDateTime.now().minus(keyTtl));
+    }
+
+    private OrderResponse createOrFindOrder(String idempotencyKey, String requestHash, OrderCreateServiceRequest request, LocalDateTime registeredDateTime) {
+        try {
+            return orderService.createOrder(idempotencyKey, request, registeredDateTime);
+        } catch (DataIntegrityViolationException e) {
+            // 같은 키로 먼저 생성된 주문이 있으면 그 주문을 돌려준다.
+            return orderService.findOrderByIdempotencyKey(idempotencyKey, requestHash)
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    private static class CachedOrderResponse {
+        private final String requestHash;
+        private final OrderResponse orderResponse;
+
+        private CachedOrderResponse(String requestHash, OrderResponse orderResponse) {
+            this.requestHash = requestHash;
+            this.orderResponse = orderResponse;
+        }
+    }
+}
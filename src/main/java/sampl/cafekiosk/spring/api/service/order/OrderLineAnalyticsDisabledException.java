@@ -0,0 +1,11 @@
+package sampl.cafekiosk.spring.api.service.order;
+
+/**
+ * cafekiosk.order.columnar.enabled=false 라 주문 분석 기능을 쓸 수 없는 경우. 요청을 고쳐도 되지 않으므로 잘못된 요청으로 보지 않는다.
+ */
+public class OrderLineAnalyticsDisabledException extends IllegalStateException {
+
+    public OrderLineAnalyticsDisabledException() {
+        super("주문 분석 기능이 꺼져 있습니다.");
+    }
+}
@@ -0,0 +1,128 @@
+package sampl.cafekiosk.spring.api.service.order;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sampl.cafekiosk.spring.api.service.order.response.OrderLineAggregateResponse;
+import sampl.cafekiosk.spring.domain.order.Order;
+import sampl.cafekiosk.spring.domain.order.OrderStatus;
+import sampl.cafekiosk.spring.domain.order.OrderStatusChangedEvent;
+import sampl.cafekiosk.spring.domain.orderproduct.OrderProduct;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 주문 상품 전체를 OrderLineColumns 에 올려 두고 DB 를 읽지 않고 상품 x 시간대 x 주문 상태별 매출을 집계한다. (임시 분석용 읽기 모델)
+ * cafekiosk.order.columnar.enabled=true 일 때만 만들어진다.
+ * <p>
+ * 서버가 뜰 때(요청을 받기 전에) orders 와 order_product 를 한 번 읽고, 이후에는 주문이 생성되거나 상태가 바뀔 때 커밋 후에 반영한다.
+ * 집계는 읽기 락, 반영은 쓰기 락을 잡는다.
+ */
+@Component
+@DependsOnDatabaseInitialization
+@ConditionalOnProperty(name = "cafekiosk.order.columnar.enabled", havingValue = "true")
+public class OrderLineColumnStore {
+
+    private static final String SELECT_ORDER_LINES = "select o.id, o.order_status, o.registered_date_time, p.product_number, op.quantity, op.price " +
+            "from orders o " +
+            "join order_product op on op.order_id = o.id " +
+            "join product p on p.id = op.product_id " +
+            "where o.order_status is not null and o.registered_date_time is not null " +
+            "order by o.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private OrderLineColumns columns = new OrderLineColumns();
+
+    public OrderLineColumnStore(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(1000);
+    }
+
+    /**
+     * DB 의 주문 상품을 모두 다시 읽는다. 읽는 동안 반영된 주문은 새로 읽은 내용으로 덮어쓰므로, 서버가 뜰 때만 호출한다.
+     */
+    @PostConstruct
+    public void load() {
+        OrderLineColumns loaded = new OrderLineColumns();
+        jdbcTemplate.query(SELECT_ORDER_LINES, resultSet -> {
+            loaded.append(
+                    resultSet.getLong(1),
+                    OrderStatus.valueOf(resultSet.getString(2)),
+                    resultSet.getObject(3, LocalDateTime.class),
+                    resultSet.getString(4),
+                    resultSet.getInt(5),
+                    resultSet.getInt(6)
+            );
+        });
+        write(current -> columns = loaded);
+    }
+
+    @EventListener
+    public void record(OrderStatusChangedEvent event) {
+        Order order = event.getOrder();
+        long orderId = order.getId();
+        OrderStatus orderStatus = event.getCurrentStatus();
+        Consumer<OrderLineColumns> change;
+        if (event.getPreviousStatus() == null) {
+            // 주문 상품은 트랜잭션 안에서 읽어 둔다.
+            LocalDateTime registeredDateTime = order.getRegisteredDateTime();
+            List<OrderProduct> orderProducts = List.copyOf(order.getOrderProducts());
+            List<String> productNumbers = orderProducts.stream()
+                    .map(orderProduct -> orderProduct.getProduct().getProductNumber())
+                    .collect(Collectors.toList());
+            change = current -> {
+                for (int i = 0; i < orderProducts.size(); i++) {
+                    OrderProduct orderProduct = orderProducts.get(i);
+                    current.append(orderId, orderStatus, registeredDateTime, productNumbers.get(i), orderProduct.getQuantity(), orderProduct.getPrice());
+                }
+            };
+        } else {
+            change = current -> current.changeOrderStatus(orderId, orderStatus);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    write(change);
+                }
+            });
+        } else {
+            write(change);
+        }
+    }
+
+    public List<OrderLineAggregateResponse> aggregate(LocalDateTime startDateTime, LocalDateTime endDateTime,
+                                                      Collection<OrderStatus> orderStatuses, Set<OrderLineDimension> dimensions) {
+        lock.readLock().lock();
+        try {
+            return columns.aggregate(startDateTime, endDateTime, orderStatuses, dimensions);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(Consumer<OrderLineColumns> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(columns);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+}
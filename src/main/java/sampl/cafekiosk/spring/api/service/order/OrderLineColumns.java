@@ -0,0 +1,221 @@
+package sampl.cafekiosk.spring.api.service.order;
+
+import sampl.cafekiosk.spring.api.service.order.response.OrderLineAggregateResponse;
+import sampl.cafekiosk.spring.domain.order.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 주문 상품을 열(column)별 기본형 배열에 담는다. 주문 상품 한 줄에 17 바이트(상품, 수량, 단가, 등록 시각(분), 주문 상태), 주문 하나에 12 바이트(주문 ID, 첫 줄 위치)와 색인 몫을 쓴다.
+ * 상품 번호는 사전(dictionary)의 번호로, 등록 시각은 LocalDateTime 을 그대로 분 단위 정수로 바꿔 저장한다.
+ * <p>
+ * 집계는 배열을 앞에서부터 한 번 훑으면서 조건에 맞는 줄을 그룹별 누적 배열에 더한다.
+ * 같은 주문의 주문 상품은 연속해서 저장하므로 주문 상태가 바뀌면 그 구간만 고친다.
+ * 주문 ID 로 주문의 위치를 찾는 색인은 기본형 배열 두 개로 된 열린 주소(open addressing) 해시 테이블이다. (주문 하나에 24~48 바이트)
+ * 동시에 사용하지 않는다. (OrderLineColumnStore 가 락으로 감싼다)
+ */
+public class OrderLineColumns {
+
+    private static final OrderStatus[] ORDER_STATUSES = OrderStatus.values();
+    private static final int HOURS = 24;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Map<String, Integer> productIndexes = new HashMap<>();
+    private final List<String> productNumbers = new ArrayList<>();
+
+    private long[] orderIds = new long[INITIAL_CAPACITY];
+    private int[] firstLines = new int[INITIAL_CAPACITY];
+    private int orderCount;
+
+    // 주문 ID -> 주문 위치 + 1 (0 은 빈 칸). 크기는 2의 거듭제곱이고 절반이 차면 두 배로 늘린다.
+    private long[] indexKeys = new long[INITIAL_CAPACITY * 2];
+    private int[] indexOrders = new int[INITIAL_CAPACITY * 2];
+
+    private int[] products = new int[INITIAL_CAPACITY];
+    private int[] quantities = new int[INITIAL_CAPACITY];
+    private int[] prices = new int[INITIAL_CAPACITY];
+    private int[] minutes = new int[INITIAL_CAPACITY];
+    private byte[] statuses = new byte[INITIAL_CAPACITY];
+    private int lineCount;
+
+    /**
+     * 주문 상품 한 줄을 추가한다. 바로 앞에 추가한 줄과 주문 ID 가 다르면 새 주문으로 본다.
+     */
+    public void append(long orderId, OrderStatus orderStatus, LocalDateTime registeredDateTime,
+                       String productNumber, int quantity, int price) {
+        if (orderCount == 0 || orderIds[orderCount - 1] != orderId) {
+            if (orderCount == orderIds.length) {
+                orderIds = Arrays.copyOf(orderIds, orderCount * 2);
+                firstLines = Arrays.copyOf(firstLines, orderCount * 2);
+            }
+            orderIds[orderCount] = orderId;
+            firstLines[orderCount] = lineCount;
+            putIndex(orderId, orderCount);
+            orderCount++;
+        }
+
+        if (lineCount == products.length) {
+            int capacity = lineCount * 2;
+            products = Arrays.copyOf(products, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            minutes = Arrays.copyOf(minutes, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+        }
+        products[lineCount] = productIndexes.computeIfAbsent(productNumber, key -> {
+            productNumbers.add(key);
+            return productNumbers.size() - 1;
+        });
+        quantities[lineCount] = quantity;
+        prices[lineCount] = price;
+        minutes[lineCount] = toMinute(registeredDateTime);
+        statuses[lineCount] = (byte) orderStatus.ordinal();
+        lineCount++;
+    }
+
+    /**
+     * 주문의 모든 줄의 상태를 바꾼다.
+     *
+     * @return 주문을 찾았는지 여부
+     */
+    public boolean changeOrderStatus(long orderId, OrderStatus orderStatus) {
+        int order = findOrder(orderId);
+        if (order < 0) {
+            return false;
+        }
+        int end = order + 1 < orderCount ? firstLines[order + 1] : lineCount;
+        Arrays.fill(statuses, firstLines[order], end, (byte) orderStatus.ordinal());
+        return true;
+    }
+
+    /**
+     * [startDateTime, endDateTime) 에 등록된 주문 중 상태가 orderStatuses 인 주문 상품을 dimensions 별로 묶어 수량과 매출을 더한다.
+     * 묶지 않은 기준은 응답에서 null 이다.
+     */
+    public List<OrderLineAggregateResponse> aggregate(LocalDateTime startDateTime, LocalDateTime endDateTime,
+                                                      Collection<OrderStatus> orderStatuses, Set<OrderLineDimension> dimensions) {
+        boolean byProduct = dimensions.contains(OrderLineDimension.PRODUCT);
+        boolean byHour = dimensions.contains(OrderLineDimension.HOUR);
+        boolean byStatus = dimensions.contains(OrderLineDimension.ORDER_STATUS);
+        int statusGroups = byStatus ? ORDER_STATUSES.length : 1;
+        int hourGroups = byHour ? HOURS : 1;
+        int groupCount = (byProduct ? Math.max(productNumbers.size(), 1) : 1) * hourGroups * statusGroups;
+
+        int startMinute = toMinute(startDateTime);
+        int endMinute = toMinute(endDateTime);
+        int statusMask = 0;
+        for (OrderStatus orderStatus : orderStatuses) {
+            statusMask |= 1 << orderStatus.ordinal();
+        }
+
+        long[] groupQuantities = new long[groupCount];
+        long[] groupAmounts = new long[groupCount];
+        long[] groupLines = new long[groupCount];
+        for (int line = 0; line < lineCount; line++) {
+            int minute = minutes[line];
+            int status = statuses[line];
+            if (minute < startMinute || minute >= endMinute || (statusMask & (1 << status)) == 0) {
+                continue;
+            }
+            int group = ((byProduct ? products[line] : 0) * hourGroups
+                    + (byHour ? Math.floorMod(minute / 60, HOURS) : 0)) * statusGroups
+                    + (byStatus ? status : 0);
+            groupQuantities[group] += quantities[line];
+            groupAmounts[group] += (long) quantities[line] * prices[line];
+            groupLines[group]++;
+        }
+
+        List<OrderLineAggregateResponse> aggregates = new ArrayList<>();
+        for (int group = 0; group < groupCount; group++) {
+            if (groupLines[group] == 0) {
+                continue;
+            }
+            int status = group % statusGroups;
+            int hour = group / statusGroups % hourGroups;
+            int product = group / statusGroups / hourGroups;
+            aggregates.add(OrderLineAggregateResponse.builder()
+                    .productNumber(byProduct ? productNumbers.get(product) : null)
+                    .hour(byHour ? hour : null)
+                    .orderStatus(byStatus ? ORDER_STATUSES[status] : null)
+                    .quantity(groupQuantities[group])
+                    .totalAmount(groupAmounts[group])
+                    .lineCount(groupLines[group])
+                    .build());
+        }
+        return aggregates;
+    }
+
+    public int getOrderCount() {
+        return orderCount;
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * 배열이 차지하는 바이트 수 (늘려 둔 여유 공간 포함, 상품 번호 사전 제외)
+     */
+    public long getMemoryBytes() {
+        return (long) orderIds.length * (Long.BYTES + Integer.BYTES)
+                + (long) indexKeys.length * (Long.BYTES + Integer.BYTES)
+                + (long) products.length * (Integer.BYTES * 4 + Byte.BYTES);
+    }
+
+    /**
+     * 같은 주문 ID 가 떨어져서 다시 추가되면 나중 위치로 덮어쓴다.
+     */
+    private void putIndex(long orderId, int order) {
+        if ((orderCount + 1) * 2 > indexKeys.length) {
+            resizeIndex(indexKeys.length * 2);
+        }
+        int slot = findSlot(indexKeys, indexOrders, orderId);
+        indexKeys[slot] = orderId;
+        indexOrders[slot] = order + 1;
+    }
+
+    private int findOrder(long orderId) {
+        return indexOrders[findSlot(indexKeys, indexOrders, orderId)] - 1;
+    }
+
+    private void resizeIndex(int capacity) {
+        long[] keys = new long[capacity];
+        int[] orders = new int[capacity];
+        for (int slot = 0; slot < indexKeys.length; slot++) {
+            if (indexOrders[slot] != 0) {
+                int target = findSlot(keys, orders, indexKeys[slot]);
+                keys[target] = indexKeys[slot];
+                orders[target] = indexOrders[slot];
+            }
+        }
+        indexKeys = keys;
+        indexOrders = orders;
+    }
+
+    /**
+     * orderId 가 있는 칸, 없으면 처음 만나는 빈 칸의 위치
+     */
+    private static int findSlot(long[] keys, int[] orders, long orderId) {
+        int mask = keys.length - 1;
+        // 주문 ID 는 연속된 값이므로 곱한 뒤 위아래 32 비트를 섞어 고르게 흩는다.
+        long hash = orderId * 0x9E3779B97F4A7C15L;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (orders[slot] != 0 && keys[slot] != orderId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int toMinute(LocalDateTime dateTime) {
+        return Math.toIntExact(dateTime.toEpochSecond(ZoneOffset.UTC) / 60);
+    }
+
+}
@@ -0,0 +1,11 @@
+package sampl.cafekiosk.spring.api.service.order;
+
+/**
+ * 주문 상품 집계(GET /api/v1/orders/analytics)의 묶음 기준
+ */
+public enum OrderLineDimension {
+
+    PRODUCT,
+    HOUR,
+    ORDER_STATUS
+}
@@ -1,87 +1,217 @@
 package sampl.cafekiosk.spring.api.service.order;
 
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import sampl.cafekiosk.spring.api.controller.order.request.OrderCreateServiceRequest;
+import sampl.cafekiosk.spring.api.service.order.response.OrderBatchResponse;
+import sampl.cafekiosk.spring.api.service.order.response.OrderBatchResultResponse;
 import sampl.cafekiosk.spring.api.service.order.response.OrderResponse;
+import sampl.cafekiosk.spring.api.service.stock.StockDeductor;
+import sampl.cafekiosk.spring.api.service.stock.StockService;
 import sampl.cafekiosk.spring.domain.order.Order;
+import sampl.cafekiosk.spring.domain.order.OrderIdempotencyKey;
+import sampl.cafekiosk.spring.domain.order.OrderIdempotencyKeyRepository;
 import sampl.cafekiosk.spring.domain.order.OrderRepository;
 import sampl.cafekiosk.spring.domain.product.Product;
-import sampl.cafekiosk.spring.domain.product.ProductRepository;
+import sampl.cafekiosk.spring.domain.product.ProductCatalogCache;
 import sampl.cafekiosk.spring.domain.product.ProductType;
-import sampl.cafekiosk.spring.domain.stock.Stock;
-import sampl.cafekiosk.spring.domain.stock.StockRepository;
 
 import java.time.LocalDateTime;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
+/**
+ * 상품(ProductCatalogCache)과 재고 합계(StockService)는 주문 트랜잭션을 열기 전에 읽는다.
+ * 두 조회는 동시에 들어온 요청을 모아 자신의 트랜잭션에서 읽으므로, 주문 트랜잭션 안에서 부르면 요청마다 커넥션을 하나 쥔 채
+ * 두 번째 커넥션을 기다리게 되고, 커넥션 풀 크기만큼 주문이 몰리면 모두 멈춘다.
+ * 그래서 주문을 만드는 메서드에는 트랜잭션을 걸지 않고, 재고 차감과 주문 저장만 transactionTemplate 으로 한 트랜잭션에서 한다.
+ */
 @Service
-@Transactional
-@RequiredArgsConstructor
 public class OrderService {
 
-    private final ProductRepository productRepository;
+    private final ProductCatalogCache productCatalogCache;
     private final OrderRepository orderRepository;
-    private final StockRepository stockRepository;
+    private final OrderIdempotencyKeyRepository orderIdempotencyKeyRepository;
+    private final StockService stockService;
+    private final StockDeductor stockDeductor;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderService(ProductCatalogCache productCatalogCache,
+                        OrderRepository orderRepository,
+                        OrderIdempotencyKeyRepository orderIdempotencyKeyRepository,
+                        StockService stockService,
+                        StockDeductor stockDeductor,
+                        PlatformTransactionManager transactionManager) {
+        this.productCatalogCache = productCatalogCache;
+        this.orderRepository = orderRepository;
+        this.orderIdempotencyKeyRepository = orderIdempotencyKeyRepository;
+        this.stockService = stockService;
+        this.stockDeductor = stockDeductor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     public OrderResponse createOrder(OrderCreateServiceRequest request, LocalDateTime registeredDateTime) {
-        List<String> productNumbers = request.getProductNumbers();
-        List<Product> products = findProductsBy(productNumbers);
+        Map<Product, Integer> productQuantities = findProductQuantities(request);
 
-        deductStockQuantities(products);
+        return transactionTemplate.execute(status -> saveOrder(productQuantities, registeredDateTime));
+    }
 
-        Order order = Order.create(products, registeredDateTime);
-        Order savedOrder = orderRepository.save(order);
-        return OrderResponse.of(savedOrder);
+    /**
+     * 멱등성 키를 먼저 저장해 같은 키로 동시에 들어온 요청은 재고를 차감하기 전에 유니크 제약 위반으로 실패하게 한다.
+     */
+    public OrderResponse createOrder(String idempotencyKey, OrderCreateServiceRequest request, LocalDateTime registeredDateTime) {
+        Map<Product, Integer> productQuantities = findProductQuantities(request);
+
+        return transactionTemplate.execute(status -> {
+            OrderIdempotencyKey orderIdempotencyKey = orderIdempotencyKeyRepository.saveAndFlush(
+                    OrderIdempotencyKey.create(idempotencyKey, request.hashProductQuantities())
+            );
+
+            OrderResponse orderResponse = saveOrder(productQuantities, registeredDateTime);
+            orderIdempotencyKey.recordOrder(orderResponse.getId());
+            return orderResponse;
+        });
     }
 
-    private void deductStockQuantities(List<Product> products) {
-        List<String> stockProductNumbers = extractStockProductNumbers(products);
+    /**
+     * 같은 키로 다른 내용의 주문을 요청했다면 OrderIdempotencyKeyMismatchException 이 발생한다.
+     */
+    @Transactional(readOnly = true)
+    public Optional<OrderResponse> findOrderByIdempotencyKey(String idempotencyKey, String requestHash) {
+        return orderIdempotencyKeyRepository.findByIdempotencyKey(idempotencyKey)
+                .map(orderIdempotencyKey -> {
+                    if (!orderIdempotencyKey.isSameRequest(requestHash)) {
+                        throw new OrderIdempotencyKeyMismatchException();
+                    }
+                    return orderIdempotencyKey;
+                })
+                .flatMap(orderIdempotencyKey -> orderRepository.findWithOrderProductsById(orderIdempotencyKey.getOrderId()))
+                .map(OrderResponse::of);
+    }
+
+    @Transactional(readOnly = true)
+    public OrderResponse getOrder(Long orderId) {
+        return orderRepository.findWithOrderProductsById(orderId)
+                .map(OrderResponse::of)
+                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 주문입니다."));
+    }
 
-        Map<String, Stock> stockMap = createStockMapBy(stockProductNumbers);
-        Map<String, Long> productCountingMap = createCountingMapBy(stockProductNumbers);
+    /**
+     * 여러 주문을 한 트랜잭션으로 등록한다.
+     * 상품과 재고는 트랜잭션을 열기 전에 배치 전체에 대해 한 번씩만 조회하고, 주문별 성공/실패는 각각 응답한다.
+     * 실패한 주문은 재고를 예약하지 않으므로 같은 배치의 다른 주문에 영향을 주지 않는다.
+     */
+    public OrderBatchResponse createOrders(List<OrderCreateServiceRequest> requests, LocalDateTime registeredDateTime) {
+        Map<String, Product> productMap = createProductMapBy(collectProductNumbers(requests));
+        Map<String, Integer> remainingQuantityMap = stockService.getQuantities(extractStockProductNumbers(productMap.values()));
+        Map<String, Integer> deductionMap = new HashMap<>();
+
+        OrderBatchResultResponse[] results = new OrderBatchResultResponse[requests.size()];
+        List<Integer> orderIndexes = new ArrayList<>();
+        List<Order> orders = new ArrayList<>();
+
+        for (int index = 0; index < requests.size(); index++) {
+            try {
+                Map<Product, Integer> productQuantities = mapProducts(requests.get(index).getProductQuantities(), productMap);
+                Map<String, Integer> stockQuantities = extractStockQuantities(productQuantities);
+                reserveStockQuantities(stockQuantities, remainingQuantityMap);
+                stockQuantities.forEach((stockProductNumber, quantity) ->
+                        deductionMap.merge(stockProductNumber, quantity, Integer::sum)
+                );
+
+                orders.add(Order.create(productQuantities, registeredDateTime));
+                orderIndexes.add(index);
+            } catch (IllegalArgumentException e) {
+                results[index] = OrderBatchResultResponse.failure(index, e.getMessage());
+            }
+        }
 
-        for (String stockProductNumber : new HashSet<>(stockProductNumbers)) {
-            Stock stock = stockMap.get(stockProductNumber);
-            int quantity = productCountingMap.get(stockProductNumber).intValue();
+        return transactionTemplate.execute(status -> {
+            // 조회 이후 다른 주문이 재고를 먼저 가져갔다면 배치 전체를 롤백한다.
+            stockDeductor.deduct(deductionMap);
 
-            if (stock.isQuantityLessThan(quantity)) {
-                throw new IllegalArgumentException("재고가 부족한 상품이 있습니다.");
+            List<Order> savedOrders = orderRepository.saveAll(orders);
+            for (int i = 0; i < savedOrders.size(); i++) {
+                int index = orderIndexes.get(i);
+                results[index] = OrderBatchResultResponse.success(index, OrderResponse.of(savedOrders.get(i)));
             }
-            stock.deductQuantity(quantity);
+
+            return OrderBatchResponse.of(Arrays.asList(results));
+        });
+    }
+
+    private Map<Product, Integer> findProductQuantities(OrderCreateServiceRequest request) {
+        Map<String, Integer> quantitiesByProductNumber = request.getProductQuantities();
+        return mapProducts(
+                quantitiesByProductNumber,
+                createProductMapBy(new ArrayList<>(quantitiesByProductNumber.keySet()))
+        );
+    }
+
+    private OrderResponse saveOrder(Map<Product, Integer> productQuantities, LocalDateTime registeredDateTime) {
+        stockDeductor.deduct(extractStockQuantities(productQuantities));
+
+        Order order = Order.create(productQuantities, registeredDateTime);
+        Order savedOrder = orderRepository.save(order);
+        return OrderResponse.of(savedOrder);
+    }
+
+    private static void reserveStockQuantities(Map<String, Integer> stockQuantities, Map<String, Integer> remainingQuantityMap) {
+        // 모든 상품의 재고를 먼저 확인한 뒤 예약해야 실패한 주문이 남은 재고를 건드리지 않는다.
+        boolean hasShortage = stockQuantities.entrySet().stream()
+                .anyMatch(entry -> remainingQuantityMap.getOrDefault(entry.getKey(), 0) < entry.getValue());
+        if (hasShortage) {
+            throw new IllegalArgumentException("재고가 부족한 상품이 있습니다.");
         }
+
+        stockQuantities.forEach((stockProductNumber, quantity) ->
+                remainingQuantityMap.merge(stockProductNumber, -quantity, Integer::sum)
+        );
     }
 
-    private List<Product> findProductsBy(List<String> productNumbers) {
-        List<Product> products = productRepository.findAllByProductNumberIn(productNumbers);
-        Map<String, Product> productMap = products.stream()
-                .collect(Collectors.toMap(Product::getProductNumber, p -> p));
+    private Map<String, Product> createProductMapBy(List<String> productNumbers) {
+        return productCatalogCache.getProducts(productNumbers);
+    }
 
-        return productNumbers.stream()
-                .map(productMap::get)
+    private static Map<Product, Integer> mapProducts(Map<String, Integer> quantitiesByProductNumber, Map<String, Product> productMap) {
+        if (!productMap.keySet().containsAll(quantitiesByProductNumber.keySet())) {
+            throw new IllegalArgumentException("존재하지 않는 상품이 포함되어 있습니다.");
+        }
+
+        Map<Product, Integer> productQuantities = new LinkedHashMap<>();
+        quantitiesByProductNumber.forEach((productNumber, quantity) ->
+                productQuantities.put(productMap.get(productNumber), quantity)
+        );
+        return productQuantities;
+    }
+
+    private static List<String> collectProductNumbers(List<OrderCreateServiceRequest> requests) {
+        return requests.stream()
+                .flatMap(request -> request.getProductQuantities().keySet().stream())
+                .distinct()
                 .collect(Collectors.toList());
     }
 
-    private static List<String> extractStockProductNumbers(List<Product> products) {
+    private static List<String> extractStockProductNumbers(Collection<Product> products) {
         return products.stream()
                 .filter(product -> ProductType.containsStockType(product.getType()))
                 .map(Product::getProductNumber)
                 .collect(Collectors.toList());
     }
 
-    private Map<String, Stock> createStockMapBy(List<String> stockProductNumbers) {
-        List<Stock> stocks = stockRepository.findAllByProductNumberIn(stockProductNumbers);
-        return stocks.stream()
-                .collect(Collectors.toMap(Stock::getProductNumber, s -> s));
-    }
-
-    private static Map<String, Long> createCountingMapBy(List<String> stockProductNumbers) {
-        return stockProductNumbers.stream()
-                .collect(Collectors.groupingBy(p -> p, Collectors.counting()));
+    private static Map<String, Integer> extractStockQuantities(Map<Product, Integer> productQuantities) {
+        return productQuantities.entrySet().stream()
+                .filter(entry -> ProductType.containsStockType(entry.getKey().getType()))
+                .collect(Collectors.toMap(entry -> entry.getKey().getProductNumber(), Map.Entry::getValue));
     }
 
-}
\ No newline at end of file
+}
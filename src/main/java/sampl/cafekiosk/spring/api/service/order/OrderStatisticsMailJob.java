@@ -0,0 +1,129 @@
+package sampl.cafekiosk.spring.api.service.order;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sampl.cafekiosk.spring.domain.job.JobLease;
+import sampl.cafekiosk.spring.domain.job.JobLeaseRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 전날 매출 통계를 한 번만 읽어 받는 사람 목록에 나눠 보낸다.
+ * 메일은 outbox 에 쌓기만 하고 실제 전송은 MailOutboxDispatcher 가 나눠 하므로, 받는 사람이 많아도 작업은 금방 끝난다.
+ * <p>
+ * 서버가 여러 대여도 job_lease 의 임대를 얻은 한 곳에서만 실행한다. 임대는 lease-minutes 가 지나면 만료되므로 실행 중에 서버가 죽어도 다른 서버가 이어받는다.
+ * 임대 시각은 DB 시각으로 정하고, 날짜 하나를 마칠 때마다 임대를 다시 lease-minutes 만큼 늘린다.
+ * 날짜마다 메일을 쌓는 것과 last_completed_date 를 남기는 것을 한 트랜잭션으로 하고, 실행할 때마다 그 다음 날짜부터 어제까지 보내므로
+ * 서버가 내려가 있어 놓친 날짜는 다음 실행에서 보낸다. (최대 max-catch-up-days 일)
+ * 메일을 쌓지 못한 날짜는 롤백하고 그 날짜에서 멈추므로 완료로 기록되지 않고 다음 실행에서 다시 보낸다.
+ */
+@Slf4j
+@Component
+public class OrderStatisticsMailJob {
+
+    public static final String JOB_NAME = "order-statistics-mail";
+
+    private final OrderStatisticsService orderStatisticsService;
+    private final JobLeaseRepository jobLeaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final List<String> recipients;
+    private final long leaseMillis;
+    private final int maxCatchUpDays;
+    private final Timer jobTimer;
+    private final String owner = UUID.randomUUID().toString();
+
+    public OrderStatisticsMailJob(OrderStatisticsService orderStatisticsService,
+                                  JobLeaseRepository jobLeaseRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${cafekiosk.order.statistics-mail.recipients:}") List<String> recipients,
+                                  @Value("${cafekiosk.order.statistics-mail.lease-minutes:10}") long leaseMinutes,
+                                  @Value("${cafekiosk.order.statistics-mail.max-catch-up-days:7}") int maxCatchUpDays) {
+        this.orderStatisticsService = orderStatisticsService;
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.recipients = List.copyOf(recipients);
+        this.leaseMillis = TimeUnit.MINUTES.toMillis(leaseMinutes);
+        this.maxCatchUpDays = maxCatchUpDays;
+        this.jobTimer = Timer.builder("order.statistics.mail.job")
+                .description("임대를 얻은 뒤 밀린 날짜의 매출 통계 메일을 모두 쌓기까지 걸린 시간")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${cafekiosk.order.statistics-mail.check-interval-millis:600000}")
+    public void run() {
+        run(LocalDate.now());
+    }
+
+    /**
+     * today 전날까지 아직 보내지 않은 날짜의 매출 통계 메일을 보낸다.
+     *
+     * @return 보내기를 마친 날짜 수 (임대를 얻지 못하면 0)
+     */
+    public int run(LocalDate today) {
+        if (recipients.isEmpty()) {
+            return 0;
+        }
+        if (jobLeaseRepository.acquire(JOB_NAME, owner, leaseMillis) == 0) {
+            return 0;
+        }
+
+        Timer.Sample sample = Timer.start();
+        try {
+            return sendPendingDays(today.minusDays(1));
+        } finally {
+            sample.stop(jobTimer);
+            jobLeaseRepository.release(JOB_NAME, owner);
+        }
+    }
+
+    private int sendPendingDays(LocalDate lastDate) {
+        JobLease lease = jobLeaseRepository.findById(JOB_NAME).orElseThrow();
+        // 처음 실행하면 어제 것만 보낸다.
+        LocalDate firstDate = lease.getLastCompletedDate() == null ? lastDate : lease.getLastCompletedDate().plusDays(1);
+        LocalDate oldestDate = lastDate.minusDays(maxCatchUpDays - 1);
+        if (firstDate.isBefore(oldestDate)) {
+            firstDate = oldestDate;
+        }
+
+        int completedDays = 0;
+        for (LocalDate date = firstDate; !date.isAfter(lastDate); date = date.plusDays(1)) {
+            try {
+                if (!sendToRecipients(date)) {
+                    log.warn("작업 임대가 만료되어 {} 매출 통계 메일을 보내지 않았습니다.", date);
+                    break;
+                }
+            } catch (RuntimeException e) {
+                log.error("{} 매출 통계 메일을 쌓지 못했습니다. 다음 실행에서 다시 보냅니다.", date, e);
+                break;
+            }
+            completedDays++;
+        }
+        return completedDays;
+    }
+
+    /**
+     * 임대를 잃었으면 쌓은 메일을 롤백한다. 메일을 쌓다 예외가 나도 롤백되어 완료로 남지 않는다.
+     */
+    private boolean sendToRecipients(LocalDate orderDate) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            long totalAmount = orderStatisticsService.getDailyTotalAmount(orderDate);
+            recipients.forEach(email -> orderStatisticsService.sendOrderStatisticsMail(orderDate, totalAmount, email));
+            if (jobLeaseRepository.complete(JOB_NAME, owner, orderDate, leaseMillis) == 0) {
+                status.setRollbackOnly();
+                return false;
+            }
+            return true;
+        }));
+    }
+
+}
@@ -1,48 +1,149 @@
 package sampl.cafekiosk.spring.api.service.order;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import sampl.cafekiosk.spring.api.service.mail.MailService;
-import sampl.cafekiosk.spring.domain.order.Order;
-import sampl.cafekiosk.spring.domain.order.OrderRepository;
+import sampl.cafekiosk.spring.api.service.order.response.BestSellerResponse;
+import sampl.cafekiosk.spring.api.service.order.response.OrderLineAggregateResponse;
+import sampl.cafekiosk.spring.api.service.order.response.RealtimeSalesWindowResponse;
+import sampl.cafekiosk.spring.api.service.order.response.SalesStatisticsResponse;
 import sampl.cafekiosk.spring.domain.order.OrderStatus;
+import sampl.cafekiosk.spring.domain.sales.DailySales;
+import sampl.cafekiosk.spring.domain.sales.DailySalesId;
+import sampl.cafekiosk.spring.domain.sales.DailySalesRepository;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 @RequiredArgsConstructor
 @Service
 public class OrderStatisticsService {
 
-    private final OrderRepository orderRepository;
+    private final DailySalesRepository dailySalesRepository;
+    private final SalesStatisticsCalculator salesStatisticsCalculator;
+    private final OrderStreamReader orderStreamReader;
+    private final RealtimeSalesCounter realtimeSalesCounter;
+    private final BestSellerTracker bestSellerTracker;
+    private final ObjectProvider<OrderLineColumnStore> orderLineColumnStore;
     private final MailService mailService;
 
     public Boolean sendOrderStatisticsMail(LocalDate orderDate, String email) {
-        // 해당 일자에 결제완료된 주문들을 가져와서
-        List<Order> orders = orderRepository.findOrdersBy(
-                orderDate.atStartOfDay(),
-                orderDate.plusDays(1).atStartOfDay(),
-                OrderStatus.PAYMENT_COMPLETED
-        );
+        // 해당 일자에 결제완료된 주문들의 매출 합계를 집계 테이블에서 읽고
+        long totalAmount = getDailyTotalAmount(orderDate);
+
+        // 메일 전송 (outbox 에 쌓고 바로 돌아온다)
+        sendOrderStatisticsMail(orderDate, totalAmount, email);
 
-        // 총 매출 하계를 계산하고
-        int totalAmount = orders.stream()
-                .mapToInt(Order::getTotalPrice)
-                .sum();
+        return true;
+    }
 
-        // 메일 전송
-        boolean result = mailService.sendMail(
+    /**
+     * 해당 일자에 결제완료된 주문들의 매출 합계. 여러 명에게 보낼 때는 한 번만 읽고 sendOrderStatisticsMail(orderDate, totalAmount, email) 로 보낸다.
+     */
+    public long getDailyTotalAmount(LocalDate orderDate) {
+        return dailySalesRepository.findById(DailySalesId.of(orderDate, DailySales.ALL_PRODUCT_TYPES))
+                .map(DailySales::getTotalAmount)
+                .orElse(0L);
+    }
+
+    public void sendOrderStatisticsMail(LocalDate orderDate, long totalAmount, String email) {
+        mailService.sendMail(
                 "no-reply@catekiosk.com",
                 email,
                 String.format("[매출통계] %s", orderDate),
                 String.format("총 매출 합계는 %s 원 입니다.", totalAmount)
         );
-        if (!result) {
-            throw new IllegalArgumentException("매출 통계 메일 전송에 실패했습니다.");
+    }
+
+    /**
+     * 기간(종료일 포함) 안의 주문을 시간대별, 상품 타입별, 상품별로 DB 에서 묶어 집계한다.
+     * 주문 엔티티를 읽지 않고 집계 결과만 받아 오므로, 응답 크기는 주문 수가 아니라 시간대와 상품 수에 비례한다.
+     * 날짜별 집계는 SalesStatisticsCalculator 가 각자의 트랜잭션에서 병렬로 실행하므로 이 메서드는 트랜잭션을 열지 않는다.
+     */
+    public SalesStatisticsResponse getSalesStatistics(LocalDate startDate, LocalDate endDate, List<OrderStatus> orderStatuses) {
+        validatePeriod(startDate, endDate, orderStatuses);
+
+        return salesStatisticsCalculator.calculate(startDate, endDate, orderStatuses);
+    }
+
+    /**
+     * 최근 몇 분 동안의 주문 수와 매출을 메모리의 카운터에서 읽는다. DB 는 조회하지 않는다.
+     */
+    public List<RealtimeSalesWindowResponse> getRealtimeSales() {
+        return realtimeSalesCounter.getWindows();
+    }
+
+    /**
+     * 최근 days 일 동안 많이 팔린 상품 순위. 스케치로 근사하므로 수량은 추정치다.
+     */
+    public List<BestSellerResponse> getBestSellers(int days, int limit) {
+        return bestSellerTracker.getBestSellers(days, limit);
+    }
+
+    /**
+     * [startDateTime, endDateTime) 에 등록된 주문 상품을 groupBy 기준(상품, 시간대, 주문 상태)으로 묶어 메모리의 열 저장소에서 집계한다.
+     * cafekiosk.order.columnar.enabled=true 일 때만 쓸 수 있고, 꺼져 있으면 OrderLineAnalyticsDisabledException 이 발생한다.
+     */
+    public List<OrderLineAggregateResponse> getOrderLineAnalytics(LocalDateTime startDateTime, LocalDateTime endDateTime,
+                                                                  List<OrderStatus> orderStatuses, Set<OrderLineDimension> groupBy) {
+        OrderLineColumnStore store = orderLineColumnStore.getIfAvailable();
+        if (store == null) {
+            throw new OrderLineAnalyticsDisabledException();
+        }
+        if (!startDateTime.isBefore(endDateTime)) {
+            throw new IllegalArgumentException("조회 시작 시각은 종료 시각보다 앞서야 합니다.");
+        }
+        if (orderStatuses.isEmpty()) {
+            throw new IllegalArgumentException("주문 상태는 1개 이상이어야 합니다.");
         }
 
-        return true;
+        return store.aggregate(startDateTime, endDateTime, orderStatuses, groupBy);
+    }
+
+    /**
+     * 주문을 내려받을 기간과 주문 상태를 확인한다. 응답을 쓰기 시작하면 상태 코드를 바꿀 수 없으므로 exportOrders 보다 먼저 호출한다.
+     */
+    public void validateExport(LocalDate startDate, LocalDate endDate, List<OrderStatus> orderStatuses) {
+        validatePeriod(startDate, endDate, orderStatuses);
+    }
+
+    /**
+     * 기간(종료일 포함) 안의 주문을 CSV 로 쓴다. 주문을 스트림으로 읽으므로 기간이 길어도 메모리 사용량은 일정하다.
+     *
+     * @return 쓴 주문 수
+     */
+    public long exportOrders(LocalDate startDate, LocalDate endDate, List<OrderStatus> orderStatuses, Writer writer) {
+        validatePeriod(startDate, endDate, orderStatuses);
+
+        try {
+            writer.write("id,registeredDateTime,orderStatus,totalPrice\n");
+            long count = orderStreamReader.forEachOrder(startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay(), orderStatuses, order -> {
+                try {
+                    writer.write(order.getId() + "," + order.getRegisteredDateTime() + "," + order.getOrderStatus() + "," + order.getTotalPrice() + "\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void validatePeriod(LocalDate startDate, LocalDate endDate, List<OrderStatus> orderStatuses) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("조회 시작일은 종료일보다 늦을 수 없습니다.");
+        }
+        if (orderStatuses.isEmpty()) {
+            throw new IllegalArgumentException("주문 상태는 1개 이상이어야 합니다.");
+        }
     }
 
 }
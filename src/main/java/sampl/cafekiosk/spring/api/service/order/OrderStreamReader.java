@@ -0,0 +1,56 @@
+package sampl.cafekiosk.spring.api.service.order;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import sampl.cafekiosk.spring.domain.order.Order;
+import sampl.cafekiosk.spring.domain.order.OrderRepository;
+import sampl.cafekiosk.spring.domain.order.OrderStatus;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 기간 안의 주문을 스트림으로 읽어 하나씩 넘겨 주고, clear-interval 건마다 영속성 컨텍스트를 비운다.
+ * 범위에 주문이 몇 건이든 메모리에는 fetch size 와 clear-interval 만큼의 주문만 남는다.
+ * <p>
+ * 넘겨받은 주문은 다음 주문을 받은 뒤에는 준영속 상태일 수 있으므로, 필요한 값만 꺼내 쓰고 참조를 들고 있지 않는다.
+ */
+@Component
+public class OrderStreamReader {
+
+    private final OrderRepository orderRepository;
+    private final EntityManager entityManager;
+    private final int clearInterval;
+
+    public OrderStreamReader(OrderRepository orderRepository,
+                             EntityManager entityManager,
+                             @Value("${cafekiosk.order.streaming.clear-interval:1000}") int clearInterval) {
+        this.orderRepository = orderRepository;
+        this.entityManager = entityManager;
+        this.clearInterval = clearInterval;
+    }
+
+    /**
+     * @return 넘겨준 주문 수
+     */
+    @Transactional(readOnly = true)
+    public long forEachOrder(LocalDateTime startDateTime, LocalDateTime endDateTime, Collection<OrderStatus> orderStatuses,
+                             Consumer<Order> consumer) {
+        long count = 0;
+        try (Stream<Order> orders = orderRepository.streamOrdersBy(startDateTime, endDateTime, orderStatuses)) {
+            Iterator<Order> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                if (++count % clearInterval == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+}
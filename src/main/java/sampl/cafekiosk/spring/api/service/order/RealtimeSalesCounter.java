@@ -0,0 +1,170 @@
+package sampl.cafekiosk.spring.api.service.order;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sampl.cafekiosk.spring.api.service.order.response.RealtimeSalesItemResponse;
+import sampl.cafekiosk.spring.api.service.order.response.RealtimeSalesWindowResponse;
+import sampl.cafekiosk.spring.domain.order.Order;
+import sampl.cafekiosk.spring.domain.order.OrderStatus;
+import sampl.cafekiosk.spring.domain.order.OrderStatusChangedEvent;
+import sampl.cafekiosk.spring.domain.orderproduct.OrderProduct;
+import sampl.cafekiosk.spring.support.SlidingWindowCounter;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 최근 window-minutes 분 동안의 주문 수와 매출을 전체, 상품 타입별, 상품별로 메모리에 센다. (실시간 대시보드용)
+ * 조회는 DB 를 읽지 않고 bucket 들을 합치기만 한다.
+ * <p>
+ * 주문이 생성되면 더하고, 취소/결제실패로 바뀌면 뺀다. 값은 주문 등록 시각의 bucket 에 반영하므로, 취소된 주문은 그 주문이 더해진 window 에서 빠진다.
+ * 주문 트랜잭션이 커밋된 뒤에 반영하므로 롤백된 주문은 세지 않는다.
+ * 서버별로 따로 세고 재시작하면 0 부터 다시 센다.
+ */
+@Component
+public class RealtimeSalesCounter {
+
+    private final Duration bucketSize;
+    private final int bucketCount;
+    private final List<Integer> windowMinutes;
+
+    private volatile SlidingWindowCounter totalCounter;
+    private final Map<String, SlidingWindowCounter> productTypeCounters = new ConcurrentHashMap<>();
+    private final Map<String, SlidingWindowCounter> productCounters = new ConcurrentHashMap<>();
+
+    public RealtimeSalesCounter(@Value("${cafekiosk.order.realtime-sales.bucket-seconds:10}") long bucketSeconds,
+                                @Value("${cafekiosk.order.realtime-sales.window-minutes:5,15,60}") List<Integer> windowMinutes) {
+        this.bucketSize = Duration.ofSeconds(bucketSeconds);
+        this.windowMinutes = windowMinutes.stream().sorted().collect(Collectors.toList());
+        long maxWindowSeconds = Duration.ofMinutes(Collections.max(windowMinutes)).getSeconds();
+        this.bucketCount = (int) ((maxWindowSeconds + bucketSeconds - 1) / bucketSeconds);
+        this.totalCounter = newCounter();
+    }
+
+    @EventListener
+    public void record(OrderStatusChangedEvent event) {
+        int sign = countedSign(event.getCurrentStatus()) - countedSign(event.getPreviousStatus());
+        if (sign == 0) {
+            return;
+        }
+
+        // 주문 상품은 트랜잭션 안에서 읽어 두고, 커밋된 뒤에 카운터에 더한다.
+        SalesDelta delta = SalesDelta.of(event.getOrder(), sign);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(delta);
+                }
+            });
+        } else {
+            apply(delta);
+        }
+    }
+
+    public List<RealtimeSalesWindowResponse> getWindows() {
+        return windowMinutes.stream()
+                .map(this::getWindow)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 테스트에서 주문을 벌크 삭제한 뒤 모든 카운터를 비운다.
+     */
+    @VisibleForTesting
+    public void reset() {
+        totalCounter = newCounter();
+        productTypeCounters.clear();
+        productCounters.clear();
+    }
+
+    private RealtimeSalesWindowResponse getWindow(int minutes) {
+        Duration window = Duration.ofMinutes(minutes);
+        SlidingWindowCounter.Totals total = totalCounter.sum(window);
+        return RealtimeSalesWindowResponse.builder()
+                .windowMinutes(minutes)
+                .orderCount(total.getCount())
+                .totalAmount(total.getAmount())
+                .productTypeSales(sum(productTypeCounters, window))
+                .productSales(sum(productCounters, window))
+                .build();
+    }
+
+    private static List<RealtimeSalesItemResponse> sum(Map<String, SlidingWindowCounter> counters, Duration window) {
+        Map<String, SlidingWindowCounter.Totals> totals = new TreeMap<>();
+        counters.forEach((key, counter) -> totals.put(key, counter.sum(window)));
+        return totals.entrySet().stream()
+                .filter(entry -> entry.getValue().getCount() != 0 || entry.getValue().getAmount() != 0)
+                .map(entry -> RealtimeSalesItemResponse.builder()
+                        .key(entry.getKey())
+                        .orderCount(entry.getValue().getCount())
+                        .totalAmount(entry.getValue().getAmount())
+                        .build())
+                .sorted(Comparator.comparingLong(RealtimeSalesItemResponse::getTotalAmount).reversed())
+                .collect(Collectors.toList());
+    }
+
+    private void apply(SalesDelta delta) {
+        totalCounter.add(delta.timeMillis, delta.sign, (long) delta.sign * delta.totalAmount);
+        delta.amountsByProductType.forEach((productType, amount) ->
+                counterOf(productTypeCounters, productType).add(delta.timeMillis, delta.sign, delta.sign * amount)
+        );
+        delta.amountsByProductNumber.forEach((productNumber, amount) ->
+                counterOf(productCounters, productNumber).add(delta.timeMillis, delta.sign, delta.sign * amount)
+        );
+    }
+
+    private SlidingWindowCounter counterOf(Map<String, SlidingWindowCounter> counters, String key) {
+        return counters.computeIfAbsent(key, ignored -> newCounter());
+    }
+
+    private SlidingWindowCounter newCounter() {
+        return new SlidingWindowCounter(bucketSize, bucketCount, System::currentTimeMillis);
+    }
+
+    private static int countedSign(OrderStatus orderStatus) {
+        return orderStatus == null || orderStatus == OrderStatus.CANCELED || orderStatus == OrderStatus.PAYMENT_FAILED ? 0 : 1;
+    }
+
+    private static class SalesDelta {
+        private final long timeMillis;
+        private final int sign;
+        private final long totalAmount;
+        private final Map<String, Long> amountsByProductType;
+        private final Map<String, Long> amountsByProductNumber;
+
+        private SalesDelta(long timeMillis, int sign, long totalAmount,
+                           Map<String, Long> amountsByProductType, Map<String, Long> amountsByProductNumber) {
+            this.timeMillis = timeMillis;
+            this.sign = sign;
+            this.totalAmount = totalAmount;
+            this.amountsByProductType = amountsByProductType;
+            this.amountsByProductNumber = amountsByProductNumber;
+        }
+
+        private static SalesDelta of(Order order, int sign) {
+            Map<String, Long> amountsByProductType = new HashMap<>();
+            Map<String, Long> amountsByProductNumber = new HashMap<>();
+            for (OrderProduct orderProduct : order.getOrderProducts()) {
+                amountsByProductType.merge(orderProduct.getProduct().getType().name(), orderProduct.getTotalPrice(), Long::sum);
+                amountsByProductNumber.merge(orderProduct.getProduct().getProductNumber(), orderProduct.getTotalPrice(), Long::sum);
+            }
+
+            long timeMillis = order.getRegisteredDateTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            return new SalesDelta(timeMillis, sign, order.getTotalPrice(), amountsByProductType, amountsByProductNumber);
+        }
+    }
+
+}
@@ -0,0 +1,261 @@
+package sampl.cafekiosk.spring.api.service.order;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import sampl.cafekiosk.spring.api.service.order.response.HourlySalesResponse;
+import sampl.cafekiosk.spring.api.service.order.response.ProductSalesResponse;
+import sampl.cafekiosk.spring.api.service.order.response.ProductTypeSalesResponse;
+import sampl.cafekiosk.spring.api.service.order.response.SalesStatisticsResponse;
+import sampl.cafekiosk.spring.domain.order.OrderRepository;
+import sampl.cafekiosk.spring.domain.order.OrderStatus;
+import sampl.cafekiosk.spring.domain.order.OrderStatusChangedEvent;
+import sampl.cafekiosk.spring.domain.orderproduct.OrderProductRepository;
+import sampl.cafekiosk.spring.domain.product.ProductType;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 기간을 하루 단위로 나눠 병렬로 집계한 뒤 합친다. 기간이 길어도 하루치 집계 여러 개를 동시에 실행하므로 응답 시간은 날짜 수에 비례해 늘지 않는다.
+ * <p>
+ * 하루치 집계는 각자 읽기 전용 트랜잭션(커넥션)에서 실행하고, 동시에 실행되는 집계는 모든 요청을 합쳐 parallelism 개로 제한한다.
+ * 요청 스레드는 커넥션을 쥐지 않고 기다리므로, parallelism 은 커넥션 풀 크기보다 작아야 다른 요청이 커넥션을 얻을 수 있다.
+ * <p>
+ * 한 번에 조회할 수 있는 기간은 max-days 일까지다.
+ * <p>
+ * settle-days 일이 지나 주문이 거의 바뀌지 않는 날짜만 집계 결과를 보관해 다시 조회하지 않는다. (그보다 최근 날짜는 매번 집계한다)
+ * 그날의 주문이 생성되거나 상태가 바뀌면 커밋 후에 해당 날짜를 비우고, DB 에서 직접 바꾼 주문은 closed-day-expire-hours 이후에 반영된다.
+ */
+@Component
+public class SalesStatisticsCalculator {
+
+    private final OrderRepository orderRepository;
+    private final OrderProductRepository orderProductRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool forkJoinPool;
+    private final int maxDays;
+    private final int settleDays;
+    private final Cache<DailySalesKey, DailySalesStatistics> closedDays;
+    // 집계하는 동안 보관하는 날짜가 비워졌다면 이전 상태로 집계한 결과를 보관하지 않도록 비운 횟수를 센다.
+    // 보관하지 않는 최근 날짜의 주문은 세지 않으므로, 주문이 계속 들어와도 보관이 막히지 않는다.
+    private final AtomicLong closedDayEvictionCount = new AtomicLong();
+
+    public SalesStatisticsCalculator(OrderRepository orderRepository,
+                                     OrderProductRepository orderProductRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${cafekiosk.order.statistics.parallelism:4}") int parallelism,
+                                     @Value("${cafekiosk.order.statistics.max-days:366}") int maxDays,
+                                     @Value("${cafekiosk.order.statistics.settle-days:1}") int settleDays,
+                                     @Value("${cafekiosk.order.statistics.closed-day-cache-size:1000}") long closedDayCacheSize,
+                                     @Value("${cafekiosk.order.statistics.closed-day-expire-hours:24}") long closedDayExpireHours) {
+        this.orderRepository = orderRepository;
+        this.orderProductRepository = orderProductRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.forkJoinPool = new ForkJoinPool(parallelism);
+        this.maxDays = maxDays;
+        this.settleDays = settleDays;
+        this.closedDays = CacheBuilder.newBuilder()
+                .maximumSize(closedDayCacheSize)
+                .expireAfterWrite(closedDayExpireHours, TimeUnit.HOURS)
+                .build();
+    }
+
+    /**
+     * 기간(종료일 포함) 안의 주문을 시간대별, 상품 타입별, 상품별로 집계한다.
+     */
+    public SalesStatisticsResponse calculate(LocalDate startDate, LocalDate endDate, List<OrderStatus> orderStatuses) {
+        if (startDate.plusDays(maxDays).isBefore(endDate.plusDays(1))) {
+            throw new IllegalArgumentException(String.format("조회 기간은 %d일 이하여야 합니다.", maxDays));
+        }
+
+        Set<OrderStatus> statuses = EnumSet.copyOf(orderStatuses);
+        LocalDate today = LocalDate.now();
+
+        List<DailySalesStatistics> days = new ArrayList<>();
+        List<ForkJoinTask<DailySalesStatistics>> tasks = new ArrayList<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            DailySalesKey key = new DailySalesKey(date, statuses);
+            DailySalesStatistics closedDay = closedDays.getIfPresent(key);
+            if (closedDay != null) {
+                days.add(closedDay);
+            } else {
+                boolean closed = isSettled(date, today);
+                tasks.add(forkJoinPool.submit(() -> calculateDay(key, closed)));
+            }
+        }
+        tasks.forEach(task -> days.add(task.join()));
+
+        return merge(startDate, endDate, orderStatuses, days);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        evict(event.getOrder().getRegisteredDateTime().toLocalDate());
+    }
+
+    public void evict(LocalDate date) {
+        if (!isSettled(date, LocalDate.now())) {
+            return;
+        }
+        closedDayEvictionCount.incrementAndGet();
+        closedDays.asMap().keySet().removeIf(key -> key.date.equals(date));
+    }
+
+    /**
+     * 테스트에서 주문을 벌크 삭제한 뒤 보관한 집계를 모두 비운다. 집계 중인 날짜도 보관하지 않도록 비운 횟수를 늘린다.
+     */
+    @VisibleForTesting
+    public void reset() {
+        closedDayEvictionCount.incrementAndGet();
+        closedDays.invalidateAll();
+    }
+
+    @PreDestroy
+    public void close() {
+        forkJoinPool.shutdownNow();
+    }
+
+    private boolean isSettled(LocalDate date, LocalDate today) {
+        return date.plusDays(settleDays).isBefore(today);
+    }
+
+    private DailySalesStatistics calculateDay(DailySalesKey key, boolean closed) {
+        long evictionCount = closedDayEvictionCount.get();
+
+        LocalDateTime startDateTime = key.date.atStartOfDay();
+        LocalDateTime endDateTime = key.date.plusDays(1).atStartOfDay();
+        DailySalesStatistics day = transactionTemplate.execute(status -> new DailySalesStatistics(
+                orderRepository.findHourlySales(startDateTime, endDateTime, key.orderStatuses).stream()
+                        .map(HourlySalesResponse::of)
+                        .collect(Collectors.toList()),
+                orderProductRepository.findProductTypeSales(startDateTime, endDateTime, key.orderStatuses).stream()
+                        .map(ProductTypeSalesResponse::of)
+                        .collect(Collectors.toList()),
+                orderProductRepository.findProductSales(startDateTime, endDateTime, key.orderStatuses).stream()
+                        .map(ProductSalesResponse::of)
+                        .collect(Collectors.toList())
+        ));
+
+        if (closed && evictionCount == closedDayEvictionCount.get()) {
+            closedDays.put(key, day);
+        }
+        return day;
+    }
+
+    private static SalesStatisticsResponse merge(LocalDate startDate, LocalDate endDate, List<OrderStatus> orderStatuses,
+                                                 List<DailySalesStatistics> days) {
+        Map<Integer, HourlySalesResponse> hourlySales = new TreeMap<>();
+        Map<ProductType, ProductTypeSalesResponse> productTypeSales = new EnumMap<>(ProductType.class);
+        Map<String, ProductSalesResponse> productSales = new LinkedHashMap<>();
+        for (DailySalesStatistics day : days) {
+            day.hourlySales.forEach(sales -> hourlySales.merge(sales.getHour(), sales, SalesStatisticsCalculator::sum));
+            day.productTypeSales.forEach(sales -> productTypeSales.merge(sales.getProductType(), sales, SalesStatisticsCalculator::sum));
+            day.productSales.forEach(sales -> productSales.merge(sales.getProductNumber(), sales, SalesStatisticsCalculator::sum));
+        }
+
+        List<HourlySalesResponse> hours = new ArrayList<>(hourlySales.values());
+        return SalesStatisticsResponse.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .orderStatuses(orderStatuses)
+                .orderCount(hours.stream().mapToLong(HourlySalesResponse::getOrderCount).sum())
+                .totalAmount(hours.stream().mapToLong(HourlySalesResponse::getTotalAmount).sum())
+                .hourlySales(hours)
+                .productTypeSales(productTypeSales.values().stream()
+                        .sorted(Comparator.comparingLong(ProductTypeSalesResponse::getTotalAmount).reversed())
+                        .collect(Collectors.toList()))
+                .productSales(productSales.values().stream()
+                        .sorted(Comparator.comparingLong(ProductSalesResponse::getTotalAmount).reversed())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    private static HourlySalesResponse sum(HourlySalesResponse left, HourlySalesResponse right) {
+        return HourlySalesResponse.builder()
+                .hour(left.getHour())
+                .orderCount(left.getOrderCount() + right.getOrderCount())
+                .totalAmount(left.getTotalAmount() + right.getTotalAmount())
+                .build();
+    }
+
+    // 주문은 하루에만 속하므로 날짜별 주문 수를 더해도 중복되지 않는다.
+    private static ProductTypeSalesResponse sum(ProductTypeSalesResponse left, ProductTypeSalesResponse right) {
+        return ProductTypeSalesResponse.builder()
+                .productType(left.getProductType())
+                .orderCount(left.getOrderCount() + right.getOrderCount())
+                .quantity(left.getQuantity() + right.getQuantity())
+                .totalAmount(left.getTotalAmount() + right.getTotalAmount())
+                .build();
+    }
+
+    private static ProductSalesResponse sum(ProductSalesResponse left, ProductSalesResponse right) {
+        return ProductSalesResponse.builder()
+                .productNumber(left.getProductNumber())
+                .name(left.getName())
+                .orderCount(left.getOrderCount() + right.getOrderCount())
+                .quantity(left.getQuantity() + right.getQuantity())
+                .totalAmount(left.getTotalAmount() + right.getTotalAmount())
+                .build();
+    }
+
+    private static class DailySalesKey {
+        private final LocalDate date;
+        private final Set<OrderStatus> orderStatuses;
+
+        private DailySalesKey(LocalDate date, Set<OrderStatus> orderStatuses) {
+            this.date = date;
+            this.orderStatuses = orderStatuses;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            DailySalesKey that = (DailySalesKey) o;
+            return date.equals(that.date) && orderStatuses.equals(that.orderStatuses);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(date, orderStatuses);
+        }
+    }
+
+    private static class DailySalesStatistics {
+        private final List<HourlySalesResponse> hourlySales;
+        private final List<ProductTypeSalesResponse> productTypeSales;
+        private final List<ProductSalesResponse> productSales;
+
+        private DailySalesStatistics(List<HourlySalesResponse> hourlySales,
+                                     List<ProductTypeSalesResponse> productTypeSales,
+                                     List<ProductSalesResponse> productSales) {
+            this.hourlySales = hourlySales;
+            this.productTypeSales = productTypeSales;
+            this.productSales = productSales;
+        }
+    }
+
+}
@@ -0,0 +1,23 @@
+package sampl.cafekiosk.spring.api.service.order.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+public class BestSellerResponse {
+
+    private int rank;
+    private String productNumber;
+    private String name;
+    private long estimatedQuantity;
+    private long minimumQuantity;
+
+    @Builder
+    private BestSellerResponse(int rank, String productNumber, String name, long estimatedQuantity, long minimumQuantity) {
+        this.rank = rank;
+        this.productNumber = productNumber;
+        this.name = name;
+        this.estimatedQuantity = estimatedQuantity;
+        this.minimumQuantity = minimumQuantity;
+    }
+}
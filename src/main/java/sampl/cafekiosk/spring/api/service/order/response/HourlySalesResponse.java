@@ -0,0 +1,28 @@
+package sampl.cafekiosk.spring.api.service.order.response;
+
+import lombok.Builder;
+import lombok.Getter;
+import sampl.cafekiosk.spring.domain.order.HourlySales;
+
+@Getter
+public class HourlySalesResponse {
+
+    private int hour;
+    private long orderCount;
+    private long totalAmount;
+
+    @Builder
+    private HourlySalesResponse(int hour, long orderCount, long totalAmount) {
+        this.hour = hour;
+        this.orderCount = orderCount;
+        this.totalAmount = totalAmount;
+    }
+
+    public static HourlySalesResponse of(HourlySales hourlySales) {
+        return HourlySalesResponse.builder()
+                .hour(hourlySales.getOrderHour())
+                .orderCount(hourlySales.getOrderCount())
+                .totalAmount(hourlySales.getTotalAmount())
+                .build();
+    }
+}
@@ -0,0 +1,33 @@
+package sampl.cafekiosk.spring.api.service.order.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class OrderBatchResponse {
+
+    private int successCount;
+    private int failureCount;
+    private List<OrderBatchResultResponse> results;
+
+    @Builder
+    private OrderBatchResponse(int successCount, int failureCount, List<OrderBatchResultResponse> results) {
+        this.successCount = successCount;
+        this.failureCount = failureCount;
+        this.results = results;
+    }
+
+    public static OrderBatchResponse of(List<OrderBatchResultResponse> results) {
+        int successCount = (int) results.stream()
+                .filter(OrderBatchResultResponse::isSuccess)
+                .count();
+
+        return OrderBatchResponse.builder()
+                .successCount(successCount)
+                .failureCount(results.size() - successCount)
+                .results(results)
+                .build();
+    }
+}
@@ -0,0 +1,27 @@
+package sampl.cafekiosk.spring.api.service.order.response;
+
+import lombok.Builder;
+import lombok.Getter;
+import sampl.cafekiosk.spring.domain.order.OrderStatus;
+
+@Getter
+public class OrderLineAggregateResponse {
+
+    private String productNumber;
+    private Integer hour;
+    private OrderStatus orderStatus;
+    private long quantity;
+    private long totalAmount;
+    private long lineCount;
+
+    @Builder
+    private OrderLineAggregateResponse(String productNumber, Integer hour, OrderStatus orderStatus,
+                                       long quantity, long totalAmount, long lineCount) {
+        this.productNumber = productNumber;
+        this.hour = hour;
+        this.orderStatus = orderStatus;
+        this.quantity = quantity;
+        this.totalAmount = totalAmount;
+        this.lineCount = lineCount;
+    }
+}
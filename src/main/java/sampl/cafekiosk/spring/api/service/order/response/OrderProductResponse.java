@@ -0,0 +1,47 @@
+package sampl.cafekiosk.spring.api.service.order.response;
+
+import lombok.Builder;
+import lombok.Getter;
+import sampl.cafekiosk.spring.domain.orderproduct.OrderProduct;
+import sampl.cafekiosk.spring.domain.product.Product;
+import sampl.cafekiosk.spring.domain.product.ProductSellingStatus;
+import sampl.cafekiosk.spring.domain.product.ProductType;
+
+/**
+ * 주문 상품 한 줄. 상품 정보에 주문 수량이 더해지고, price 는 주문 당시의 단가다.
+ */
+@Getter
+public class OrderProductResponse {
+
+    private Long id;
+    private String productNumber;
+    private ProductType type;
+    private ProductSellingStatus sellingStatus;
+    private String name;
+    private int price;
+    private int quantity;
+
+    @Builder
+    private OrderProductResponse(Long id, String productNumber, ProductType type, ProductSellingStatus sellingStatus, String name, int price, int quantity) {
+        this.id = id;
+        this.productNumber = productNumber;
+        this.type = type;
+        this.sellingStatus = sellingStatus;
+        this.name = name;
+        this.price = price;
+        this.quantity = quantity;
+    }
+
+    public static OrderProductResponse of(OrderProduct orderProduct) {
+        Product product = orderProduct.getProduct();
+        return OrderProductResponse.builder()
+                .id(product.getId())
+                .productNumber(product.getProductNumber())
+                .type(product.getType())
+                .sellingStatus(product.getSellingStatus())
+                .name(product.getName())
+                .price(orderProduct.getPrice())
+                .quantity(orderProduct.getQuantity())
+                .build();
+    }
+}
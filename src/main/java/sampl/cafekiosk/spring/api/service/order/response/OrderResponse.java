@@ -2,7 +2,6 @@ package sampl.cafekiosk.spring.api.service.order.response;
 
 import lombok.Builder;
 import lombok.Getter;
-import sampl.cafekiosk.spring.api.service.product.response.ProductResponse;
 import sampl.cafekiosk.spring.domain.order.Order;
 import sampl.cafekiosk.spring.domain.order.OrderStatus;
 import sampl.cafekiosk.spring.domain.orderproduct.OrderProduct;
@@ -19,13 +18,13 @@ import static javax.persistence.CascadeType.ALL;
 public class OrderResponse {
 
     private Long id;
-    private int totalPrice;
+    private long totalPrice;
     private LocalDateTime registeredDateTime;
 
-    private List<ProductResponse> products;
+    private List<OrderProductResponse> products;
 
     @Builder
-    private OrderResponse(Long id, int totalPrice, LocalDateTime registeredDateTime, List<ProductResponse> products) {
+    private OrderResponse(Long id, long totalPrice, LocalDateTime registeredDateTime, List<OrderProductResponse> products) {
         this.id = id;
         this.totalPrice = totalPrice;
         this.registeredDateTime = registeredDateTime;
@@ -38,7 +37,7 @@ public class OrderResponse {
                 .totalPrice(order.getTotalPrice())
                 .registeredDateTime(order.getRegisteredDateTime())
                 .products(order.getOrderProducts().stream()
-                        .map(orderProduct -> ProductResponse.of(orderProduct.getProduct()))
+                        .map(OrderProductResponse::of)
                         .collect(Collectors.toList())
                 )
                 .build();
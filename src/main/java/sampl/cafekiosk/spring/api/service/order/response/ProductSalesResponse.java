@@ -0,0 +1,34 @@
+package sampl.cafekiosk.spring.api.service.order.response;
+
+import lombok.Builder;
+import lombok.Getter;
+import sampl.cafekiosk.spring.domain.orderproduct.ProductSales;
+
+@Getter
+public class ProductSalesResponse {
+
+    private String productNumber;
+    private String name;
+    private long orderCount;
+    private long quantity;
+    private long totalAmount;
+
+    @Builder
+    private ProductSalesResponse(String productNumber, String name, long orderCount, long quantity, long totalAmount) {
+        this.productNumber = productNumber;
+        this.name = name;
+        this.orderCount = orderCount;
+        this.quantity = quantity;
+        this.totalAmount = totalAmount;
+    }
+
+    public static ProductSalesResponse of(ProductSales productSales) {
+        return ProductSalesResponse.builder()
+                .productNumber(productSales.getProductNumber())
+                .name(productSales.getName())
+                .orderCount(productSales.getOrderCount())
+                .quantity(productSales.getQuantity())
+                .totalAmount(productSales.getTotalAmount())
+                .build();
+    }
+}
@@ -0,0 +1,32 @@
+package sampl.cafekiosk.spring.api.service.order.response;
+
+import lombok.Builder;
+import lombok.Getter;
+import sampl.cafekiosk.spring.domain.orderproduct.ProductTypeSales;
+import sampl.cafekiosk.spring.domain.product.ProductType;
+
+@Getter
+public class ProductTypeSalesResponse {
+
+    private ProductType productType;
+    private long orderCount;
+    private long quantity;
+    private long totalAmount;
+
+    @Builder
+    private ProductTypeSalesResponse(ProductType productType, long orderCount, long quantity, long totalAmount) {
+        this.productType = productType;
+        this.orderCount = orderCount;
+        this.quantity = quantity;
+        this.totalAmount = totalAmount;
+    }
+
+    public static ProductTypeSalesResponse of(ProductTypeSales productTypeSales) {
+        return ProductTypeSalesResponse.builder()
+                .productType(productTypeSales.getProductType())
+                .orderCount(productTypeSales.getOrderCount())
+                .quantity(productTypeSales.getQuantity())
+                .totalAmount(productTypeSales.getTotalAmount())
+                .build();
+    }
+}
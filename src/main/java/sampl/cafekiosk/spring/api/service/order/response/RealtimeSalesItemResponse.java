@@ -0,0 +1,19 @@
+package sampl.cafekiosk.spring.api.service.order.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+public class RealtimeSalesItemResponse {
+
+    private String key;
+    private long orderCount;
+    private long totalAmount;
+
+    @Builder
+    private RealtimeSalesItemResponse(String key, long orderCount, long totalAmount) {
+        this.key = key;
+        this.orderCount = orderCount;
+        this.totalAmount = totalAmount;
+    }
+}
@@ -0,0 +1,27 @@
+package sampl.cafekiosk.spring.api.service.order.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class RealtimeSalesWindowResponse {
+
+    private int windowMinutes;
+    private long orderCount;
+    private long totalAmount;
+    private List<RealtimeSalesItemResponse> productTypeSales;
+    private List<RealtimeSalesItemResponse> productSales;
+
+    @Builder
+    private RealtimeSalesWindowResponse(int windowMinutes, long orderCount, long totalAmount,
+                                        List<RealtimeSalesItemResponse> productTypeSales,
+                                        List<RealtimeSalesItemResponse> productSales) {
+        this.windowMinutes = windowMinutes;
+        this.orderCount = orderCount;
+        this.totalAmount = totalAmount;
+        this.productTypeSales = productTypeSales;
+        this.productSales = productSales;
+    }
+}
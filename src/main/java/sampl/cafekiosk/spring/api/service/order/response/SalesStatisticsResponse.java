@@ -0,0 +1,35 @@
+package sampl.cafekiosk.spring.api.service.order.response;
+
+import lombok.Builder;
+import lombok.Getter;
+import sampl.cafekiosk.spring.domain.order.OrderStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+public class SalesStatisticsResponse {
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<OrderStatus> orderStatuses;
+    private long orderCount;
+    private long totalAmount;
+    private List<HourlySalesResponse> hourlySales;
+    private List<ProductTypeSalesResponse> productTypeSales;
+    private List<ProductSalesResponse> productSales;
+
+    @Builder
+    private SalesStatisticsResponse(LocalDate startDate, LocalDate endDate, List<OrderStatus> orderStatuses, long orderCount, long totalAmount,
+                                    List<HourlySalesResponse> hourlySales, List<ProductTypeSalesResponse> productTypeSales,
+                                    List<ProductSalesResponse> productSales) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.orderStatuses = orderStatuses;
+        this.orderCount = orderCount;
+        this.totalAmount = totalAmount;
+        this.hourlySales = hourlySales;
+        this.productTypeSales = productTypeSales;
+        this.productSales = productSales;
+    }
+}
@@ -0,0 +1,28 @@
+package sampl.cafekiosk.spring.api.service.product;
+
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+
+public enum ProductImportFormat {
+
+    CSV(MediaType.valueOf(ProductImportFormat.TEXT_CSV_VALUE)),
+    JSON_LINES(MediaType.valueOf(ProductImportFormat.NDJSON_VALUE));
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private final MediaType mediaType;
+
+    ProductImportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public static ProductImportFormat from(MediaType contentType) {
+        return Arrays.stream(values())
+                .filter(format -> format.mediaType.isCompatibleWith(contentType))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("지원하지 않는 파일 형식입니다."));
+    }
+
+}
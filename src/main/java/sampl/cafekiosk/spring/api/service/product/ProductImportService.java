@@ -0,0 +1,358 @@
+package sampl.cafekiosk.spring.api.service.product;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sampl.cafekiosk.spring.api.service.product.request.ProductCreateServiceRequest;
+import sampl.cafekiosk.spring.api.service.product.response.ProductImportErrorResponse;
+import sampl.cafekiosk.spring.api.service.product.response.ProductImportResponse;
+import sampl.cafekiosk.spring.domain.product.Product;
+import sampl.cafekiosk.spring.domain.product.ProductNumberAllocator;
+import sampl.cafekiosk.spring.domain.product.ProductRepository;
+import sampl.cafekiosk.spring.domain.product.ProductSellingStatus;
+import sampl.cafekiosk.spring.domain.product.ProductType;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 공급처 메뉴 파일(CSV, JSON Lines)을 한 줄씩 읽어 상품을 대량 등록한다.
+ * 파일 전체를 메모리에 올리지 않고 chunk-size 건씩 검증, 번호 발급, 저장을 반복하므로 파일 크기와 관계없이 메모리 사용량이 일정하다.
+ * <p>
+ * chunk 마다 트랜잭션을 커밋하고 영속성 컨텍스트를 비운다. (요청 동안 열려 있는 OSIV 영속성 컨텍스트에 상품이 쌓이지 않게 한다)
+ * INSERT 는 hibernate.jdbc.batch_size 단위로 묶여 나가고, 저장에 실패한 chunk 는 한 행씩 다시 저장해 저장하지 못한 행만 실패로 보고한다.
+ * 오류는 max-reported-errors 건까지만 응답에 담고, 실패 건수는 모두 센다.
+ * CSV 는 첫 줄이 헤더(type, sellingStatus, name, price)여야 하고, 한 행은 한 줄이어야 한다. 헤더가 잘못되면 헤더 줄의 오류만 보고하고 나머지 행은 읽지 않는다.
+ * max-line-length 자보다 긴 줄은 끝까지 읽어 버리고 실패로 보고한다. (한 줄이 메모리를 다 쓰지 않게 한다)
+ */
+@Service
+public class ProductImportService {
+
+    private static final List<String> CSV_COLUMNS = List.of("type", "sellingstatus", "name", "price");
+
+    private final ProductRepository productRepository;
+    private final ProductNumberAllocator productNumberAllocator;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+    private final int maxLineLength;
+
+    public ProductImportService(ProductRepository productRepository,
+                                ProductNumberAllocator productNumberAllocator,
+                                EntityManager entityManager,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${cafekiosk.product.import.chunk-size:500}") int chunkSize,
+                                @Value("${cafekiosk.product.import.max-reported-errors:1000}") int maxReportedErrors,
+                                @Value("${cafekiosk.product.import.max-line-length:4096}") int maxLineLength) {
+        this.productRepository = productRepository;
+        this.productNumberAllocator = productNumberAllocator;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.maxLineLength = maxLineLength;
+    }
+
+    public ProductImportResponse importProducts(Reader reader, ProductImportFormat format) {
+        long startNanos = System.nanoTime();
+        ImportProgress progress = new ImportProgress(maxReportedErrors);
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+        try (LineReader lines = new LineReader(new BufferedReader(reader), maxLineLength)) {
+            Map<String, Integer> csvColumns = null;
+            int lineNumber = 0;
+            String line;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() && !lines.isTruncated()) {
+                    continue;
+                }
+                if (format == ProductImportFormat.CSV && csvColumns == null) {
+                    try {
+                        csvColumns = parseCsvHeader(lines.isTruncated() ? "" : line);
+                    } catch (IllegalArgumentException e) {
+                        progress.fail(lineNumber, e.getMessage());
+                        break;
+                    }
+                    continue;
+                }
+
+                progress.totalCount++;
+                if (lines.isTruncated()) {
+                    progress.fail(lineNumber, "한 줄은 " + maxLineLength + "자를 넘을 수 없습니다.");
+                    continue;
+                }
+                ProductCreateServiceRequest request;
+                try {
+                    request = validate(format == ProductImportFormat.CSV ? parseCsvRow(line, csvColumns) : parseJsonRow(line));
+                } catch (IllegalArgumentException e) {
+                    progress.fail(lineNumber, e.getMessage());
+                    continue;
+                }
+
+                chunk.add(new ImportRow(lineNumber, request));
+                if (chunk.size() >= chunkSize) {
+                    saveChunk(chunk, progress);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (!chunk.isEmpty()) {
+            saveChunk(chunk, progress);
+        }
+        return progress.toResponse(System.nanoTime() - startNanos);
+    }
+
+    private void saveChunk(List<ImportRow> chunk, ImportProgress progress) {
+        List<String> productNumbers = productNumberAllocator.allocate(chunk.size());
+        try {
+            save(chunk, productNumbers);
+            progress.importedCount += chunk.size();
+        } catch (DataAccessException e) {
+            saveEach(chunk, productNumbers, progress);
+        }
+        chunk.clear();
+    }
+
+    /**
+     * 실패한 chunk 는 롤백되었으므로 한 행씩 새 트랜잭션으로 다시 저장해, 저장할 수 있는 행은 등록한다.
+     */
+    private void saveEach(List<ImportRow> chunk, List<String> productNumbers, ImportProgress progress) {
+        for (int i = 0; i < chunk.size(); i++) {
+            ImportRow row = chunk.get(i);
+            try {
+                save(List.of(row), List.of(productNumbers.get(i)));
+                progress.importedCount++;
+            } catch (DataAccessException e) {
+                progress.fail(row.lineNumber, "상품을 저장하지 못했습니다.");
+            }
+        }
+    }
+
+    private void save(List<ImportRow> rows, List<String> productNumbers) {
+        // 롤백된 트랜잭션에서 id 를 받은 엔티티를 다시 쓰지 않도록 저장할 때마다 새로 만든다.
+        List<Product> products = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            products.add(rows.get(i).request.toEntity(productNumbers.get(i)));
+        }
+
+        try {
+            // 리포지토리에서 flush 해야 저장 오류가 DataAccessException 으로 바뀐다.
+            transactionTemplate.executeWithoutResult(status -> productRepository.saveAllAndFlush(products));
+        } finally {
+            entityManager.clear();
+        }
+    }
+
+    private ProductCreateServiceRequest validate(ProductCreateServiceRequest request) {
+        Set<ConstraintViolation<ProductCreateServiceRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(" ")));
+        }
+        return request;
+    }
+
+    private ProductCreateServiceRequest parseJsonRow(String line) {
+        try {
+            return objectMapper.readValue(line, ProductCreateServiceRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSON 형식이 올바르지 않습니다.");
+        }
+    }
+
+    private static Map<String, Integer> parseCsvHeader(String line) {
+        List<String> names = splitCsvLine(line.replace("\uFEFF", ""));
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.keySet().containsAll(CSV_COLUMNS)) {
+            throw new IllegalArgumentException("CSV 헤더에는 type, sellingStatus, name, price 열이 있어야 합니다.");
+        }
+        return columns;
+    }
+
+    private static ProductCreateServiceRequest parseCsvRow(String line, Map<String, Integer> columns) {
+        List<String> fields = splitCsvLine(line);
+        return ProductCreateServiceRequest.builder()
+                .type(parseEnum(ProductType.class, field(fields, columns, "type"), "상품 타입이 올바르지 않습니다."))
+                .sellingStatus(parseEnum(ProductSellingStatus.class, field(fields, columns, "sellingstatus"), "상품 판매상태가 올바르지 않습니다."))
+                .name(field(fields, columns, "name"))
+                .price(parsePrice(field(fields, columns, "price")))
+                .build();
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        int index = columns.get(column);
+        return index < fields.size() ? fields.get(index) : "";
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String message) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    private static int parsePrice(String value) {
+        if (value.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("상품 가격은 숫자여야 합니다.");
+        }
+    }
+
+    /**
+     * 큰따옴표로 감싼 값 안의 쉼표와 "" (따옴표 이스케이프)를 처리한다.
+     */
+    private static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    /**
+     * BufferedReader.readLine 과 같이 \n, \r, \r\n 으로 줄을 나누되, maxLength 자까지만 담고 나머지는 버린다.
+     */
+    private static class LineReader implements AutoCloseable {
+        private final BufferedReader reader;
+        private final int maxLength;
+        private final StringBuilder line = new StringBuilder();
+        private boolean truncated;
+
+        private LineReader(BufferedReader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        private String readLine() throws IOException {
+            line.setLength(0);
+            truncated = false;
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            while (c != -1 && c != '\n' && c != '\r') {
+                if (line.length() < maxLength) {
+                    line.append((char) c);
+                } else {
+                    truncated = true;
+                }
+                c = reader.read();
+            }
+            if (c == '\r') {
+                reader.mark(1);
+                if (reader.read() != '\n') {
+                    reader.reset();
+                }
+            }
+            return line.toString();
+        }
+
+        private boolean isTruncated() {
+            return truncated;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static class ImportRow {
+        private final int lineNumber;
+        private final ProductCreateServiceRequest request;
+
+        private ImportRow(int lineNumber, ProductCreateServiceRequest request) {
+            this.lineNumber = lineNumber;
+            this.request = request;
+        }
+    }
+
+    private static class ImportProgress {
+        private final int maxReportedErrors;
+        private final List<ProductImportErrorResponse> errors = new ArrayList<>();
+        private int totalCount;
+        private int importedCount;
+        private int failedCount;
+
+        private ImportProgress(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        private void fail(int lineNumber, String message) {
+            failedCount++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(ProductImportErrorResponse.of(lineNumber, message));
+            }
+        }
+
+        private ProductImportResponse toResponse(long elapsedNanos) {
+            return ProductImportResponse.builder()
+                    .totalCount(totalCount)
+                    .importedCount(importedCount)
+                    .failedCount(failedCount)
+                    .elapsedMillis(elapsedNanos / 1_000_000)
+                    .rowsPerSecond(elapsedNanos == 0 ? 0 : totalCount / (elapsedNanos / 1_000_000_000.0))
+                    .errors(errors)
+                    .build();
+        }
+    }
+}
@@ -2,11 +2,13 @@ package sampl.cafekiosk.spring.api.service.product;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import sampl.cafekiosk.spring.api.controller.product.dto.request.ProductCreateRequest;
 import sampl.cafekiosk.spring.api.service.product.request.ProductCreateServiceRequest;
 import sampl.cafekiosk.spring.api.service.product.response.ProductResponse;
 import sampl.cafekiosk.spring.domain.product.Product;
+import sampl.cafekiosk.spring.domain.product.ProductNumberAllocator;
 import sampl.cafekiosk.spring.domain.product.ProductRepository;
 import sampl.cafekiosk.spring.domain.product.ProductSellingStatus;
 
@@ -26,12 +28,16 @@ import java.util.stream.Collectors;
 public class ProductService {
 
     private final ProductRepository productRepository;
-
-    // 동시성 이슈
-    // UUID
-    @Transactional
+    private final ProductNumberAllocator productNumberAllocator;
+
+    /**
+     * 상품 번호는 ProductNumberAllocator 가 미리 예약해 둔 번호에서 발급하므로 동시에 등록해도 겹치지 않는다.
+     * 다른 경로로 같은 번호가 저장되는 경우는 product_number 유니크 제약이 막는다.
+     * 번호를 예약할 때 커넥션을 하나 더 쓰므로, 트랜잭션을 열지 않고 번호를 받은 뒤 리포지토리의 트랜잭션에서 저장한다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ProductResponse createProduct(ProductCreateServiceRequest request) {
-        String nextProductNumber = createNextProductNumber();
+        String nextProductNumber = productNumberAllocator.allocate();
 
         Product product = request.toEntity(nextProductNumber);
         Product savedProduct = productRepository.save(product);
@@ -39,18 +45,6 @@ public class ProductService {
         return ProductResponse.of(savedProduct);
     }
 
-    private String createNextProductNumber() {
-        String latestProductNumber = productRepository.findLatestProduct();
-        if (latestProductNumber == null) {
-            return "001";
-        }
-
-        int latestProductNumberInt = Integer.parseInt(latestProductNumber);
-        int nextProductNumberInt = latestProductNumberInt + 1;
-
-        return String.format("%03d", nextProductNumberInt);
-    }
-
     public List<ProductResponse> getSellingProducts() {
         List<Product> products = productRepository.findAllBySellingStatusIn(ProductSellingStatus.forDisplay());
 
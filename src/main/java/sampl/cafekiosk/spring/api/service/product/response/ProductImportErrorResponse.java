@@ -0,0 +1,19 @@
+package sampl.cafekiosk.spring.api.service.product.response;
+
+import lombok.Getter;
+
+@Getter
+public class ProductImportErrorResponse {
+
+    private int lineNumber;
+    private String message;
+
+    private ProductImportErrorResponse(int lineNumber, String message) {
+        this.lineNumber = lineNumber;
+        this.message = message;
+    }
+
+    public static ProductImportErrorResponse of(int lineNumber, String message) {
+        return new ProductImportErrorResponse(lineNumber, message);
+    }
+}
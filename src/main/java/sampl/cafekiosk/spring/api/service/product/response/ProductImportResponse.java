@@ -0,0 +1,28 @@
+package sampl.cafekiosk.spring.api.service.product.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class ProductImportResponse {
+
+    private int totalCount;
+    private int importedCount;
+    private int failedCount;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<ProductImportErrorResponse> errors;
+
+    @Builder
+    private ProductImportResponse(int totalCount, int importedCount, int failedCount, long elapsedMillis, double rowsPerSecond,
+                                  List<ProductImportErrorResponse> errors) {
+        this.totalCount = totalCount;
+        this.importedCount = importedCount;
+        this.failedCount = failedCount;
+        this.elapsedMillis = elapsedMillis;
+        this.rowsPerSecond = rowsPerSecond;
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,28 @@
+package sampl.cafekiosk.spring.api.service.stock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import sampl.cafekiosk.spring.domain.stock.StockRepository;
+
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+@Component
+public class AtomicStockDeductionStrategy implements StockDeductionStrategy {
+
+    private final StockRepository stockRepository;
+
+    @Override
+    public StockConcurrencyMode getMode() {
+        return StockConcurrencyMode.ATOMIC;
+    }
+
+    @Override
+    public void deduct(Map<String, Integer> quantitiesByProductNumber) {
+        List<String> shortageProductNumbers = stockRepository.deductQuantities(quantitiesByProductNumber);
+        if (!shortageProductNumbers.isEmpty()) {
+            throw new IllegalArgumentException("재고가 부족한 상품이 있습니다.");
+        }
+    }
+}
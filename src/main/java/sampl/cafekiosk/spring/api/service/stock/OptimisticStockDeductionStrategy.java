@@ -0,0 +1,84 @@
+package sampl.cafekiosk.spring.api.service.stock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import sampl.cafekiosk.spring.domain.stock.Stock;
+import sampl.cafekiosk.spring.domain.stock.StockRepository;
+
+import javax.persistence.EntityManager;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 버전이 일치할 때만 차감하고, 충돌하면 재고를 다시 읽어 지터를 준 지수 백오프 후 재시도한다.
+ */
+@Component
+public class OptimisticStockDeductionStrategy implements StockDeductionStrategy {
+
+    private final StockRepository stockRepository;
+    private final EntityManager entityManager;
+    private final StockDeductionMetrics stockDeductionMetrics;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    public OptimisticStockDeductionStrategy(StockRepository stockRepository,
+                                            EntityManager entityManager,
+                                            StockDeductionMetrics stockDeductionMetrics,
+                                            @Value("${cafekiosk.stock.optimistic.max-attempts:5}") int maxAttempts,
+                                            @Value("${cafekiosk.stock.optimistic.backoff-millis:10}") long backoffMillis) {
+        this.stockRepository = stockRepository;
+        this.entityManager = entityManager;
+        this.stockDeductionMetrics = stockDeductionMetrics;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+    }
+
+    @Override
+    public StockConcurrencyMode getMode() {
+        return StockConcurrencyMode.OPTIMISTIC;
+    }
+
+    @Override
+    public void deduct(Map<String, Integer> quantitiesByProductNumber) {
+        new TreeMap<>(quantitiesByProductNumber).forEach(this::deductWithRetry);
+    }
+
+    private void deductWithRetry(String productNumber, int quantity) {
+        Stock stock = stockRepository.findByProductNumber(productNumber)
+                .orElseThrow(() -> new IllegalArgumentException("재고가 부족한 상품이 있습니다."));
+
+        for (int attempt = 1; ; attempt++) {
+            if (stock.isQuantityLessThan(quantity)) {
+                throw new IllegalArgumentException("재고가 부족한 상품이 있습니다.");
+            }
+
+            if (stockRepository.deductQuantityIfVersionMatches(stock.getId(), stock.getVersion(), quantity) == 1) {
+                // 벌크 UPDATE 로 바뀐 값은 영속성 컨텍스트에 반영되지 않으므로 오래된 엔티티를 떼어 낸다.
+                entityManager.detach(stock);
+                return;
+            }
+
+            stockDeductionMetrics.conflict(getMode());
+            if (attempt >= maxAttempts) {
+                throw new OptimisticLockingFailureException("재고 차감 중 충돌이 반복되어 주문을 처리하지 못했습니다.");
+            }
+
+            stockDeductionMetrics.retry(getMode());
+            sleepWithJitter(attempt);
+            entityManager.refresh(stock);
+        }
+    }
+
+    private void sleepWithJitter(int attempt) {
+        long maxDelay = backoffMillis << (attempt - 1);
+        long delay = ThreadLocalRandom.current().nextLong(maxDelay / 2, maxDelay + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OptimisticLockingFailureException("재고 차감 재시도 중 인터럽트되었습니다.", e);
+        }
+    }
+}
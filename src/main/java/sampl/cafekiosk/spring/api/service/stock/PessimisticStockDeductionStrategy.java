@@ -0,0 +1,60 @@
+package sampl.cafekiosk.spring.api.service.stock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import sampl.cafekiosk.spring.domain.stock.Stock;
+import sampl.cafekiosk.spring.domain.stock.StockRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * select ... for update 로 재고 행을 잠근 뒤 차감한다.
+ * 여러 상품을 주문해도 교착 상태가 생기지 않도록 항상 상품번호 순서로 잠근다.
+ */
+@Component
+@RequiredArgsConstructor
+public class PessimisticStockDeductionStrategy implements StockDeductionStrategy {
+
+    private final StockRepository stockRepository;
+    private final StockDeductionMetrics stockDeductionMetrics;
+
+    @Override
+    public StockConcurrencyMode getMode() {
+        return StockConcurrencyMode.PESSIMISTIC;
+    }
+
+    @Override
+    public void deduct(Map<String, Integer> quantitiesByProductNumber) {
+        Map<String, Integer> sortedQuantities = new TreeMap<>(quantitiesByProductNumber);
+
+        List<Stock> stocks = new ArrayList<>();
+        for (String productNumber : sortedQuantities.keySet()) {
+            stocks.add(lock(productNumber));
+        }
+
+        boolean hasShortage = stocks.stream()
+                .anyMatch(stock -> stock.isQuantityLessThan(sortedQuantities.get(stock.getProductNumber())));
+        if (hasShortage) {
+            throw new IllegalArgumentException("재고가 부족한 상품이 있습니다.");
+        }
+
+        stocks.forEach(stock -> stock.deductQuantity(sortedQuantities.get(stock.getProductNumber())));
+    }
+
+    private Stock lock(String productNumber) {
+        long startNanos = System.nanoTime();
+        try {
+            return stockRepository.findForUpdateByProductNumber(productNumber)
+                    .orElseThrow(() -> new IllegalArgumentException("재고가 부족한 상품이 있습니다."));
+        } catch (PessimisticLockingFailureException e) {
+            stockDeductionMetrics.conflict(getMode());
+            throw e;
+        } finally {
+            stockDeductionMetrics.recordLockWait(getMode(), System.nanoTime() - startNanos);
+        }
+    }
+}
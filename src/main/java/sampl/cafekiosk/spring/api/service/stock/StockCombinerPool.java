@@ -0,0 +1,63 @@
+package sampl.cafekiosk.spring.api.service.stock;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * StockDeductionCombiner 가 모아서 차감할 때만 쓰는 작은 커넥션 풀.
+ * 대기열에서 기다리는 요청 스레드들이 앱 커넥션 풀의 커넥션을 쥐고 있으므로, 모아서 쓰는 작업이 같은 풀을 기다리지 않도록 따로 둔다.
+ * <p>
+ * 앱 DataSource 의 설정(URL, 계정, 타임아웃, 지표)을 그대로 복사하고 크기만 pool-size 로 줄인다.
+ * 처음 모아서 차감할 때 만든다. (@Lazy)
+ */
+@Lazy
+@Component
+public class StockCombinerPool {
+
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public StockCombinerPool(DataSource appDataSource,
+                             @Value("${cafekiosk.stock.combining.pool-size:2}") int poolSize) {
+        HikariConfig config = new HikariConfig();
+        unwrap(appDataSource).copyStateTo(config);
+        config.setPoolName("stock-combiner");
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(Math.min(config.getMinimumIdle(), poolSize));
+        this.dataSource = new HikariDataSource(config);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    public JdbcTemplate getJdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    public TransactionTemplate getTransactionTemplate() {
+        return transactionTemplate;
+    }
+
+    @PreDestroy
+    public void close() {
+        dataSource.close();
+    }
+
+    private static HikariDataSource unwrap(DataSource appDataSource) {
+        try {
+            return appDataSource.unwrap(HikariDataSource.class);
+        } catch (SQLException e) {
+            throw new IllegalStateException("앱 DataSource 가 HikariCP 가 아니어서 재고 차감 커넥션 풀을 만들 수 없습니다.", e);
+        }
+    }
+}
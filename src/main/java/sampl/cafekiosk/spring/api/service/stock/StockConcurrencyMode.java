@@ -0,0 +1,15 @@
+package sampl.cafekiosk.spring.api.service.stock;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum StockConcurrencyMode {
+
+    ATOMIC("조건부 UPDATE"),
+    OPTIMISTIC("낙관적 락"),
+    PESSIMISTIC("비관적 락");
+
+    private final String text;
+}
@@ -0,0 +1,311 @@
+package sampl.cafekiosk.spring.api.service.stock;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.Uninterruptibles;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 주문이 몰리는 상품의 재고 차감을 상품별 대기열에 모아 한 번의 UPDATE 로 처리한다. (flat combining)
+ * 한 상품에 동시에 들어온 차감 요청이 threshold 이상이면 자동으로 대기열을 거친다. threshold 가 0 이면(기본값) 사용하지 않는다.
+ * 조건부 UPDATE 와 같은 결과를 내므로 StockDeductor 는 ATOMIC 모드에서만 이 클래스를 거친다.
+ * <p>
+ * 대기열에 먼저 들어온 요청부터 차감하므로, 요청을 하나씩 조건부 UPDATE 한 것과 결과가 같다.
+ * 모아서 차감할 때는 요청마다 stock_reservation 에 예약 행을 함께 남기고 바로 커밋한다.
+ * 예약 행은 호출한 트랜잭션 안에서 지우므로, 주문이 커밋되면 차감이 확정되고 롤백되면(서버가 죽은 경우도) 예약이 남는다.
+ * 남은 예약은 롤백 직후 돌려주고, 그러지 못했으면 reservation-timeout-millis 가 지난 뒤 returnExpiredReservations 가 돌려준다.
+ * <p>
+ * 기다리는 요청 스레드들이 커넥션을 쥐고 있으므로, 모아서 쓰는 작업은 StockCombinerPool 의 작은 커넥션 풀을 사용한다.
+ * 상품별 대기열은 그 상품에 차감 중인 요청이 없어지면 치운다.
+ */
+@Slf4j
+@Component
+public class StockDeductionCombiner {
+
+    private static final String SELECT_QUANTITY_FOR_UPDATE = "select quantity from stock where product_number = ? for update";
+    private static final String DEDUCT_QUANTITY = "update stock set quantity = quantity - ?, version = version + 1 where product_number = ?";
+    private static final String RESTORE_QUANTITY = "update stock set quantity = quantity + ?, version = version + 1 where product_number = ?";
+    private static final String INSERT_RESERVATION =
+            "insert into stock_reservation (id, product_number, quantity, reserved_date_time) values (?, ?, ?, current_timestamp)";
+    private static final String DELETE_RESERVATION = "delete from stock_reservation where id = ?";
+    private static final String SELECT_EXPIRED_RESERVATIONS =
+            "select id, product_number, quantity from stock_reservation " +
+                    "where reserved_date_time < dateadd('MILLISECOND', ?, current_timestamp) " +
+                    "order by reserved_date_time limit ?";
+    private static final int SWEEP_BATCH_SIZE = 100;
+
+    private final Map<String, Integer> inFlightCounts = new ConcurrentHashMap<>();
+    private final Map<String, Combiner> combiners = new ConcurrentHashMap<>();
+
+    private final int threshold;
+    private final int maxBatchSize;
+    private final long reservationTimeoutMillis;
+    private final ObjectProvider<StockCombinerPool> stockCombinerPool;
+    private final StockDeductionMetrics stockDeductionMetrics;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public StockDeductionCombiner(@Value("${cafekiosk.stock.combining.threshold:0}") int threshold,
+                                  @Value("${cafekiosk.stock.combining.max-batch-size:256}") int maxBatchSize,
+                                  @Value("${cafekiosk.stock.combining.reservation-timeout-millis:60000}") long reservationTimeoutMillis,
+                                  ObjectProvider<StockCombinerPool> stockCombinerPool,
+                                  StockDeductionMetrics stockDeductionMetrics,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager) {
+        this.threshold = threshold;
+        this.maxBatchSize = maxBatchSize;
+        this.reservationTimeoutMillis = reservationTimeoutMillis;
+        this.stockCombinerPool = stockCombinerPool;
+        this.stockDeductionMetrics = stockDeductionMetrics;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 경합 중인 상품은 대기열을 거쳐 차감하고, 나머지 상품은 uncombinedDeduction 으로 넘긴다.
+     * 대기열을 먼저 거쳐야 다른 상품의 재고 행 락을 쥔 채 기다리지 않는다.
+     */
+    public void deduct(Map<String, Integer> quantitiesByProductNumber, Consumer<Map<String, Integer>> uncombinedDeduction) {
+        Map<String, Integer> combinedQuantities = new TreeMap<>();
+        Map<String, Integer> uncombinedQuantities = new HashMap<>();
+        quantitiesByProductNumber.forEach((productNumber, quantity) -> {
+            int inFlightCount = inFlightCounts.merge(productNumber, 1, Integer::sum);
+            if (threshold > 0 && inFlightCount >= threshold) {
+                combinedQuantities.put(productNumber, quantity);
+            } else {
+                uncombinedQuantities.put(productNumber, quantity);
+            }
+        });
+
+        try {
+            combinedQuantities.forEach(this::deductCombined);
+            if (!uncombinedQuantities.isEmpty()) {
+                uncombinedDeduction.accept(uncombinedQuantities);
+            }
+        } finally {
+            quantitiesByProductNumber.keySet().forEach(this::release);
+        }
+    }
+
+    /**
+     * 주문 트랜잭션이 지우지 않은 채 reservation-timeout-millis 가 지난 예약을 재고로 돌려준다.
+     *
+     * @return 돌려준 예약 수
+     */
+    @Scheduled(fixedDelayString = "${cafekiosk.stock.combining.reservation-sweep-interval-millis:10000}")
+    public int returnExpiredReservations() {
+        List<Reservation> reservations = jdbcTemplate.query(SELECT_EXPIRED_RESERVATIONS,
+                (rs, rowNum) -> new Reservation(rs.getString("id"), rs.getString("product_number"), rs.getInt("quantity")),
+                -reservationTimeoutMillis, SWEEP_BATCH_SIZE);
+
+        int returned = 0;
+        for (Reservation reservation : reservations) {
+            // 주문 트랜잭션이 아직 예약 행을 지우는 중이면 끝날 때까지 기다렸다가, 커밋됐으면 돌려주지 않는다.
+            if (Boolean.TRUE.equals(transactionTemplate.execute(status -> returnReservation(jdbcTemplate, reservation)))) {
+                returned++;
+            }
+        }
+        return returned;
+    }
+
+    /**
+     * 남아 있는 상품별 대기열 수
+     */
+    @VisibleForTesting
+    int getCombinerCount() {
+        return combiners.size();
+    }
+
+    /**
+     * 상품에 차감 중인 요청이 더 없으면 빈 대기열을 치운다.
+     * 치운 대기열을 이미 꺼내 간 요청은 그 대기열을 직접 처리하므로 남는 요청은 없다.
+     */
+    private void release(String productNumber) {
+        if (inFlightCounts.computeIfPresent(productNumber, (key, count) -> count == 1 ? null : count - 1) == null) {
+            combiners.computeIfPresent(productNumber, (key, combiner) -> combiner.deductions.isEmpty() ? null : combiner);
+        }
+    }
+
+    private void deductCombined(String productNumber, int quantity) {
+        Combiner combiner = combiners.computeIfAbsent(productNumber, key -> new Combiner());
+        Deduction deduction = new Deduction(productNumber, quantity);
+        combiner.deductions.add(deduction);
+
+        // 대기열을 처리하는 스레드가 없으면 직접 맡고, 있으면 그 스레드가 이 요청까지 처리하므로 결과가 나올 때까지 기다린다.
+        drain(productNumber, combiner);
+        if (!getResult(deduction)) {
+            throw new IllegalArgumentException("재고가 부족한 상품이 있습니다.");
+        }
+        consumeReservation(deduction.toReservation());
+    }
+
+    /**
+     * 락을 놓은 뒤에도 대기열을 다시 확인해, 처리를 마치고 락을 놓는 사이에 들어온 요청이 남지 않게 한다.
+     */
+    private void drain(String productNumber, Combiner combiner) {
+        while (!combiner.deductions.isEmpty() && combiner.lock.tryLock()) {
+            try {
+                while (!combiner.deductions.isEmpty()) {
+                    applyNextBatch(productNumber, combiner);
+                }
+            } finally {
+                combiner.lock.unlock();
+            }
+        }
+    }
+
+    private void applyNextBatch(String productNumber, Combiner combiner) {
+        List<Deduction> batch = new ArrayList<>();
+        Deduction deduction;
+        while (batch.size() < maxBatchSize && (deduction = combiner.deductions.poll()) != null) {
+            batch.add(deduction);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            StockCombinerPool pool = stockCombinerPool.getObject();
+            List<Boolean> results = pool.getTransactionTemplate().execute(status ->
+                    applyInOrder(pool.getJdbcTemplate(), productNumber, batch)
+            );
+            stockDeductionMetrics.recordCombinedBatch(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(results.get(i));
+            }
+        } catch (RuntimeException e) {
+            batch.forEach(failed -> failed.result.completeExceptionally(e));
+        }
+    }
+
+    private static List<Boolean> applyInOrder(JdbcTemplate jdbcTemplate, String productNumber, List<Deduction> batch) {
+        List<Integer> quantities = jdbcTemplate.queryForList(SELECT_QUANTITY_FOR_UPDATE, Integer.class, productNumber);
+        int remainingQuantity = quantities.isEmpty() ? 0 : quantities.get(0);
+
+        int totalQuantity = 0;
+        List<Boolean> results = new ArrayList<>();
+        List<Object[]> reservations = new ArrayList<>();
+        for (Deduction deduction : batch) {
+            boolean deducted = deduction.quantity <= remainingQuantity;
+            if (deducted) {
+                remainingQuantity -= deduction.quantity;
+                totalQuantity += deduction.quantity;
+                reservations.add(new Object[]{deduction.reservationId, productNumber, deduction.quantity});
+            }
+            results.add(deducted);
+        }
+
+        if (totalQuantity > 0) {
+            jdbcTemplate.update(DEDUCT_QUANTITY, totalQuantity, productNumber);
+            jdbcTemplate.batchUpdate(INSERT_RESERVATION, reservations);
+        }
+        return results;
+    }
+
+    /**
+     * 예약 행을 호출한 트랜잭션 안에서 지운다. 지우지 못했다면 이미 재고로 돌려준 예약이다.
+     */
+    private void consumeReservation(Reservation reservation) {
+        if (jdbcTemplate.update(DELETE_RESERVATION, reservation.id) == 0) {
+            throw new IllegalStateException("재고 예약이 만료되었습니다. 다시 주문해 주세요.");
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    returnOnRollback(reservation);
+                }
+            }
+        });
+    }
+
+    private void returnOnRollback(Reservation reservation) {
+        try {
+            StockCombinerPool pool = stockCombinerPool.getObject();
+            pool.getTransactionTemplate().execute(status -> returnReservation(pool.getJdbcTemplate(), reservation));
+        } catch (RuntimeException e) {
+            log.warn("재고 예약(id={})을 바로 돌려주지 못했습니다. 만료된 뒤 다시 돌려줍니다.", reservation.id, e);
+        }
+    }
+
+    /**
+     * 예약 행을 지운 쪽만 재고를 돌려주므로, 롤백 직후와 만료 뒤에 함께 돌려주려 해도 한 번만 돌려준다.
+     */
+    private static boolean returnReservation(JdbcTemplate jdbcTemplate, Reservation reservation) {
+        if (jdbcTemplate.update(DELETE_RESERVATION, reservation.id) == 0) {
+            return false;
+        }
+        jdbcTemplate.update(RESTORE_QUANTITY, reservation.quantity, reservation.productNumber);
+        return true;
+    }
+
+    private static boolean getResult(Deduction deduction) {
+        try {
+            return Uninterruptibles.getUninterruptibly(deduction.result);
+        } catch (ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static class Combiner {
+        private final Queue<Deduction> deductions = new ConcurrentLinkedQueue<>();
+        private final Lock lock = new ReentrantLock();
+    }
+
+    private static class Deduction {
+        private final String reservationId = UUID.randomUUID().toString();
+        private final String productNumber;
+        private final int quantity;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        private Deduction(String productNumber, int quantity) {
+            this.productNumber = productNumber;
+            this.quantity = quantity;
+        }
+
+        private Reservation toReservation() {
+            return new Reservation(reservationId, productNumber, quantity);
+        }
+    }
+
+    private static class Reservation {
+        private final String id;
+        private final String productNumber;
+        private final int quantity;
+
+        private Reservation(String id, String productNumber, int quantity) {
+            this.id = id;
+            this.productNumber = productNumber;
+            this.quantity = quantity;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package sampl.cafekiosk.spring.api.service.stock;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 재고 동시성 전략별 재시도/충돌/락 대기 지표.
+ * /actuator/metrics/stock.deduction.* 에서 전략(mode) 태그로 비교할 수 있다.
+ */
+@RequiredArgsConstructor
+@Component
+public class StockDeductionMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public void retry(StockConcurrencyMode mode) {
+        meterRegistry.counter("stock.deduction.retries", "mode", mode.name()).increment();
+    }
+
+    public void conflict(StockConcurrencyMode mode) {
+        meterRegistry.counter("stock.deduction.conflicts", "mode", mode.name()).increment();
+    }
+
+    public void recordLockWait(StockConcurrencyMode mode, long nanos) {
+        Timer.builder("stock.deduction.lock.wait")
+                .tag("mode", mode.name())
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDeduction(StockConcurrencyMode mode, Runnable deduction) {
+        Timer.builder("stock.deduction")
+                .tag("mode", mode.name())
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry)
+                .record(deduction);
+    }
+
+    public void recordCombinedBatch(int batchSize) {
+        DistributionSummary.builder("stock.deduction.combined.batch")
+                .description("한 번의 UPDATE 로 모아서 처리한 재고 차감 요청 수")
+                .register(meterRegistry)
+                .record(batchSize);
+    }
+}
@@ -0,0 +1,14 @@
+package sampl.cafekiosk.spring.api.service.stock;
+
+import java.util.Map;
+
+public interface StockDeductionStrategy {
+
+    StockConcurrencyMode getMode();
+
+    /**
+     * 상품번호별 수량만큼 재고를 차감한다.
+     * 하나라도 재고가 부족하면 IllegalArgumentException 을 던지고, 호출한 트랜잭션이 롤백되어야 한다.
+     */
+    void deduct(Map<String, Integer> quantitiesByProductNumber);
+}
@@ -0,0 +1,58 @@
+package sampl.cafekiosk.spring.api.service.stock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * cafekiosk.stock.concurrency-mode 설정에 따라 재고 차감 전략을 선택한다.
+ * 조각으로 나뉜 상품은 전략과 관계없이 StripedStockDeductor 가 차감하고,
+ * ATOMIC 모드에서는 주문이 몰리는 상품을 StockDeductionCombiner 가 모아서 차감할 수 있다. (cafekiosk.stock.combining.threshold)
+ * OPTIMISTIC/PESSIMISTIC 모드는 설정한 전략으로만 차감하므로, 전략을 비교할 때 모아서 차감한 결과가 섞이지 않는다.
+ * 어느 경로든 차감 시간은 StockDeductionMetrics 에 모드 태그로 남긴다.
+ */
+@Component
+public class StockDeductor {
+
+    private final Map<StockConcurrencyMode, StockDeductionStrategy> strategies = new EnumMap<>(StockConcurrencyMode.class);
+    private final StockConcurrencyMode mode;
+    private final StripedStockDeductor stripedStockDeductor;
+    private final StockDeductionCombiner stockDeductionCombiner;
+    private final StockDeductionMetrics stockDeductionMetrics;
+
+    public StockDeductor(List<StockDeductionStrategy> strategies,
+                         @Value("${cafekiosk.stock.concurrency-mode:ATOMIC}") StockConcurrencyMode mode,
+                         StripedStockDeductor stripedStockDeductor,
+                         StockDeductionCombiner stockDeductionCombiner,
+                         StockDeductionMetrics stockDeductionMetrics) {
+        strategies.forEach(strategy -> this.strategies.put(strategy.getMode(), strategy));
+        this.mode = mode;
+        this.stripedStockDeductor = stripedStockDeductor;
+        this.stockDeductionCombiner = stockDeductionCombiner;
+        this.stockDeductionMetrics = stockDeductionMetrics;
+    }
+
+    public void deduct(Map<String, Integer> quantitiesByProductNumber) {
+        if (quantitiesByProductNumber.isEmpty()) {
+            return;
+        }
+
+        // 조각으로 나뉜 상품을 먼저 차감하고, 나머지 상품은 설정된 전략으로 차감한다.
+        Map<String, Integer> unstripedQuantities = stripedStockDeductor.deduct(quantitiesByProductNumber);
+        if (unstripedQuantities.isEmpty()) {
+            return;
+        }
+
+        StockDeductionStrategy strategy = strategies.get(mode);
+        stockDeductionMetrics.recordDeduction(mode, () -> {
+            if (mode == StockConcurrencyMode.ATOMIC) {
+                stockDeductionCombiner.deduct(unstripedQuantities, strategy::deduct);
+            } else {
+                strategy.deduct(unstripedQuantities);
+            }
+        });
+    }
+}
@@ -0,0 +1,93 @@
+package sampl.cafekiosk.spring.api.service.stock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import sampl.cafekiosk.spring.api.service.stock.response.StockResponse;
+import sampl.cafekiosk.spring.domain.stock.Stock;
+import sampl.cafekiosk.spring.domain.stock.StockQuantity;
+import sampl.cafekiosk.spring.domain.stock.StockRepository;
+import sampl.cafekiosk.spring.domain.stock.StockShard;
+import sampl.cafekiosk.spring.domain.stock.StockShardRepository;
+import sampl.cafekiosk.spring.support.CoalescingLoader;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Transactional(readOnly = true)
+@Service
+public class StockService {
+
+    private final StockRepository stockRepository;
+    private final StockShardRepository stockShardRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final CoalescingLoader<String, Integer> quantityLoader;
+
+    public StockService(StockRepository stockRepository,
+                        StockShardRepository stockShardRepository,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${cafekiosk.coalescing.window-millis:1}") long coalescingWindowMillis,
+                        @Value("${cafekiosk.coalescing.max-batch-size:128}") int coalescingMaxBatchSize) {
+        this.stockRepository = stockRepository;
+        this.stockShardRepository = stockShardRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.quantityLoader = new CoalescingLoader<>(this::loadQuantitiesInNewTransaction, Duration.ofMillis(coalescingWindowMillis), coalescingMaxBatchSize);
+    }
+
+    /**
+     * 상품의 재고를 shardCount 개의 조각으로 옮긴다. 이후 차감은 조각 단위로 이루어진다.
+     */
+    @Transactional
+    public StockResponse stripe(String productNumber, int shardCount) {
+        if (stockShardRepository.existsByProductNumber(productNumber)) {
+            throw new IllegalArgumentException("이미 조각으로 나뉜 재고입니다.");
+        }
+
+        Stock stock = stockRepository.findByProductNumber(productNumber)
+                .orElseThrow(() -> new IllegalArgumentException("재고가 없는 상품입니다."));
+
+        int quantity = stock.getQuantity();
+        stockShardRepository.saveAll(StockShard.split(productNumber, quantity, shardCount));
+        stock.deductQuantity(quantity);
+
+        // 조각으로 옮긴 것뿐이라 합계는 그대로다. 아직 커밋하지 않은 조각은 다른 트랜잭션의 조회로는 보이지 않는다.
+        return StockResponse.of(productNumber, quantity);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public StockResponse getStock(String productNumber) {
+        return StockResponse.of(productNumber, getQuantities(List.of(productNumber)).getOrDefault(productNumber, 0));
+    }
+
+    /**
+     * 상품별 재고 합계(Stock + 조각)를 한 번씩의 조회로 계산한다.
+     * 동시에 들어온 요청(주문 포함)의 상품 번호를 모아 별도의 읽기 전용 트랜잭션에서 함께 조회하므로, 커밋된 재고만 보인다.
+     * 주문은 이 값으로 재고를 미리 확인할 뿐이고, 실제 차감은 StockDeductor 가 잠금을 잡고 다시 확인한다.
+     * 조회에 커넥션을 하나 더 쓰므로 트랜잭션 밖에서 불러야 한다. (OrderService 는 주문 트랜잭션을 열기 전에 부른다)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Integer> getQuantities(List<String> productNumbers) {
+        return quantityLoader.loadAll(productNumbers);
+    }
+
+    private Map<String, Integer> loadQuantitiesInNewTransaction(List<String> productNumbers) {
+        return readOnlyTransactionTemplate.execute(status -> loadQuantities(productNumbers));
+    }
+
+    private Map<String, Integer> loadQuantities(List<String> productNumbers) {
+        Map<String, Integer> quantities = stockRepository.findQuantitiesByProductNumberIn(productNumbers).stream()
+                .collect(Collectors.toMap(StockQuantity::getProductNumber, StockQuantity::getQuantity));
+
+        stockShardRepository.findSummariesByProductNumberIn(productNumbers)
+                .forEach(summary -> quantities.merge(summary.getProductNumber(), (int) summary.getQuantity(), Integer::sum));
+        return quantities;
+    }
+}
@@ -0,0 +1,84 @@
+package sampl.cafekiosk.spring.api.service.stock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import sampl.cafekiosk.spring.domain.stock.Stock;
+import sampl.cafekiosk.spring.domain.stock.StockRepository;
+import sampl.cafekiosk.spring.domain.stock.StockShard;
+import sampl.cafekiosk.spring.domain.stock.StockShardRepository;
+import sampl.cafekiosk.spring.domain.stock.StockShardSummary;
+import sampl.cafekiosk.spring.domain.stock.StripedStock;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * 조각으로 나뉜 상품의 재고를 차감한다.
+ * 스레드마다 다른 조각부터 시도해 한 행에 경합이 몰리지 않게 하고,
+ * 어느 조각도 혼자 감당하지 못하면 모든 조각과 Stock 을 잠그고 나눠서 차감한다.
+ * 조각으로 나눈 뒤 Stock 에 다시 채워진 재고도 이때 함께 판매된다.
+ */
+@RequiredArgsConstructor
+@Component
+public class StripedStockDeductor {
+
+    private final StockShardRepository stockShardRepository;
+    private final StockRepository stockRepository;
+    private final EntityManager entityManager;
+
+    /**
+     * 조각으로 나뉜 상품만 차감하고, 나머지 상품의 수량은 그대로 돌려준다.
+     */
+    public Map<String, Integer> deduct(Map<String, Integer> quantitiesByProductNumber) {
+        List<StockShardSummary> summaries = stockShardRepository.findSummariesByProductNumberIn(
+                new ArrayList<>(quantitiesByProductNumber.keySet())
+        );
+        if (summaries.isEmpty()) {
+            return quantitiesByProductNumber;
+        }
+
+        Map<String, Integer> remainingQuantities = new HashMap<>(quantitiesByProductNumber);
+        Map<String, Integer> shardCounts = new TreeMap<>();
+        summaries.forEach(summary -> {
+            shardCounts.put(summary.getProductNumber(), (int) summary.getShardCount());
+            remainingQuantities.remove(summary.getProductNumber());
+        });
+
+        shardCounts.forEach((productNumber, shardCount) ->
+                deduct(productNumber, quantitiesByProductNumber.get(productNumber), shardCount)
+        );
+        return remainingQuantities;
+    }
+
+    private void deduct(String productNumber, int quantity, int shardCount) {
+        int startShardIndex = Math.floorMod(Objects.hash(productNumber, Thread.currentThread().getId()), shardCount);
+
+        for (int i = 0; i < shardCount; i++) {
+            int shardIndex = (startShardIndex + i) % shardCount;
+            if (stockShardRepository.deductQuantity(productNumber, shardIndex, quantity) == 1) {
+                return;
+            }
+        }
+
+        // 조각 -> Stock 순서로 잠근다.
+        List<StockShard> shards = stockShardRepository.findAllForUpdateByProductNumber(productNumber);
+        Stock stock = stockRepository.findForUpdateByProductNumber(productNumber).orElse(null);
+
+        // 위의 벌크 UPDATE 는 영속성 컨텍스트를 거치지 않으므로, 이미 올라와 있던 엔티티라면 잠근 행의 값으로 다시 읽는다.
+        shards.forEach(entityManager::refresh);
+        if (stock != null) {
+            entityManager.refresh(stock);
+        }
+
+        StripedStock stripedStock = StripedStock.of(productNumber, shards, stock);
+        if (stripedStock.isQuantityLessThan(quantity)) {
+            throw new IllegalArgumentException("재고가 부족한 상품이 있습니다.");
+        }
+        stripedStock.deductQuantity(quantity);
+    }
+}
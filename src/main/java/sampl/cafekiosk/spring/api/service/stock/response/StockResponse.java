@@ -0,0 +1,24 @@
+package sampl.cafekiosk.spring.api.service.stock.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+public class StockResponse {
+
+    private String productNumber;
+    private int quantity;
+
+    @Builder
+    private StockResponse(String productNumber, int quantity) {
+        this.productNumber = productNumber;
+        this.quantity = quantity;
+    }
+
+    public static StockResponse of(String productNumber, int quantity) {
+        return StockResponse.builder()
+                .productNumber(productNumber)
+                .quantity(quantity)
+                .build();
+    }
+}
@@ -0,0 +1,14 @@
+package sampl.cafekiosk.spring.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 주기 작업(@Scheduled)을 켠다. 테스트에서는 cafekiosk.scheduling.enabled=false 로 끄고, 작업 메서드를 직접 호출해 검증한다.
+ */
+@EnableScheduling
+@Configuration
+@ConditionalOnProperty(name = "cafekiosk.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
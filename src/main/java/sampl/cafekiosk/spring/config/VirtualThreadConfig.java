@@ -0,0 +1,43 @@
+package sampl.cafekiosk.spring.config;
+
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * virtual 프로필에서 Tomcat 요청 처리와 애플리케이션 비동기 작업을 가상 스레드에서 실행한다. (JDK 21 이상)
+ * 소스는 JDK 11 기준으로 컴파일하므로 가상 스레드 실행기는 리플렉션으로 만든다.
+ * 요청 스레드 수의 제한이 사라지므로 동시에 처리되는 요청 수는 커넥션 풀 크기가 제한한다.
+ */
+@Profile("virtual")
+@Configuration
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Spring MVC 비동기 요청 처리와 @Async 작업이 사용하는 기본 실행기.
+     */
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(newVirtualThreadPerTaskExecutor());
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("가상 스레드는 JDK 21 이상에서만 사용할 수 있습니다.", e);
+        }
+    }
+}
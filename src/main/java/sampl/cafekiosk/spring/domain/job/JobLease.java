@@ -0,0 +1,38 @@
+package sampl.cafekiosk.spring.domain.job;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 여러 서버 중 한 곳에서만 주기 작업을 실행하기 위한 작업별 임대(lease).
+ * leased_until 이 지나지 않은 동안은 owner 만 작업을 실행할 수 있고, 작업이 어디까지 끝났는지는 last_completed_date 에 남긴다.
+ */
+@Getter
+@Entity
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class JobLease {
+
+    @Id
+    private String jobName;
+
+    private String owner;
+
+    private LocalDateTime leasedUntil;
+
+    private LocalDate lastCompletedDate;
+
+    @Builder
+    private JobLease(String jobName, String owner, LocalDateTime leasedUntil, LocalDate lastCompletedDate) {
+        this.jobName = jobName;
+        this.owner = owner;
+        this.leasedUntil = leasedUntil;
+        this.lastCompletedDate = lastCompletedDate;
+    }
+}
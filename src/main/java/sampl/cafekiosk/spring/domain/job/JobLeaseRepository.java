@@ -0,0 +1,45 @@
+package sampl.cafekiosk.spring.domain.job;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * 임대 시각은 서버마다 다를 수 있는 LocalDateTime.now() 가 아니라 DB 의 current_timestamp 로 비교하고 정한다.
+ * 그래서 서버 사이에 시계가 어긋나도 두 서버가 동시에 임대를 가지지 않는다.
+ */
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * 임대가 비어 있거나 만료되었거나 이미 owner 의 것이면 지금부터 leaseMillis 동안 owner 에게 준다. 1이 반환되면 임대를 얻은 것이다.
+     * 조건과 변경을 한 UPDATE 로 하므로 여러 서버가 동시에 시도해도 한 곳만 성공한다.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "update job_lease set owner = :owner, leased_until = dateadd('MILLISECOND', :leaseMillis, current_timestamp) " +
+            "where job_name = :jobName and (leased_until is null or leased_until < current_timestamp or owner = :owner)",
+            nativeQuery = true)
+    int acquire(String jobName, String owner, long leaseMillis);
+
+    /**
+     * 임대를 아직 가지고 있을 때만 완료한 날짜를 기록하고, 다음 날짜를 보낼 수 있도록 임대를 지금부터 leaseMillis 동안으로 늘린다.
+     * 0이 반환되면 임대가 만료되어 다른 서버가 가져갔을 수 있다.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "update job_lease set last_completed_date = :completedDate, " +
+            "leased_until = dateadd('MILLISECOND', :leaseMillis, current_timestamp) " +
+            "where job_name = :jobName and owner = :owner and leased_until > current_timestamp",
+            nativeQuery = true)
+    int complete(String jobName, String owner, LocalDate completedDate, long leaseMillis);
+
+    @Transactional
+    @Modifying
+    @Query("update JobLease l set l.leasedUntil = null where l.jobName = :jobName and l.owner = :owner")
+    int release(String jobName, String owner);
+}
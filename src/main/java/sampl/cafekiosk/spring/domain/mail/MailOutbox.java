@@ -0,0 +1,98 @@
+package sampl.cafekiosk.spring.domain.mail;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import sampl.cafekiosk.spring.domain.BaseEntity;
+import sampl.cafekiosk.spring.domain.history.mail.MailSendHistory;
+
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import java.time.LocalDateTime;
+
+/**
+ * 보낼 메일. 메일을 요청한 트랜잭션에서 함께 저장하고, MailOutboxDispatcher 가 나중에 꺼내 보낸다.
+ * 보낼 차례가 된 메일(nextAttemptDateTime 이 지난 전송대기/전송중 메일)을 가져갈 때 claimToken 을 남기고
+ * nextAttemptDateTime 을 뒤로 미뤄, 결과를 기록하기 전에 다른 서버가 다시 가져가지 않게 한다.
+ */
+@Getter
+@Entity
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class MailOutbox extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mail_outbox_seq_generator")
+    @SequenceGenerator(name = "mail_outbox_seq_generator", sequenceName = "mail_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    private String fromEmail;
+    private String toEmail;
+    private String subject;
+    private String content;
+
+    @Enumerated(EnumType.STRING)
+    private MailOutboxStatus status;
+
+    private int attemptCount;
+
+    private LocalDateTime nextAttemptDateTime;
+
+    private String claimToken;
+
+    @Builder
+    private MailOutbox(String fromEmail, String toEmail, String subject, String content,
+                       MailOutboxStatus status, int attemptCount, LocalDateTime nextAttemptDateTime) {
+        this.fromEmail = fromEmail;
+        this.toEmail = toEmail;
+        this.subject = subject;
+        this.content = content;
+        this.status = status;
+        this.attemptCount = attemptCount;
+        this.nextAttemptDateTime = nextAttemptDateTime;
+    }
+
+    public static MailOutbox create(String fromEmail, String toEmail, String subject, String content, LocalDateTime now) {
+        return MailOutbox.builder()
+                .fromEmail(fromEmail)
+                .toEmail(toEmail)
+                .subject(subject)
+                .content(content)
+                .status(MailOutboxStatus.PENDING)
+                .attemptCount(0)
+                .nextAttemptDateTime(now)
+                .build();
+    }
+
+    public MailSendHistory recordSent() {
+        this.status = MailOutboxStatus.SENT;
+        this.attemptCount++;
+        this.claimToken = null;
+        return MailSendHistory.builder()
+                .fromEmail(fromEmail)
+                .toEmail(toEmail)
+                .subject(subject)
+                .content(content)
+                .build();
+    }
+
+    /**
+     * 이번에도 보내지 못하면 바뀔 상태. 보내지 못한 횟수가 maxAttempts 에 닿으면 전송실패로 끝내고, 아니면 다시 보낸다.
+     * 기록은 다시 보낼 시각을 DB 시각으로 정하도록 MailOutboxRepository.recordFailure 로 한다.
+     */
+    public MailOutboxStatus statusAfterFailure(int maxAttempts) {
+        return attemptCount + 1 >= maxAttempts ? MailOutboxStatus.FAILED : MailOutboxStatus.PENDING;
+    }
+
+    /**
+     * 이번에도 보내지 못하면 다시 보낼 때까지 기다릴 시간. retryBackoffMillis 부터 실패할 때마다 두 배로 늘린다.
+     */
+    public long retryBackoffMillis(long retryBackoffMillis) {
+        return retryBackoffMillis << Math.min(attemptCount, 20);
+    }
+}
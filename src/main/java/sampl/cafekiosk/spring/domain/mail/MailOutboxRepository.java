@@ -0,0 +1,45 @@
+package sampl.cafekiosk.spring.domain.mail;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, Long> {
+
+    @Query("select m.id from MailOutbox m " +
+            "where m.status in :statuses and m.nextAttemptDateTime <= current_timestamp " +
+            "order by m.id")
+    List<Long> findIdsToDispatch(Collection<MailOutboxStatus> statuses, Pageable pageable);
+
+    /**
+     * 아직 보낼 차례인 메일만 claimToken 으로 표시하고 지금부터 claimMillis 동안 다른 서버가 가져가지 못하게 한다.
+     * 여러 서버가 같은 id 를 읽었더라도 조건부 UPDATE 이므로 메일마다 한 서버만 가져간다.
+     * 보낼 차례와 가져간 기한은 서버마다 다를 수 있는 시계 대신 DB 시각으로 정한다.
+     */
+    @Transactional
+    @Modifying
+    @Query("update MailOutbox m set m.status = :claimedStatus, m.claimToken = :claimToken, " +
+            "m.nextAttemptDateTime = function('dateadd', 'MILLISECOND', :claimMillis, current_timestamp) " +
+            "where m.id in :ids and m.status in :statuses and m.nextAttemptDateTime <= current_timestamp")
+    int claim(Collection<Long> ids, Collection<MailOutboxStatus> statuses, MailOutboxStatus claimedStatus,
+              String claimToken, long claimMillis);
+
+    List<MailOutbox> findAllByClaimToken(String claimToken);
+
+    /**
+     * 가져간 메일을 보내지 못했다고 기록하고, DB 시각으로부터 backoffMillis 뒤에 다시 보내게 한다.
+     * 가져간 기한이 지나 다른 서버가 다시 가져간 메일(claimToken 이 바뀐 메일)은 바꾸지 않는다.
+     */
+    @Modifying
+    @Query("update MailOutbox m set m.status = :status, m.attemptCount = m.attemptCount + 1, m.claimToken = null, " +
+            "m.nextAttemptDateTime = function('dateadd', 'MILLISECOND', :backoffMillis, current_timestamp) " +
+            "where m.id = :id and m.claimToken = :claimToken")
+    int recordFailure(Long id, String claimToken, MailOutboxStatus status, long backoffMillis);
+}
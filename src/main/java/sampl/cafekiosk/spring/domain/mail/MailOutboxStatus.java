@@ -0,0 +1,25 @@
+package sampl.cafekiosk.spring.domain.mail;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@RequiredArgsConstructor
+public enum MailOutboxStatus {
+
+    PENDING("전송대기"),
+    SENDING("전송중"),
+    SENT("전송완료"),
+    FAILED("전송실패");
+
+    private final String text;
+
+    /**
+     * 보낼 차례가 된 메일의 상태. 전송 중인 메일도 가져간 서버가 제때 결과를 기록하지 못했으면 다시 보낸다.
+     */
+    public static List<MailOutboxStatus> forDispatch() {
+        return List.of(PENDING, SENDING);
+    }
+}
@@ -0,0 +1,10 @@
+package sampl.cafekiosk.spring.domain.order;
+
+public interface HourlySales {
+
+    int getOrderHour();
+
+    long getOrderCount();
+
+    long getTotalAmount();
+}
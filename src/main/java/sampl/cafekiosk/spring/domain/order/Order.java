@@ -4,6 +4,8 @@ import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.AfterDomainEventPublication;
+import org.springframework.data.domain.DomainEvents;
 import sampl.cafekiosk.spring.domain.BaseEntity;
 import sampl.cafekiosk.spring.domain.orderproduct.OrderProduct;
 import sampl.cafekiosk.spring.domain.product.Product;
@@ -11,7 +13,10 @@ import sampl.cafekiosk.spring.domain.product.Product;
 import javax.persistence.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static javax.persistence.CascadeType.*;
@@ -23,41 +28,84 @@ import static javax.persistence.CascadeType.*;
 public class Order extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq_generator")
+    @SequenceGenerator(name = "order_seq_generator", sequenceName = "order_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
     private OrderStatus orderStatus;
 
-    private int totalPrice;
+    private long totalPrice;
 
     private LocalDateTime registeredDateTime;
 
     @OneToMany(mappedBy = "order", cascade = ALL)
     private List<OrderProduct> orderProducts = new ArrayList<>();
 
+    /**
+     * OrderRepository.save / saveAll 을 호출하면 발행되고 비워진다.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private final List<Object> domainEvents = new ArrayList<>();
+
     @Builder
-    private Order(List<Product> products, OrderStatus orderStatus, LocalDateTime registeredDateTime) {
+    private Order(Map<Product, Integer> productQuantities, OrderStatus orderStatus, LocalDateTime registeredDateTime) {
         this.orderStatus = orderStatus;
-        this.totalPrice = calculateTotalPrice(products);
         this.registeredDateTime = registeredDateTime;
-        this.orderProducts = products.stream()
-                .map(product -> new OrderProduct(this, product))
+        this.orderProducts = productQuantities.entrySet().stream()
+                .map(entry -> new OrderProduct(this, entry.getKey(), entry.getValue()))
                 .collect(Collectors.toList());
+        this.totalPrice = calculateTotalPrice(orderProducts);
+        domainEvents.add(new OrderStatusChangedEvent(this, null, orderStatus));
     }
 
-
+    /**
+     * 상품을 수량만큼 반복한 리스트로 주문을 만든다. 같은 상품 번호는 하나의 주문 상품으로 합친다.
+     */
     public static Order create(List<Product> products, LocalDateTime registeredDateTime) {
+        Map<String, Product> productMap = new LinkedHashMap<>();
+        Map<Product, Integer> productQuantities = new LinkedHashMap<>();
+        for (Product product : products) {
+            Product lineProduct = productMap.computeIfAbsent(product.getProductNumber(), productNumber -> product);
+            productQuantities.merge(lineProduct, 1, Integer::sum);
+        }
+
+        return create(productQuantities, registeredDateTime);
+    }
+
+    public static Order create(Map<Product, Integer> productQuantities, LocalDateTime registeredDateTime) {
         return Order.builder()
                 .orderStatus(OrderStatus.INIT)
-                .products(products)
+                .productQuantities(productQuantities)
                 .registeredDateTime(registeredDateTime)
                 .build();
     }
 
-    private static int calculateTotalPrice(List<Product> products) {
-        return products.stream()
-                .mapToInt(Product::getPrice)
-                .sum();
+    /**
+     * 상태를 바꾼 뒤에는 OrderRepository.save 를 호출해야 매출 집계(daily_sales)에 반영된다.
+     */
+    public void changeOrderStatus(OrderStatus orderStatus) {
+        if (this.orderStatus == orderStatus) {
+            return;
+        }
+        domainEvents.add(new OrderStatusChangedEvent(this, this.orderStatus, orderStatus));
+        this.orderStatus = orderStatus;
+    }
+
+    @DomainEvents
+    Collection<Object> domainEvents() {
+        return new ArrayList<>(domainEvents);
+    }
+
+    @AfterDomainEventPublication
+    void clearDomainEvents() {
+        domainEvents.clear();
+    }
+
+    private static long calculateTotalPrice(List<OrderProduct> orderProducts) {
+        return orderProducts.stream()
+                .mapToLong(OrderProduct::getTotalPrice)
+                .reduce(0, Math::addExact);
     }
 }
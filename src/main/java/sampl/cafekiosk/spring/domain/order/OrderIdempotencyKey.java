@@ -0,0 +1,65 @@
+package sampl.cafekiosk.spring.domain.order;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import sampl.cafekiosk.spring.domain.BaseEntity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+
+/**
+ * 키오스크가 재시도한 주문 요청을 구분하기 위한 멱등성 키.
+ * 같은 키로는 한 번만 주문이 생성되도록 키에 유니크 제약을 건다.
+ * 같은 키로 다른 주문을 보낸 경우를 가려내도록 처음 요청한 내용의 해시를 함께 저장한다.
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+public class OrderIdempotencyKey extends BaseEntity {
+
+    public static final int MAX_KEY_LENGTH = 100;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_idempotency_key_seq_generator")
+    @SequenceGenerator(name = "order_idempotency_key_seq_generator", sequenceName = "order_idempotency_key_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = MAX_KEY_LENGTH)
+    private String idempotencyKey;
+
+    @Column(length = 64)
+    private String requestHash;
+
+    private Long orderId;
+
+    @Builder
+    private OrderIdempotencyKey(String idempotencyKey, String requestHash, Long orderId) {
+        this.idempotencyKey = idempotencyKey;
+        this.requestHash = requestHash;
+        this.orderId = orderId;
+    }
+
+    public static OrderIdempotencyKey create(String idempotencyKey, String requestHash) {
+        return OrderIdempotencyKey.builder()
+                .idempotencyKey(idempotencyKey)
+                .requestHash(requestHash)
+                .build();
+    }
+
+    /**
+     * 해시를 저장하기 전에 만든 키는 비교하지 않는다.
+     */
+    public boolean isSameRequest(String requestHash) {
+        return this.requestHash == null || this.requestHash.equals(requestHash);
+    }
+
+    public void recordOrder(Long orderId) {
+        this.orderId = orderId;
+    }
+}
@@ -0,0 +1,22 @@
+package sampl.cafekiosk.spring.domain.order;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface OrderIdempotencyKeyRepository extends JpaRepository<OrderIdempotencyKey, Long> {
+
+    Optional<OrderIdempotencyKey> findByIdempotencyKey(String idempotencyKey);
+
+    @Transactional
+    @Modifying
+    @Query("delete from OrderIdempotencyKey k where k.localDateTime < :expiredBefore")
+    int deleteAllCreatedBefore(LocalDateTime expiredBefore);
+
+}
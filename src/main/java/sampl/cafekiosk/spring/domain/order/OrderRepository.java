@@ -1,11 +1,21 @@
 package sampl.cafekiosk.spring.domain.order;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -15,4 +25,38 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
             "and o.orderStatus = :orderStatus ")
     List<Order> findOrdersBy(LocalDateTime startDateTime, LocalDateTime endDateTime, OrderStatus orderStatus);
 
+    /**
+     * 기간 안의 주문을 한 번에 리스트로 읽지 않고 fetch size 만큼씩 DB 에서 가져온다.
+     * 트랜잭션 안에서 사용하고, 다 쓴 뒤에는 스트림을 닫아야 한다.
+     * 읽은 주문은 영속성 컨텍스트에 쌓이므로 호출하는 쪽에서 주기적으로 비워야 한다. (OrderStreamReader 참고)
+     * 정렬하면 DB 가 범위 전체를 정렬해야 하므로 순서는 보장하지 않는다.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("select o from Order o where o.registeredDateTime >= :startDateTime " +
+            "and o.registeredDateTime < :endDateTime " +
+            "and o.orderStatus in :orderStatuses ")
+    Stream<Order> streamOrdersBy(LocalDateTime startDateTime, LocalDateTime endDateTime, Collection<OrderStatus> orderStatuses);
+
+    /**
+     * 기간 안의 주문을 주문 시각(0~23시)별로 묶어 건수와 매출 합계를 반환한다. 주문이 없는 시간대는 반환하지 않는다.
+     */
+    @Query("select hour(o.registeredDateTime) as orderHour, count(o) as orderCount, sum(o.totalPrice) as totalAmount " +
+            "from Order o " +
+            "where o.registeredDateTime >= :startDateTime " +
+            "and o.registeredDateTime < :endDateTime " +
+            "and o.orderStatus in :orderStatuses " +
+            "group by hour(o.registeredDateTime) " +
+            "order by hour(o.registeredDateTime)")
+    List<HourlySales> findHourlySales(LocalDateTime startDateTime, LocalDateTime endDateTime, Collection<OrderStatus> orderStatuses);
+
+    /**
+     * 주문 응답을 만들 때 필요한 주문 상품과 상품을 한 번의 조회로 가져온다.
+     */
+    @EntityGraph(attributePaths = {"orderProducts", "orderProducts.product"})
+    Optional<Order> findWithOrderProductsById(Long id);
+
 }
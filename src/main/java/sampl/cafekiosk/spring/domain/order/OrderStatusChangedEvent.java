@@ -0,0 +1,28 @@
+package sampl.cafekiosk.spring.domain.order;
+
+import lombok.Getter;
+
+/**
+ * 주문이 생성되거나 상태가 바뀌었을 때 발행된다. 새로 생성된 주문은 previousStatus 가 null 이다.
+ */
+@Getter
+public class OrderStatusChangedEvent {
+
+    private final Order order;
+    private final OrderStatus previousStatus;
+    private final OrderStatus currentStatus;
+
+    public OrderStatusChangedEvent(Order order, OrderStatus previousStatus, OrderStatus currentStatus) {
+        this.order = order;
+        this.previousStatus = previousStatus;
+        this.currentStatus = currentStatus;
+    }
+
+    public boolean isEntered(OrderStatus orderStatus) {
+        return previousStatus != orderStatus && currentStatus == orderStatus;
+    }
+
+    public boolean isLeft(OrderStatus orderStatus) {
+        return previousStatus == orderStatus && currentStatus != orderStatus;
+    }
+}
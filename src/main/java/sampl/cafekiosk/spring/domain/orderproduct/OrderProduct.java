@@ -17,7 +17,8 @@ import static javax.persistence.FetchType.*;
 public class OrderProduct extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_product_seq_generator")
+    @SequenceGenerator(name = "order_product_seq_generator", sequenceName = "order_product_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = LAZY)
@@ -26,8 +27,24 @@ public class OrderProduct extends BaseEntity {
     @ManyToOne(fetch = LAZY)
     private Product product;
 
-    public OrderProduct(Order order, Product product) {
+    private int quantity;
+
+    /**
+     * 주문 당시의 상품 단가. 이후 상품 가격이 바뀌어도 주문 금액은 그대로다.
+     */
+    private int price;
+
+    public OrderProduct(Order order, Product product, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("주문 수량은 1개 이상이어야 합니다.");
+        }
         this.order = order;
         this.product = product;
+        this.quantity = quantity;
+        this.price = product.getPrice();
+    }
+
+    public long getTotalPrice() {
+        return Math.multiplyExact((long) price, quantity);
     }
 }
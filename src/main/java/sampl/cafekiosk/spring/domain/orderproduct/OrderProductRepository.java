@@ -1,8 +1,41 @@
 package sampl.cafekiosk.spring.domain.orderproduct;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import sampl.cafekiosk.spring.domain.order.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface OrderProductRepository extends JpaRepository<OrderProduct, Long> {
+
+    /**
+     * 기간 안의 주문 상품을 상품 타입별로 묶는다. 매출은 주문 당시 단가 기준이다.
+     */
+    @Query("select p.type as productType, count(distinct o.id) as orderCount, " +
+            "sum(op.quantity) as quantity, sum(cast(op.price as long) * op.quantity) as totalAmount " +
+            "from OrderProduct op " +
+            "join op.order o " +
+            "join op.product p " +
+            "where o.registeredDateTime >= :startDateTime " +
+            "and o.registeredDateTime < :endDateTime " +
+            "and o.orderStatus in :orderStatuses " +
+            "group by p.type " +
+            "order by sum(cast(op.price as long) * op.quantity) desc")
+    List<ProductTypeSales> findProductTypeSales(LocalDateTime startDateTime, LocalDateTime endDateTime, Collection<OrderStatus> orderStatuses);
+
+    @Query("select p.productNumber as productNumber, p.name as name, count(distinct o.id) as orderCount, " +
+            "sum(op.quantity) as quantity, sum(cast(op.price as long) * op.quantity) as totalAmount " +
+            "from OrderProduct op " +
+            "join op.order o " +
+            "join op.product p " +
+            "where o.registeredDateTime >= :startDateTime " +
+            "and o.registeredDateTime < :endDateTime " +
+            "and o.orderStatus in :orderStatuses " +
+            "group by p.productNumber, p.name " +
+            "order by sum(cast(op.price as long) * op.quantity) desc")
+    List<ProductSales> findProductSales(LocalDateTime startDateTime, LocalDateTime endDateTime, Collection<OrderStatus> orderStatuses);
 }
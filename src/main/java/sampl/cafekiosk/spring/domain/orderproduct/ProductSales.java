@@ -0,0 +1,14 @@
+package sampl.cafekiosk.spring.domain.orderproduct;
+
+public interface ProductSales {
+
+    String getProductNumber();
+
+    String getName();
+
+    long getOrderCount();
+
+    long getQuantity();
+
+    long getTotalAmount();
+}
@@ -0,0 +1,14 @@
+package sampl.cafekiosk.spring.domain.orderproduct;
+
+import sampl.cafekiosk.spring.domain.product.ProductType;
+
+public interface ProductTypeSales {
+
+    ProductType getProductType();
+
+    long getOrderCount();
+
+    long getQuantity();
+
+    long getTotalAmount();
+}
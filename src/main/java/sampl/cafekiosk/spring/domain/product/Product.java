@@ -10,13 +10,16 @@ import javax.persistence.*;
 
 @Getter
 @Entity
+@EntityListeners(ProductCatalogCacheEvictor.class)
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Product extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq_generator")
+    @SequenceGenerator(name = "product_seq_generator", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
 
+    @Column(unique = true)
     private String productNumber;
 
     @Enumerated(EnumType.STRING)
@@ -0,0 +1,156 @@
+package sampl.cafekiosk.spring.domain.product;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sampl.cafekiosk.spring.support.CoalescingLoader;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 상품 번호로 상품을 찾는 조회 결과를 메모리에 보관한다. (read-through)
+ * 없는 상품 번호도 빈 값으로 보관하므로, 상품이 등록/수정/삭제되면 ProductCatalogCacheEvictor 가 해당 상품 번호를 비운다.
+ * <p>
+ * 상품은 호출한 쪽과 별개인 읽기 전용 트랜잭션에서 읽으므로, 보관하는 상품은 어느 영속성 컨텍스트에도 속하지 않은 스냅샷이다.
+ * 호출한 쪽의 영속성 컨텍스트에 있던 상품을 건드리지 않고, 커밋된 상품만 보관한다. 여러 요청이 같은 인스턴스를 공유하므로 수정하지 않는다.
+ * 다른 서버나 DB 에서 직접 바꾼 상품은 expire-after-write-minutes 이후에 반영된다.
+ * 동시에 캐시를 놓친 요청들의 조회는 CoalescingLoader 로 모아 한 번의 IN 조회로 처리한다.
+ * 조회에 커넥션을 하나 더 쓰므로 getProducts 는 트랜잭션 밖에서 불러야 한다. (OrderService 는 주문 트랜잭션을 열기 전에 부른다)
+ */
+@Component
+public class ProductCatalogCache {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final CoalescingLoader<String, Product> productLoader;
+    private final LoadingCache<String, Optional<Product>> products;
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public ProductCatalogCache(ProductRepository productRepository,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${cafekiosk.product.catalog-cache.maximum-size:1000}") long maximumSize,
+                               @Value("${cafekiosk.product.catalog-cache.expire-after-write-minutes:10}") long expireAfterWriteMinutes,
+                               @Value("${cafekiosk.coalescing.window-millis:1}") long coalescingWindowMillis,
+                               @Value("${cafekiosk.coalescing.max-batch-size:128}") int coalescingMaxBatchSize) {
+        this.productRepository = productRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.productLoader = new CoalescingLoader<>(this::findProducts, Duration.ofMillis(coalescingWindowMillis), coalescingMaxBatchSize);
+        this.products = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMinutes(expireAfterWriteMinutes))
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public Optional<Product> load(String productNumber) {
+                        return loadProducts(List.of(productNumber)).get(productNumber);
+                    }
+
+                    @Override
+                    public Map<String, Optional<Product>> loadAll(Iterable<? extends String> productNumbers) {
+                        List<String> keys = new ArrayList<>();
+                        productNumbers.forEach(keys::add);
+                        return loadProducts(keys);
+                    }
+                });
+        GuavaCacheMetrics.monitor(meterRegistry, products, "product.catalog");
+    }
+
+    /**
+     * 보관하지 않은 상품 번호만 한 번의 조회로 가져온다. 없는 상품 번호는 결과에 포함하지 않는다.
+     */
+    public Map<String, Product> getProducts(List<String> productNumbers) {
+        long evictionCountBefore = evictionCount.get();
+        Map<String, Optional<Product>> found = getAll(productNumbers);
+        // 읽는 도중에 비웠다면 비우기 전의 상품을 읽어 보관했을 수 있으므로 다시 비운다.
+        if (evictionCount.get() != evictionCountBefore) {
+            products.invalidateAll(productNumbers);
+        }
+
+        Map<String, Product> productMap = new HashMap<>();
+        found.forEach((productNumber, product) ->
+                product.ifPresent(found -> productMap.put(productNumber, found))
+        );
+        return productMap;
+    }
+
+    /**
+     * 트랜잭션 안에서 호출되면(엔티티 리스너는 flush 할 때 호출된다) 지금 비우고 커밋 후에 한 번 더 비운다.
+     * 커밋 전에 다른 요청이 커밋된 이전 상품을 다시 읽어 보관했더라도 커밋 후에는 새 상품을 읽는다.
+     */
+    public void evict(String productNumber) {
+        invalidate(productNumber);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(productNumber);
+                }
+            });
+        }
+    }
+
+    /**
+     * 테스트에서 DB 를 비운 뒤 보관한 상품을 모두 비운다.
+     */
+    @VisibleForTesting
+    public void reset() {
+        evictionCount.incrementAndGet();
+        products.invalidateAll();
+    }
+
+    private void invalidate(String productNumber) {
+        evictionCount.incrementAndGet();
+        products.invalidate(productNumber);
+    }
+
+    private Map<String, Optional<Product>> getAll(List<String> productNumbers) {
+        try {
+            return products.getAll(productNumbers);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private Map<String, Optional<Product>> loadProducts(List<String> productNumbers) {
+        Map<String, Product> found = productLoader.loadAll(productNumbers);
+
+        Map<String, Optional<Product>> loaded = new HashMap<>();
+        productNumbers.forEach(productNumber -> loaded.put(productNumber, Optional.ofNullable(found.get(productNumber))));
+        return loaded;
+    }
+
+    /**
+     * 트랜잭션이 끝나면 영속성 컨텍스트가 닫히므로 돌려주는 상품은 분리된 상태다.
+     */
+    private Map<String, Product> findProducts(List<String> productNumbers) {
+        List<Product> found = readOnlyTransactionTemplate.execute(status -> productRepository.findAllByProductNumberIn(productNumbers));
+
+        Map<String, Product> productMap = new HashMap<>();
+        found.forEach(product -> productMap.put(product.getProductNumber(), product));
+        return productMap;
+    }
+}
@@ -0,0 +1,28 @@
+package sampl.cafekiosk.spring.domain.product;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * 상품이 등록/수정/삭제되면 상품 카탈로그 캐시에서 해당 상품 번호를 비운다.
+ * 벌크 연산(deleteAllInBatch 등)은 엔티티 리스너를 거치지 않으므로 바꾼 상품 번호를 ProductCatalogCache.evict() 로 직접 비운다.
+ * 리스너는 커밋 전(flush)에 호출되므로, ProductCatalogCache.evict() 가 커밋 후에 한 번 더 비운다.
+ * <p>
+ * 리스너는 EntityManagerFactory 를 만드는 중에 생성되므로, 리포지토리에 의존하는 캐시는 이벤트가 발생할 때 꺼낸다.
+ */
+@RequiredArgsConstructor
+public class ProductCatalogCacheEvictor {
+
+    private final ObjectProvider<ProductCatalogCache> productCatalogCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void evict(Product product) {
+        productCatalogCache.ifAvailable(cache -> cache.evict(product.getProductNumber()));
+    }
+}
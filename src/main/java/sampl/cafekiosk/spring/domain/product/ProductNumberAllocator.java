@@ -0,0 +1,157 @@
+package sampl.cafekiosk.spring.domain.product;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * 상품 번호를 block-size 개씩 product_number_sequence 테이블에서 예약해 두고 메모리에서 하나씩 발급한다. (hi/lo)
+ * 예약은 행을 잠근 짧은 트랜잭션으로 처리하므로 여러 서버가 같은 번호를 받지 않고, 상품을 등록할 때마다 최신 상품을 조회하지 않는다.
+ * <p>
+ * 예약한 번호는 상품 등록이 롤백되거나 서버가 내려가면 버려지므로 번호 사이에 빈 번호가 생길 수 있다.
+ * 예약은 상품을 등록하는 트랜잭션과 별개로 커밋되도록 새 트랜잭션(REQUIRES_NEW)에서 한다.
+ * 블록을 다 쓰면 한 스레드만 예약하고, 나머지 스레드는 모니터를 놓은 채 그 예약이 끝나기를 기다렸다가 새 블록에서 받는다.
+ * 예약하는 동안 모니터를 잡지 않으므로 번호를 받는 스레드는 모니터를 잠깐씩만 잡고, 블록을 나눠 쓰므로 동시에 예약해 버리는 번호도 없다.
+ * 예약에 커넥션을 하나 쓰므로 allocate 는 트랜잭션 밖에서 불러야 한다. (ProductService, ProductImportService 는 저장 트랜잭션을 열기 전에 부른다)
+ * 트랜잭션 안에서 부르면 예약을 기다리는 스레드들이 커넥션을 쥔 채 기다려, 예약할 커넥션이 남지 않을 수 있다.
+ * 시퀀스 행이 없으면 등록된 상품 번호 중 가장 큰 번호 다음부터 발급한다.
+ */
+@Component
+public class ProductNumberAllocator {
+
+    private static final String SEQUENCE_NAME = "product_number";
+    private static final String SELECT_NEXT_VALUE_FOR_UPDATE = "select next_value from product_number_sequence where name = ? for update";
+    private static final String UPDATE_NEXT_VALUE = "update product_number_sequence set next_value = ? where name = ?";
+    private static final String INSERT_SEQUENCE =
+            "insert into product_number_sequence (name, next_value) " +
+            "select ?, coalesce(max(cast(product_number as int)), 0) + 1 from product";
+
+    private final int blockSize;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private long nextValue;
+    private long maxValue;
+    // 블록을 예약하는 중이면 그 예약이 끝날 때 완료된다.
+    private CompletableFuture<Void> pendingReservation;
+
+    public ProductNumberAllocator(@Value("${cafekiosk.product.number-allocation.block-size:100}") int blockSize,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager) {
+        this.blockSize = blockSize;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public String allocate() {
+        return allocate(1).get(0);
+    }
+
+    /**
+     * 대량 등록용으로 count 개의 번호를 한 번에 발급한다. 남은 번호가 모자라면 모자란 만큼 한 번에 예약한다.
+     */
+    public List<String> allocate(int count) {
+        List<String> productNumbers = new ArrayList<>(count);
+        while (true) {
+            CompletableFuture<Void> reservation;
+            boolean reserver = false;
+            int size;
+            synchronized (this) {
+                while (productNumbers.size() < count && nextValue < maxValue) {
+                    productNumbers.add(String.format("%03d", nextValue++));
+                }
+                if (productNumbers.size() == count) {
+                    return productNumbers;
+                }
+                if (pendingReservation == null) {
+                    pendingReservation = new CompletableFuture<>();
+                    reserver = true;
+                }
+                reservation = pendingReservation;
+                size = Math.max(blockSize, count - productNumbers.size());
+            }
+
+            if (reserver) {
+                reserve(reservation, size);
+            } else {
+                await(reservation);
+            }
+        }
+    }
+
+    /**
+     * 테스트에서 시퀀스 행을 지운 뒤, 메모리에 남은 블록을 버리고 다음 발급 때 다시 예약하게 한다.
+     */
+    @VisibleForTesting
+    public synchronized void reset() {
+        nextValue = 0;
+        maxValue = 0;
+    }
+
+    private void reserve(CompletableFuture<Void> reservation, int size) {
+        try {
+            long reservedValue = reserveBlock(size);
+            synchronized (this) {
+                nextValue = reservedValue;
+                maxValue = reservedValue + size;
+                pendingReservation = null;
+            }
+            reservation.complete(null);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingReservation = null;
+            }
+            reservation.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static void await(CompletableFuture<Void> reservation) {
+        try {
+            Uninterruptibles.getUninterruptibly(reservation);
+        } catch (ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private long reserveBlock(int size) {
+        Long reservedValue = transactionTemplate.execute(status -> {
+            List<Long> values = jdbcTemplate.queryForList(SELECT_NEXT_VALUE_FOR_UPDATE, Long.class, SEQUENCE_NAME);
+            if (values.isEmpty()) {
+                return null;
+            }
+
+            long value = values.get(0);
+            jdbcTemplate.update(UPDATE_NEXT_VALUE, value + size, SEQUENCE_NAME);
+            return value;
+        });
+
+        if (reservedValue == null) {
+            createSequence();
+            return reserveBlock(size);
+        }
+        return reservedValue;
+    }
+
+    private void createSequence() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(INSERT_SEQUENCE, SEQUENCE_NAME));
+        } catch (DuplicateKeyException ignored) {
+            // 다른 서버가 먼저 만들었으면 그 행에서 예약한다.
+        }
+    }
+}
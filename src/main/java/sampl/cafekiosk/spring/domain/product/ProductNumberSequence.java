@@ -0,0 +1,23 @@
+package sampl.cafekiosk.spring.domain.product;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * 상품 번호 발급기가 다음에 예약할 번호를 보관한다. (ProductNumberAllocator 가 JDBC 로 직접 읽고 쓴다)
+ */
+@Getter
+@Entity
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ProductNumberSequence {
+
+    @Id
+    private String name;
+
+    private long nextValue;
+
+}
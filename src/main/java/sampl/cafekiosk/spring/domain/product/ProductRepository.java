@@ -1,7 +1,6 @@
 package sampl.cafekiosk.spring.domain.product;
 
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -18,7 +17,4 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     List<Product> findAllByProductNumberIn(List<String> productNumbers);
 
-    @Query(value = "select product_number from product p  order by id desc limit 1", nativeQuery = true)
-    String findLatestProduct();
-
 }
@@ -0,0 +1,51 @@
+package sampl.cafekiosk.spring.domain.sales;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import java.time.LocalDate;
+
+/**
+ * 일자별 결제완료 주문의 건수와 매출 합계.
+ * productType 이 ALL 인 행은 그날 전체 주문을, 나머지 행은 상품 타입별 주문 상품의 매출을 담는다.
+ */
+@Getter
+@Entity
+@IdClass(DailySalesId.class)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class DailySales {
+
+    public static final String ALL_PRODUCT_TYPES = "ALL";
+
+    @Id
+    private LocalDate salesDate;
+
+    @Id
+    private String productType;
+
+    private long orderCount;
+
+    private long totalAmount;
+
+    @Builder
+    private DailySales(LocalDate salesDate, String productType, long orderCount, long totalAmount) {
+        this.salesDate = salesDate;
+        this.productType = productType;
+        this.orderCount = orderCount;
+        this.totalAmount = totalAmount;
+    }
+
+    public static DailySales of(LocalDate salesDate, String productType, long orderCount, long totalAmount) {
+        return DailySales.builder()
+                .salesDate(salesDate)
+                .productType(productType)
+                .orderCount(orderCount)
+                .totalAmount(totalAmount)
+                .build();
+    }
+}
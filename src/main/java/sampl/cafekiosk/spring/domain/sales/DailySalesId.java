@@ -0,0 +1,27 @@
+package sampl.cafekiosk.spring.domain.sales;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Getter
+@EqualsAndHashCode
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class DailySalesId implements Serializable {
+
+    private LocalDate salesDate;
+    private String productType;
+
+    private DailySalesId(LocalDate salesDate, String productType) {
+        this.salesDate = salesDate;
+        this.productType = productType;
+    }
+
+    public static DailySalesId of(LocalDate salesDate, String productType) {
+        return new DailySalesId(salesDate, productType);
+    }
+}
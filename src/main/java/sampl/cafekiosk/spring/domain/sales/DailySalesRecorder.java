@@ -0,0 +1,51 @@
+package sampl.cafekiosk.spring.domain.sales;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import sampl.cafekiosk.spring.domain.order.Order;
+import sampl.cafekiosk.spring.domain.order.OrderStatus;
+import sampl.cafekiosk.spring.domain.order.OrderStatusChangedEvent;
+import sampl.cafekiosk.spring.domain.orderproduct.OrderProduct;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 주문이 결제완료 상태가 되면 그날의 집계에 더하고, 결제완료 상태에서 벗어나면 뺀다.
+ * 주문 상태를 바꾼 트랜잭션 안에서 동기로 갱신하므로 주문과 집계가 함께 커밋되거나 함께 롤백된다.
+ */
+@Component
+@RequiredArgsConstructor
+public class DailySalesRecorder {
+
+    private final DailySalesRepository dailySalesRepository;
+
+    @EventListener
+    public void record(OrderStatusChangedEvent event) {
+        if (event.isEntered(OrderStatus.PAYMENT_COMPLETED)) {
+            dailySalesRepository.addSales(createDeltas(event.getOrder(), 1));
+        } else if (event.isLeft(OrderStatus.PAYMENT_COMPLETED)) {
+            dailySalesRepository.addSales(createDeltas(event.getOrder(), -1));
+        }
+    }
+
+    private static List<DailySales> createDeltas(Order order, int sign) {
+        LocalDate salesDate = order.getRegisteredDateTime().toLocalDate();
+
+        Map<String, Long> amountsByProductType = new TreeMap<>();
+        for (OrderProduct orderProduct : order.getOrderProducts()) {
+            amountsByProductType.merge(orderProduct.getProduct().getType().name(), orderProduct.getTotalPrice(), Long::sum);
+        }
+
+        List<DailySales> deltas = new ArrayList<>();
+        deltas.add(DailySales.of(salesDate, DailySales.ALL_PRODUCT_TYPES, sign, (long) sign * order.getTotalPrice()));
+        amountsByProductType.forEach((productType, amount) ->
+                deltas.add(DailySales.of(salesDate, productType, sign, sign * amount))
+        );
+        return deltas;
+    }
+}
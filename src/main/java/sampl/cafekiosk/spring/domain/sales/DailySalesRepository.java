@@ -0,0 +1,8 @@
+package sampl.cafekiosk.spring.domain.sales;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DailySalesRepository extends JpaRepository<DailySales, DailySalesId>, DailySalesRepositoryCustom {
+}
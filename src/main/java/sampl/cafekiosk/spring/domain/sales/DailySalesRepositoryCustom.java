@@ -0,0 +1,11 @@
+package sampl.cafekiosk.spring.domain.sales;
+
+import java.util.List;
+
+public interface DailySalesRepositoryCustom {
+
+    /**
+     * 각 행의 건수와 금액을 기존 집계에 더한다. 집계 행이 없으면 만든다.
+     */
+    void addSales(List<DailySales> deltas);
+}
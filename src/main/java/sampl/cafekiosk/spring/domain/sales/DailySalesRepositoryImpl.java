@@ -0,0 +1,53 @@
+package sampl.cafekiosk.spring.domain.sales;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class DailySalesRepositoryImpl implements DailySalesRepositoryCustom {
+
+    private static final String ADD_SALES_SQL =
+            "merge into daily_sales d " +
+            "using (values (cast(? as date), cast(? as varchar(255)), cast(? as bigint), cast(? as bigint))) " +
+            "s(sales_date, product_type, order_count, total_amount) " +
+            "on d.sales_date = s.sales_date and d.product_type = s.product_type " +
+            "when matched then update set order_count = d.order_count + s.order_count, total_amount = d.total_amount + s.total_amount " +
+            "when not matched then insert (sales_date, product_type, order_count, total_amount) " +
+            "values (s.sales_date, s.product_type, s.order_count, s.total_amount)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void addSales(List<DailySales> deltas) {
+        // 여러 주문이 같은 날짜의 집계 행들을 갱신해도 교착 상태가 생기지 않도록 항상 같은 순서로 갱신한다.
+        List<DailySales> sortedDeltas = deltas.stream()
+                .sorted(Comparator.comparing(DailySales::getSalesDate).thenComparing(DailySales::getProductType))
+                .collect(Collectors.toList());
+
+        for (DailySales delta : sortedDeltas) {
+            try {
+                merge(delta);
+            } catch (DuplicateKeyException e) {
+                // 같은 날짜의 첫 집계 행을 다른 트랜잭션이 먼저 만들었다. 이번에는 기존 행에 더해진다.
+                merge(delta);
+            }
+        }
+    }
+
+    private void merge(DailySales delta) {
+        jdbcTemplate.update(ADD_SALES_SQL,
+                Date.valueOf(delta.getSalesDate()),
+                delta.getProductType(),
+                delta.getOrderCount(),
+                delta.getTotalAmount()
+        );
+    }
+}
@@ -0,0 +1,59 @@
+package sampl.cafekiosk.spring.domain.sales;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Lob;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 일자별 상품 판매 수량 스케치(Count-Min Sketch + Space-Saving)의 체크포인트. (BestSellerTracker 가 주기적으로 저장한다)
+ * 서버(instanceId)마다 자기가 더한 수량만 저장하므로, 여러 서버가 같은 날짜를 저장해도 서로 덮어쓰지 않는다.
+ */
+@Getter
+@Entity
+@IdClass(ProductSalesSketchId.class)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ProductSalesSketch {
+
+    @Id
+    private LocalDate salesDate;
+
+    @Id
+    @Column(length = 36)
+    private String instanceId;
+
+    @Lob
+    private byte[] countMinSketch;
+
+    @Lob
+    private byte[] topProducts;
+
+    private LocalDateTime checkpointedDateTime;
+
+    @Builder
+    private ProductSalesSketch(LocalDate salesDate, String instanceId, byte[] countMinSketch, byte[] topProducts, LocalDateTime checkpointedDateTime) {
+        this.salesDate = salesDate;
+        this.instanceId = instanceId;
+        this.countMinSketch = countMinSketch;
+        this.topProducts = topProducts;
+        this.checkpointedDateTime = checkpointedDateTime;
+    }
+
+    public static ProductSalesSketch of(LocalDate salesDate, String instanceId, byte[] countMinSketch, byte[] topProducts, LocalDateTime checkpointedDateTime) {
+        return ProductSalesSketch.builder()
+                .salesDate(salesDate)
+                .instanceId(instanceId)
+                .countMinSketch(countMinSketch)
+                .topProducts(topProducts)
+                .checkpointedDateTime(checkpointedDateTime)
+                .build();
+    }
+}
@@ -0,0 +1,27 @@
+package sampl.cafekiosk.spring.domain.sales;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Getter
+@EqualsAndHashCode
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ProductSalesSketchId implements Serializable {
+
+    private LocalDate salesDate;
+    private String instanceId;
+
+    private ProductSalesSketchId(LocalDate salesDate, String instanceId) {
+        this.salesDate = salesDate;
+        this.instanceId = instanceId;
+    }
+
+    public static ProductSalesSketchId of(LocalDate salesDate, String instanceId) {
+        return new ProductSalesSketchId(salesDate, instanceId);
+    }
+}
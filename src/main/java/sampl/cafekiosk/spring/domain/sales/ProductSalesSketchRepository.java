@@ -0,0 +1,24 @@
+package sampl.cafekiosk.spring.domain.sales;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ProductSalesSketchRepository extends JpaRepository<ProductSalesSketch, ProductSalesSketchId> {
+
+    List<ProductSalesSketch> findAllBySalesDateGreaterThanEqual(LocalDate salesDate);
+
+    /**
+     * 보관 기간이 지난 날짜의 체크포인트를 모든 서버의 것까지 지운다.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from ProductSalesSketch s where s.salesDate < :oldestDate")
+    int deleteAllSalesDateBefore(LocalDate oldestDate);
+}
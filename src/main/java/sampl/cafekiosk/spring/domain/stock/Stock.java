@@ -9,19 +9,26 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Version;
 
 @Entity
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Stock {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_seq_generator")
+    @SequenceGenerator(name = "stock_seq_generator", sequenceName = "stock_seq", allocationSize = 50)
     private Long id;
 
     private String productNumber;
 
     private int quantity;
 
+    @Version
+    private Long version;
+
     @Builder
     private Stock(String productNumber, int quantity) {
         this.productNumber = productNumber;
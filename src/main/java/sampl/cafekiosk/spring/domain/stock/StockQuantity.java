@@ -0,0 +1,8 @@
+package sampl.cafekiosk.spring.domain.stock;
+
+public interface StockQuantity {
+
+    String getProductNumber();
+
+    int getQuantity();
+}
@@ -1,12 +1,44 @@
 package sampl.cafekiosk.spring.domain.stock;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface StockRepository extends JpaRepository<Stock, Long> {
+public interface StockRepository extends JpaRepository<Stock, Long>, StockRepositoryCustom {
 
     List<Stock> findAllByProductNumberIn(List<String> productNumber);
+
+    Optional<Stock> findByProductNumber(String productNumber);
+
+    /**
+     * 영속성 컨텍스트에 Stock 엔티티를 올리지 않고 상품별 재고 수량만 읽는다.
+     * 같은 트랜잭션에서 나중에 재고 행을 잠그고 읽을 때 먼저 읽어 둔 엔티티가 남아 있지 않게 한다.
+     */
+    @Query("select s.productNumber as productNumber, s.quantity as quantity from Stock s where s.productNumber in :productNumbers")
+    List<StockQuantity> findQuantitiesByProductNumberIn(List<String> productNumbers);
+
+    /**
+     * select ... for update 한 번으로 재고 행을 잠그면서 읽는다. 잠금을 3초 안에 얻지 못하면 실패한다.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "3000"))
+    @Query("select s from Stock s where s.productNumber = :productNumber")
+    Optional<Stock> findForUpdateByProductNumber(String productNumber);
+
+    /**
+     * 읽었을 때의 버전과 같을 때만 차감한다. 0이 반환되면 그 사이 다른 트랜잭션이 재고를 변경한 것이다.
+     */
+    @Modifying
+    @Query("update Stock s set s.quantity = s.quantity - :quantity, s.version = s.version + 1 " +
+            "where s.id = :id and s.version = :version")
+    int deductQuantityIfVersionMatches(Long id, Long version, int quantity);
 }
@@ -0,0 +1,18 @@
+package sampl.cafekiosk.spring.domain.stock;
+
+import java.util.List;
+import java.util.Map;
+
+public interface StockRepositoryCustom {
+
+    /**
+     * update stock
+     * set quantity = quantity - :quantity, version = version + 1
+     * where product_number = :productNumber and quantity >= :quantity;
+     *
+     * 상품별 조건부 UPDATE 를 한 번의 JDBC 배치로 실행하고, 재고가 부족해 차감하지 못한 상품번호를 반환한다.
+     * 엔티티를 읽지 않고 재고를 확인하며 차감하지만, UPDATE 한 행의 락은 문장이 끝날 때가 아니라 호출한 트랜잭션이 끝날 때(커밋 또는 롤백) 풀린다.
+     * 그래서 주문 트랜잭션 안에서 호출하면 같은 상품을 차감하는 다른 주문은 이 주문이 커밋될 때까지 기다린다.
+     */
+    List<String> deductQuantities(Map<String, Integer> quantitiesByProductNumber);
+}
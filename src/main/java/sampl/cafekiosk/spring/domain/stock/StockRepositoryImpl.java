@@ -0,0 +1,60 @@
+package sampl.cafekiosk.spring.domain.stock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@RequiredArgsConstructor
+public class StockRepositoryImpl implements StockRepositoryCustom {
+
+    private static final String DEDUCT_QUANTITY_SQL =
+            "update stock set quantity = quantity - ?, version = version + 1 where product_number = ? and quantity >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public List<String> deductQuantities(Map<String, Integer> quantitiesByProductNumber) {
+        if (quantitiesByProductNumber.isEmpty()) {
+            return List.of();
+        }
+
+        // 아직 INSERT 되지 않은 재고가 있다면 JDBC 로 직접 UPDATE 하기 전에 반영한다.
+        entityManager.flush();
+
+        // 잠근 행은 트랜잭션이 끝날 때까지 풀리지 않으므로, 여러 주문이 같은 상품들을 차감해도 교착 상태가 생기지 않도록 항상 상품번호 순서로 행을 잠근다.
+        List<Map.Entry<String, Integer>> deductions = new ArrayList<>(new TreeMap<>(quantitiesByProductNumber).entrySet());
+
+        int[] updatedRows = jdbcTemplate.batchUpdate(DEDUCT_QUANTITY_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Map.Entry<String, Integer> deduction = deductions.get(i);
+                ps.setInt(1, deduction.getValue());
+                ps.setString(2, deduction.getKey());
+                ps.setInt(3, deduction.getValue());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return deductions.size();
+            }
+        });
+
+        return IntStream.range(0, deductions.size())
+                .filter(i -> updatedRows[i] == 0)
+                .mapToObj(i -> deductions.get(i).getKey())
+                .collect(Collectors.toList());
+    }
+}
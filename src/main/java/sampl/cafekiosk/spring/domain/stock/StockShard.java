@@ -0,0 +1,71 @@
+package sampl.cafekiosk.spring.domain.stock;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 주문이 몰리는 상품의 재고를 여러 행으로 나눠 담는 조각.
+ * 한 상품의 재고 = Stock.quantity + 모든 조각의 quantity 합
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class StockShard {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_shard_seq_generator")
+    @SequenceGenerator(name = "stock_shard_seq_generator", sequenceName = "stock_shard_seq", allocationSize = 50)
+    private Long id;
+
+    private String productNumber;
+
+    private int shardIndex;
+
+    private int quantity;
+
+    @Builder
+    private StockShard(String productNumber, int shardIndex, int quantity) {
+        this.productNumber = productNumber;
+        this.shardIndex = shardIndex;
+        this.quantity = quantity;
+    }
+
+    /**
+     * 수량을 shardCount 개의 조각에 최대한 고르게 나눈다. 나머지는 앞쪽 조각부터 1개씩 더 담는다.
+     */
+    public static List<StockShard> split(String productNumber, int quantity, int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("재고 조각 수는 1 이상이어야 합니다.");
+        }
+
+        return IntStream.range(0, shardCount)
+                .mapToObj(shardIndex -> StockShard.builder()
+                        .productNumber(productNumber)
+                        .shardIndex(shardIndex)
+                        .quantity(quantity / shardCount + (shardIndex < quantity % shardCount ? 1 : 0))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    public boolean isQuantityLessThan(int quantity) {
+        return this.quantity < quantity;
+    }
+
+    public void deductQuantity(int quantity) {
+        if (isQuantityLessThan(quantity)) {
+            throw new IllegalArgumentException("차감할 재고 수량이 없습니다.");
+        }
+        this.quantity -= quantity;
+    }
+}
@@ -0,0 +1,42 @@
+package sampl.cafekiosk.spring.domain.stock;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.List;
+
+@Repository
+public interface StockShardRepository extends JpaRepository<StockShard, Long> {
+
+    /**
+     * 조각으로 나뉜 상품만 조각 수와 조각 재고 합계를 반환한다.
+     */
+    @Query("select s.productNumber as productNumber, count(s) as shardCount, sum(s.quantity) as quantity " +
+            "from StockShard s " +
+            "where s.productNumber in :productNumbers " +
+            "group by s.productNumber")
+    List<StockShardSummary> findSummariesByProductNumberIn(List<String> productNumbers);
+
+    boolean existsByProductNumber(String productNumber);
+
+    /**
+     * update stock_shard
+     * set quantity = quantity - :quantity
+     * where product_number = :productNumber and shard_index = :shardIndex and quantity >= :quantity;
+     */
+    @Modifying
+    @Query("update StockShard s set s.quantity = s.quantity - :quantity " +
+            "where s.productNumber = :productNumber and s.shardIndex = :shardIndex and s.quantity >= :quantity")
+    int deductQuantity(String productNumber, int shardIndex, int quantity);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "3000"))
+    @Query("select s from StockShard s where s.productNumber = :productNumber order by s.shardIndex")
+    List<StockShard> findAllForUpdateByProductNumber(String productNumber);
+}
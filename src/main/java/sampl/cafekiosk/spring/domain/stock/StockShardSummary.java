@@ -0,0 +1,10 @@
+package sampl.cafekiosk.spring.domain.stock;
+
+public interface StockShardSummary {
+
+    String getProductNumber();
+
+    long getShardCount();
+
+    long getQuantity();
+}
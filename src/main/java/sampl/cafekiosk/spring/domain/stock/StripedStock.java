@@ -0,0 +1,67 @@
+package sampl.cafekiosk.spring.domain.stock;
+
+import lombok.Getter;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 여러 조각으로 나뉜 한 상품의 재고를 Stock 과 같은 방식으로 다룬다.
+ * 조각으로 나눈 뒤 Stock 에 다시 채워진 수량은 마지막 조각처럼 함께 센다.
+ */
+@Getter
+public class StripedStock {
+
+    private final String productNumber;
+    private final List<StockShard> shards;
+    private final Stock stock;
+
+    private StripedStock(String productNumber, List<StockShard> shards, Stock stock) {
+        this.productNumber = productNumber;
+        this.shards = shards;
+        this.stock = stock;
+    }
+
+    public static StripedStock of(String productNumber, List<StockShard> shards) {
+        return of(productNumber, shards, null);
+    }
+
+    /**
+     * @param stock 조각 다음에 차감할 Stock (없으면 null)
+     */
+    public static StripedStock of(String productNumber, List<StockShard> shards, Stock stock) {
+        return new StripedStock(productNumber, shards.stream()
+                .sorted(Comparator.comparingInt(StockShard::getShardIndex))
+                .collect(Collectors.toList()), stock);
+    }
+
+    public int getQuantity() {
+        return shards.stream()
+                .mapToInt(StockShard::getQuantity)
+                .sum() + (stock == null ? 0 : stock.getQuantity());
+    }
+
+    public boolean isQuantityLessThan(int quantity) {
+        return getQuantity() < quantity;
+    }
+
+    /**
+     * 한 조각으로 부족하면 조각 순서대로 나눠서 차감하고, 조각이 모두 비면 Stock 에서 차감한다.
+     */
+    public void deductQuantity(int quantity) {
+        if (isQuantityLessThan(quantity)) {
+            throw new IllegalArgumentException("차감할 재고 수량이 없습니다.");
+        }
+
+        int remaining = quantity;
+        for (StockShard shard : shards) {
+            int deduction = Math.min(shard.getQuantity(), remaining);
+            shard.deductQuantity(deduction);
+            remaining -= deduction;
+        }
+        if (remaining > 0) {
+            stock.deductQuantity(remaining);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package sampl.cafekiosk.spring.support;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 동시에 들어온 조회 요청의 키를 잠시 모아 한 번의 조회로 처리한다. (DataLoader 방식)
+ * <p>
+ * 묶음을 처음 연 요청이 리더가 되어 window 동안(또는 키가 maxBatchSize 개 모일 때까지) 기다린 뒤,
+ * 모인 키를 중복 없이 batchLoader 에 넘기고 결과를 나머지 요청에 나눠 준다.
+ * 조회는 리더의 스레드에서 실행되므로 묶음 하나에 조회도 한 번이다.
+ * batchLoader 는 리더의 트랜잭션에 참여하지 않도록 자신의 읽기 전용 트랜잭션(REQUIRES_NEW)에서 조회해야 한다.
+ * 그래야 리더가 커밋하지 않은 변경이 다른 요청에 보이지 않고, 리더의 트랜잭션이 롤백되어도 다른 요청의 결과에 영향이 없다.
+ * 대신 트랜잭션 안에서 loadAll 을 부르면 커넥션을 쥔 채 두 번째 커넥션을 기다리므로, 커넥션 풀 크기만큼 요청이 몰리면 풀이 바닥나 멈춘다.
+ * 그래서 loadAll 은 트랜잭션 밖에서, 커넥션을 쥐지 않은 채로 불러야 한다.
+ */
+public class CoalescingLoader<K, V> {
+
+    private final Function<List<K>, Map<K, V>> batchLoader;
+    private final long windowNanos;
+    private final int maxBatchSize;
+
+    private Batch<K, V> openBatch;
+
+    public CoalescingLoader(Function<List<K>, Map<K, V>> batchLoader, Duration window, int maxBatchSize) {
+        this.batchLoader = batchLoader;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * batchLoader 가 돌려주지 않은 키는 결과에 포함하지 않는다.
+     */
+    public Map<K, V> loadAll(Collection<K> keys) {
+        if (keys.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        Batch<K, V> batch;
+        boolean leader = false;
+        synchronized (this) {
+            if (openBatch != null && openBatch.keys.size() + keys.size() > maxBatchSize) {
+                closeOpenBatch();
+            }
+            if (openBatch == null) {
+                openBatch = new Batch<>();
+                leader = true;
+            }
+            batch = openBatch;
+            batch.keys.addAll(keys);
+            if (batch.keys.size() >= maxBatchSize) {
+                closeOpenBatch();
+            }
+        }
+
+        if (leader) {
+            execute(batch);
+        }
+
+        Map<K, V> loaded = batch.await();
+        Map<K, V> result = new HashMap<>();
+        for (K key : keys) {
+            V value = loaded.get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    private void execute(Batch<K, V> batch) {
+        Uninterruptibles.awaitUninterruptibly(batch.closed, windowNanos, TimeUnit.NANOSECONDS);
+
+        List<K> keys;
+        synchronized (this) {
+            if (openBatch == batch) {
+                closeOpenBatch();
+            }
+            keys = new ArrayList<>(batch.keys);
+        }
+
+        try {
+            batch.result.complete(batchLoader.apply(keys));
+        } catch (RuntimeException e) {
+            batch.result.completeExceptionally(e);
+        }
+    }
+
+    private void closeOpenBatch() {
+        openBatch.closed.countDown();
+        openBatch = null;
+    }
+
+    private static class Batch<K, V> {
+        private final Set<K> keys = new LinkedHashSet<>();
+        private final CountDownLatch closed = new CountDownLatch(1);
+        private final CompletableFuture<Map<K, V>> result = new CompletableFuture<>();
+
+        private Map<K, V> await() {
+            try {
+                return Uninterruptibles.getUninterruptibly(result);
+            } catch (ExecutionException e) {
+                Throwables.throwIfUnchecked(e.getCause());
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package sampl.cafekiosk.spring.support;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 키별 누적 수량을 고정 크기(depth * width 칸)의 표로 근사한다. 수량은 실제보다 작게 추정되지 않는다.
+ * 추정치는 확률 1 - e^-depth 로 실제 수량 + (e / width) * 전체 수량 이하이다.
+ * <p>
+ * 해시 시드가 고정되어 있으므로 depth 와 width 가 같은 스케치끼리는 칸별로 더해 합칠 수 있다. (서버 재시작, 여러 날짜)
+ * 더할 때는 칸마다 원자적으로 증가시키므로 락 없이 여러 스레드가 동시에 더할 수 있다.
+ */
+public class CountMinSketch {
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    private final int depth;
+    private final int width;
+    private final AtomicLongArray counts;
+    private final AtomicLong totalCount = new AtomicLong();
+
+    public CountMinSketch(int depth, int width) {
+        if (depth <= 0 || width <= 0) {
+            throw new IllegalArgumentException("스케치의 depth 와 width 는 양수여야 합니다.");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.counts = new AtomicLongArray(depth * width);
+    }
+
+    public void add(String key, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("스케치에는 음수를 더할 수 없습니다.");
+        }
+        long[] hashes = hash(key);
+        for (int row = 0; row < depth; row++) {
+            counts.addAndGet(cell(row, hashes), count);
+        }
+        totalCount.addAndGet(count);
+    }
+
+    public long estimate(String key) {
+        long[] hashes = hash(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counts.get(cell(row, hashes)));
+        }
+        return estimate;
+    }
+
+    public long getTotalCount() {
+        return totalCount.get();
+    }
+
+    public int getMemoryBytes() {
+        return depth * width * Long.BYTES;
+    }
+
+    public CountMinSketch merge(CountMinSketch other) {
+        if (depth != other.depth || width != other.width) {
+            throw new IllegalArgumentException("크기가 다른 스케치는 합칠 수 없습니다.");
+        }
+        CountMinSketch merged = new CountMinSketch(depth, width);
+        for (int i = 0; i < counts.length(); i++) {
+            merged.counts.set(i, counts.get(i) + other.counts.get(i));
+        }
+        merged.totalCount.set(totalCount.get() + other.totalCount.get());
+        return merged;
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + counts.length() * Long.BYTES);
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(depth);
+            output.writeInt(width);
+            output.writeLong(totalCount.get());
+            for (int i = 0; i < counts.length(); i++) {
+                output.writeLong(counts.get(i));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static CountMinSketch fromBytes(byte[] bytes) {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            CountMinSketch sketch = new CountMinSketch(input.readInt(), input.readInt());
+            sketch.totalCount.set(input.readLong());
+            for (int i = 0; i < sketch.counts.length(); i++) {
+                sketch.counts.set(i, input.readLong());
+            }
+            return sketch;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 128비트 해시 하나를 두 개의 64비트 값으로 나눠 행마다 다른 칸을 고른다. (h1 + row * h2)
+     */
+    private static long[] hash(String key) {
+        ByteBuffer buffer = ByteBuffer.wrap(HASH_FUNCTION.hashString(key, StandardCharsets.UTF_8).asBytes())
+                .order(ByteOrder.LITTLE_ENDIAN);
+        return new long[]{buffer.getLong(), buffer.getLong()};
+    }
+
+    private int cell(int row, long[] hashes) {
+        return row * width + (int) Math.floorMod(hashes[0] + row * hashes[1], (long) width);
+    }
+
+}
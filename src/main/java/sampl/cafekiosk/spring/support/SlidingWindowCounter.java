@@ -0,0 +1,113 @@
+package sampl.cafekiosk.spring.support;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 최근 일정 시간 동안 더한 건수와 금액을 bucket 단위 링 버퍼에 모은다.
+ * 더할 때는 시각에 해당하는 bucket 의 LongAdder 만 증가시키므로 락 없이 여러 스레드가 동시에 더할 수 있다.
+ * 조회는 window 에 포함된 bucket 만 합치므로 bucket 수에 비례하고, 시간이 지난 bucket 은 다음에 같은 칸을 쓸 때 새 bucket 으로 바뀐다.
+ * <p>
+ * 링 버퍼 길이(bucketSize * bucketCount)보다 오래된 시각의 값은 버린다.
+ */
+public class SlidingWindowCounter {
+
+    private final long bucketMillis;
+    private final LongSupplier currentTimeMillis;
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    public SlidingWindowCounter(Duration bucketSize, int bucketCount, LongSupplier currentTimeMillis) {
+        if (bucketSize.toMillis() <= 0 || bucketCount <= 0) {
+            throw new IllegalArgumentException("bucket 크기와 개수는 양수여야 합니다.");
+        }
+        this.bucketMillis = bucketSize.toMillis();
+        this.currentTimeMillis = currentTimeMillis;
+        this.buckets = new AtomicReferenceArray<>(bucketCount);
+    }
+
+    /**
+     * timeMillis 시각의 bucket 에 더한다. 취소처럼 이미 더한 값을 되돌릴 때는 음수를 더한다.
+     */
+    public void add(long timeMillis, long count, long amount) {
+        long index = timeMillis / bucketMillis;
+        if (index <= currentIndex() - buckets.length()) {
+            return;
+        }
+
+        Bucket bucket = bucketOf(index);
+        if (bucket != null) {
+            bucket.count.add(count);
+            bucket.amount.add(amount);
+        }
+    }
+
+    /**
+     * 현재 bucket 을 포함해 최근 window 에 걸친 bucket 들을 합친다. window 는 bucket 크기 단위로 올림한다.
+     */
+    public Totals sum(Duration window) {
+        long windowBuckets = Math.min((window.toMillis() + bucketMillis - 1) / bucketMillis, buckets.length());
+        long currentIndex = currentIndex();
+
+        long count = 0;
+        long amount = 0;
+        for (int slot = 0; slot < buckets.length(); slot++) {
+            Bucket bucket = buckets.get(slot);
+            if (bucket != null && bucket.index <= currentIndex && bucket.index > currentIndex - windowBuckets) {
+                count += bucket.count.sum();
+                amount += bucket.amount.sum();
+            }
+        }
+        return new Totals(count, amount);
+    }
+
+    private long currentIndex() {
+        return currentTimeMillis.getAsLong() / bucketMillis;
+    }
+
+    /**
+     * 칸에 이전 시각의 bucket 이 있으면 새 bucket 으로 바꾼다. 칸에 더 최근 bucket 이 있으면 null 을 반환한다.
+     */
+    private Bucket bucketOf(long index) {
+        int slot = (int) Math.floorMod(index, (long) buckets.length());
+        while (true) {
+            Bucket bucket = buckets.get(slot);
+            if (bucket != null && bucket.index == index) {
+                return bucket;
+            }
+            if (bucket != null && bucket.index > index) {
+                return null;
+            }
+
+            Bucket fresh = new Bucket(index);
+            if (buckets.compareAndSet(slot, bucket, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    @Getter
+    public static class Totals {
+        private final long count;
+        private final long amount;
+
+        private Totals(long count, long amount) {
+            this.count = count;
+            this.amount = amount;
+        }
+    }
+
+    private static class Bucket {
+        private final long index;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder amount = new LongAdder();
+
+        private Bucket(long index) {
+            this.index = index;
+        }
+    }
+
+}
@@ -0,0 +1,168 @@
+package sampl.cafekiosk.spring.support;
+
+import lombok.Getter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 가장 많이 나온 키들을 capacity 개의 카운터로 추적한다. (Space-Saving)
+ * 카운터가 가득 찬 상태에서 새 키가 들어오면 가장 작은 카운터를 새 키에 넘겨주고, 넘겨받은 값은 오차(error)로 기록한다.
+ * 카운터의 값은 실제 수량보다 작지 않고, count - error 는 실제 수량보다 크지 않다.
+ * 전체 수량이 N 이면 오차는 N / capacity 이하이므로, 그보다 많이 나온 키는 반드시 남아 있다.
+ * <p>
+ * 새 키가 들어올 때 가장 작은 카운터를 찾느라 capacity 에 비례하는 시간이 걸리므로 capacity 는 수백 개 이하로 둔다.
+ */
+public class SpaceSaving {
+
+    private final int capacity;
+    private final Map<String, Counter> counters = new HashMap<>();
+
+    public SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("카운터 수는 양수여야 합니다.");
+        }
+        this.capacity = capacity;
+    }
+
+    public synchronized void add(String key, long count) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.count += count;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(key, new Counter(count, 0));
+            return;
+        }
+
+        Map.Entry<String, Counter> min = counters.entrySet().stream()
+                .min(Comparator.comparingLong(entry -> entry.getValue().count))
+                .orElseThrow();
+        counters.remove(min.getKey());
+        counters.put(key, new Counter(min.getValue().count + count, min.getValue().count));
+    }
+
+    /**
+     * 카운터 값이 큰 순서로 limit 개를 반환한다.
+     */
+    public synchronized List<Entry> top(int limit) {
+        return counters.entrySet().stream()
+                .map(entry -> new Entry(entry.getKey(), entry.getValue().count, entry.getValue().error))
+                .sorted(Comparator.comparingLong(Entry::getCount).reversed().thenComparing(Entry::getKey))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 두 요약을 합친다. 한쪽에만 있는 키는 다른 쪽에서 가장 작은 카운터 값만큼 나왔을 수 있으므로 그 값을 수량과 오차에 더한다.
+     */
+    public SpaceSaving merge(SpaceSaving other) {
+        Map<String, Counter> left = snapshot();
+        Map<String, Counter> right = other.snapshot();
+        long leftMin = left.size() < capacity ? 0 : minCount(left);
+        long rightMin = right.size() < other.capacity ? 0 : minCount(right);
+
+        Set<String> keys = new HashSet<>(left.keySet());
+        keys.addAll(right.keySet());
+
+        List<Entry> entries = new ArrayList<>();
+        for (String key : keys) {
+            Counter leftCounter = left.getOrDefault(key, new Counter(leftMin, leftMin));
+            Counter rightCounter = right.getOrDefault(key, new Counter(rightMin, rightMin));
+            entries.add(new Entry(key, leftCounter.count + rightCounter.count, leftCounter.error + rightCounter.error));
+        }
+
+        SpaceSaving merged = new SpaceSaving(Math.max(capacity, other.capacity));
+        entries.stream()
+                .sorted(Comparator.comparingLong(Entry::getCount).reversed()
+                        .thenComparingLong(Entry::getError)
+                        .thenComparing(Entry::getKey))
+                .limit(merged.capacity)
+                .forEach(entry -> merged.counters.put(entry.key, new Counter(entry.count, entry.error)));
+        return merged;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public byte[] toBytes() {
+        Map<String, Counter> snapshot = snapshot();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(capacity);
+            output.writeInt(snapshot.size());
+            for (Map.Entry<String, Counter> entry : snapshot.entrySet()) {
+                output.writeUTF(entry.getKey());
+                output.writeLong(entry.getValue().count);
+                output.writeLong(entry.getValue().error);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static SpaceSaving fromBytes(byte[] bytes) {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            SpaceSaving spaceSaving = new SpaceSaving(input.readInt());
+            int size = input.readInt();
+            for (int i = 0; i < size; i++) {
+                spaceSaving.counters.put(input.readUTF(), new Counter(input.readLong(), input.readLong()));
+            }
+            return spaceSaving;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private synchronized Map<String, Counter> snapshot() {
+        Map<String, Counter> snapshot = new HashMap<>();
+        counters.forEach((key, counter) -> snapshot.put(key, new Counter(counter.count, counter.error)));
+        return snapshot;
+    }
+
+    private static long minCount(Map<String, Counter> counters) {
+        return counters.values().stream()
+                .mapToLong(counter -> counter.count)
+                .min()
+                .orElse(0);
+    }
+
+    @Getter
+    public static class Entry {
+        private final String key;
+        private final long count;
+        private final long error;
+
+        private Entry(String key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    private static class Counter {
+        private long count;
+        private final long error;
+
+        private Counter(long count, long error) {
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+}
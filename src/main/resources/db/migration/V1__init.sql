@@ -0,0 +1,95 @@
+-- 엔티티의 @SequenceGenerator(allocationSize = 50) 와 증가값을 맞춘다.
+create sequence mail_send_history_seq start with 1 increment by 50;
+create sequence order_idempotency_key_seq start with 1 increment by 50;
+create sequence order_product_seq start with 1 increment by 50;
+create sequence order_seq start with 1 increment by 50;
+create sequence product_seq start with 1 increment by 50;
+create sequence stock_seq start with 1 increment by 50;
+create sequence stock_shard_seq start with 1 increment by 50;
+
+create table product (
+    id                 bigint not null,
+    local_date_time    timestamp,
+    modified_date_time timestamp,
+    product_number     varchar(255),
+    type               varchar(255),
+    selling_status     varchar(255),
+    name               varchar(255),
+    price              integer not null,
+    primary key (id),
+    constraint uk_product_product_number unique (product_number)
+);
+
+-- ProductRepository.findAllBySellingStatusIn
+create index idx_product_selling_status on product (selling_status);
+
+create table product_number_sequence (
+    name       varchar(255) not null,
+    next_value bigint not null,
+    primary key (name)
+);
+
+create table orders (
+    id                   bigint not null,
+    local_date_time      timestamp,
+    modified_date_time   timestamp,
+    order_status         varchar(255),
+    total_price          integer not null,
+    registered_date_time timestamp,
+    primary key (id)
+);
+
+-- OrderRepository.findOrdersBy : 상태는 같은 값으로, 등록 시각은 범위로 찾는다.
+create index idx_orders_order_status_registered_date_time on orders (order_status, registered_date_time);
+
+create table order_product (
+    id                 bigint not null,
+    local_date_time    timestamp,
+    modified_date_time timestamp,
+    order_id           bigint,
+    product_id         bigint,
+    quantity           integer not null,
+    price              integer not null,
+    primary key (id),
+    constraint fk_order_product_order foreign key (order_id) references orders (id),
+    constraint fk_order_product_product foreign key (product_id) references product (id)
+);
+
+create table order_idempotency_key (
+    id                 bigint not null,
+    local_date_time    timestamp,
+    modified_date_time timestamp,
+    idempotency_key    varchar(100) not null,
+    order_id           bigint,
+    primary key (id),
+    constraint uk_order_idempotency_key_idempotency_key unique (idempotency_key)
+);
+
+create table stock (
+    id             bigint not null,
+    product_number varchar(255),
+    quantity       integer not null,
+    version        bigint,
+    primary key (id),
+    constraint uk_stock_product_number unique (product_number)
+);
+
+create table stock_shard (
+    id             bigint not null,
+    product_number varchar(255),
+    shard_index    integer not null,
+    quantity       integer not null,
+    primary key (id),
+    constraint uk_stock_shard_product_number_shard_index unique (product_number, shard_index)
+);
+
+create table mail_send_history (
+    id                 bigint not null,
+    local_date_time    timestamp,
+    modified_date_time timestamp,
+    from_email         varchar(255),
+    to_email           varchar(255),
+    subject            varchar(255),
+    content            varchar(255),
+    primary key (id)
+);
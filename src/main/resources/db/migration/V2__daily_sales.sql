@@ -0,0 +1,22 @@
+create table daily_sales (
+    sales_date   date not null,
+    product_type varchar(255) not null,
+    order_count  bigint not null,
+    total_amount bigint not null,
+    primary key (sales_date, product_type)
+);
+
+-- 이미 결제완료된 주문을 집계에 채운다.
+insert into daily_sales (sales_date, product_type, order_count, total_amount)
+select cast(o.registered_date_time as date), 'ALL', count(*), sum(cast(o.total_price as bigint))
+from orders o
+where o.order_status = 'PAYMENT_COMPLETED'
+group by cast(o.registered_date_time as date);
+
+insert into daily_sales (sales_date, product_type, order_count, total_amount)
+select cast(o.registered_date_time as date), p.type, count(distinct o.id), sum(cast(op.price as bigint) * op.quantity)
+from orders o
+join order_product op on op.order_id = o.id
+join product p on p.id = op.product_id
+where o.order_status = 'PAYMENT_COMPLETED'
+group by cast(o.registered_date_time as date), p.type;
@@ -0,0 +1,7 @@
+create table product_sales_sketch (
+    sales_date             date not null,
+    count_min_sketch       blob,
+    top_products           blob,
+    checkpointed_date_time timestamp,
+    primary key (sales_date)
+);
@@ -0,0 +1,9 @@
+create table job_lease (
+    job_name            varchar(100) not null,
+    owner               varchar(100),
+    leased_until        timestamp,
+    last_completed_date date,
+    primary key (job_name)
+);
+
+insert into job_lease (job_name) values ('order-statistics-mail');
@@ -0,0 +1,20 @@
+create sequence mail_outbox_seq start with 1 increment by 50;
+
+create table mail_outbox (
+    id                     bigint not null,
+    local_date_time        timestamp,
+    modified_date_time     timestamp,
+    from_email             varchar(255),
+    to_email               varchar(255),
+    subject                varchar(255),
+    content                varchar(255),
+    status                 varchar(255) not null,
+    attempt_count          integer not null,
+    next_attempt_date_time timestamp not null,
+    claim_token            varchar(36),
+    primary key (id)
+);
+
+-- 보낼 메일을 찾을 때 (MailOutboxRepository.findIdsToDispatch)
+create index idx_mail_outbox_status_next_attempt on mail_outbox (status, next_attempt_date_time);
+create index idx_mail_outbox_claim_token on mail_outbox (claim_token);
@@ -0,0 +1,10 @@
+create table stock_reservation (
+    id                 varchar(36)  not null,
+    product_number     varchar(255) not null,
+    quantity           integer      not null,
+    reserved_date_time timestamp    not null,
+    primary key (id)
+);
+
+-- 주문 트랜잭션이 지우지 않고 남은 예약을 찾을 때 (StockDeductionCombiner.returnExpiredReservations)
+create index idx_stock_reservation_reserved_date_time on stock_reservation (reserved_date_time);
@@ -0,0 +1,4 @@
+alter table order_idempotency_key add column request_hash varchar(64);
+
+-- 오래된 멱등성 키를 지울 때 (OrderIdempotencyKeyRepository.deleteAllCreatedBefore)
+create index idx_order_idempotency_key_local_date_time on order_idempotency_key (local_date_time);
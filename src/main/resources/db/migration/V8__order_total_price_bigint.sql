@@ -0,0 +1,2 @@
+-- 주문 금액 합계가 int 범위를 넘을 수 있으므로 bigint 로 바꾼다. (Order.totalPrice)
+alter table orders alter column total_price set data type bigint;
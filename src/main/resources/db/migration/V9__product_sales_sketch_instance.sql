@@ -0,0 +1,4 @@
+-- 서버마다 자기가 더한 수량만 체크포인트하도록 서버(instance_id)별로 행을 나눈다. 순위는 모든 서버의 행을 합쳐서 구한다.
+alter table product_sales_sketch add column instance_id varchar(36) default 'legacy' not null;
+alter table product_sales_sketch drop primary key;
+alter table product_sales_sketch add primary key (sales_date, instance_id);
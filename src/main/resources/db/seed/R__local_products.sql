@@ -0,0 +1,11 @@
+-- local 프로필에서만 실행하는 예제 메뉴 (spring.flyway.locations)
+-- 반복 마이그레이션은 내용이 바뀔 때마다 다시 실행되므로, 이미 있는 상품 번호는 건너뛴다.
+merge into product p
+using (values
+    ('001', 'HANDMADE', 'SELLING', '아메리카노', 4000),
+    ('002', 'HANDMADE', 'HOLD', '카페라떼', 4500),
+    ('003', 'BAKERY', 'STOP_SELLING', '크루아상', 3500)
+) s(product_number, type, selling_status, name, price)
+on p.product_number = s.product_number
+when not matched then insert (id, product_number, type, selling_status, name, price)
+values (next value for product_seq, s.product_number, s.type, s.selling_status, s.name, s.price);
@@ -7,13 +7,22 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 import sampl.cafekiosk.spring.api.controller.order.OrderController;
+import sampl.cafekiosk.spring.api.controller.order.OrderStatisticsController;
 import sampl.cafekiosk.spring.api.controller.product.ProductController;
+import sampl.cafekiosk.spring.api.controller.stock.StockController;
+import sampl.cafekiosk.spring.api.service.order.OrderGroupCommitter;
+import sampl.cafekiosk.spring.api.service.order.OrderIdempotencyService;
 import sampl.cafekiosk.spring.api.service.order.OrderService;
+import sampl.cafekiosk.spring.api.service.order.OrderStatisticsService;
+import sampl.cafekiosk.spring.api.service.product.ProductImportService;
 import sampl.cafekiosk.spring.api.service.product.ProductService;
+import sampl.cafekiosk.spring.api.service.stock.StockService;
 
 @WebMvcTest(controllers = {
         OrderController.class,
-        ProductController.class
+        OrderStatisticsController.class,
+        ProductController.class,
+        StockController.class
 })
 public abstract class ControllerTestSupport {
 
@@ -26,6 +35,21 @@ public abstract class ControllerTestSupport {
     @MockBean
     protected OrderService orderService;
 
+    @MockBean
+    protected OrderIdempotencyService orderIdempotencyService;
+
+    @MockBean
+    protected OrderGroupCommitter orderGroupCommitter;
+
+    @MockBean
+    protected OrderStatisticsService orderStatisticsService;
+
     @MockBean
     protected ProductService productService;
+
+    @MockBean
+    protected ProductImportService productImportService;
+
+    @MockBean
+    protected StockService stockService;
 }
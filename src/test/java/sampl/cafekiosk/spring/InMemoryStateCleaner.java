@@ -0,0 +1,59 @@
+package sampl.cafekiosk.spring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import sampl.cafekiosk.spring.api.service.order.BestSellerTracker;
+import sampl.cafekiosk.spring.api.service.order.RealtimeSalesCounter;
+import sampl.cafekiosk.spring.api.service.order.SalesStatisticsCalculator;
+import sampl.cafekiosk.spring.domain.product.ProductCatalogCache;
+import sampl.cafekiosk.spring.domain.product.ProductNumberAllocator;
+
+/**
+ * 테스트마다 DB 를 벌크 삭제하므로, DB 를 기준으로 메모리에 쌓아 둔 상태도 각 컴포넌트의 reset() 으로 함께 비운다.
+ */
+@TestComponent
+@RequiredArgsConstructor
+public class InMemoryStateCleaner {
+
+    private final ProductCatalogCache productCatalogCache;
+    private final ProductNumberAllocator productNumberAllocator;
+    private final SalesStatisticsCalculator salesStatisticsCalculator;
+    private final RealtimeSalesCounter realtimeSalesCounter;
+    private final BestSellerTracker bestSellerTracker;
+    private final JdbcTemplate jdbcTemplate;
+
+    public void clearAll() {
+        clearProductCatalogCache();
+        clearProductNumberAllocator();
+        clearSalesStatisticsCalculator();
+        clearRealtimeSalesCounter();
+        clearBestSellerTracker();
+    }
+
+    // 이전 테스트의 상품이 캐시에 남지 않게 한다.
+    public void clearProductCatalogCache() {
+        productCatalogCache.reset();
+    }
+
+    // 상품 번호를 남아 있는 상품 기준으로 다시 발급하게 한다.
+    public void clearProductNumberAllocator() {
+        jdbcTemplate.update("delete from product_number_sequence");
+        productNumberAllocator.reset();
+    }
+
+    // 주문을 벌크 삭제하면 주문 이벤트가 발행되지 않으므로 지난 날짜의 집계도 비운다.
+    public void clearSalesStatisticsCalculator() {
+        salesStatisticsCalculator.reset();
+    }
+
+    // 지금 시각으로 만든 주문이 다음 테스트의 실시간 매출에 남지 않게 한다.
+    public void clearRealtimeSalesCounter() {
+        realtimeSalesCounter.reset();
+    }
+
+    // 지금 시각으로 만든 주문이 다음 테스트의 판매 순위에 남지 않게 한다.
+    public void clearBestSellerTracker() {
+        bestSellerTracker.reset();
+    }
+}
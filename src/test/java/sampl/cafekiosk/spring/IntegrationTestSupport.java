@@ -1,15 +1,27 @@
 package sampl.cafekiosk.spring;
 
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 import sampl.cafekiosk.spring.client.MailSendClient;
 
 @ActiveProfiles("test")
 @SpringBootTest
+@Import(InMemoryStateCleaner.class)
 public abstract class IntegrationTestSupport {
 
     @MockBean
     protected MailSendClient mailSendClient;
 
+    @Autowired
+    protected InMemoryStateCleaner inMemoryStateCleaner;
+
+    @AfterEach
+    void clearInMemoryState() {
+        inMemoryStateCleaner.clearAll();
+    }
+
 }
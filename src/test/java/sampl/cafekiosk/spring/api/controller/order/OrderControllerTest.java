@@ -7,16 +7,30 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import sampl.cafekiosk.spring.ControllerTestSupport;
+import sampl.cafekiosk.spring.api.controller.order.request.OrderBatchCreateRequest;
 import sampl.cafekiosk.spring.api.controller.order.request.OrderCreateServiceRequest;
+import sampl.cafekiosk.spring.api.controller.order.request.OrderLineRequest;
+import sampl.cafekiosk.spring.api.service.order.OrderIdempotencyKeyMismatchException;
 import sampl.cafekiosk.spring.api.service.order.OrderService;
+import sampl.cafekiosk.spring.api.service.order.response.OrderResponse;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class OrderControllerTest extends ControllerTestSupport {
@@ -68,4 +82,208 @@ class OrderControllerTest extends ControllerTestSupport {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("여러 주문을 한 번에 등록한다.")
+    public void createOrders() throws Exception {
+        // given
+        OrderBatchCreateRequest request = OrderBatchCreateRequest.builder()
+                .orders(List.of(
+                        OrderCreateServiceRequest.builder()
+                                .productNumbers(List.of("001"))
+                                .build(),
+                        OrderCreateServiceRequest.builder()
+                                .productNumbers(List.of("001", "002"))
+                                .build()
+                ))
+                .build();
+
+        // when // then
+        mockMvc.perform(post("/api/v1/orders/batch")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value("200"))
+                .andExpect(jsonPath("$.status").value("OK"))
+                .andExpect(jsonPath("$.message").value("OK"));
+    }
+
+    @Test
+    @DisplayName("여러 주문을 한 번에 등록할 때 주문 리스트는 1개 이상이어야 한다.")
+    public void createOrdersWithEmptyOrders() throws Exception {
+        // given
+        OrderBatchCreateRequest request = OrderBatchCreateRequest.builder()
+                .orders(List.of())
+                .build();
+
+        // when // then
+        mockMvc.perform(post("/api/v1/orders/batch")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("400"))
+                .andExpect(jsonPath("$.status").value("BAD_REQUEST"))
+                .andExpect(jsonPath("$.message").value("주문 리스트는 필수입니다."))
+                .andExpect(jsonPath("$.data").isEmpty());
+    }
+
+    @Test
+    @DisplayName("여러 주문을 한 번에 등록할 때 각 주문의 상품번호는 1개 이상이어야 한다.")
+    public void createOrdersWithEmptyProductNumbers() throws Exception {
+        // given
+        OrderBatchCreateRequest request = OrderBatchCreateRequest.builder()
+                .orders(List.of(
+                        OrderCreateServiceRequest.builder()
+                                .productNumbers(List.of())
+                                .build()
+                ))
+                .build();
+
+        // when // then
+        mockMvc.perform(post("/api/v1/orders/batch")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("400"))
+                .andExpect(jsonPath("$.message").value("상품 번호 리스트는 필수입니다."));
+    }
+
+    @Test
+    @DisplayName("Idempotency-Key 헤더를 주문 생성에 함께 넘긴다.")
+    public void createOrderWithIdempotencyKey() throws Exception {
+        // given
+        OrderCreateServiceRequest request = OrderCreateServiceRequest.builder()
+                .productNumbers(List.of("001"))
+                .build();
+
+        // when
+        mockMvc.perform(post("/api/v1/orders/new")
+                        .header("Idempotency-Key", "kiosk-01-0001")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value("200"));
+
+        // then
+        verify(orderIdempotencyService).createOrder(eq("kiosk-01-0001"), any(OrderCreateServiceRequest.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("이미 다른 주문에 쓰인 Idempotency-Key 로 주문하면 422 로 응답한다.")
+    public void createOrderWithMismatchedIdempotencyKey() throws Exception {
+        // given
+        OrderCreateServiceRequest request = OrderCreateServiceRequest.builder()
+                .productNumbers(List.of("002"))
+                .build();
+        given(orderIdempotencyService.createOrder(eq("kiosk-01-0001"), any(OrderCreateServiceRequest.class), any(LocalDateTime.class)))
+                .willThrow(new OrderIdempotencyKeyMismatchException());
+
+        // when // then
+        mockMvc.perform(post("/api/v1/orders/new")
+                        .header("Idempotency-Key", "kiosk-01-0001")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.code").value("422"))
+                .andExpect(jsonPath("$.status").value("UNPROCESSABLE_ENTITY"))
+                .andExpect(jsonPath("$.message").value("이미 다른 주문에 사용된 멱등성 키입니다."))
+                .andExpect(jsonPath("$.data").isEmpty());
+    }
+
+    @Test
+    @DisplayName("신규 주문을 대기열에 넣고 커밋되면 응답한다.")
+    public void createOrderAsync() throws Exception {
+        // given
+        OrderCreateServiceRequest request = OrderCreateServiceRequest.builder()
+                .productNumbers(List.of("001"))
+                .build();
+        given(orderGroupCommitter.submit(any(OrderCreateServiceRequest.class)))
+                .willReturn(CompletableFuture.completedFuture(OrderResponse.builder()
+                        .id(1L)
+                        .build()));
+
+        MvcResult mvcResult = mockMvc.perform(post("/api/v1/orders/async")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(APPLICATION_JSON)
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // when // then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value("200"))
+                .andExpect(jsonPath("$.data.id").value(1));
+    }
+
+    @Test
+    @DisplayName("상품 번호별 수량으로 신규 주문을 등록할 때 수량은 1개 이상이어야 한다.")
+    public void createOrderWithZeroQuantity() throws Exception {
+        // given
+        OrderCreateServiceRequest request = OrderCreateServiceRequest.builder()
+                .orderLines(List.of(OrderLineRequest.builder()
+                        .productNumber("001")
+                        .quantity(0)
+                        .build()))
+                .build();
+
+        // when // then
+        mockMvc.perform(post("/api/v1/orders/new")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("400"))
+                .andExpect(jsonPath("$.status").value("BAD_REQUEST"))
+                .andExpect(jsonPath("$.message").value("주문 수량은 1개 이상이어야 합니다."))
+                .andExpect(jsonPath("$.data").isEmpty());
+    }
+
+    @Test
+    @DisplayName("상품 번호별 수량으로 신규 주문을 등록할 때 수량은 1000개 이하여야 한다.")
+    public void createOrderWithTooManyQuantity() throws Exception {
+        // given
+        OrderCreateServiceRequest request = OrderCreateServiceRequest.builder()
+                .orderLines(List.of(OrderLineRequest.builder()
+                        .productNumber("001")
+                        .quantity(1001)
+                        .build()))
+                .build();
+
+        // when // then
+        mockMvc.perform(post("/api/v1/orders/new")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("400"))
+                .andExpect(jsonPath("$.status").value("BAD_REQUEST"))
+                .andExpect(jsonPath("$.message").value("주문 수량은 1000개 이하여야 합니다."))
+                .andExpect(jsonPath("$.data").isEmpty());
+    }
+
+    @Test
+    @DisplayName("주문을 조회한다.")
+    public void getOrder() throws Exception {
+        // when // then
+        mockMvc.perform(get("/api/v1/orders/{orderId}", 1L))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value("200"))
+                .andExpect(jsonPath("$.status").value("OK"))
+                .andExpect(jsonPath("$.message").value("OK"));
+    }
+
+}
@@ -0,0 +1,260 @@
+package sampl.cafekiosk.spring.api.controller.order;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MvcResult;
+import sampl.cafekiosk.spring.ControllerTestSupport;
+import sampl.cafekiosk.spring.api.service.order.OrderLineAnalyticsDisabledException;
+import sampl.cafekiosk.spring.api.service.order.OrderLineDimension;
+import sampl.cafekiosk.spring.domain.order.OrderStatus;
+
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class OrderStatisticsControllerTest extends ControllerTestSupport {
+
+    @Test
+    @DisplayName("기간별 매출 통계를 조회한다. 주문 상태를 지정하지 않으면 결제완료 주문만 집계한다.")
+    void getSalesStatistics() throws Exception {
+        // when // then
+        mockMvc.perform(get("/api/v1/orders/statistics")
+                        .param("startDate", "2023-03-01")
+                        .param("endDate", "2023-03-05")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value("200"))
+                .andExpect(jsonPath("$.status").value("OK"));
+
+        verify(orderStatisticsService).getSalesStatistics(
+                LocalDate.of(2023, 3, 1),
+                LocalDate.of(2023, 3, 5),
+                List.of(OrderStatus.PAYMENT_COMPLETED)
+        );
+    }
+
+    @Test
+    @DisplayName("여러 주문 상태를 지정해 매출 통계를 조회한다.")
+    void getSalesStatisticsWithOrderStatuses() throws Exception {
+        // when // then
+        mockMvc.perform(get("/api/v1/orders/statistics")
+                        .param("startDate", "2023-03-01")
+                        .param("endDate", "2023-03-05")
+                        .param("orderStatuses", "PAYMENT_COMPLETED", "RECEIVED")
+                )
+                .andDo(print())
+                .andExpect(status().isOk());
+
+        verify(orderStatisticsService).getSalesStatistics(
+                LocalDate.of(2023, 3, 1),
+                LocalDate.of(2023, 3, 5),
+                List.of(OrderStatus.PAYMENT_COMPLETED, OrderStatus.RECEIVED)
+        );
+    }
+
+    @Test
+    @DisplayName("매출 통계를 조회할 때 조회 기간은 필수값이다.")
+    void getSalesStatisticsWithoutPeriod() throws Exception {
+        // when // then
+        mockMvc.perform(get("/api/v1/orders/statistics")
+                        .param("startDate", "2023-03-01")
+                )
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("매출 통계를 조회할 때 시작일이 종료일보다 늦으면 잘못된 요청으로 응답한다.")
+    void getSalesStatisticsWithReversedPeriod() throws Exception {
+        // given
+        when(orderStatisticsService.getSalesStatistics(LocalDate.of(2023, 3, 5), LocalDate.of(2023, 3, 1), List.of(OrderStatus.PAYMENT_COMPLETED)))
+                .thenThrow(new IllegalArgumentException("조회 시작일은 종료일보다 늦을 수 없습니다."));
+
+        // when // then
+        mockMvc.perform(get("/api/v1/orders/statistics")
+                        .param("startDate", "2023-03-05")
+                        .param("endDate", "2023-03-01")
+                )
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("400"))
+                .andExpect(jsonPath("$.status").value("BAD_REQUEST"))
+                .andExpect(jsonPath("$.message").value("조회 시작일은 종료일보다 늦을 수 없습니다."))
+                .andExpect(jsonPath("$.data").isEmpty());
+    }
+
+    @Test
+    @DisplayName("매출 통계를 조회할 때 주문 상태를 비워 보내면 결제완료 주문만 집계한다.")
+    void getSalesStatisticsWithEmptyOrderStatuses() throws Exception {
+        // when // then
+        mockMvc.perform(get("/api/v1/orders/statistics")
+                        .param("startDate", "2023-03-01")
+                        .param("endDate", "2023-03-05")
+                        .param("orderStatuses", "")
+                )
+                .andDo(print())
+                .andExpect(status().isOk());
+
+        verify(orderStatisticsService).getSalesStatistics(
+                LocalDate.of(2023, 3, 1),
+                LocalDate.of(2023, 3, 5),
+                List.of(OrderStatus.PAYMENT_COMPLETED)
+        );
+    }
+
+    @Test
+    @DisplayName("최근 주문 수와 매출을 조회한다.")
+    void getRealtimeSales() throws Exception {
+        // when // then
+        mockMvc.perform(get("/api/v1/orders/realtime-sales"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value("200"))
+                .andExpect(jsonPath("$.status").value("OK"))
+                .andExpect(jsonPath("$.data").isArray());
+
+        verify(orderStatisticsService).getRealtimeSales();
+    }
+
+    @Test
+    @DisplayName("많이 팔린 상품 순위를 조회한다. 기간을 지정하지 않으면 오늘, 상위 10개를 조회한다.")
+    void getBestSellers() throws Exception {
+        // when // then
+        mockMvc.perform(get("/api/v1/orders/best-sellers"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value("200"))
+                .andExpect(jsonPath("$.status").value("OK"));
+
+        verify(orderStatisticsService).getBestSellers(1, 10);
+    }
+
+    @Test
+    @DisplayName("많이 팔린 상품 순위를 조회할 때 기간이 1일보다 짧으면 잘못된 요청으로 응답한다.")
+    void getBestSellersWithZeroDays() throws Exception {
+        // given
+        when(orderStatisticsService.getBestSellers(0, 10))
+                .thenThrow(new IllegalArgumentException("조회 기간은 1일 이상 7일 이하여야 합니다."));
+
+        // when // then
+        mockMvc.perform(get("/api/v1/orders/best-sellers")
+                        .param("days", "0")
+                )
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("400"))
+                .andExpect(jsonPath("$.status").value("BAD_REQUEST"))
+                .andExpect(jsonPath("$.message").value("조회 기간은 1일 이상 7일 이하여야 합니다."))
+                .andExpect(jsonPath("$.data").isEmpty());
+    }
+
+    @Test
+    @DisplayName("주문 분석 기능이 꺼져 있으면 찾을 수 없는 요청으로 응답한다.")
+    void getOrderLineAnalyticsWhenDisabled() throws Exception {
+        // given
+        when(orderStatisticsService.getOrderLineAnalytics(any(), any(), any(), any()))
+                .thenThrow(new OrderLineAnalyticsDisabledException());
+
+        // when // then
+        mockMvc.perform(get("/api/v1/orders/analytics")
+                        .param("startDateTime", "2023-03-01T00:00:00")
+                        .param("endDateTime", "2023-03-08T00:00:00")
+                )
+                .andDo(print())
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("404"))
+                .andExpect(jsonPath("$.status").value("NOT_FOUND"))
+                .andExpect(jsonPath("$.message").value("주문 분석 기능이 꺼져 있습니다."));
+    }
+
+    @Test
+    @DisplayName("주문 상품을 상품별, 시간대별로 묶어 집계한다. 주문 상태를 지정하지 않으면 결제완료 주문만 집계한다.")
+    void getOrderLineAnalytics() throws Exception {
+        // when // then
+        mockMvc.perform(get("/api/v1/orders/analytics")
+                        .param("startDateTime", "2023-03-01T00:00:00")
+                        .param("endDateTime", "2023-03-08T00:00:00")
+                        .param("groupBy", "PRODUCT,HOUR")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value("200"))
+                .andExpect(jsonPath("$.status").value("OK"));
+
+        verify(orderStatisticsService).getOrderLineAnalytics(
+                LocalDateTime.of(2023, 3, 1, 0, 0),
+                LocalDateTime.of(2023, 3, 8, 0, 0),
+                List.of(OrderStatus.PAYMENT_COMPLETED),
+                Set.of(OrderLineDimension.PRODUCT, OrderLineDimension.HOUR)
+        );
+    }
+
+    @Test
+    @DisplayName("기간 안의 주문을 CSV 파일로 내려받는다.")
+    void exportOrders() throws Exception {
+        // given
+        MvcResult mvcResult = mockMvc.perform(get("/api/v1/orders/export")
+                        .param("startDate", "2023-03-01")
+                        .param("endDate", "2023-03-31")
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // when // then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"orders-2023-03-01-2023-03-31.csv\""));
+
+        verify(orderStatisticsService).exportOrders(
+                eq(LocalDate.of(2023, 3, 1)),
+                eq(LocalDate.of(2023, 3, 31)),
+                eq(List.of(OrderStatus.PAYMENT_COMPLETED)),
+                any(Writer.class)
+        );
+    }
+
+    @Test
+    @DisplayName("주문을 내려받을 때 시작일이 종료일보다 늦으면 CSV 를 쓰기 전에 잘못된 요청으로 응답한다.")
+    void exportOrdersWithReversedPeriod() throws Exception {
+        // given
+        doThrow(new IllegalArgumentException("조회 시작일은 종료일보다 늦을 수 없습니다."))
+                .when(orderStatisticsService)
+                .validateExport(LocalDate.of(2023, 3, 31), LocalDate.of(2023, 3, 1), List.of(OrderStatus.PAYMENT_COMPLETED));
+
+        // when // then
+        mockMvc.perform(get("/api/v1/orders/export")
+                        .param("startDate", "2023-03-31")
+                        .param("endDate", "2023-03-01")
+                )
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith("application/json"))
+                .andExpect(jsonPath("$.code").value("400"))
+                .andExpect(jsonPath("$.status").value("BAD_REQUEST"))
+                .andExpect(jsonPath("$.message").value("조회 시작일은 종료일보다 늦을 수 없습니다."))
+                .andExpect(jsonPath("$.data").isEmpty());
+
+        verify(orderStatisticsService, never()).exportOrders(any(), any(), any(), any());
+    }
+
+}
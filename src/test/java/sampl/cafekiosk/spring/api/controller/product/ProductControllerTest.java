@@ -13,14 +13,20 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import sampl.cafekiosk.spring.ControllerTestSupport;
+import sampl.cafekiosk.spring.api.service.product.ProductImportFormat;
 import sampl.cafekiosk.spring.api.service.product.ProductService;
+import sampl.cafekiosk.spring.api.service.product.response.ProductImportResponse;
 import sampl.cafekiosk.spring.api.service.product.response.ProductResponse;
 import sampl.cafekiosk.spring.domain.product.ProductSellingStatus;
 import sampl.cafekiosk.spring.domain.product.ProductType;
 
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.MediaType.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -162,4 +168,39 @@ class ProductControllerTest extends ControllerTestSupport {
                 .andExpect(jsonPath("$.data").isArray());
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("CSV 파일로 상품을 대량 등록한다.")
+    void importProducts() throws Exception {
+        // given
+        String csv = "type,sellingStatus,name,price\nHANDMADE,SELLING,아메리카노,4000\n";
+        when(productImportService.importProducts(any(Reader.class), eq(ProductImportFormat.CSV)))
+                .thenReturn(ProductImportResponse.builder()
+                        .totalCount(1)
+                        .importedCount(1)
+                        .errors(List.of())
+                        .build());
+
+        // when // then
+        mockMvc.perform(post("/api/v1/products/import")
+                        .content(csv.getBytes(StandardCharsets.UTF_8))
+                        .contentType(ProductImportFormat.TEXT_CSV_VALUE)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.importedCount").value(1))
+                .andExpect(jsonPath("$.data.errors").isArray());
+    }
+
+    @Test
+    @DisplayName("지원하지 않는 형식의 파일은 대량 등록할 수 없다.")
+    void importProductsWithUnsupportedFormat() throws Exception {
+        // when // then
+        mockMvc.perform(post("/api/v1/products/import")
+                        .content("<products/>")
+                        .contentType(APPLICATION_XML)
+                )
+                .andDo(print())
+                .andExpect(status().isUnsupportedMediaType());
+    }
+
+}
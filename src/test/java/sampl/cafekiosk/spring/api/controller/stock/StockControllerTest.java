@@ -0,0 +1,50 @@
+package sampl.cafekiosk.spring.api.controller.stock;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sampl.cafekiosk.spring.ControllerTestSupport;
+import sampl.cafekiosk.spring.api.controller.stock.request.StockStripeRequest;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class StockControllerTest extends ControllerTestSupport {
+
+    @Test
+    @DisplayName("상품의 재고를 조회한다.")
+    void getStock() throws Exception {
+        // when // then
+        mockMvc.perform(get("/api/v1/stocks/{productNumber}", "001"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value("200"))
+                .andExpect(jsonPath("$.status").value("OK"))
+                .andExpect(jsonPath("$.message").value("OK"));
+    }
+
+    @Test
+    @DisplayName("재고를 조각으로 나눌 때 조각 수는 1 이상이어야 한다.")
+    void stripeWithZeroShardCount() throws Exception {
+        // given
+        StockStripeRequest request = StockStripeRequest.builder()
+                .shardCount(0)
+                .build();
+
+        // when // then
+        mockMvc.perform(post("/api/v1/stocks/{productNumber}/stripe", "001")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("400"))
+                .andExpect(jsonPath("$.status").value("BAD_REQUEST"))
+                .andExpect(jsonPath("$.message").value("재고 조각 수는 1 이상이어야 합니다."))
+                .andExpect(jsonPath("$.data").isEmpty());
+    }
+
+}
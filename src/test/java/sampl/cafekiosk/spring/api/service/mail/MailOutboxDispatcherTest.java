@@ -0,0 +1,198 @@
+package sampl.cafekiosk.spring.api.service.mail;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import sampl.cafekiosk.spring.IntegrationTestSupport;
+import sampl.cafekiosk.spring.domain.history.mail.MailSendHistoryRepository;
+import sampl.cafekiosk.spring.domain.mail.MailOutbox;
+import sampl.cafekiosk.spring.domain.mail.MailOutboxRepository;
+import sampl.cafekiosk.spring.domain.mail.MailOutboxStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@TestPropertySource(properties = "cafekiosk.mail.outbox.send-timeout-millis=500")
+class MailOutboxDispatcherTest extends IntegrationTestSupport {
+
+    @Autowired
+    private MailOutboxDispatcher mailOutboxDispatcher;
+
+    @Autowired
+    private MailService mailService;
+
+    @Autowired
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Autowired
+    private MailSendHistoryRepository mailSendHistoryRepository;
+
+    @AfterEach
+    void tearDown() {
+        mailOutboxRepository.deleteAllInBatch();
+        mailSendHistoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("outbox 에 쌓인 메일을 보내고 전송 이력을 남긴다.")
+    void dispatch() {
+        // given
+        mailService.sendMail("no-reply@test.com", "a@test.com", "제목", "내용");
+        mailService.sendMail("no-reply@test.com", "b@test.com", "제목", "내용");
+        when(mailSendClient.sendEmail(any(String.class), any(String.class), any(String.class), any(String.class)))
+                .thenReturn(true);
+
+        // when
+        int dispatched = mailOutboxDispatcher.dispatch();
+
+        // then
+        assertThat(dispatched).isEqualTo(2);
+        assertThat(mailOutboxRepository.findAll())
+                .extracting("toEmail", "status", "attemptCount", "claimToken")
+                .containsExactlyInAnyOrder(
+                        tuple("a@test.com", MailOutboxStatus.SENT, 1, null),
+                        tuple("b@test.com", MailOutboxStatus.SENT, 1, null)
+                );
+        assertThat(mailSendHistoryRepository.findAll())
+                .extracting("toEmail")
+                .containsExactlyInAnyOrder("a@test.com", "b@test.com");
+    }
+
+    @Test
+    @DisplayName("보내지 못한 메일은 시도 횟수를 늘리고 나중에 다시 보낸다. 나머지 메일은 그대로 보낸다.")
+    void dispatchWithFailure() {
+        // given
+        mailService.sendMail("no-reply@test.com", "a@test.com", "제목", "내용");
+        mailService.sendMail("no-reply@test.com", "b@test.com", "제목", "내용");
+        when(mailSendClient.sendEmail(any(String.class), any(String.class), any(String.class), any(String.class)))
+                .thenReturn(true);
+        when(mailSendClient.sendEmail(any(String.class), eq("b@test.com"), any(String.class), any(String.class)))
+                .thenThrow(new IllegalArgumentException("메일 전송"));
+        LocalDateTime now = LocalDateTime.now();
+
+        // when
+        mailOutboxDispatcher.dispatch();
+
+        // then
+        assertThat(mailOutboxRepository.findAll())
+                .extracting("toEmail", "status", "attemptCount")
+                .containsExactlyInAnyOrder(
+                        tuple("a@test.com", MailOutboxStatus.SENT, 1),
+                        tuple("b@test.com", MailOutboxStatus.PENDING, 1)
+                );
+        assertThat(mailOutboxRepository.findAll())
+                .filteredOn("status", MailOutboxStatus.PENDING)
+                .allSatisfy(mail -> assertThat(mail.getNextAttemptDateTime()).isAfter(now));
+        assertThat(mailSendHistoryRepository.findAll())
+                .extracting("toEmail")
+                .containsExactly("a@test.com");
+
+        // 다시 보낼 때가 되지 않았으므로 가져가지 않는다.
+        assertThat(mailOutboxDispatcher.dispatch()).isZero();
+    }
+
+    @Test
+    @DisplayName("send-timeout-millis 안에 보내지 못한 메일은 기다리지 않고 실패로 기록한다.")
+    void dispatchWithSendTimeout() {
+        // given
+        mailService.sendMail("no-reply@test.com", "a@test.com", "제목", "내용");
+        mailService.sendMail("no-reply@test.com", "b@test.com", "제목", "내용");
+        when(mailSendClient.sendEmail(any(String.class), any(String.class), any(String.class), any(String.class)))
+                .thenReturn(true);
+        when(mailSendClient.sendEmail(any(String.class), eq("a@test.com"), any(String.class), any(String.class)))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(2000);
+                    return true;
+                });
+        long startMillis = System.currentTimeMillis();
+
+        // when
+        mailOutboxDispatcher.dispatch();
+
+        // then
+        assertThat(System.currentTimeMillis() - startMillis).isLessThan(2000);
+        assertThat(mailOutboxRepository.findAll())
+                .extracting("toEmail", "status", "attemptCount", "claimToken")
+                .containsExactlyInAnyOrder(
+                        tuple("a@test.com", MailOutboxStatus.PENDING, 1, null),
+                        tuple("b@test.com", MailOutboxStatus.SENT, 1, null)
+                );
+        assertThat(mailSendHistoryRepository.findAll())
+                .extracting("toEmail")
+                .containsExactly("b@test.com");
+    }
+
+    @Test
+    @DisplayName("최대 시도 횟수만큼 보내지 못한 메일은 전송실패로 남긴다.")
+    void dispatchWithLastFailure() {
+        // given
+        mailOutboxRepository.save(createMailOutbox(MailOutboxStatus.PENDING, 4, LocalDateTime.now().minusSeconds(1)));
+        when(mailSendClient.sendEmail(any(String.class), any(String.class), any(String.class), any(String.class)))
+                .thenReturn(false);
+
+        // when
+        mailOutboxDispatcher.dispatch();
+
+        // then
+        assertThat(mailOutboxRepository.findAll())
+                .extracting("status", "attemptCount")
+                .containsExactly(
+                        tuple(MailOutboxStatus.FAILED, 5)
+                );
+        assertThat(mailSendHistoryRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("다른 서버가 가져간 메일은 결과를 기록할 시간이 지나기 전까지 가져가지 않는다.")
+    void dispatchClaimedMail() {
+        // given
+        mailOutboxRepository.save(createMailOutbox(MailOutboxStatus.SENDING, 0, LocalDateTime.now().plusMinutes(1)));
+
+        // when
+        int dispatched = mailOutboxDispatcher.dispatch();
+
+        // then
+        assertThat(dispatched).isZero();
+        verify(mailSendClient, never()).sendEmail(any(String.class), any(String.class), any(String.class), any(String.class));
+    }
+
+    @Test
+    @DisplayName("결과를 기록할 시간이 지난 전송중 메일은 다시 보낸다.")
+    void dispatchExpiredClaim() {
+        // given
+        mailOutboxRepository.save(createMailOutbox(MailOutboxStatus.SENDING, 0, LocalDateTime.now().minusSeconds(1)));
+        when(mailSendClient.sendEmail(any(String.class), any(String.class), any(String.class), any(String.class)))
+                .thenReturn(true);
+
+        // when
+        int dispatched = mailOutboxDispatcher.dispatch();
+
+        // then
+        assertThat(dispatched).isEqualTo(1);
+        List<MailOutbox> mails = mailOutboxRepository.findAll();
+        assertThat(mails).extracting("status").containsExactly(MailOutboxStatus.SENT);
+    }
+
+    private MailOutbox createMailOutbox(MailOutboxStatus status, int attemptCount, LocalDateTime nextAttemptDateTime) {
+        return MailOutbox.builder()
+                .fromEmail("no-reply@test.com")
+                .toEmail("a@test.com")
+                .subject("제목")
+                .content("내용")
+                .status(status)
+                .attemptCount(attemptCount)
+                .nextAttemptDateTime(nextAttemptDateTime)
+                .build();
+    }
+
+}
@@ -5,47 +5,37 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
-import sampl.cafekiosk.spring.client.MailSendClient;
-import sampl.cafekiosk.spring.domain.history.mail.MailSendHistory;
-import sampl.cafekiosk.spring.domain.history.mail.MailSendHistoryRepository;
+import sampl.cafekiosk.spring.domain.mail.MailOutbox;
+import sampl.cafekiosk.spring.domain.mail.MailOutboxRepository;
+import sampl.cafekiosk.spring.domain.mail.MailOutboxStatus;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.times;
-import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class MailServiceTest {
 
     @Mock
-    private MailSendClient mailSendClient;
-
-    @Mock
-    private MailSendHistoryRepository mailSendHistoryRepository;
+    private MailOutboxRepository mailOutboxRepository;
 
     @InjectMocks
     private MailService mailService;
 
+    @Captor
+    private ArgumentCaptor<MailOutbox> mailOutboxCaptor;
+
     @Test
-    @DisplayName("메일 전송 테스트")
+    @DisplayName("메일 전송 테스트. 메일은 바로 보내지 않고 전송대기 상태로 outbox 에 쌓는다.")
     public void sendMain() {
-        // given
-        // stubbing
-//        when(mailSendClient.sendEmail(anyString(), anyString(), anyString(), anyString()))
-//                .thenReturn(true);
-
-        BDDMockito.given(mailSendClient.sendEmail(anyString(), anyString(), anyString(), anyString()))
-                .willReturn(true);
-
         // when
-        Boolean result = mailService.sendMail("", "", "", "");
+        mailService.sendMail("from@test.com", "to@test.com", "제목", "내용");
 
         // then
-        assertThat(result).isTrue();
-        verify(mailSendHistoryRepository, times(1)).save(any(MailSendHistory.class));
+        verify(mailOutboxRepository, times(1)).save(mailOutboxCaptor.capture());
+        assertThat(mailOutboxCaptor.getValue())
+                .extracting("fromEmail", "toEmail", "subject", "content", "status", "attemptCount")
+                .containsExactly("from@test.com", "to@test.com", "제목", "내용", MailOutboxStatus.PENDING, 0);
     }
 
-}
\ No newline at end of file
+}
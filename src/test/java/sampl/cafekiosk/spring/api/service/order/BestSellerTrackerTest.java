@@ -0,0 +1,198 @@
+package sampl.cafekiosk.spring.api.service.order;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import sampl.cafekiosk.spring.IntegrationTestSupport;
+import sampl.cafekiosk.spring.api.service.order.response.BestSellerResponse;
+import sampl.cafekiosk.spring.domain.order.Order;
+import sampl.cafekiosk.spring.domain.order.OrderRepository;
+import sampl.cafekiosk.spring.domain.order.OrderStatus;
+import sampl.cafekiosk.spring.domain.order.OrderStatusChangedEvent;
+import sampl.cafekiosk.spring.domain.orderproduct.OrderProductRepository;
+import sampl.cafekiosk.spring.domain.product.Product;
+import sampl.cafekiosk.spring.domain.product.ProductCatalogCache;
+import sampl.cafekiosk.spring.domain.product.ProductRepository;
+import sampl.cafekiosk.spring.domain.sales.DailySalesRepository;
+import sampl.cafekiosk.spring.domain.sales.ProductSalesSketchRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static sampl.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sampl.cafekiosk.spring.domain.product.ProductType.HANDMADE;
+
+class BestSellerTrackerTest extends IntegrationTestSupport {
+
+    @Autowired
+    private BestSellerTracker bestSellerTracker;
+
+    @Autowired
+    private OrderProductRepository orderProductRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DailySalesRepository dailySalesRepository;
+
+    @Autowired
+    private ProductSalesSketchRepository productSalesSketchRepository;
+
+    @Autowired
+    private ProductCatalogCache productCatalogCache;
+
+    @AfterEach
+    void tearDown() {
+        orderProductRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        dailySalesRepository.deleteAllInBatch();
+        productSalesSketchRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("오늘 주문된 수량이 많은 상품 순으로 순위를 매긴다.")
+    void getBestSellersToday() {
+        // given
+        Product americano = createProduct("001", "아메리카노");
+        Product latte = createProduct("002", "카페라떼");
+        Product tea = createProduct("003", "유자차");
+        productRepository.saveAll(List.of(americano, latte, tea));
+
+        LocalDateTime now = LocalDateTime.now();
+        createOrder(now, Map.of(americano, 3, latte, 1));
+        createOrder(now, Map.of(latte, 1, tea, 1));
+        createOrder(now.minusDays(1), Map.of(tea, 10));
+
+        // when
+        List<BestSellerResponse> bestSellers = bestSellerTracker.getBestSellers(1, 2);
+
+        // then
+        assertThat(bestSellers)
+                .extracting("rank", "productNumber", "name", "estimatedQuantity", "minimumQuantity")
+                .containsExactly(
+                        tuple(1, "001", "아메리카노", 3L, 3L),
+                        tuple(2, "002", "카페라떼", 2L, 2L)
+                );
+    }
+
+    @Test
+    @DisplayName("여러 날짜의 순위는 날짜별 스케치를 합쳐서 구한다.")
+    void getBestSellersForWeek() {
+        // given
+        Product americano = createProduct("001", "아메리카노");
+        Product tea = createProduct("003", "유자차");
+        productRepository.saveAll(List.of(americano, tea));
+
+        LocalDateTime now = LocalDateTime.now();
+        createOrder(now, Map.of(americano, 3));
+        createOrder(now.minusDays(1), Map.of(tea, 2));
+        createOrder(now.minusDays(6), Map.of(tea, 2));
+        createOrder(now.minusDays(7), Map.of(americano, 10));
+
+        // when
+        List<BestSellerResponse> bestSellers = bestSellerTracker.getBestSellers(7, 10);
+
+        // then
+        assertThat(bestSellers)
+                .extracting("productNumber", "estimatedQuantity")
+                .containsExactly(
+                        tuple("003", 4L),
+                        tuple("001", 3L)
+                );
+    }
+
+    @Test
+    @DisplayName("체크포인트에 저장한 스케치는 서버가 다시 떠도 복원된다.")
+    void checkpointAndRestore() {
+        // given
+        Product americano = createProduct("001", "아메리카노");
+        productRepository.save(americano);
+        createOrder(LocalDateTime.now(), Map.of(americano, 3));
+
+        bestSellerTracker.checkpoint();
+        BestSellerTracker restarted = createTracker();
+
+        // when
+        restarted.restore();
+
+        // then
+        assertThat(restarted.getBestSellers(1, 10))
+                .extracting("productNumber", "estimatedQuantity")
+                .containsExactly(tuple("001", 3L));
+    }
+
+    @Test
+    @DisplayName("여러 서버가 같은 날짜를 체크포인트해도 서로 덮어쓰지 않고, 순위는 모든 서버의 수량을 합쳐서 구한다.")
+    void checkpointFromServers() {
+        // given
+        Product americano = createProduct("001", "아메리카노");
+        productRepository.save(americano);
+        createOrder(LocalDateTime.now(), Map.of(americano, 3));
+
+        // 다른 서버에서 생성된 주문
+        BestSellerTracker otherServer = createTracker();
+        otherServer.restore();
+        Order otherServerOrder = Order.builder()
+                .productQuantities(Map.of(americano, 2))
+                .orderStatus(OrderStatus.INIT)
+                .registeredDateTime(LocalDateTime.now())
+                .build();
+        otherServer.record(new OrderStatusChangedEvent(otherServerOrder, null, OrderStatus.INIT));
+
+        // when
+        otherServer.checkpoint();
+        bestSellerTracker.checkpoint();
+        otherServer.checkpoint();
+
+        // then
+        assertThat(productSalesSketchRepository.findAll()).hasSize(2);
+        assertThat(bestSellerTracker.getBestSellers(1, 10))
+                .extracting("productNumber", "estimatedQuantity")
+                .containsExactly(tuple("001", 5L));
+        assertThat(otherServer.getBestSellers(1, 10))
+                .extracting("productNumber", "estimatedQuantity")
+                .containsExactly(tuple("001", 5L));
+    }
+
+    @Test
+    @DisplayName("보관 기간보다 긴 기간은 조회할 수 없다.")
+    void getBestSellersOverRetention() {
+        // when // then
+        assertThatThrownBy(() -> bestSellerTracker.getBestSellers(8, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("조회 기간은 1일 이상 7일 이하여야 합니다.");
+    }
+
+    private BestSellerTracker createTracker() {
+        return new BestSellerTracker(productSalesSketchRepository, productCatalogCache, 5, 2048, 200, 7);
+    }
+
+    private Order createOrder(LocalDateTime registeredDateTime, Map<Product, Integer> productQuantities) {
+        return orderRepository.save(Order.builder()
+                .productQuantities(productQuantities)
+                .orderStatus(OrderStatus.INIT)
+                .registeredDateTime(registeredDateTime)
+                .build());
+    }
+
+    private Product createProduct(String productNumber, String name) {
+        return Product.builder()
+                .type(HANDMADE)
+                .productNumber(productNumber)
+                .price(1000)
+                .sellingStatus(SELLING)
+                .name(name)
+                .build();
+    }
+
+}
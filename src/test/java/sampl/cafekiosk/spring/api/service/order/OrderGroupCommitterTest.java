@@ -0,0 +1,121 @@
+package sampl.cafekiosk.spring.api.service.order;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import sampl.cafekiosk.spring.IntegrationTestSupport;
+import sampl.cafekiosk.spring.api.controller.order.request.OrderCreateServiceRequest;
+import sampl.cafekiosk.spring.api.service.order.response.OrderResponse;
+import sampl.cafekiosk.spring.domain.order.OrderRepository;
+import sampl.cafekiosk.spring.domain.orderproduct.OrderProductRepository;
+import sampl.cafekiosk.spring.domain.product.Product;
+import sampl.cafekiosk.spring.domain.product.ProductRepository;
+import sampl.cafekiosk.spring.domain.stock.Stock;
+import sampl.cafekiosk.spring.domain.stock.StockRepository;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static sampl.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sampl.cafekiosk.spring.domain.product.ProductType.BOTTLE;
+
+class OrderGroupCommitterTest extends IntegrationTestSupport {
+
+    @Autowired
+    private OrderGroupCommitter orderGroupCommitter;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderProductRepository orderProductRepository;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @AfterEach
+    void tearDown() {
+        orderProductRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        stockRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("대기열에 넣은 주문은 각자 자신의 주문 응답을 받는다.")
+    void submit() throws Exception {
+        // given
+        productRepository.save(createProduct("001"));
+        stockRepository.save(Stock.create("001", 100));
+        int orderCount = 100;
+
+        // when
+        List<CompletableFuture<OrderResponse>> futures = IntStream.range(0, orderCount)
+                .mapToObj(i -> orderGroupCommitter.submit(createRequest("001")))
+                .collect(Collectors.toList());
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        // then
+        assertThat(futures)
+                .extracting(future -> future.join().getId())
+                .doesNotHaveDuplicates()
+                .hasSize(orderCount);
+        assertThat(orderRepository.count()).isEqualTo(orderCount);
+        assertThat(stockRepository.findByProductNumber("001"))
+                .get()
+                .extracting("quantity")
+                .isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("같은 묶음에 들어간 주문이 실패해도 다른 주문은 커밋된다.")
+    void submitWithFailure() throws Exception {
+        // given
+        productRepository.save(createProduct("001"));
+        stockRepository.save(Stock.create("001", 1));
+
+        // when
+        CompletableFuture<OrderResponse> success = orderGroupCommitter.submit(createRequest("001"));
+        CompletableFuture<OrderResponse> soldOut = orderGroupCommitter.submit(createRequest("001"));
+        CompletableFuture<OrderResponse> notFound = orderGroupCommitter.submit(createRequest("999"));
+
+        // then
+        assertThat(success.get(10, TimeUnit.SECONDS).getId()).isNotNull();
+        assertThat(soldOut)
+                .failsWithin(10, TimeUnit.SECONDS)
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(IllegalArgumentException.class)
+                .withMessageContaining("재고가 부족한 상품이 있습니다.");
+        assertThat(notFound)
+                .failsWithin(10, TimeUnit.SECONDS)
+                .withThrowableOfType(ExecutionException.class)
+                .withMessageContaining("존재하지 않는 상품이 포함되어 있습니다.");
+        assertThat(orderRepository.count()).isEqualTo(1);
+    }
+
+    private Product createProduct(String productNumber) {
+        return Product.builder()
+                .type(BOTTLE)
+                .productNumber(productNumber)
+                .price(1000)
+                .sellingStatus(SELLING)
+                .name("메뉴 이름")
+                .build();
+    }
+
+    private OrderCreateServiceRequest createRequest(String productNumber) {
+        return OrderCreateServiceRequest.builder()
+                .productNumbers(List.of(productNumber))
+                .build();
+    }
+
+}
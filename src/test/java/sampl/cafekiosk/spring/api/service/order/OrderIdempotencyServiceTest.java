@@ -0,0 +1,246 @@
+package sampl.cafekiosk.spring.api.service.order;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import sampl.cafekiosk.spring.IntegrationTestSupport;
+import sampl.cafekiosk.spring.api.controller.order.request.OrderCreateServiceRequest;
+import sampl.cafekiosk.spring.api.controller.order.request.OrderLineRequest;
+import sampl.cafekiosk.spring.api.service.order.response.OrderResponse;
+import sampl.cafekiosk.spring.domain.order.OrderIdempotencyKeyRepository;
+import sampl.cafekiosk.spring.domain.order.OrderRepository;
+import sampl.cafekiosk.spring.domain.orderproduct.OrderProductRepository;
+import sampl.cafekiosk.spring.domain.product.Product;
+import sampl.cafekiosk.spring.domain.product.ProductRepository;
+import sampl.cafekiosk.spring.domain.stock.Stock;
+import sampl.cafekiosk.spring.domain.stock.StockRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static sampl.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sampl.cafekiosk.spring.domain.product.ProductType.BOTTLE;
+
+class OrderIdempotencyServiceTest extends IntegrationTestSupport {
+
+    @Autowired
+    private OrderIdempotencyService orderIdempotencyService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderProductRepository orderProductRepository;
+
+    @Autowired
+    private OrderIdempotencyKeyRepository orderIdempotencyKeyRepository;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        orderIdempotencyKeyRepository.deleteAllInBatch();
+        orderProductRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        stockRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("같은 멱등성 키로 재시도하면 처음 생성한 주문을 돌려주고 재고는 한 번만 차감한다.")
+    void createOrderTwice() {
+        // given
+        saveBottleWithStock("001", 5);
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        // when
+        OrderResponse first = orderIdempotencyService.createOrder(idempotencyKey, createRequest("001"), LocalDateTime.now());
+        OrderResponse retried = orderIdempotencyService.createOrder(idempotencyKey, createRequest("001"), LocalDateTime.now());
+
+        // then
+        assertThat(retried.getId()).isEqualTo(first.getId());
+        assertThat(orderRepository.count()).isEqualTo(1);
+        assertThat(stockRepository.findByProductNumber("001"))
+                .get()
+                .extracting("quantity")
+                .isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("캐시에 없는 멱등성 키라도 이미 저장된 키라면 처음 생성한 주문을 돌려준다.")
+    void createOrderWithStoredKey() {
+        // given
+        saveBottleWithStock("001", 5);
+        String idempotencyKey = UUID.randomUUID().toString();
+        OrderResponse original = orderService.createOrder(idempotencyKey, createRequest("001"), LocalDateTime.now());
+
+        // when
+        OrderResponse retried = orderIdempotencyService.createOrder(idempotencyKey, createRequest("001"), LocalDateTime.now());
+
+        // then
+        assertThat(retried.getId()).isEqualTo(original.getId());
+        assertThat(retried.getProducts()).hasSize(1)
+                .extracting("productNumber")
+                .containsExactly("001");
+        assertThat(stockRepository.findByProductNumber("001"))
+                .get()
+                .extracting("quantity")
+                .isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("같은 멱등성 키로 동시에 요청해도 주문은 하나만 생성된다.")
+    void createOrderConcurrently() throws InterruptedException {
+        // given
+        saveBottleWithStock("001", 10);
+        String idempotencyKey = UUID.randomUUID().toString();
+        int requestCount = 8;
+        ExecutorService executorService = Executors.newFixedThreadPool(requestCount);
+        CountDownLatch latch = new CountDownLatch(requestCount);
+        Set<Long> orderIds = ConcurrentHashMap.newKeySet();
+
+        // when
+        for (int i = 0; i < requestCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    orderIds.add(orderIdempotencyService.createOrder(idempotencyKey, createRequest("001"), LocalDateTime.now()).getId());
+                } catch (RuntimeException ignored) {
+                    // 락 대기 시간을 넘긴 요청은 실패할 수 있지만 주문을 만들지는 않는다.
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        executorService.shutdown();
+
+        // then
+        assertThat(orderIds).hasSize(1);
+        assertThat(orderRepository.count()).isEqualTo(1);
+        assertThat(stockRepository.findByProductNumber("001"))
+                .get()
+                .extracting("quantity")
+                .isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("상품 번호별 수량이 같으면 다른 형식으로 재시도해도 처음 생성한 주문을 돌려준다.")
+    void createOrderWithSameProductQuantities() {
+        // given
+        saveBottleWithStock("001", 5);
+        String idempotencyKey = UUID.randomUUID().toString();
+        OrderResponse original = orderService.createOrder(idempotencyKey, createRequest("001", "001"), LocalDateTime.now());
+
+        // when
+        OrderResponse retried = orderIdempotencyService.createOrder(idempotencyKey, OrderCreateServiceRequest.builder()
+                .orderLines(List.of(OrderLineRequest.builder()
+                        .productNumber("001")
+                        .quantity(2)
+                        .build()))
+                .build(), LocalDateTime.now());
+
+        // then
+        assertThat(retried.getId()).isEqualTo(original.getId());
+    }
+
+    @Test
+    @DisplayName("같은 멱등성 키로 다른 주문을 요청하면 예외가 발생하고 주문을 생성하지 않는다.")
+    void createOrderWithMismatchedRequest() {
+        // given
+        saveBottleWithStock("001", 5);
+        saveBottleWithStock("002", 5);
+        String idempotencyKey = UUID.randomUUID().toString();
+        orderIdempotencyService.createOrder(idempotencyKey, createRequest("001"), LocalDateTime.now());
+
+        // when // then
+        assertThatThrownBy(() -> orderIdempotencyService.createOrder(idempotencyKey, createRequest("002"), LocalDateTime.now()))
+                .isInstanceOf(OrderIdempotencyKeyMismatchException.class)
+                .hasMessage("이미 다른 주문에 사용된 멱등성 키입니다.");
+        assertThat(orderRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("캐시에 없는 멱등성 키라도 저장된 요청과 내용이 다르면 예외가 발생한다.")
+    void createOrderWithMismatchedStoredRequest() {
+        // given
+        saveBottleWithStock("001", 5);
+        saveBottleWithStock("002", 5);
+        String idempotencyKey = UUID.randomUUID().toString();
+        orderService.createOrder(idempotencyKey, createRequest("001"), LocalDateTime.now());
+
+        // when // then
+        assertThatThrownBy(() -> orderIdempotencyService.createOrder(idempotencyKey, createRequest("002"), LocalDateTime.now()))
+                .isInstanceOf(OrderIdempotencyKeyMismatchException.class);
+        assertThat(stockRepository.findByProductNumber("002"))
+                .get()
+                .extracting("quantity")
+                .isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("보관 기간이 지난 멱등성 키만 지운다.")
+    void deleteExpiredKeys() {
+        // given
+        saveBottleWithStock("001", 5);
+        orderService.createOrder("expired-key", createRequest("001"), LocalDateTime.now());
+        orderService.createOrder("recent-key", createRequest("001"), LocalDateTime.now());
+        jdbcTemplate.update("update order_idempotency_key set local_date_time = ? where idempotency_key = ?",
+                LocalDateTime.now().minusDays(2), "expired-key");
+
+        // when
+        int deleted = orderIdempotencyService.deleteExpiredKeys();
+
+        // then
+        assertThat(deleted).isEqualTo(1);
+        assertThat(orderIdempotencyKeyRepository.findAll())
+                .extracting("idempotencyKey")
+                .containsExactly("recent-key");
+    }
+
+    @Test
+    @DisplayName("멱등성 키가 비어 있으면 주문을 생성할 수 없다.")
+    void createOrderWithBlankKey() {
+        // when // then
+        assertThatThrownBy(() -> orderIdempotencyService.createOrder(" ", createRequest("001"), LocalDateTime.now()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("멱등성 키는 1자 이상 100자 이하여야 합니다.");
+    }
+
+    private void saveBottleWithStock(String productNumber, int quantity) {
+        productRepository.save(Product.builder()
+                .type(BOTTLE)
+                .productNumber(productNumber)
+                .price(1000)
+                .sellingStatus(SELLING)
+                .name("메뉴 이름")
+                .build());
+        stockRepository.save(Stock.create(productNumber, quantity));
+    }
+
+    private OrderCreateServiceRequest createRequest(String... productNumbers) {
+        return OrderCreateServiceRequest.builder()
+                .productNumbers(List.of(productNumbers))
+                .build();
+    }
+
+}
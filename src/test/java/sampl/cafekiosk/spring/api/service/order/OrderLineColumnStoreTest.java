@@ -0,0 +1,152 @@
+package sampl.cafekiosk.spring.api.service.order;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import sampl.cafekiosk.spring.IntegrationTestSupport;
+import sampl.cafekiosk.spring.api.service.order.response.OrderLineAggregateResponse;
+import sampl.cafekiosk.spring.domain.order.Order;
+import sampl.cafekiosk.spring.domain.order.OrderRepository;
+import sampl.cafekiosk.spring.domain.order.OrderStatus;
+import sampl.cafekiosk.spring.domain.orderproduct.OrderProductRepository;
+import sampl.cafekiosk.spring.domain.product.Product;
+import sampl.cafekiosk.spring.domain.product.ProductRepository;
+import sampl.cafekiosk.spring.domain.product.ProductType;
+import sampl.cafekiosk.spring.domain.sales.DailySalesRepository;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static sampl.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sampl.cafekiosk.spring.domain.product.ProductType.BAKERY;
+import static sampl.cafekiosk.spring.domain.product.ProductType.HANDMADE;
+
+@TestPropertySource(properties = "cafekiosk.order.columnar.enabled=true")
+class OrderLineColumnStoreTest extends IntegrationTestSupport {
+
+    private static final LocalDateTime START = LocalDateTime.of(2023, 3, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2023, 3, 2, 0, 0);
+
+    @Autowired
+    private OrderLineColumnStore orderLineColumnStore;
+
+    @Autowired
+    private OrderProductRepository orderProductRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DailySalesRepository dailySalesRepository;
+
+    @AfterEach
+    void tearDown() {
+        orderProductRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        dailySalesRepository.deleteAllInBatch();
+        orderLineColumnStore.load();
+    }
+
+    @Test
+    @DisplayName("생성된 주문의 주문 상품이 커밋 후 열 저장소에 추가된다.")
+    void recordCreatedOrder() {
+        // given
+        Product americano = createProduct(HANDMADE, "001", 4000);
+        Product croissant = createProduct(BAKERY, "002", 3000);
+        productRepository.saveAll(List.of(americano, croissant));
+
+        createOrder(LocalDateTime.of(2023, 3, 1, 9, 0), Map.of(americano, 2, croissant, 1));
+        createOrder(LocalDateTime.of(2023, 3, 1, 10, 0), Map.of(americano, 1));
+
+        // when
+        List<OrderLineAggregateResponse> aggregates = orderLineColumnStore.aggregate(START, END, List.of(OrderStatus.INIT), EnumSet.of(OrderLineDimension.PRODUCT));
+
+        // then
+        assertThat(aggregates)
+                .extracting("productNumber", "quantity", "totalAmount", "lineCount")
+                .containsExactlyInAnyOrder(
+                        tuple("001", 3L, 12000L, 2L),
+                        tuple("002", 1L, 3000L, 1L)
+                );
+    }
+
+    @Test
+    @DisplayName("주문 상태가 바뀌면 커밋 후 그 주문의 주문 상품 상태도 바뀐다.")
+    void recordChangedOrderStatus() {
+        // given
+        Product americano = createProduct(HANDMADE, "001", 4000);
+        productRepository.save(americano);
+
+        Order order = createOrder(LocalDateTime.of(2023, 3, 1, 9, 0), Map.of(americano, 2));
+        createOrder(LocalDateTime.of(2023, 3, 1, 9, 30), Map.of(americano, 1));
+
+        // when
+        Order savedOrder = orderRepository.findWithOrderProductsById(order.getId()).orElseThrow();
+        savedOrder.changeOrderStatus(OrderStatus.PAYMENT_COMPLETED);
+        orderRepository.save(savedOrder);
+
+        // then
+        assertThat(orderLineColumnStore.aggregate(START, END, List.of(OrderStatus.PAYMENT_COMPLETED), EnumSet.of(OrderLineDimension.HOUR)))
+                .extracting("hour", "quantity", "totalAmount")
+                .containsExactly(
+                        tuple(9, 2L, 8000L)
+                );
+    }
+
+    @Test
+    @DisplayName("DB 의 주문 상품을 다시 읽으면 메모리에 반영된 내용과 같은 결과를 낸다.")
+    void load() {
+        // given
+        Product americano = createProduct(HANDMADE, "001", 4000);
+        Product croissant = createProduct(BAKERY, "002", 3000);
+        productRepository.saveAll(List.of(americano, croissant));
+
+        createOrder(LocalDateTime.of(2023, 3, 1, 9, 0), Map.of(americano, 2, croissant, 1));
+        createOrder(LocalDateTime.of(2023, 3, 1, 13, 0), Map.of(croissant, 3));
+        List<OrderLineAggregateResponse> recorded = orderLineColumnStore.aggregate(START, END, List.of(OrderStatus.INIT),
+                EnumSet.of(OrderLineDimension.PRODUCT, OrderLineDimension.HOUR));
+
+        // when
+        orderLineColumnStore.load();
+
+        // then
+        assertThat(orderLineColumnStore.aggregate(START, END, List.of(OrderStatus.INIT),
+                EnumSet.of(OrderLineDimension.PRODUCT, OrderLineDimension.HOUR)))
+                .extracting("productNumber", "hour", "quantity", "totalAmount")
+                .containsExactlyInAnyOrder(
+                        tuple("001", 9, 2L, 8000L),
+                        tuple("002", 9, 1L, 3000L),
+                        tuple("002", 13, 3L, 9000L)
+                )
+                .hasSameSizeAs(recorded);
+    }
+
+    private Order createOrder(LocalDateTime registeredDateTime, Map<Product, Integer> productQuantities) {
+        return orderRepository.save(Order.builder()
+                .productQuantities(productQuantities)
+                .orderStatus(OrderStatus.INIT)
+                .registeredDateTime(registeredDateTime)
+                .build());
+    }
+
+    private Product createProduct(ProductType type, String productNumber, int price) {
+        return Product.builder()
+                .type(type)
+                .productNumber(productNumber)
+                .price(price)
+                .sellingStatus(SELLING)
+                .name("메뉴 이름")
+                .build();
+    }
+
+}
@@ -0,0 +1,72 @@
+package sampl.cafekiosk.spring.api.service.order;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sampl.cafekiosk.spring.api.service.order.response.OrderLineAggregateResponse;
+import sampl.cafekiosk.spring.domain.order.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ./gradlew benchmark 로 실행한다. (benchmark 태스크는 힙을 256MB 로 제한한다)
+ * 주문 상품 300만 줄(주문 100만 건)을 열 저장소에 넣고 상품 x 시간대 집계에 걸리는 시간과 메모리 사용량을 잰다.
+ * 같은 양을 Order, OrderProduct 엔티티로 들고 있으면 256MB 힙에 들어가지 않는다.
+ */
+@Tag("benchmark")
+class OrderLineColumnsBenchmarkTest {
+
+    private static final int ORDER_COUNT = 1_000_000;
+    private static final int LINES_PER_ORDER = 3;
+    private static final int PRODUCT_COUNT = 50;
+    private static final int REPEAT = 10;
+    private static final long MAX_AGGREGATE_MILLIS = 500;
+
+    @Test
+    @DisplayName("주문 상품 300만 줄을 상품별, 시간대별로 묶어 집계한다.")
+    void aggregate() {
+        // given
+        // 2023-01-01 부터 약 12일 동안 1초 간격으로 주문을 넣는다.
+        LocalDateTime start = LocalDateTime.of(2023, 1, 1, 0, 0);
+        OrderLineColumns columns = new OrderLineColumns();
+        for (int order = 0; order < ORDER_COUNT; order++) {
+            OrderStatus orderStatus = order % 10 == 0 ? OrderStatus.CANCELED : OrderStatus.PAYMENT_COMPLETED;
+            for (int line = 0; line < LINES_PER_ORDER; line++) {
+                columns.append(order, orderStatus, start.plusSeconds(order),
+                        String.format("%03d", (order + line) % PRODUCT_COUNT), 1 + line, 1000 + line * 500);
+            }
+        }
+
+        // 처음 몇 번은 JIT 컴파일을 위해 버린다.
+        for (int i = 0; i < REPEAT; i++) {
+            aggregate(columns, start);
+        }
+
+        // when
+        long startNanos = System.nanoTime();
+        List<OrderLineAggregateResponse> aggregates = null;
+        for (int i = 0; i < REPEAT; i++) {
+            aggregates = aggregate(columns, start);
+        }
+        long averageMillis = (System.nanoTime() - startNanos) / REPEAT / 1_000_000;
+
+        // then
+        System.out.printf(">>> 주문 상품 수 : %d, 집계 그룹 수 : %d, 평균 집계 시간 : %dms, 열 저장소 크기 : %dMB%n",
+                columns.getLineCount(), aggregates.size(), averageMillis, columns.getMemoryBytes() >> 20);
+
+        assertThat(aggregates).hasSize(PRODUCT_COUNT * 24);
+        assertThat(aggregates.stream().mapToLong(OrderLineAggregateResponse::getLineCount).sum())
+                .isEqualTo((long) ORDER_COUNT * LINES_PER_ORDER * 9 / 10);
+        assertThat(averageMillis).isLessThan(MAX_AGGREGATE_MILLIS);
+    }
+
+    private static List<OrderLineAggregateResponse> aggregate(OrderLineColumns columns, LocalDateTime start) {
+        return columns.aggregate(start, start.plusMonths(1), List.of(OrderStatus.PAYMENT_COMPLETED),
+                EnumSet.of(OrderLineDimension.PRODUCT, OrderLineDimension.HOUR));
+    }
+
+}
@@ -0,0 +1,130 @@
+package sampl.cafekiosk.spring.api.service.order;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sampl.cafekiosk.spring.api.service.order.response.OrderLineAggregateResponse;
+import sampl.cafekiosk.spring.domain.order.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static sampl.cafekiosk.spring.domain.order.OrderStatus.CANCELED;
+import static sampl.cafekiosk.spring.domain.order.OrderStatus.PAYMENT_COMPLETED;
+
+class OrderLineColumnsTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2023, 3, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2023, 3, 2, 0, 0);
+
+    @Test
+    @DisplayName("기간 안의 주문 상품을 상품별, 시간대별로 묶어 수량과 매출을 더한다.")
+    void aggregateByProductAndHour() {
+        // given
+        OrderLineColumns columns = new OrderLineColumns();
+        columns.append(1L, PAYMENT_COMPLETED, LocalDateTime.of(2023, 3, 1, 9, 10), "001", 2, 4000);
+        columns.append(1L, PAYMENT_COMPLETED, LocalDateTime.of(2023, 3, 1, 9, 10), "002", 1, 3000);
+        columns.append(2L, PAYMENT_COMPLETED, LocalDateTime.of(2023, 3, 1, 9, 50), "001", 1, 4000);
+        columns.append(3L, PAYMENT_COMPLETED, LocalDateTime.of(2023, 3, 1, 14, 0), "001", 3, 4000);
+
+        // when
+        List<OrderLineAggregateResponse> aggregates = columns.aggregate(START, END, List.of(PAYMENT_COMPLETED),
+                EnumSet.of(OrderLineDimension.PRODUCT, OrderLineDimension.HOUR));
+
+        // then
+        assertThat(aggregates)
+                .extracting("productNumber", "hour", "orderStatus", "quantity", "totalAmount", "lineCount")
+                .containsExactly(
+                        tuple("001", 9, null, 3L, 12000L, 2L),
+                        tuple("001", 14, null, 3L, 12000L, 1L),
+                        tuple("002", 9, null, 1L, 3000L, 1L)
+                );
+    }
+
+    @Test
+    @DisplayName("기간의 끝은 포함하지 않고, 조회할 주문 상태가 아닌 주문 상품은 집계하지 않는다.")
+    void aggregateWithFilters() {
+        // given
+        OrderLineColumns columns = new OrderLineColumns();
+        columns.append(1L, PAYMENT_COMPLETED, START, "001", 1, 4000);
+        columns.append(2L, CANCELED, START.plusHours(1), "001", 1, 4000);
+        columns.append(3L, PAYMENT_COMPLETED, END, "001", 1, 4000);
+
+        // when
+        List<OrderLineAggregateResponse> aggregates = columns.aggregate(START, END, List.of(PAYMENT_COMPLETED), Set.of());
+
+        // then
+        assertThat(aggregates)
+                .extracting("productNumber", "hour", "orderStatus", "quantity", "totalAmount", "lineCount")
+                .containsExactly(
+                        tuple(null, null, null, 1L, 4000L, 1L)
+                );
+    }
+
+    @Test
+    @DisplayName("주문 상태를 바꾸면 그 주문의 주문 상품이 모두 새 상태로 집계된다.")
+    void changeOrderStatus() {
+        // given
+        OrderLineColumns columns = new OrderLineColumns();
+        columns.append(1L, PAYMENT_COMPLETED, START, "001", 1, 4000);
+        columns.append(1L, PAYMENT_COMPLETED, START, "002", 1, 3000);
+        columns.append(2L, PAYMENT_COMPLETED, START, "001", 2, 4000);
+
+        // when
+        boolean changed = columns.changeOrderStatus(1L, CANCELED);
+
+        // then
+        assertThat(changed).isTrue();
+        assertThat(columns.changeOrderStatus(3L, CANCELED)).isFalse();
+        assertThat(columns.aggregate(START, END, List.of(PAYMENT_COMPLETED, CANCELED), EnumSet.of(OrderLineDimension.ORDER_STATUS)))
+                .extracting("orderStatus", "quantity", "totalAmount", "lineCount")
+                .containsExactlyInAnyOrder(
+                        tuple(PAYMENT_COMPLETED, 2L, 8000L, 1L),
+                        tuple(CANCELED, 2L, 7000L, 2L)
+                );
+    }
+
+    @Test
+    @DisplayName("배열이 가득 차면 늘려서 계속 추가한다.")
+    void appendBeyondInitialCapacity() {
+        // given
+        OrderLineColumns columns = new OrderLineColumns();
+
+        // when
+        for (int i = 0; i < 5000; i++) {
+            columns.append(i, PAYMENT_COMPLETED, START.plusSeconds(i), "001", 1, 1000);
+            columns.append(i, PAYMENT_COMPLETED, START.plusSeconds(i), "002", 1, 2000);
+        }
+
+        // then
+        assertThat(columns.getOrderCount()).isEqualTo(5000);
+        assertThat(columns.getLineCount()).isEqualTo(10000);
+        assertThat(columns.aggregate(START, END, List.of(PAYMENT_COMPLETED), Set.of()))
+                .extracting("quantity", "totalAmount")
+                .containsExactly(tuple(10000L, 15_000_000L));
+    }
+
+    @Test
+    @DisplayName("색인을 늘린 뒤에도 앞서 추가한 주문의 상태를 바꾼다.")
+    void changeOrderStatusAfterIndexResize() {
+        // given
+        OrderLineColumns columns = new OrderLineColumns();
+        for (int i = 0; i < 5000; i++) {
+            columns.append(i * 1000L, PAYMENT_COMPLETED, START, "001", 1, 1000);
+        }
+
+        // when
+        boolean changed = columns.changeOrderStatus(0L, CANCELED) && columns.changeOrderStatus(4_999_000L, CANCELED);
+
+        // then
+        assertThat(changed).isTrue();
+        assertThat(columns.changeOrderStatus(1L, CANCELED)).isFalse();
+        assertThat(columns.aggregate(START, END, List.of(CANCELED), Set.of()))
+                .extracting("quantity", "lineCount")
+                .containsExactly(tuple(2L, 2L));
+    }
+
+}
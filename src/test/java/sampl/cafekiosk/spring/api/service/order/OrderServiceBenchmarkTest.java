@@ -0,0 +1,148 @@
+package sampl.cafekiosk.spring.api.service.order;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sampl.cafekiosk.spring.IntegrationTestSupport;
+import sampl.cafekiosk.spring.api.controller.order.request.OrderCreateServiceRequest;
+import sampl.cafekiosk.spring.domain.order.OrderRepository;
+import sampl.cafekiosk.spring.domain.orderproduct.OrderProductRepository;
+import sampl.cafekiosk.spring.domain.product.Product;
+import sampl.cafekiosk.spring.domain.product.ProductRepository;
+import sampl.cafekiosk.spring.domain.stock.StockRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static sampl.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sampl.cafekiosk.spring.domain.product.ProductType.HANDMADE;
+
+/**
+ * ./gradlew benchmark 로 실행한다.
+ * 같은 실행 안에서 JDBC 배치를 끈 경우(IDENTITY 전략처럼 엔티티마다 INSERT 를 따로 보내는 경우)와 켠 경우를 차례로 재고,
+ * 주문 한 건당 준비되는 SQL 수와 초당 주문 처리량을 나란히 출력한다.
+ */
+@Tag("benchmark")
+@TestPropertySource(properties = "spring.jpa.show-sql=false")
+class OrderServiceBenchmarkTest extends IntegrationTestSupport {
+
+    private static final int PRODUCT_COUNT = 10;
+    private static final int WARM_UP_ORDERS = 200;
+    private static final int MEASURED_ORDERS = 2_000;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderProductRepository orderProductRepository;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        orderProductRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        stockRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("상품 10개짜리 주문을 생성할 때 JDBC 배치를 끈 경우와 켠 경우의 주문당 SQL 수와 초당 주문 수를 비교한다.")
+    void createOrder() {
+        // given
+        List<Product> products = IntStream.rangeClosed(1, PRODUCT_COUNT)
+                .mapToObj(i -> createProduct(String.format("%03d", i), 1000 * i))
+                .collect(Collectors.toList());
+        productRepository.saveAll(products);
+
+        OrderCreateServiceRequest request = OrderCreateServiceRequest.builder()
+                .productNumbers(products.stream()
+                        .map(Product::getProductNumber)
+                        .collect(Collectors.toList()))
+                .build();
+
+        // when
+        double[] unbatched = measure(request, 1);
+        double[] batched = measure(request, null);
+
+        // then
+        System.out.printf(">>> 배치 끔 - 주문당 SQL 수 : %.2f, 초당 주문 수 : %.1f%n", unbatched[0], unbatched[1]);
+        System.out.printf(">>> 배치 켬 - 주문당 SQL 수 : %.2f, 초당 주문 수 : %.1f%n", batched[0], batched[1]);
+
+        // 배치를 끄면 주문 1건 + 주문상품 10건이 각각 INSERT 되어 상품 수보다 SQL 이 많다.
+        assertThat(unbatched[0]).isGreaterThan(PRODUCT_COUNT);
+        assertThat(batched[0]).isLessThan(PRODUCT_COUNT);
+    }
+
+    /**
+     * jdbcBatchSize 가 null 이면 설정된 배치 크기(hibernate.jdbc.batch_size)를 그대로 쓴다.
+     *
+     * @return {주문당 SQL 수, 초당 주문 수}
+     */
+    private double[] measure(OrderCreateServiceRequest request, Integer jdbcBatchSize) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Runnable createOrder = () -> transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+            orderService.createOrder(request, LocalDateTime.now());
+        });
+
+        for (int i = 0; i < WARM_UP_ORDERS; i++) {
+            createOrder.run();
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < MEASURED_ORDERS; i++) {
+            createOrder.run();
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        double statementsPerOrder = (double) statistics.getPrepareStatementCount() / MEASURED_ORDERS;
+        double ordersPerSecond = MEASURED_ORDERS / (elapsedNanos / 1_000_000_000.0);
+        statistics.setStatisticsEnabled(false);
+        return new double[]{statementsPerOrder, ordersPerSecond};
+    }
+
+    private Product createProduct(String productNumber, int price) {
+        return Product.builder()
+                .type(HANDMADE)
+                .productNumber(productNumber)
+                .price(price)
+                .sellingStatus(SELLING)
+                .name("메뉴 이름")
+                .build();
+    }
+
+}
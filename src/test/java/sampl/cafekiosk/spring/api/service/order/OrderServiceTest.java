@@ -1,5 +1,8 @@
 package sampl.cafekiosk.spring.api.service.order;
 
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -8,6 +11,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import sampl.cafekiosk.spring.IntegrationTestSupport;
 import sampl.cafekiosk.spring.api.controller.order.request.OrderCreateServiceRequest;
+import sampl.cafekiosk.spring.api.controller.order.request.OrderLineRequest;
+import sampl.cafekiosk.spring.api.service.order.response.OrderBatchResponse;
 import sampl.cafekiosk.spring.api.service.order.response.OrderResponse;
 import sampl.cafekiosk.spring.domain.order.OrderRepository;
 import sampl.cafekiosk.spring.domain.orderproduct.OrderProductRepository;
@@ -17,8 +22,16 @@ import sampl.cafekiosk.spring.domain.product.ProductType;
 import sampl.cafekiosk.spring.domain.stock.Stock;
 import sampl.cafekiosk.spring.domain.stock.StockRepository;
 
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.*;
 import static sampl.cafekiosk.spring.domain.product.ProductSellingStatus.*;
@@ -41,6 +54,12 @@ class OrderServiceTest extends IntegrationTestSupport {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
     @AfterEach
     void tearDown() {
         orderProductRepository.deleteAllInBatch();
@@ -71,7 +90,7 @@ class OrderServiceTest extends IntegrationTestSupport {
         assertThat(orderResponse.getId()).isNotNull();
         assertThat(orderResponse)
                 .extracting("registeredDateTime", "totalPrice")
-                .contains(registeredDateTime, 4000);
+                .contains(registeredDateTime, 4000L);
         assertThat(orderResponse.getProducts()).hasSize(2)
                 .extracting("productNumber", "price")
                 .containsExactlyInAnyOrder(
@@ -102,13 +121,128 @@ class OrderServiceTest extends IntegrationTestSupport {
         assertThat(orderResponse.getId()).isNotNull();
         assertThat(orderResponse)
                 .extracting("registeredDateTime", "totalPrice")
-                .contains(registeredDateTime, 2000);
+                .contains(registeredDateTime, 2000L);
+        assertThat(orderResponse.getProducts()).hasSize(1)
+                .extracting("productNumber", "price", "quantity")
+                .containsExactly(
+                        tuple("001", 1000, 2)
+                );
+    }
+
+    @DisplayName("상품 번호별 수량으로 주문을 생성하면 금액은 단가와 수량의 곱으로 계산한다.")
+    @Test
+    void createOrderWithOrderLines() {
+        // given
+        LocalDateTime registeredDateTime = LocalDateTime.now();
+
+        Product product1 = createProduct(BOTTLE, "001", 1000);
+        Product product2 = createProduct(HANDMADE, "002", 3000);
+        productRepository.saveAll(List.of(product1, product2));
+
+        stockRepository.save(Stock.create("001", 30));
+
+        OrderCreateServiceRequest request = OrderCreateServiceRequest.builder()
+                .orderLines(List.of(
+                        OrderLineRequest.builder().productNumber("001").quantity(30).build(),
+                        OrderLineRequest.builder().productNumber("002").quantity(2).build()
+                ))
+                .build();
+
+        // when
+        OrderResponse orderResponse = orderService.createOrder(request, registeredDateTime);
+
+        // then
+        assertThat(orderResponse.getTotalPrice()).isEqualTo(36000);
         assertThat(orderResponse.getProducts()).hasSize(2)
-                .extracting("productNumber", "price")
-                .containsExactlyInAnyOrder(
-                        tuple("001", 1000),
-                        tuple("001", 1000)
+                .extracting("productNumber", "price", "quantity")
+                .containsExactly(
+                        tuple("001", 1000, 30),
+                        tuple("002", 3000, 2)
                 );
+        assertThat(orderProductRepository.findAll()).hasSize(2);
+        assertThat(stockRepository.findByProductNumber("001"))
+                .get()
+                .extracting("quantity")
+                .isEqualTo(0);
+    }
+
+    @DisplayName("같은 상품을 여러 주문 상품으로 나눠 담아 합친 수량이 1000개를 넘으면 예외가 발생한다.")
+    @Test
+    void createOrderWithDuplicateOrderLinesOverMaxQuantity() {
+        // given
+        LocalDateTime registeredDateTime = LocalDateTime.now();
+        productRepository.save(createProduct(HANDMADE, "001", 1000));
+
+        OrderCreateServiceRequest request = OrderCreateServiceRequest.builder()
+                .orderLines(List.of(
+                        OrderLineRequest.builder().productNumber("001").quantity(1000).build(),
+                        OrderLineRequest.builder().productNumber("001").quantity(1).build()
+                ))
+                .build();
+
+        // when // then
+        assertThatThrownBy(() -> orderService.createOrder(request, registeredDateTime))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("상품별 주문 수량은 1000개 이하여야 합니다.");
+        assertThat(orderRepository.findAll()).isEmpty();
+    }
+
+    @DisplayName("같은 상품 번호를 1000번 넘게 반복해 주문하면 예외가 발생한다.")
+    @Test
+    void createOrderWithRepeatedProductNumbersOverMaxQuantity() {
+        // given
+        LocalDateTime registeredDateTime = LocalDateTime.now();
+        productRepository.save(createProduct(HANDMADE, "001", 1000));
+
+        OrderCreateServiceRequest request = OrderCreateServiceRequest.builder()
+                .productNumbers(Collections.nCopies(1001, "001"))
+                .build();
+
+        // when // then
+        assertThatThrownBy(() -> orderService.createOrder(request, registeredDateTime))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("상품별 주문 수량은 1000개 이하여야 합니다.");
+        assertThat(orderRepository.findAll()).isEmpty();
+    }
+
+    @DisplayName("주문을 조회할 때 주문 상품과 상품을 한 번의 SQL 로 함께 가져온다.")
+    @Test
+    void getOrder() {
+        // given
+        Product product1 = createProduct(HANDMADE, "001", 1000);
+        Product product2 = createProduct(HANDMADE, "002", 3000);
+        Product product3 = createProduct(HANDMADE, "003", 5000);
+        productRepository.saveAll(List.of(product1, product2, product3));
+
+        OrderCreateServiceRequest request = OrderCreateServiceRequest.builder()
+                .productNumbers(List.of("001", "002", "003"))
+                .build();
+        Long orderId = orderService.createOrder(request, LocalDateTime.now()).getId();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        // when
+        OrderResponse orderResponse = orderService.getOrder(orderId);
+
+        // then
+        long statementCount = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+
+        assertThat(orderResponse.getProducts()).hasSize(3)
+                .extracting("productNumber")
+                .containsExactlyInAnyOrder("001", "002", "003");
+        assertThat(statementCount).isEqualTo(1);
+    }
+
+    @DisplayName("존재하지 않는 주문을 조회하는 경우 예외가 발생한다.")
+    @Test
+    void getOrderWithUnknownId() {
+        // when // then
+        assertThatThrownBy(() -> orderService.getOrder(-1L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("존재하지 않는 주문입니다.");
     }
 
     @DisplayName("재고와 관련된 상품이 포함되어 있는 주문번호 리스트를 받아 주문을 생성한다.")
@@ -137,14 +271,13 @@ class OrderServiceTest extends IntegrationTestSupport {
         assertThat(orderResponse.getId()).isNotNull();
         assertThat(orderResponse)
                 .extracting("registeredDateTime", "totalPrice")
-                .contains(registeredDateTime, 10000);
-        assertThat(orderResponse.getProducts()).hasSize(4)
-                .extracting("productNumber", "price")
+                .contains(registeredDateTime, 10000L);
+        assertThat(orderResponse.getProducts()).hasSize(3)
+                .extracting("productNumber", "price", "quantity")
                 .containsExactlyInAnyOrder(
-                        tuple("001", 1000),
-                        tuple("001", 1000),
-                        tuple("002", 3000),
-                        tuple("003", 5000)
+                        tuple("001", 1000, 2),
+                        tuple("002", 3000, 1),
+                        tuple("003", 5000, 1)
                 );
 
         List<Stock> stocks = stockRepository.findAll();
@@ -183,6 +316,152 @@ class OrderServiceTest extends IntegrationTestSupport {
     }
 
 
+    @DisplayName("여러 주문을 한 번에 생성하고 주문별 결과를 반환한다.")
+    @Test
+    void createOrders() {
+        // given
+        LocalDateTime registeredDateTime = LocalDateTime.now();
+
+        Product product1 = createProduct(BOTTLE, "001", 1000);
+        Product product2 = createProduct(BAKERY, "002", 3000);
+        Product product3 = createProduct(HANDMADE, "003", 5000);
+        productRepository.saveAll(List.of(product1, product2, product3));
+
+        Stock stock1 = Stock.create("001", 2);
+        Stock stock2 = Stock.create("002", 2);
+        stockRepository.saveAll(List.of(stock1, stock2));
+
+        List<OrderCreateServiceRequest> requests = List.of(
+                OrderCreateServiceRequest.builder()
+                        .productNumbers(List.of("001", "003"))
+                        .build(),
+                OrderCreateServiceRequest.builder()
+                        .productNumbers(List.of("001", "002"))
+                        .build()
+        );
+
+        // when
+        OrderBatchResponse response = orderService.createOrders(requests, registeredDateTime);
+
+        // then
+        assertThat(response)
+                .extracting("successCount", "failureCount")
+                .contains(2, 0);
+        assertThat(response.getResults()).hasSize(2)
+                .extracting("index", "success", "order.totalPrice")
+                .containsExactly(
+                        tuple(0, true, 6000L),
+                        tuple(1, true, 4000L)
+                );
+        assertThat(orderRepository.findAll()).hasSize(2);
+
+        List<Stock> stocks = stockRepository.findAll();
+        assertThat(stocks).hasSize(2)
+                .extracting("productNumber", "quantity")
+                .containsExactlyInAnyOrder(
+                        tuple("001", 0),
+                        tuple("002", 1)
+                );
+    }
+
+    @DisplayName("여러 주문을 한 번에 생성할 때 재고가 부족하거나 없는 상품이 포함된 주문만 실패한다.")
+    @Test
+    void createOrdersWithPartialFailure() {
+        // given
+        LocalDateTime registeredDateTime = LocalDateTime.now();
+
+        Product product1 = createProduct(BOTTLE, "001", 1000);
+        Product product2 = createProduct(HANDMADE, "002", 3000);
+        productRepository.saveAll(List.of(product1, product2));
+
+        Stock stock1 = Stock.create("001", 1);
+        stockRepository.save(stock1);
+
+        List<OrderCreateServiceRequest> requests = List.of(
+                OrderCreateServiceRequest.builder()
+                        .productNumbers(List.of("001"))
+                        .build(),
+                OrderCreateServiceRequest.builder()
+                        .productNumbers(List.of("001", "002"))
+                        .build(),
+                OrderCreateServiceRequest.builder()
+                        .productNumbers(List.of("002", "999"))
+                        .build(),
+                OrderCreateServiceRequest.builder()
+                        .productNumbers(List.of("002"))
+                        .build()
+        );
+
+        // when
+        OrderBatchResponse response = orderService.createOrders(requests, registeredDateTime);
+
+        // then
+        assertThat(response)
+                .extracting("successCount", "failureCount")
+                .contains(2, 2);
+        assertThat(response.getResults()).hasSize(4)
+                .extracting("index", "success", "message")
+                .containsExactly(
+                        tuple(0, true, null),
+                        tuple(1, false, "재고가 부족한 상품이 있습니다."),
+                        tuple(2, false, "존재하지 않는 상품이 포함되어 있습니다."),
+                        tuple(3, true, null)
+                );
+        assertThat(orderRepository.findAll()).hasSize(2);
+        assertThat(stockRepository.findAll())
+                .extracting("productNumber", "quantity")
+                .containsExactly(tuple("001", 0));
+    }
+
+    @DisplayName("커넥션 풀 크기보다 많은 주문이 동시에 들어와도 상품과 재고 조회가 커넥션을 기다리며 멈추지 않는다.")
+    @Test
+    void createOrdersConcurrently() throws InterruptedException {
+        // given
+        LocalDateTime registeredDateTime = LocalDateTime.now();
+        productRepository.saveAll(List.of(createProduct(BOTTLE, "001", 1000), createProduct(HANDMADE, "002", 3000)));
+        stockRepository.save(Stock.create("001", 1000));
+
+        int requestCount = ((HikariDataSource) dataSource).getMaximumPoolSize() * 3;
+        ExecutorService executorService = Executors.newFixedThreadPool(requestCount);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(requestCount);
+        AtomicInteger successCount = new AtomicInteger();
+
+        // when
+        for (int i = 0; i < requestCount; i++) {
+            boolean batch = i % 2 == 0;
+            executorService.submit(() -> {
+                try {
+                    start.await();
+                    OrderCreateServiceRequest request = OrderCreateServiceRequest.builder()
+                            .productNumbers(List.of("001", "002"))
+                            .build();
+                    if (batch) {
+                        successCount.addAndGet(orderService.createOrders(List.of(request), registeredDateTime).getSuccessCount());
+                    } else {
+                        orderService.createOrder(request, registeredDateTime);
+                        successCount.incrementAndGet();
+                    }
+                } catch (Exception ignored) {
+                    // 실패한 주문은 아래에서 성공 수로 확인한다.
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        boolean finished = done.await(20, TimeUnit.SECONDS);
+        executorService.shutdown();
+
+        // then
+        assertThat(finished).isTrue();
+        assertThat(successCount.get()).isEqualTo(requestCount);
+        assertThat(stockRepository.findByProductNumber("001"))
+                .get()
+                .extracting("quantity")
+                .isEqualTo(1000 - requestCount);
+    }
+
     private Product createProduct(ProductType type, String productNumber, int price) {
         return Product.builder()
                 .type(type)
@@ -0,0 +1,176 @@
+package sampl.cafekiosk.spring.api.service.order;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.TestPropertySource;
+import sampl.cafekiosk.spring.IntegrationTestSupport;
+import sampl.cafekiosk.spring.api.service.mail.MailService;
+import sampl.cafekiosk.spring.domain.job.JobLease;
+import sampl.cafekiosk.spring.domain.job.JobLeaseRepository;
+import sampl.cafekiosk.spring.domain.mail.MailOutboxRepository;
+import sampl.cafekiosk.spring.domain.sales.DailySales;
+import sampl.cafekiosk.spring.domain.sales.DailySalesRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+
+@TestPropertySource(properties = "cafekiosk.order.statistics-mail.recipients=a@test.com,b@test.com")
+class OrderStatisticsMailJobTest extends IntegrationTestSupport {
+
+    private static final LocalDate TODAY = LocalDate.of(2023, 3, 6);
+
+    @Autowired
+    private OrderStatisticsMailJob orderStatisticsMailJob;
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    @Autowired
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Autowired
+    private DailySalesRepository dailySalesRepository;
+
+    @SpyBean
+    private MailService mailService;
+
+    @AfterEach
+    void tearDown() {
+        mailOutboxRepository.deleteAllInBatch();
+        dailySalesRepository.deleteAllInBatch();
+        jobLeaseRepository.save(JobLease.builder()
+                .jobName(OrderStatisticsMailJob.JOB_NAME)
+                .build());
+    }
+
+    @Test
+    @DisplayName("전날 매출 통계 메일을 받는 사람 모두에게 보내도록 outbox 에 쌓고, 보낸 날짜를 기록한다.")
+    void run() {
+        // given
+        dailySalesRepository.save(DailySales.of(LocalDate.of(2023, 3, 5), DailySales.ALL_PRODUCT_TYPES, 1, 12000));
+
+        // when
+        int completedDays = orderStatisticsMailJob.run(TODAY);
+
+        // then
+        assertThat(completedDays).isEqualTo(1);
+        assertThat(mailOutboxRepository.findAll())
+                .extracting("toEmail", "subject", "content")
+                .containsExactlyInAnyOrder(
+                        tuple("a@test.com", "[매출통계] 2023-03-05", "총 매출 합계는 12000 원 입니다."),
+                        tuple("b@test.com", "[매출통계] 2023-03-05", "총 매출 합계는 12000 원 입니다.")
+                );
+
+        JobLease lease = jobLeaseRepository.findById(OrderStatisticsMailJob.JOB_NAME).orElseThrow();
+        assertThat(lease.getLastCompletedDate()).isEqualTo(LocalDate.of(2023, 3, 5));
+        assertThat(lease.getLeasedUntil()).isNull();
+    }
+
+    @Test
+    @DisplayName("이미 보낸 날짜는 다시 보내지 않는다.")
+    void runTwice() {
+        // given
+        orderStatisticsMailJob.run(TODAY);
+
+        // when
+        int completedDays = orderStatisticsMailJob.run(TODAY);
+
+        // then
+        assertThat(completedDays).isZero();
+        assertThat(mailOutboxRepository.findAll()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("마지막으로 보낸 날짜 이후에 놓친 날짜를 모두 보낸다.")
+    void runCatchUp() {
+        // given
+        jobLeaseRepository.save(JobLease.builder()
+                .jobName(OrderStatisticsMailJob.JOB_NAME)
+                .lastCompletedDate(LocalDate.of(2023, 3, 2))
+                .build());
+
+        // when
+        int completedDays = orderStatisticsMailJob.run(TODAY);
+
+        // then
+        assertThat(completedDays).isEqualTo(3);
+        assertThat(mailOutboxRepository.findAll())
+                .extracting("subject")
+                .containsExactlyInAnyOrder(
+                        "[매출통계] 2023-03-03", "[매출통계] 2023-03-03",
+                        "[매출통계] 2023-03-04", "[매출통계] 2023-03-04",
+                        "[매출통계] 2023-03-05", "[매출통계] 2023-03-05"
+                );
+    }
+
+    @Test
+    @DisplayName("다른 서버가 작업 임대를 가지고 있으면 보내지 않는다.")
+    void runWhenLeasedByOther() {
+        // given
+        jobLeaseRepository.save(JobLease.builder()
+                .jobName(OrderStatisticsMailJob.JOB_NAME)
+                .owner("other-server")
+                .leasedUntil(LocalDateTime.now().plusMinutes(10))
+                .build());
+
+        // when
+        int completedDays = orderStatisticsMailJob.run(TODAY);
+
+        // then
+        assertThat(completedDays).isZero();
+        assertThat(mailOutboxRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("만료된 작업 임대는 다른 서버가 가져와 실행한다.")
+    void runWhenLeaseExpired() {
+        // given
+        jobLeaseRepository.save(JobLease.builder()
+                .jobName(OrderStatisticsMailJob.JOB_NAME)
+                .owner("other-server")
+                .leasedUntil(LocalDateTime.now().minusMinutes(1))
+                .build());
+
+        // when
+        int completedDays = orderStatisticsMailJob.run(TODAY);
+
+        // then
+        assertThat(completedDays).isEqualTo(1);
+        assertThat(mailOutboxRepository.findAll()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("메일을 쌓지 못한 날짜는 롤백하고 완료로 기록하지 않은 채 멈춘다.")
+    void runWhenEnqueueFails() {
+        // given
+        jobLeaseRepository.save(JobLease.builder()
+                .jobName(OrderStatisticsMailJob.JOB_NAME)
+                .lastCompletedDate(LocalDate.of(2023, 3, 2))
+                .build());
+        doThrow(new IllegalStateException("outbox"))
+                .when(mailService).sendMail(any(String.class), eq("b@test.com"), eq("[매출통계] 2023-03-04"), any(String.class));
+
+        // when
+        int completedDays = orderStatisticsMailJob.run(TODAY);
+
+        // then
+        assertThat(completedDays).isEqualTo(1);
+        assertThat(mailOutboxRepository.findAll())
+                .extracting("subject")
+                .containsExactly("[매출통계] 2023-03-03", "[매출통계] 2023-03-03");
+
+        JobLease lease = jobLeaseRepository.findById(OrderStatisticsMailJob.JOB_NAME).orElseThrow();
+        assertThat(lease.getLastCompletedDate()).isEqualTo(LocalDate.of(2023, 3, 3));
+        assertThat(lease.getLeasedUntil()).isNull();
+    }
+
+}
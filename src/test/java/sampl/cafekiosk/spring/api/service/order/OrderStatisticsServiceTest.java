@@ -9,9 +9,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import sampl.cafekiosk.spring.IntegrationTestSupport;
+import sampl.cafekiosk.spring.api.service.mail.MailOutboxDispatcher;
+import sampl.cafekiosk.spring.api.service.order.response.SalesStatisticsResponse;
 import sampl.cafekiosk.spring.client.MailSendClient;
 import sampl.cafekiosk.spring.domain.history.mail.MailSendHistory;
 import sampl.cafekiosk.spring.domain.history.mail.MailSendHistoryRepository;
+import sampl.cafekiosk.spring.domain.mail.MailOutboxRepository;
+import sampl.cafekiosk.spring.domain.mail.MailOutboxStatus;
 import sampl.cafekiosk.spring.domain.order.Order;
 import sampl.cafekiosk.spring.domain.order.OrderRepository;
 import sampl.cafekiosk.spring.domain.order.OrderStatus;
@@ -19,10 +23,15 @@ import sampl.cafekiosk.spring.domain.orderproduct.OrderProductRepository;
 import sampl.cafekiosk.spring.domain.product.Product;
 import sampl.cafekiosk.spring.domain.product.ProductRepository;
 import sampl.cafekiosk.spring.domain.product.ProductType;
+import sampl.cafekiosk.spring.domain.sales.DailySalesRepository;
 
+import java.io.StringWriter;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -47,6 +56,15 @@ class OrderStatisticsServiceTest extends IntegrationTestSupport {
     @Autowired
     private MailSendHistoryRepository mailSendHistoryRepository;
 
+    @Autowired
+    private DailySalesRepository dailySalesRepository;
+
+    @Autowired
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Autowired
+    private MailOutboxDispatcher mailOutboxDispatcher;
+
 
     @AfterEach
     void tearDown() {
@@ -54,6 +72,8 @@ class OrderStatisticsServiceTest extends IntegrationTestSupport {
         orderRepository.deleteAllInBatch();
         productRepository.deleteAllInBatch();
         mailSendHistoryRepository.deleteAllInBatch();
+        dailySalesRepository.deleteAllInBatch();
+        mailOutboxRepository.deleteAllInBatch();
     }
     
     @Test
@@ -82,16 +102,160 @@ class OrderStatisticsServiceTest extends IntegrationTestSupport {
 
         // then
         assertThat(result).isTrue();
+        assertThat(mailSendHistoryRepository.findAll()).isEmpty();
+        assertThat(mailOutboxRepository.findAll()).hasSize(1)
+                .extracting("status")
+                .containsExactly(MailOutboxStatus.PENDING);
 
+        mailOutboxDispatcher.dispatch();
         List<MailSendHistory> histories = mailSendHistoryRepository.findAll();
         assertThat(histories).hasSize(1)
                 .extracting("content")
                 .contains("총 매출 합계는 12000 원 입니다.");
     }
 
+    @Test
+    @DisplayName("기간 안의 주문을 시간대별, 상품 타입별, 상품별로 집계한다.")
+    void getSalesStatistics() {
+        // given
+        Product product1 = createProduct(BOTTLE, "001", 1000);
+        Product product2 = createProduct(BAKERY, "002", 2000);
+        Product product3 = createProduct(HANDMADE, "003", 3000);
+        productRepository.saveAll(List.of(product1, product2, product3));
+
+        createOrder(LocalDateTime.of(2023, 3, 5, 10, 30), OrderStatus.PAYMENT_COMPLETED, Map.of(product1, 2, product2, 1));
+        createOrder(LocalDateTime.of(2023, 3, 5, 10, 50), OrderStatus.PAYMENT_COMPLETED, Map.of(product3, 1));
+        createOrder(LocalDateTime.of(2023, 3, 5, 14, 0), OrderStatus.CANCELED, Map.of(product1, 1));
+        createOrder(LocalDateTime.of(2023, 3, 6, 9, 0), OrderStatus.PAYMENT_COMPLETED, Map.of(product2, 1));
+
+        // when
+        SalesStatisticsResponse response = orderStatisticsService.getSalesStatistics(
+                LocalDate.of(2023, 3, 5),
+                LocalDate.of(2023, 3, 5),
+                List.of(OrderStatus.PAYMENT_COMPLETED)
+        );
+
+        // then
+        assertThat(response)
+                .extracting("orderCount", "totalAmount")
+                .containsExactly(2L, 7000L);
+        assertThat(response.getHourlySales())
+                .extracting("hour", "orderCount", "totalAmount")
+                .containsExactly(tuple(10, 2L, 7000L));
+        assertThat(response.getProductTypeSales())
+                .extracting("productType", "orderCount", "quantity", "totalAmount")
+                .containsExactlyInAnyOrder(
+                        tuple(BOTTLE, 1L, 2L, 2000L),
+                        tuple(BAKERY, 1L, 1L, 2000L),
+                        tuple(HANDMADE, 1L, 1L, 3000L)
+                );
+        assertThat(response.getProductSales())
+                .extracting("productNumber", "quantity", "totalAmount")
+                .containsExactlyInAnyOrder(
+                        tuple("001", 2L, 2000L),
+                        tuple("002", 1L, 2000L),
+                        tuple("003", 1L, 3000L)
+                );
+    }
+
+    @Test
+    @DisplayName("여러 주문 상태를 함께 집계할 수 있다.")
+    void getSalesStatisticsWithOrderStatuses() {
+        // given
+        Product product = createProduct(HANDMADE, "001", 1000);
+        productRepository.save(product);
+
+        createOrder(LocalDateTime.of(2023, 3, 5, 10, 0), OrderStatus.PAYMENT_COMPLETED, Map.of(product, 1));
+        createOrder(LocalDateTime.of(2023, 3, 6, 11, 0), OrderStatus.CANCELED, Map.of(product, 2));
+        createOrder(LocalDateTime.of(2023, 3, 6, 11, 0), OrderStatus.INIT, Map.of(product, 3));
+
+        // when
+        SalesStatisticsResponse response = orderStatisticsService.getSalesStatistics(
+                LocalDate.of(2023, 3, 5),
+                LocalDate.of(2023, 3, 6),
+                List.of(OrderStatus.PAYMENT_COMPLETED, OrderStatus.CANCELED)
+        );
+
+        // then
+        assertThat(response.getHourlySales())
+                .extracting("hour", "orderCount", "totalAmount")
+                .containsExactly(
+                        tuple(10, 1L, 1000L),
+                        tuple(11, 1L, 2000L)
+                );
+    }
+
+    @Test
+    @DisplayName("조회 시작일이 종료일보다 늦으면 집계할 수 없다.")
+    void getSalesStatisticsWithInvalidPeriod() {
+        // when // then
+        assertThatThrownBy(() -> orderStatisticsService.getSalesStatistics(
+                LocalDate.of(2023, 3, 6),
+                LocalDate.of(2023, 3, 5),
+                List.of(OrderStatus.PAYMENT_COMPLETED)
+        ))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("조회 시작일은 종료일보다 늦을 수 없습니다.");
+    }
+
+    @Test
+    @DisplayName("주문 분석 기능이 꺼져 있으면 주문 상품을 집계할 수 없다.")
+    void getOrderLineAnalyticsWhenDisabled() {
+        // when // then
+        assertThatThrownBy(() -> orderStatisticsService.getOrderLineAnalytics(
+                LocalDateTime.of(2023, 3, 1, 0, 0),
+                LocalDateTime.of(2023, 3, 2, 0, 0),
+                List.of(OrderStatus.PAYMENT_COMPLETED),
+                Set.of(OrderLineDimension.PRODUCT)
+        ))
+                .isInstanceOf(OrderLineAnalyticsDisabledException.class)
+                .hasMessage("주문 분석 기능이 꺼져 있습니다.");
+    }
+
+    @Test
+    @DisplayName("기간 안의 주문을 CSV 로 내보낸다. 종료일의 주문까지 포함한다.")
+    void exportOrders() {
+        // given
+        Product product = createProduct(HANDMADE, "001", 1000);
+        productRepository.save(product);
+
+        Order order1 = createOrder(LocalDateTime.of(2023, 3, 5, 10, 0), OrderStatus.PAYMENT_COMPLETED, Map.of(product, 1));
+        Order order2 = createOrder(LocalDateTime.of(2023, 3, 6, 23, 59, 59), OrderStatus.PAYMENT_COMPLETED, Map.of(product, 2));
+        createOrder(LocalDateTime.of(2023, 3, 6, 11, 0), OrderStatus.CANCELED, Map.of(product, 3));
+        createOrder(LocalDateTime.of(2023, 3, 7, 0, 0), OrderStatus.PAYMENT_COMPLETED, Map.of(product, 4));
+
+        StringWriter writer = new StringWriter();
+
+        // when
+        long count = orderStatisticsService.exportOrders(
+                LocalDate.of(2023, 3, 5),
+                LocalDate.of(2023, 3, 6),
+                List.of(OrderStatus.PAYMENT_COMPLETED),
+                writer
+        );
+
+        // then
+        assertThat(count).isEqualTo(2);
+        assertThat(writer.toString().split("\n"))
+                .containsExactlyInAnyOrder(
+                        "id,registeredDateTime,orderStatus,totalPrice",
+                        order1.getId() + ",2023-03-05T10:00,PAYMENT_COMPLETED,1000",
+                        order2.getId() + ",2023-03-06T23:59:59,PAYMENT_COMPLETED,2000"
+                );
+    }
+
+    private Order createOrder(LocalDateTime registeredDateTime, OrderStatus orderStatus, Map<Product, Integer> productQuantities) {
+        return orderRepository.save(Order.builder()
+                .productQuantities(productQuantities)
+                .orderStatus(orderStatus)
+                .registeredDateTime(registeredDateTime)
+                .build());
+    }
+
     private Order createPaymentCompletedOrder(LocalDateTime now,List<Product> products) {
         Order order = Order.builder()
-                .products(products)
+                .productQuantities(products.stream()
+                        .collect(Collectors.toMap(product -> product, product -> 1)))
                 .orderStatus(OrderStatus.PAYMENT_COMPLETED)
                 .registeredDateTime(now)
                 .build();
@@ -0,0 +1,122 @@
+package sampl.cafekiosk.spring.api.service.order;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import sampl.cafekiosk.spring.IntegrationTestSupport;
+import sampl.cafekiosk.spring.domain.order.OrderStatus;
+
+import java.io.Writer;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ./gradlew benchmark 로 실행한다. (benchmark 태스크는 힙을 256MB 로 제한한다)
+ * 주문 200만 건을 CSV 로 내보내면서 GC 직후의 힙 사용량을 주기적으로 재어, 건수와 관계없이 일정하게 유지되는지 확인한다.
+ * 인메모리 H2 는 데이터가 같은 힙에 올라가므로 파일 DB 를 사용한다.
+ */
+@Tag("benchmark")
+@TestPropertySource(properties = "spring.jpa.show-sql=false")
+class OrderStreamingBenchmarkTest extends IntegrationTestSupport {
+
+    private static final int ORDER_COUNT = 2_000_000;
+    private static final int SAMPLE_INTERVAL = 200_000;
+    private static final long MAX_HEAP_GROWTH_BYTES = 32L * 1024 * 1024;
+
+    @TempDir
+    static Path databaseDir;
+
+    @DynamicPropertySource
+    static void fileDatabase(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:" + databaseDir.resolve("orders").toAbsolutePath());
+    }
+
+    @Autowired
+    private OrderStatisticsService orderStatisticsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("주문 200만 건을 내보내는 동안 힙 사용량이 일정하게 유지된다.")
+    void exportOrders() {
+        // given
+        // 2023-01-01 부터 약 23일 동안 1초 간격으로 주문을 넣는다.
+        jdbcTemplate.update("insert into orders (id, order_status, total_price, registered_date_time) " +
+                "select x, 'PAYMENT_COMPLETED', 1000, dateadd(second, x, timestamp '2023-01-01 00:00:00') " +
+                "from system_range(1, " + ORDER_COUNT + ")");
+
+        HeapSampler heapSampler = new HeapSampler();
+
+        // when
+        long startNanos = System.nanoTime();
+        long count = orderStatisticsService.exportOrders(
+                LocalDate.of(2023, 1, 1),
+                LocalDate.of(2023, 1, 31),
+                List.of(OrderStatus.PAYMENT_COMPLETED),
+                new SamplingWriter(heapSampler)
+        );
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+
+        // then
+        System.out.printf(">>> 내보낸 주문 수 : %d, 걸린 시간 : %dms, 시작 힙 사용량 : %dMB, 최대 힙 사용량 : %dMB%n",
+                count, elapsedMillis, heapSampler.baseline >> 20, heapSampler.max >> 20);
+
+        assertThat(count).isEqualTo(ORDER_COUNT);
+        assertThat(heapSampler.max - heapSampler.baseline).isLessThan(MAX_HEAP_GROWTH_BYTES);
+    }
+
+    private static class HeapSampler {
+        private final long baseline = usedHeapAfterGc();
+        private long max = baseline;
+
+        private void sample() {
+            max = Math.max(max, usedHeapAfterGc());
+        }
+
+        private static long usedHeapAfterGc() {
+            System.gc();
+            Runtime runtime = Runtime.getRuntime();
+            return runtime.totalMemory() - runtime.freeMemory();
+        }
+    }
+
+    /**
+     * 내용은 버리고, SAMPLE_INTERVAL 줄마다 힙 사용량을 잰다.
+     */
+    private static class SamplingWriter extends Writer {
+        private final HeapSampler heapSampler;
+        private long lines;
+
+        private SamplingWriter(HeapSampler heapSampler) {
+            this.heapSampler = heapSampler;
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                if (buffer[i] == '\n' && ++lines % SAMPLE_INTERVAL == 0) {
+                    heapSampler.sample();
+                }
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+}
@@ -0,0 +1,130 @@
+package sampl.cafekiosk.spring.api.service.order;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import sampl.cafekiosk.spring.IntegrationTestSupport;
+import sampl.cafekiosk.spring.api.service.order.response.RealtimeSalesWindowResponse;
+import sampl.cafekiosk.spring.domain.order.Order;
+import sampl.cafekiosk.spring.domain.order.OrderRepository;
+import sampl.cafekiosk.spring.domain.order.OrderStatus;
+import sampl.cafekiosk.spring.domain.orderproduct.OrderProductRepository;
+import sampl.cafekiosk.spring.domain.product.Product;
+import sampl.cafekiosk.spring.domain.product.ProductRepository;
+import sampl.cafekiosk.spring.domain.product.ProductType;
+import sampl.cafekiosk.spring.domain.sales.DailySalesRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static sampl.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sampl.cafekiosk.spring.domain.product.ProductType.BAKERY;
+import static sampl.cafekiosk.spring.domain.product.ProductType.HANDMADE;
+
+class RealtimeSalesCounterTest extends IntegrationTestSupport {
+
+    @Autowired
+    private RealtimeSalesCounter realtimeSalesCounter;
+
+    @Autowired
+    private OrderProductRepository orderProductRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DailySalesRepository dailySalesRepository;
+
+    @AfterEach
+    void tearDown() {
+        orderProductRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        dailySalesRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("최근 주문을 window 별로 전체, 상품 타입별, 상품별로 센다.")
+    void getWindows() {
+        // given
+        Product americano = createProduct(HANDMADE, "001", 4000);
+        Product croissant = createProduct(BAKERY, "002", 3000);
+        productRepository.saveAll(List.of(americano, croissant));
+
+        LocalDateTime now = LocalDateTime.now();
+        createOrder(now, Map.of(americano, 1, croissant, 1));
+        createOrder(now.minusMinutes(10), Map.of(americano, 2));
+        createOrder(now.minusDays(1), Map.of(croissant, 1));
+
+        // when
+        List<RealtimeSalesWindowResponse> windows = realtimeSalesCounter.getWindows();
+
+        // then
+        assertThat(windows)
+                .extracting("windowMinutes", "orderCount", "totalAmount")
+                .containsExactly(
+                        tuple(5, 1L, 7000L),
+                        tuple(15, 2L, 15000L),
+                        tuple(60, 2L, 15000L)
+                );
+        assertThat(windows.get(0).getProductTypeSales())
+                .extracting("key", "orderCount", "totalAmount")
+                .containsExactly(
+                        tuple("HANDMADE", 1L, 4000L),
+                        tuple("BAKERY", 1L, 3000L)
+                );
+        assertThat(windows.get(1).getProductSales())
+                .extracting("key", "orderCount", "totalAmount")
+                .containsExactly(
+                        tuple("001", 2L, 12000L),
+                        tuple("002", 1L, 3000L)
+                );
+    }
+
+    @Test
+    @DisplayName("취소된 주문은 그 주문이 더해진 window 에서 뺀다.")
+    void getWindowsAfterCancel() {
+        // given
+        Product americano = createProduct(HANDMADE, "001", 4000);
+        productRepository.save(americano);
+
+        Order order = createOrder(LocalDateTime.now(), Map.of(americano, 1));
+        createOrder(LocalDateTime.now(), Map.of(americano, 2));
+
+        // when
+        Order savedOrder = orderRepository.findWithOrderProductsById(order.getId()).orElseThrow();
+        savedOrder.changeOrderStatus(OrderStatus.CANCELED);
+        orderRepository.save(savedOrder);
+
+        // then
+        assertThat(realtimeSalesCounter.getWindows().get(0))
+                .extracting("orderCount", "totalAmount")
+                .containsExactly(1L, 8000L);
+    }
+
+    private Order createOrder(LocalDateTime registeredDateTime, Map<Product, Integer> productQuantities) {
+        return orderRepository.save(Order.builder()
+                .productQuantities(productQuantities)
+                .orderStatus(OrderStatus.INIT)
+                .registeredDateTime(registeredDateTime)
+                .build());
+    }
+
+    private Product createProduct(ProductType type, String productNumber, int price) {
+        return Product.builder()
+                .type(type)
+                .productNumber(productNumber)
+                .price(price)
+                .sellingStatus(SELLING)
+                .name("메뉴 이름")
+                .build();
+    }
+
+}
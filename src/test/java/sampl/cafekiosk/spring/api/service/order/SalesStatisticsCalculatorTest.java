@@ -0,0 +1,202 @@
+package sampl.cafekiosk.spring.api.service.order;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import sampl.cafekiosk.spring.IntegrationTestSupport;
+import sampl.cafekiosk.spring.api.service.order.response.SalesStatisticsResponse;
+import sampl.cafekiosk.spring.domain.order.Order;
+import sampl.cafekiosk.spring.domain.order.OrderRepository;
+import sampl.cafekiosk.spring.domain.order.OrderStatus;
+import sampl.cafekiosk.spring.domain.orderproduct.OrderProductRepository;
+import sampl.cafekiosk.spring.domain.product.Product;
+import sampl.cafekiosk.spring.domain.product.ProductRepository;
+import sampl.cafekiosk.spring.domain.product.ProductType;
+import sampl.cafekiosk.spring.domain.sales.DailySalesRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static sampl.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sampl.cafekiosk.spring.domain.product.ProductType.BAKERY;
+import static sampl.cafekiosk.spring.domain.product.ProductType.HANDMADE;
+
+class SalesStatisticsCalculatorTest extends IntegrationTestSupport {
+
+    private static final List<OrderStatus> PAYMENT_COMPLETED = List.of(OrderStatus.PAYMENT_COMPLETED);
+
+    @Autowired
+    private SalesStatisticsCalculator salesStatisticsCalculator;
+
+    @Autowired
+    private OrderProductRepository orderProductRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DailySalesRepository dailySalesRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        orderProductRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        dailySalesRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("날짜별 집계를 합쳐 같은 시간대, 같은 상품 타입, 같은 상품끼리 더한다.")
+    void calculate() {
+        // given
+        Product americano = createProduct(HANDMADE, "001", 4000);
+        Product croissant = createProduct(BAKERY, "002", 3000);
+        productRepository.saveAll(List.of(americano, croissant));
+
+        createOrder(LocalDateTime.of(2023, 3, 1, 9, 0), Map.of(americano, 1));
+        createOrder(LocalDateTime.of(2023, 3, 2, 9, 30), Map.of(americano, 2, croissant, 1));
+        createOrder(LocalDateTime.of(2023, 3, 3, 14, 0), Map.of(croissant, 1));
+
+        // when
+        SalesStatisticsResponse response = salesStatisticsCalculator.calculate(
+                LocalDate.of(2023, 3, 1), LocalDate.of(2023, 3, 31), PAYMENT_COMPLETED
+        );
+
+        // then
+        assertThat(response)
+                .extracting("orderCount", "totalAmount")
+                .containsExactly(3L, 18000L);
+        assertThat(response.getHourlySales())
+                .extracting("hour", "orderCount", "totalAmount")
+                .containsExactly(
+                        tuple(9, 2L, 15000L),
+                        tuple(14, 1L, 3000L)
+                );
+        assertThat(response.getProductTypeSales())
+                .extracting("productType", "orderCount", "quantity", "totalAmount")
+                .containsExactly(
+                        tuple(HANDMADE, 2L, 3L, 12000L),
+                        tuple(BAKERY, 2L, 2L, 6000L)
+                );
+        assertThat(response.getProductSales())
+                .extracting("productNumber", "orderCount", "quantity", "totalAmount")
+                .containsExactly(
+                        tuple("001", 2L, 3L, 12000L),
+                        tuple("002", 2L, 2L, 6000L)
+                );
+    }
+
+    @Test
+    @DisplayName("지난 날짜의 집계는 보관해 두고 다시 조회하지 않는다.")
+    void calculateClosedDayOnce() {
+        // given
+        Product product = createProduct(HANDMADE, "001", 1000);
+        productRepository.save(product);
+        createOrder(LocalDateTime.of(2023, 3, 5, 10, 0), Map.of(product, 1));
+
+        salesStatisticsCalculator.calculate(LocalDate.of(2023, 3, 5), LocalDate.of(2023, 3, 5), PAYMENT_COMPLETED);
+
+        // 주문 이벤트 없이 DB 에 직접 넣은 주문은 보관한 집계에 반영되지 않는다.
+        jdbcTemplate.update("insert into orders (id, order_status, total_price, registered_date_time) " +
+                "values (1000000, 'PAYMENT_COMPLETED', 5000, timestamp '2023-03-05 11:00:00')");
+
+        // when
+        SalesStatisticsResponse response = salesStatisticsCalculator.calculate(
+                LocalDate.of(2023, 3, 5), LocalDate.of(2023, 3, 5), PAYMENT_COMPLETED
+        );
+
+        // then
+        assertThat(response)
+                .extracting("orderCount", "totalAmount")
+                .containsExactly(1L, 1000L);
+    }
+
+    @Test
+    @DisplayName("지난 날짜에 주문이 생기면 그 날짜의 보관한 집계를 비우고 다시 집계한다.")
+    void calculateAfterOrderCreated() {
+        // given
+        Product product = createProduct(HANDMADE, "001", 1000);
+        productRepository.save(product);
+        createOrder(LocalDateTime.of(2023, 3, 5, 10, 0), Map.of(product, 1));
+
+        salesStatisticsCalculator.calculate(LocalDate.of(2023, 3, 5), LocalDate.of(2023, 3, 5), PAYMENT_COMPLETED);
+
+        createOrder(LocalDateTime.of(2023, 3, 5, 11, 0), Map.of(product, 2));
+
+        // when
+        SalesStatisticsResponse response = salesStatisticsCalculator.calculate(
+                LocalDate.of(2023, 3, 5), LocalDate.of(2023, 3, 5), PAYMENT_COMPLETED
+        );
+
+        // then
+        assertThat(response)
+                .extracting("orderCount", "totalAmount")
+                .containsExactly(2L, 3000L);
+    }
+
+    @Test
+    @DisplayName("정산 기간이 지나지 않은 최근 날짜의 집계는 보관하지 않고 매번 다시 집계한다.")
+    void calculateUnsettledDay() {
+        // given
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        Product product = createProduct(HANDMADE, "001", 1000);
+        productRepository.save(product);
+        createOrder(yesterday.atTime(10, 0), Map.of(product, 1));
+
+        salesStatisticsCalculator.calculate(yesterday, yesterday, PAYMENT_COMPLETED);
+
+        jdbcTemplate.update("insert into orders (id, order_status, total_price, registered_date_time) values (1000000, 'PAYMENT_COMPLETED', 5000, ?)",
+                yesterday.atTime(11, 0));
+
+        // when
+        SalesStatisticsResponse response = salesStatisticsCalculator.calculate(yesterday, yesterday, PAYMENT_COMPLETED);
+
+        // then
+        assertThat(response)
+                .extracting("orderCount", "totalAmount")
+                .containsExactly(2L, 6000L);
+    }
+
+    @Test
+    @DisplayName("최대 일수보다 긴 기간은 집계할 수 없다.")
+    void calculateOverMaxDays() {
+        // when // then
+        assertThatThrownBy(() -> salesStatisticsCalculator.calculate(
+                LocalDate.of(2023, 1, 1), LocalDate.of(2024, 1, 2), PAYMENT_COMPLETED
+        ))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("조회 기간은 366일 이하여야 합니다.");
+    }
+
+    private Order createOrder(LocalDateTime registeredDateTime, Map<Product, Integer> productQuantities) {
+        return orderRepository.save(Order.builder()
+                .productQuantities(productQuantities)
+                .orderStatus(OrderStatus.PAYMENT_COMPLETED)
+                .registeredDateTime(registeredDateTime)
+                .build());
+    }
+
+    private Product createProduct(ProductType type, String productNumber, int price) {
+        return Product.builder()
+                .type(type)
+                .productNumber(productNumber)
+                .price(price)
+                .sellingStatus(SELLING)
+                .name("메뉴 이름")
+                .build();
+    }
+
+}
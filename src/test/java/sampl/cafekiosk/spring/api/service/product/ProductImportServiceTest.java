@@ -0,0 +1,159 @@
+package sampl.cafekiosk.spring.api.service.product;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import sampl.cafekiosk.spring.IntegrationTestSupport;
+import sampl.cafekiosk.spring.api.service.product.response.ProductImportResponse;
+import sampl.cafekiosk.spring.domain.product.ProductRepository;
+
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static sampl.cafekiosk.spring.domain.product.ProductSellingStatus.HOLD;
+import static sampl.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sampl.cafekiosk.spring.domain.product.ProductType.BAKERY;
+import static sampl.cafekiosk.spring.domain.product.ProductType.HANDMADE;
+
+class ProductImportServiceTest extends IntegrationTestSupport {
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("CSV 파일의 상품을 등록하고, 잘못된 행은 줄 번호와 함께 실패로 보고한다.")
+    void importCsv() {
+        // given
+        String csv = "type,sellingStatus,name,price\n" +
+                "HANDMADE,SELLING,아메리카노,4000\n" +
+                "BAKERY,HOLD,\"크루아상, 버터\",3500\n" +
+                "COFFEE,SELLING,라떼,4500\n" +
+                "HANDMADE,SELLING,,-1\n";
+
+        // when
+        ProductImportResponse response = productImportService.importProducts(new StringReader(csv), ProductImportFormat.CSV);
+
+        // then
+        assertThat(response)
+                .extracting("totalCount", "importedCount", "failedCount")
+                .containsExactly(4, 2, 2);
+        assertThat(response.getErrors())
+                .extracting("lineNumber", "message")
+                .containsExactly(
+                        tuple(4, "상품 타입이 올바르지 않습니다."),
+                        tuple(5, "상품 가격은 양수여야 합니다. 상품 이름은 필수입니다.")
+                );
+
+        assertThat(productRepository.findAll())
+                .extracting("productNumber", "type", "sellingStatus", "name", "price")
+                .containsExactlyInAnyOrder(
+                        tuple("001", HANDMADE, SELLING, "아메리카노", 4000),
+                        tuple("002", BAKERY, HOLD, "크루아상, 버터", 3500)
+                );
+    }
+
+    @Test
+    @DisplayName("JSON Lines 파일의 상품을 등록한다. 상품 번호는 등록된 상품 다음 번호부터 발급한다.")
+    void importJsonLines() {
+        // given
+        String jsonLines = "{\"type\":\"HANDMADE\",\"sellingStatus\":\"SELLING\",\"name\":\"아메리카노\",\"price\":4000}\n" +
+                "\n" +
+                "{\"type\":\"BAKERY\",\"sellingStatus\":\"HOLD\",\"name\":\"크루아상\",\"price\":3500}\n" +
+                "{\"type\":\"BAKERY\",\n";
+
+        // when
+        ProductImportResponse response = productImportService.importProducts(new StringReader(jsonLines), ProductImportFormat.JSON_LINES);
+
+        // then
+        assertThat(response)
+                .extracting("totalCount", "importedCount", "failedCount")
+                .containsExactly(3, 2, 1);
+        assertThat(response.getErrors())
+                .extracting("lineNumber", "message")
+                .containsExactly(tuple(4, "JSON 형식이 올바르지 않습니다."));
+        assertThat(productRepository.findAll())
+                .extracting("productNumber", "name")
+                .containsExactlyInAnyOrder(
+                        tuple("001", "아메리카노"),
+                        tuple("002", "크루아상")
+                );
+    }
+
+    @Test
+    @DisplayName("CSV 헤더에 필수 열이 없으면 헤더 줄을 실패로 보고하고 아무것도 등록하지 않는다.")
+    void importCsvWithoutHeader() {
+        // given
+        String csv = "HANDMADE,SELLING,아메리카노,4000\n" +
+                "BAKERY,HOLD,크루아상,3500\n";
+
+        // when
+        ProductImportResponse response = productImportService.importProducts(new StringReader(csv), ProductImportFormat.CSV);
+
+        // then
+        assertThat(response)
+                .extracting("totalCount", "importedCount", "failedCount")
+                .containsExactly(0, 0, 1);
+        assertThat(response.getErrors())
+                .extracting("lineNumber", "message")
+                .containsExactly(tuple(1, "CSV 헤더에는 type, sellingStatus, name, price 열이 있어야 합니다."));
+        assertThat(productRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("최대 길이보다 긴 줄은 실패로 보고하고 다음 줄부터 계속 등록한다.")
+    void importCsvWithTooLongLine() {
+        // given
+        String csv = "type,sellingStatus,name,price\r\n" +
+                "HANDMADE,SELLING," + "가".repeat(5000) + ",4000\r\n" +
+                "HANDMADE,SELLING,아메리카노,4000\r\n";
+
+        // when
+        ProductImportResponse response = productImportService.importProducts(new StringReader(csv), ProductImportFormat.CSV);
+
+        // then
+        assertThat(response)
+                .extracting("totalCount", "importedCount", "failedCount")
+                .containsExactly(2, 1, 1);
+        assertThat(response.getErrors())
+                .extracting("lineNumber", "message")
+                .containsExactly(tuple(2, "한 줄은 4096자를 넘을 수 없습니다."));
+        assertThat(productRepository.findAll())
+                .extracting("name")
+                .containsExactly("아메리카노");
+    }
+
+    @Test
+    @DisplayName("저장하지 못한 chunk 는 한 행씩 다시 저장해 저장하지 못한 행만 실패로 보고한다.")
+    void importCsvWithUnsavableRow() {
+        // given
+        String csv = "type,sellingStatus,name,price\n" +
+                "HANDMADE,SELLING,아메리카노,4000\n" +
+                "HANDMADE,SELLING," + "a".repeat(300) + ",4000\n" +
+                "BAKERY,HOLD,크루아상,3500\n";
+
+        // when
+        ProductImportResponse response = productImportService.importProducts(new StringReader(csv), ProductImportFormat.CSV);
+
+        // then
+        assertThat(response)
+                .extracting("totalCount", "importedCount", "failedCount")
+                .containsExactly(3, 2, 1);
+        assertThat(response.getErrors())
+                .extracting("lineNumber", "message")
+                .containsExactly(tuple(3, "상품을 저장하지 못했습니다."));
+        assertThat(productRepository.findAll())
+                .extracting("name")
+                .containsExactlyInAnyOrder("아메리카노", "크루아상");
+    }
+
+}
@@ -8,13 +8,20 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.test.context.ActiveProfiles;
 import sampl.cafekiosk.spring.IntegrationTestSupport;
 import sampl.cafekiosk.spring.api.controller.product.dto.request.ProductCreateRequest;
+import sampl.cafekiosk.spring.api.service.product.request.ProductCreateServiceRequest;
 import sampl.cafekiosk.spring.api.service.product.response.ProductResponse;
 import sampl.cafekiosk.spring.domain.product.Product;
 import sampl.cafekiosk.spring.domain.product.ProductRepository;
 import sampl.cafekiosk.spring.domain.product.ProductSellingStatus;
 import sampl.cafekiosk.spring.domain.product.ProductType;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -104,6 +111,38 @@ class ProductServiceTest extends IntegrationTestSupport {
                 );
     }
 
+    @Test
+    @DisplayName("여러 상품을 동시에 등록해도 상품번호가 겹치지 않는다.")
+    void createProductConcurrently() throws Exception {
+        // given
+        int productCount = 300;
+        ProductCreateServiceRequest request = ProductCreateServiceRequest.builder()
+                .type(HANDMADE)
+                .sellingStatus(SELLING)
+                .name("카푸치노")
+                .price(5000)
+                .build();
+
+        // 커넥션 풀보다 많은 스레드가 번호 예약을 기다려도 멈추지 않아야 한다.
+        ExecutorService executorService = Executors.newFixedThreadPool(32);
+        List<Future<ProductResponse>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < productCount; i++) {
+            futures.add(executorService.submit(() -> productService.createProduct(request)));
+        }
+        Set<String> productNumbers = new HashSet<>();
+        for (Future<ProductResponse> future : futures) {
+            productNumbers.add(future.get().getProductNumber());
+        }
+        executorService.shutdown();
+
+        // then
+        assertThat(productNumbers).hasSize(productCount)
+                .contains("001", String.format("%03d", productCount));
+        assertThat(productRepository.count()).isEqualTo(productCount);
+    }
+
     private Product createProduct(String productNumber, ProductType type, ProductSellingStatus sellingStatus, String name, int price) {
         return Product.builder()
                 .productNumber(productNumber)
@@ -0,0 +1,180 @@
+package sampl.cafekiosk.spring.api.service.stock;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sampl.cafekiosk.spring.IntegrationTestSupport;
+import sampl.cafekiosk.spring.domain.stock.Stock;
+import sampl.cafekiosk.spring.domain.stock.StockRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * threshold 를 1 로 두어 모든 재고 차감이 대기열을 거치게 한다.
+ */
+@TestPropertySource(properties = "cafekiosk.stock.combining.threshold=1")
+class StockDeductionCombinerTest extends IntegrationTestSupport {
+
+    @Autowired
+    private StockDeductor stockDeductor;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private StockDeductionCombiner stockDeductionCombiner;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        stockRepository.deleteAllInBatch();
+        jdbcTemplate.update("delete from stock_reservation");
+    }
+
+    @Test
+    @DisplayName("한 상품에 차감 요청이 몰려도 재고 수만큼만 성공하고, 모든 요청이 대기열을 거쳐 처리된 뒤 대기열을 치운다.")
+    void deductConcurrently() throws InterruptedException {
+        // given
+        int initialQuantity = 100;
+        int requestCount = 300;
+        stockRepository.save(Stock.create("001", initialQuantity));
+        double combinedBefore = combinedBatchSummary().totalAmount();
+
+        // when
+        int successCount = deductConcurrently(requestCount, 32);
+
+        // then
+        assertThat(successCount).isEqualTo(initialQuantity);
+        assertThat(stockRepository.findByProductNumber("001"))
+                .get()
+                .extracting("quantity")
+                .isEqualTo(0);
+        assertThat(combinedBatchSummary().totalAmount() - combinedBefore).isEqualTo(requestCount);
+        assertThat(findReservationIds()).isEmpty();
+        assertThat(stockDeductionCombiner.getCombinerCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("재고보다 많은 수량을 요청한 경우 예외가 발생하고, 뒤에 들어온 요청은 남은 재고로 차감한다.")
+    void deductWithShortage() {
+        // given
+        stockRepository.save(Stock.create("001", 2));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // when
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status ->
+                stockDeductor.deduct(Map.of("001", 3))
+        ))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("재고가 부족한 상품이 있습니다.");
+        transactionTemplate.executeWithoutResult(status -> stockDeductor.deduct(Map.of("001", 2)));
+
+        // then
+        assertThat(stockRepository.findByProductNumber("001"))
+                .get()
+                .extracting("quantity")
+                .isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("대기열에서 차감한 뒤 주문 트랜잭션이 롤백되면 남은 예약을 바로 재고로 돌려준다.")
+    void restoreOnRollback() {
+        // given
+        stockRepository.save(Stock.create("001", 5));
+
+        // when
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            stockDeductor.deduct(Map.of("001", 3));
+            status.setRollbackOnly();
+        });
+
+        // then
+        assertThat(stockRepository.findByProductNumber("001"))
+                .get()
+                .extracting("quantity")
+                .isEqualTo(5);
+        assertThat(findReservationIds()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("주문 트랜잭션이 지우지 않고 남긴 재고 예약은 만료된 뒤에 재고로 돌려준다.")
+    void returnExpiredReservations() {
+        // given
+        stockRepository.save(Stock.create("001", 2));
+        insertReservation("expired", 3, "dateadd('MINUTE', -2, current_timestamp)");
+        insertReservation("reserved", 1, "current_timestamp");
+
+        // when
+        int returned = stockDeductionCombiner.returnExpiredReservations();
+
+        // then
+        assertThat(returned).isEqualTo(1);
+        assertThat(stockRepository.findByProductNumber("001"))
+                .get()
+                .extracting("quantity")
+                .isEqualTo(5);
+        assertThat(findReservationIds()).containsExactly("reserved");
+    }
+
+    private void insertReservation(String id, int quantity, String reservedDateTime) {
+        jdbcTemplate.update("insert into stock_reservation (id, product_number, quantity, reserved_date_time) " +
+                "values (?, '001', ?, " + reservedDateTime + ")", id, quantity);
+    }
+
+    private List<String> findReservationIds() {
+        return jdbcTemplate.queryForList("select id from stock_reservation", String.class);
+    }
+
+    private int deductConcurrently(int requestCount, int threadCount) throws InterruptedException {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(requestCount);
+        AtomicInteger successCount = new AtomicInteger();
+
+        for (int i = 0; i < requestCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> stockDeductor.deduct(Map.of("001", 1)));
+                    successCount.incrementAndGet();
+                } catch (RuntimeException ignored) {
+                    // 품절로 실패한 요청은 재고를 차감하지 않아야 한다.
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        latch.await();
+        executorService.shutdown();
+        return successCount.get();
+    }
+
+    private DistributionSummary combinedBatchSummary() {
+        return DistributionSummary.builder("stock.deduction.combined.batch")
+                .register(meterRegistry);
+    }
+
+}
@@ -0,0 +1,122 @@
+package sampl.cafekiosk.spring.api.service.stock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sampl.cafekiosk.spring.IntegrationTestSupport;
+import sampl.cafekiosk.spring.domain.stock.Stock;
+import sampl.cafekiosk.spring.domain.stock.StockRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class StockDeductionStrategyTest extends IntegrationTestSupport {
+
+    @Autowired
+    private List<StockDeductionStrategy> strategies;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        stockRepository.deleteAllInBatch();
+    }
+
+    @TestFactory
+    @DisplayName("재고가 충분하면 모든 상품의 재고를 차감하고, 하나라도 부족하면 아무것도 차감하지 않는다.")
+    Collection<DynamicTest> deduct() {
+        return strategies.stream()
+                .map(strategy -> DynamicTest.dynamicTest(strategy.getMode().getText(), () -> {
+                    // given
+                    stockRepository.saveAll(List.of(Stock.create("001", 2), Stock.create("002", 1)));
+                    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+                    // when
+                    transactionTemplate.executeWithoutResult(status -> strategy.deduct(Map.of("001", 1, "002", 1)));
+
+                    // then
+                    assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status ->
+                            strategy.deduct(Map.of("001", 1, "002", 1))
+                    ))
+                            .isInstanceOf(IllegalArgumentException.class)
+                            .hasMessage("재고가 부족한 상품이 있습니다.");
+
+                    assertThat(stockRepository.findAll())
+                            .extracting("productNumber", "quantity")
+                            .containsExactlyInAnyOrder(
+                                    tuple("001", 1),
+                                    tuple("002", 0)
+                            );
+
+                    stockRepository.deleteAllInBatch();
+                }))
+                .collect(Collectors.toList());
+    }
+
+    @TestFactory
+    @DisplayName("동시에 재고를 차감해도 차감에 성공한 수만큼만 재고가 줄어들고 초과 판매되지 않는다.")
+    Collection<DynamicTest> deductConcurrently() {
+        return strategies.stream()
+                .map(strategy -> DynamicTest.dynamicTest(strategy.getMode().getText(), () -> {
+                    // given
+                    int initialQuantity = 10;
+                    stockRepository.save(Stock.create("001", initialQuantity));
+
+                    // when
+                    int successCount = deductConcurrently(strategy, 30);
+
+                    // then
+                    int remainingQuantity = stockRepository.findByProductNumber("001")
+                            .map(Stock::getQuantity)
+                            .orElseThrow();
+                    assertThat(remainingQuantity).isGreaterThanOrEqualTo(0);
+                    assertThat(successCount).isEqualTo(initialQuantity - remainingQuantity);
+
+                    stockRepository.deleteAllInBatch();
+                }))
+                .collect(Collectors.toList());
+    }
+
+    private int deductConcurrently(StockDeductionStrategy strategy, int requestCount) throws InterruptedException {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        CountDownLatch latch = new CountDownLatch(requestCount);
+        AtomicInteger successCount = new AtomicInteger();
+
+        for (int i = 0; i < requestCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> strategy.deduct(Map.of("001", 1)));
+                    successCount.incrementAndGet();
+                } catch (RuntimeException ignored) {
+                    // 재고 부족이나 충돌로 실패한 요청은 재고를 차감하지 않아야 한다.
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        latch.await();
+        executorService.shutdown();
+        return successCount.get();
+    }
+
+}
@@ -0,0 +1,119 @@
+package sampl.cafekiosk.spring.api.service.stock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sampl.cafekiosk.spring.IntegrationTestSupport;
+import sampl.cafekiosk.spring.api.service.stock.response.StockResponse;
+import sampl.cafekiosk.spring.domain.stock.Stock;
+import sampl.cafekiosk.spring.domain.stock.StockRepository;
+import sampl.cafekiosk.spring.domain.stock.StockShardRepository;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class StockServiceTest extends IntegrationTestSupport {
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private StockDeductor stockDeductor;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private StockShardRepository stockShardRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        stockShardRepository.deleteAllInBatch();
+        stockRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("재고를 여러 조각으로 나눠도 상품의 재고 합계는 그대로다.")
+    void stripe() {
+        // given
+        stockRepository.save(Stock.create("001", 10));
+
+        // when
+        StockResponse stockResponse = stockService.stripe("001", 4);
+
+        // then
+        assertThat(stockResponse)
+                .extracting("productNumber", "quantity")
+                .contains("001", 10);
+        assertThat(stockShardRepository.findAll()).hasSize(4)
+                .extracting("quantity")
+                .containsExactlyInAnyOrder(3, 3, 2, 2);
+        assertThat(stockRepository.findByProductNumber("001"))
+                .get()
+                .extracting("quantity")
+                .isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("이미 조각으로 나뉜 재고는 다시 나눌 수 없다.")
+    void stripeTwice() {
+        // given
+        stockRepository.save(Stock.create("001", 10));
+        stockService.stripe("001", 2);
+
+        // when // then
+        assertThatThrownBy(() -> stockService.stripe("001", 2))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("이미 조각으로 나뉜 재고입니다.");
+    }
+
+    @Test
+    @DisplayName("조각으로 나뉜 상품은 조각에서, 나머지 상품은 Stock 에서 재고를 차감한다.")
+    void deductStripedStock() {
+        // given
+        stockRepository.saveAll(List.of(Stock.create("001", 4), Stock.create("002", 3)));
+        stockService.stripe("001", 2);
+
+        // when
+        // 한 조각(2개)으로는 부족한 수량이라 모든 조각에서 나눠서 차감한다.
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> stockDeductor.deduct(Map.of("001", 3, "002", 1)));
+
+        // then
+        assertThat(stockService.getQuantities(List.of("001", "002")))
+                .containsEntry("001", 1)
+                .containsEntry("002", 2);
+    }
+
+    @Test
+    @DisplayName("조각 재고의 합보다 많이 차감하려는 경우 예외가 발생하고 재고는 그대로다.")
+    void deductStripedStockWithShortage() {
+        // given
+        stockRepository.save(Stock.create("001", 4));
+        stockService.stripe("001", 2);
+
+        // when // then
+        assertThatThrownBy(() -> new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> stockDeductor.deduct(Map.of("001", 5))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("재고가 부족한 상품이 있습니다.");
+
+        assertThat(stockShardRepository.findAll())
+                .extracting("shardIndex", "quantity")
+                .containsExactlyInAnyOrder(
+                        tuple(0, 2),
+                        tuple(1, 2)
+                );
+    }
+
+}
@@ -0,0 +1,8 @@
+package sampl.cafekiosk.spring.config;
+
+/**
+ * Tomcat 기본 플랫폼 스레드 풀(최대 50개)로 요청을 처리한다.
+ */
+class PlatformThreadBenchmarkTest extends WebThreadBenchmarkSupport {
+
+}
@@ -0,0 +1,22 @@
+package sampl.cafekiosk.spring.config;
+
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * virtual 프로필로 요청마다 가상 스레드를 만들어 처리한다. JDK 21 이상에서만 실행된다.
+ */
+@ActiveProfiles("virtual")
+@EnabledIf("supportsVirtualThreads")
+class VirtualThreadBenchmarkTest extends WebThreadBenchmarkSupport {
+
+    static boolean supportsVirtualThreads() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+}
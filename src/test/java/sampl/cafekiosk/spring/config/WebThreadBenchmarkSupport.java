@@ -0,0 +1,188 @@
+package sampl.cafekiosk.spring.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+import sampl.cafekiosk.spring.IntegrationTestSupport;
+import sampl.cafekiosk.spring.domain.order.OrderRepository;
+import sampl.cafekiosk.spring.domain.orderproduct.OrderProductRepository;
+import sampl.cafekiosk.spring.domain.product.Product;
+import sampl.cafekiosk.spring.domain.product.ProductRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static sampl.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sampl.cafekiosk.spring.domain.product.ProductType.HANDMADE;
+
+/**
+ * ./gradlew benchmark 로 실행한다.
+ * 본문을 보내지 않고 붙잡고 있는 느린 연결로 요청 스레드를 점유한 상태에서 초당 처리 요청 수와 메모리 사용량을 측정한다.
+ * 플랫폼 스레드 풀(PlatformThreadBenchmarkTest)과 가상 스레드(VirtualThreadBenchmarkTest) 결과를 비교한다.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.jpa.show-sql=false",
+        "server.tomcat.threads.max=50"
+})
+abstract class WebThreadBenchmarkSupport extends IntegrationTestSupport {
+
+    private static final int SLOW_CONNECTIONS = 45;
+    private static final int CLIENT_THREADS = 32;
+    private static final Duration WARM_UP = Duration.ofSeconds(1);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(3);
+    private static final String ORDER_BODY = "{\"productNumbers\":[\"001\",\"002\"]}";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderProductRepository orderProductRepository;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @AfterEach
+    void tearDown() {
+        orderProductRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("느린 연결이 요청 스레드를 붙잡고 있을 때 주문 생성과 판매 상품 조회의 초당 처리 요청 수를 측정한다.")
+    void throughputWithSlowConnections() throws Exception {
+        // given
+        productRepository.saveAll(List.of(createProduct("001", 4000), createProduct("002", 4500)));
+        List<Socket> slowConnections = openSlowConnections();
+
+        try {
+            // when
+            double orderThroughput = measureThroughput(() -> HttpRequest.newBuilder(uri("/api/v1/orders/new"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(ORDER_BODY))
+                    .timeout(Duration.ofSeconds(5))
+                    .build());
+            double sellingThroughput = measureThroughput(() -> HttpRequest.newBuilder(uri("/api/v1/products/selling"))
+                    .GET()
+                    .timeout(Duration.ofSeconds(5))
+                    .build());
+
+            // then
+            long usedHeapBytes = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+            int platformThreadCount = ManagementFactory.getThreadMXBean().getThreadCount();
+            System.out.printf(">>> [%s] 주문 생성 초당 요청 수 : %.1f, 판매 상품 조회 초당 요청 수 : %.1f, 힙 사용량 : %dMB, 플랫폼 스레드 수 : %d%n",
+                    getClass().getSimpleName(), orderThroughput, sellingThroughput, usedHeapBytes / (1024 * 1024), platformThreadCount);
+
+            assertThat(orderThroughput).isPositive();
+            assertThat(sellingThroughput).isPositive();
+        } finally {
+            for (Socket slowConnection : slowConnections) {
+                slowConnection.close();
+            }
+        }
+    }
+
+    /**
+     * 헤더만 보내고 본문은 보내지 않아, 서버는 본문을 읽는 동안 요청 스레드 하나를 계속 점유한다.
+     */
+    private List<Socket> openSlowConnections() throws IOException {
+        String header = "POST /api/v1/orders/new HTTP/1.1\r\n" +
+                "Host: localhost:" + port + "\r\n" +
+                "Content-Type: application/json\r\n" +
+                "Content-Length: " + ORDER_BODY.length() + "\r\n" +
+                "\r\n";
+
+        List<Socket> sockets = new ArrayList<>();
+        for (int i = 0; i < SLOW_CONNECTIONS; i++) {
+            Socket socket = new Socket("localhost", port);
+            OutputStream outputStream = socket.getOutputStream();
+            outputStream.write(header.getBytes(StandardCharsets.US_ASCII));
+            outputStream.flush();
+            sockets.add(socket);
+        }
+        return sockets;
+    }
+
+    private double measureThroughput(RequestFactory requestFactory) throws InterruptedException {
+        runClients(requestFactory, WARM_UP);
+        int completed = runClients(requestFactory, MEASUREMENT);
+        return completed / (MEASUREMENT.toMillis() / 1000.0);
+    }
+
+    private int runClients(RequestFactory requestFactory, Duration duration) throws InterruptedException {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENT_THREADS);
+        AtomicInteger completed = new AtomicInteger();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        for (int i = 0; i < CLIENT_THREADS; i++) {
+            clients.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    try {
+                        HttpResponse<Void> response = httpClient.send(requestFactory.create(), HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() == 200) {
+                            completed.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        // 시간 초과된 요청은 처리량에 포함하지 않는다.
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            });
+        }
+
+        clients.shutdown();
+        clients.awaitTermination(duration.toMillis() + 10_000, TimeUnit.MILLISECONDS);
+        return completed.get();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private Product createProduct(String productNumber, int price) {
+        return Product.builder()
+                .type(HANDMADE)
+                .productNumber(productNumber)
+                .price(price)
+                .sellingStatus(SELLING)
+                .name("메뉴 이름")
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface RequestFactory {
+        HttpRequest create();
+    }
+
+}
@@ -6,6 +6,7 @@ import org.springframework.http.MediaType;
 import org.springframework.restdocs.payload.JsonFieldType;
 import sampl.cafekiosk.spring.api.controller.product.ProductController;
 import sampl.cafekiosk.spring.api.controller.product.dto.request.ProductCreateRequest;
+import sampl.cafekiosk.spring.api.service.product.ProductImportService;
 import sampl.cafekiosk.spring.api.service.product.ProductService;
 import sampl.cafekiosk.spring.api.service.product.request.ProductCreateServiceRequest;
 import sampl.cafekiosk.spring.api.service.product.response.ProductResponse;
@@ -27,10 +28,11 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 public class ProductControllerDocsTest extends RestDocsSupport {
 
     private final ProductService productService = mock(ProductService.class);
+    private final ProductImportService productImportService = mock(ProductImportService.class);
 
     @Override
     protected Object initController() {
-        return new ProductController(productService);
+        return new ProductController(productService, productImportService);
     }
 
     @DisplayName("신규 상품을 등록하는 API")
@@ -0,0 +1,250 @@
+package sampl.cafekiosk.spring.domain;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sampl.cafekiosk.spring.IntegrationTestSupport;
+import sampl.cafekiosk.spring.domain.job.JobLeaseRepository;
+import sampl.cafekiosk.spring.domain.mail.MailOutboxRepository;
+import sampl.cafekiosk.spring.domain.mail.MailOutboxStatus;
+import sampl.cafekiosk.spring.domain.order.OrderIdempotencyKeyRepository;
+import sampl.cafekiosk.spring.domain.order.OrderRepository;
+import sampl.cafekiosk.spring.domain.order.OrderStatus;
+import sampl.cafekiosk.spring.domain.orderproduct.OrderProductRepository;
+import sampl.cafekiosk.spring.domain.product.ProductRepository;
+import sampl.cafekiosk.spring.domain.sales.DailySales;
+import sampl.cafekiosk.spring.domain.sales.DailySalesId;
+import sampl.cafekiosk.spring.domain.sales.DailySalesRepository;
+import sampl.cafekiosk.spring.domain.sales.ProductSalesSketchRepository;
+import sampl.cafekiosk.spring.domain.stock.StockRepository;
+import sampl.cafekiosk.spring.domain.stock.StockShardRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static sampl.cafekiosk.spring.domain.product.ProductSellingStatus.HOLD;
+import static sampl.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+
+/**
+ * 리포지토리 메서드를 실제로 실행해 Hibernate 가 만든 SQL 을 StatementInspector 로 모으고, H2 EXPLAIN 으로 확인해
+ * 인덱스 없이 테이블 전체를 읽는 쿼리가 생기지 않게 한다. 파라미터는 실행 계획에 영향이 없으므로 null 로 채운다.
+ * 리포지토리에 쿼리를 추가하면 repositoryQueries() 에서 호출하고, JdbcTemplate 로 직접 실행하는 SQL 은 JDBC_QUERIES 에 같은 SQL 을 추가한다.
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "sampl.cafekiosk.spring.domain.QueryPlanTest$CapturingStatementInspector")
+class QueryPlanTest extends IntegrationTestSupport {
+
+    private static final LocalDateTime START = LocalDateTime.of(2023, 3, 5, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2023, 3, 6, 0, 0);
+    private static final List<OrderStatus> ORDER_STATUSES = List.of(OrderStatus.PAYMENT_COMPLETED, OrderStatus.RECEIVED);
+
+    // Hibernate 를 거치지 않는 SQL
+    private static final Map<String, String> JDBC_QUERIES = Map.ofEntries(
+            Map.entry("ProductNumberAllocator.reserveBlock",
+                    "select next_value from product_number_sequence where name = ? for update"),
+            Map.entry("ProductNumberAllocator.reserveBlock.update",
+                    "update product_number_sequence set next_value = ? where name = ?"),
+            Map.entry("StockRepositoryImpl.deductQuantities",
+                    "update stock set quantity = quantity - ?, version = version + 1 where product_number = ? and quantity >= ?"),
+            Map.entry("StockDeductionCombiner.applyInOrder",
+                    "select quantity from stock where product_number = ? for update"),
+            Map.entry("StockDeductionCombiner.consumeReservation",
+                    "delete from stock_reservation where id = ?"),
+            Map.entry("StockDeductionCombiner.returnExpiredReservations",
+                    "select id, product_number, quantity from stock_reservation " +
+                            "where reserved_date_time < dateadd('MILLISECOND', ?, current_timestamp) " +
+                            "order by reserved_date_time limit ?")
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderProductRepository orderProductRepository;
+
+    @Autowired
+    private OrderIdempotencyKeyRepository orderIdempotencyKeyRepository;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private StockShardRepository stockShardRepository;
+
+    @Autowired
+    private DailySalesRepository dailySalesRepository;
+
+    @Autowired
+    private ProductSalesSketchRepository productSalesSketchRepository;
+
+    @Autowired
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    @TestFactory
+    @DisplayName("리포지토리 쿼리는 테이블 전체를 읽지 않고 인덱스로 찾는다.")
+    Stream<DynamicTest> explain() {
+        Map<String, String> queries = new LinkedHashMap<>(JDBC_QUERIES);
+        captureRepositoryQueries().forEach(queries::put);
+
+        return queries.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(query -> DynamicTest.dynamicTest(query.getKey(), () -> {
+                    // when
+                    String plan = explain(query.getValue());
+
+                    // then
+                    assertThat(plan)
+                            .as("%s 실행 계획%n%s", query.getKey(), plan)
+                            .doesNotContain("tableScan");
+                }));
+    }
+
+    private Map<String, Runnable> repositoryQueries() {
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("ProductRepository.findAllBySellingStatusIn",
+                () -> productRepository.findAllBySellingStatusIn(List.of(SELLING, HOLD)));
+        queries.put("ProductRepository.findAllByProductNumberIn",
+                () -> productRepository.findAllByProductNumberIn(List.of("001", "002")));
+        queries.put("OrderRepository.findOrdersBy",
+                () -> orderRepository.findOrdersBy(START, END, OrderStatus.PAYMENT_COMPLETED));
+        queries.put("OrderRepository.streamOrdersBy",
+                () -> orderRepository.streamOrdersBy(START, END, ORDER_STATUSES).close());
+        queries.put("OrderRepository.findHourlySales",
+                () -> orderRepository.findHourlySales(START, END, ORDER_STATUSES));
+        queries.put("OrderRepository.findWithOrderProductsById",
+                () -> orderRepository.findWithOrderProductsById(1L));
+        queries.put("OrderProductRepository.findProductTypeSales",
+                () -> orderProductRepository.findProductTypeSales(START, END, ORDER_STATUSES));
+        queries.put("OrderProductRepository.findProductSales",
+                () -> orderProductRepository.findProductSales(START, END, ORDER_STATUSES));
+        queries.put("OrderIdempotencyKeyRepository.findByIdempotencyKey",
+                () -> orderIdempotencyKeyRepository.findByIdempotencyKey("key"));
+        queries.put("OrderIdempotencyKeyRepository.deleteAllCreatedBefore",
+                () -> orderIdempotencyKeyRepository.deleteAllCreatedBefore(START));
+        queries.put("StockRepository.findAllByProductNumberIn",
+                () -> stockRepository.findAllByProductNumberIn(List.of("001", "002")));
+        queries.put("StockRepository.findByProductNumber",
+                () -> stockRepository.findByProductNumber("001"));
+        queries.put("StockRepository.findQuantitiesByProductNumberIn",
+                () -> stockRepository.findQuantitiesByProductNumberIn(List.of("001", "002")));
+        queries.put("StockRepository.findForUpdateByProductNumber",
+                () -> stockRepository.findForUpdateByProductNumber("001"));
+        queries.put("StockRepository.deductQuantityIfVersionMatches",
+                () -> stockRepository.deductQuantityIfVersionMatches(1L, 0L, 1));
+        queries.put("StockShardRepository.findSummariesByProductNumberIn",
+                () -> stockShardRepository.findSummariesByProductNumberIn(List.of("001", "002")));
+        queries.put("StockShardRepository.existsByProductNumber",
+                () -> stockShardRepository.existsByProductNumber("001"));
+        queries.put("StockShardRepository.deductQuantity",
+                () -> stockShardRepository.deductQuantity("001", 0, 1));
+        queries.put("StockShardRepository.findAllForUpdateByProductNumber",
+                () -> stockShardRepository.findAllForUpdateByProductNumber("001"));
+        queries.put("DailySalesRepository.findById",
+                () -> dailySalesRepository.findById(DailySalesId.of(START.toLocalDate(), DailySales.ALL_PRODUCT_TYPES)));
+        queries.put("ProductSalesSketchRepository.findAllBySalesDateGreaterThanEqual",
+                () -> productSalesSketchRepository.findAllBySalesDateGreaterThanEqual(LocalDate.of(2023, 3, 1)));
+        queries.put("ProductSalesSketchRepository.deleteAllSalesDateBefore",
+                () -> productSalesSketchRepository.deleteAllSalesDateBefore(LocalDate.of(2023, 3, 1)));
+        queries.put("MailOutboxRepository.findIdsToDispatch",
+                () -> mailOutboxRepository.findIdsToDispatch(MailOutboxStatus.forDispatch(), PageRequest.of(0, 100)));
+        queries.put("MailOutboxRepository.claim",
+                () -> mailOutboxRepository.claim(List.of(1L, 2L), MailOutboxStatus.forDispatch(), MailOutboxStatus.SENDING,
+                        "token", 60000L));
+        queries.put("MailOutboxRepository.findAllByClaimToken",
+                () -> mailOutboxRepository.findAllByClaimToken("token"));
+        queries.put("MailOutboxRepository.recordFailure",
+                () -> mailOutboxRepository.recordFailure(1L, "token", MailOutboxStatus.PENDING, 1000L));
+        queries.put("JobLeaseRepository.acquire",
+                () -> jobLeaseRepository.acquire("job", "owner", 600000L));
+        queries.put("JobLeaseRepository.complete",
+                () -> jobLeaseRepository.complete("job", "owner", START.toLocalDate(), 600000L));
+        queries.put("JobLeaseRepository.release",
+                () -> jobLeaseRepository.release("job", "owner"));
+        return queries;
+    }
+
+    /**
+     * 리포지토리 메서드를 롤백할 트랜잭션 안에서 실행하고, 메서드마다 Hibernate 가 DB 로 보낸 SQL 을 모은다.
+     */
+    private Map<String, String> captureRepositoryQueries() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Map<String, String> captured = new LinkedHashMap<>();
+        repositoryQueries().forEach((name, query) -> {
+            List<String> statements = transactionTemplate.execute(status -> {
+                status.setRollbackOnly();
+                CapturingStatementInspector.STATEMENTS.clear();
+                query.run();
+                return new ArrayList<>(CapturingStatementInspector.STATEMENTS);
+            });
+
+            assertThat(statements).as("%s 가 실행한 SQL", name).isNotEmpty();
+            for (int i = 0; i < statements.size(); i++) {
+                captured.put(statements.size() == 1 ? name : name + "#" + (i + 1), statements.get(i));
+            }
+        });
+        return captured;
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                int parameterCount = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameterCount; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+    }
+
+    /**
+     * Hibernate 가 JDBC 로 보내는 SQL 을 그대로 모은다. INSERT 와 시퀀스 조회는 확인하지 않는다.
+     */
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            String normalized = sql.trim().toLowerCase(Locale.ROOT);
+            if (!normalized.startsWith("insert") && !normalized.contains("next value for")) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+
+}
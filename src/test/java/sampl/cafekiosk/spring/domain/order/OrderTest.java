@@ -7,7 +7,9 @@ import sampl.cafekiosk.spring.domain.product.Product;
 import sampl.cafekiosk.spring.domain.product.ProductType;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.*;
 import static sampl.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
@@ -66,6 +68,56 @@ class OrderTest {
         assertThat(order.getRegisteredDateTime()).isEqualTo(registeredDateTime);
     }
 
+    @Test
+    @DisplayName("같은 상품이 여러 번 포함되면 하나의 주문 상품으로 합치고 수량을 센다.")
+    public void groupSameProducts() {
+        // given
+        Product americano = createProduct("001", 4000);
+        List<Product> products = List.of(americano, americano, createProduct("002", 2000));
+
+        // when
+        Order order = Order.create(products, LocalDateTime.now());
+
+        // then
+        assertThat(order.getOrderProducts()).hasSize(2)
+                .extracting("product.productNumber", "quantity", "price")
+                .containsExactly(
+                        tuple("001", 2, 4000),
+                        tuple("002", 1, 2000)
+                );
+        assertThat(order.getTotalPrice()).isEqualTo(10000);
+    }
+
+    @Test
+    @DisplayName("상품별 수량으로 주문을 생성하면 총 금액은 단가와 수량의 곱의 합이다.")
+    public void calculateTotalPriceWithQuantities() {
+        // given
+        Map<Product, Integer> productQuantities = new LinkedHashMap<>();
+        productQuantities.put(createProduct("001", 4000), 30);
+        productQuantities.put(createProduct("002", 2000), 2);
+
+        // when
+        Order order = Order.create(productQuantities, LocalDateTime.now());
+
+        // then
+        assertThat(order.getTotalPrice()).isEqualTo(124000);
+    }
+
+    @Test
+    @DisplayName("주문 총 금액이 int 범위를 넘어도 정확하게 계산한다.")
+    public void calculateTotalPriceOverIntRange() {
+        // given
+        Map<Product, Integer> productQuantities = new LinkedHashMap<>();
+        productQuantities.put(createProduct("001", 1_000_000_000), 2);
+        productQuantities.put(createProduct("002", 1_000_000_000), 1);
+
+        // when
+        Order order = Order.create(productQuantities, LocalDateTime.now());
+
+        // then
+        assertThat(order.getTotalPrice()).isEqualTo(3_000_000_000L);
+    }
+
     private Product createProduct(String productNumber, int price) {
         return Product.builder()
                 .type(ProductType.HANDMADE)
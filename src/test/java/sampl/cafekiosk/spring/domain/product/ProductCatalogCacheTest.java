@@ -0,0 +1,130 @@
+package sampl.cafekiosk.spring.domain.product;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sampl.cafekiosk.spring.IntegrationTestSupport;
+import sampl.cafekiosk.spring.api.service.product.ProductService;
+import sampl.cafekiosk.spring.api.service.product.request.ProductCreateServiceRequest;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static sampl.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sampl.cafekiosk.spring.domain.product.ProductType.HANDMADE;
+
+class ProductCatalogCacheTest extends IntegrationTestSupport {
+
+    @Autowired
+    private ProductCatalogCache productCatalogCache;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("한 번 조회한 상품 번호는 다시 조회할 때 DB 를 거치지 않는다.")
+    void getProductsFromCache() {
+        // given
+        productRepository.saveAll(List.of(createProduct("001", 4000), createProduct("002", 4500)));
+        productCatalogCache.getProducts(List.of("001", "002", "999"));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        // when
+        Map<String, Product> products = productCatalogCache.getProducts(List.of("001", "002", "999"));
+
+        // then
+        long statementCount = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+
+        assertThat(products).containsOnlyKeys("001", "002");
+        assertThat(statementCount).isZero();
+    }
+
+    @Test
+    @DisplayName("상품을 등록하면 없는 상품으로 보관했던 상품 번호를 비운다.")
+    void evictOnCreate() {
+        // given
+        assertThat(productCatalogCache.getProducts(List.of("001"))).isEmpty();
+
+        // when
+        productService.createProduct(ProductCreateServiceRequest.builder()
+                .type(HANDMADE)
+                .sellingStatus(SELLING)
+                .name("아메리카노")
+                .price(4000)
+                .build());
+
+        // then
+        assertThat(productCatalogCache.getProducts(List.of("001")))
+                .extractingByKey("001")
+                .extracting("name", "price")
+                .containsExactly("아메리카노", 4000);
+    }
+
+    @Test
+    @DisplayName("상품을 삭제하면 보관했던 상품을 비운다.")
+    void evictOnRemove() {
+        // given
+        Product product = productRepository.save(createProduct("001", 4000));
+        assertThat(productCatalogCache.getProducts(List.of("001"))).containsOnlyKeys("001");
+
+        // when
+        productRepository.delete(product);
+
+        // then
+        assertThat(productCatalogCache.getProducts(List.of("001"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("커밋 전에 다른 요청이 이전 상품을 다시 읽어 보관해도 커밋 후에 비운다.")
+    void evictAfterCommit() {
+        // given
+        Product product = productRepository.save(createProduct("001", 4000));
+
+        // when
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            productRepository.delete(product);
+            productRepository.flush();
+            // 아직 커밋하지 않았으므로 다른 트랜잭션에서 읽은 상품이 다시 보관된다.
+            assertThat(productCatalogCache.getProducts(List.of("001"))).containsOnlyKeys("001");
+        });
+
+        // then
+        assertThat(productCatalogCache.getProducts(List.of("001"))).isEmpty();
+    }
+
+    private Product createProduct(String productNumber, int price) {
+        return Product.builder()
+                .type(HANDMADE)
+                .productNumber(productNumber)
+                .price(price)
+                .sellingStatus(SELLING)
+                .name("메뉴 이름")
+                .build();
+    }
+
+}
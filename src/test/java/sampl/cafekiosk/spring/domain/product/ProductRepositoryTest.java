@@ -68,38 +68,6 @@ class ProductRepositoryTest extends IntegrationTestSupport {
                 );
     }
 
-    @Test
-    @DisplayName("가장 마지막으로 저장한 상품의 번호를 읽어온다.")
-    public void findLatestProductNumber() {
-        // given
-        String targetProductNumber = "003";
-
-        Product product1 = createProduct("001", HANDMADE, SELLING, "아메리카노", 4000);
-
-        Product product2 = createProduct("002", HANDMADE, HOLD, "카페라떼", 4500);
-
-        Product product3 = createProduct(targetProductNumber, HANDMADE, STOP_SELLING, "팥빙수", 7000);
-
-        productRepository.saveAll(List.of(product1, product2, product3));
-
-        // when
-        String latestProductNumber = productRepository.findLatestProduct();
-
-        // then
-        assertThat(latestProductNumber).isEqualTo(targetProductNumber);
-    }
-
-    @Test
-    @DisplayName("가장 마지막으로 저장한 상품의 번호를 읽어올 때, 상품이 하나도 없는 경우에는 null을 반환한다.")
-    public void findLatestProductNumberWhenProductIsEmpty() {
-
-        // when
-        String latestProductNumber = productRepository.findLatestProduct();
-
-        // then
-        assertThat(latestProductNumber).isNull();
-    }
-
     private Product createProduct(String productNumber, ProductType type, ProductSellingStatus sellingStatus, String name, int price) {
         return Product.builder()
                 .productNumber(productNumber)
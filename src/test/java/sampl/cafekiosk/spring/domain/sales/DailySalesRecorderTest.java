@@ -0,0 +1,140 @@
+package sampl.cafekiosk.spring.domain.sales;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sampl.cafekiosk.spring.IntegrationTestSupport;
+import sampl.cafekiosk.spring.domain.order.Order;
+import sampl.cafekiosk.spring.domain.order.OrderRepository;
+import sampl.cafekiosk.spring.domain.order.OrderStatus;
+import sampl.cafekiosk.spring.domain.orderproduct.OrderProductRepository;
+import sampl.cafekiosk.spring.domain.product.Product;
+import sampl.cafekiosk.spring.domain.product.ProductRepository;
+import sampl.cafekiosk.spring.domain.product.ProductType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static sampl.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sampl.cafekiosk.spring.domain.product.ProductType.BAKERY;
+import static sampl.cafekiosk.spring.domain.product.ProductType.HANDMADE;
+
+class DailySalesRecorderTest extends IntegrationTestSupport {
+
+    private static final LocalDateTime REGISTERED_DATE_TIME = LocalDateTime.of(2023, 3, 5, 10, 0);
+
+    @Autowired
+    private DailySalesRepository dailySalesRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderProductRepository orderProductRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        orderProductRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        dailySalesRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("결제완료된 주문을 저장하면 그날의 전체 매출과 상품 타입별 매출에 더한다.")
+    void recordPaymentCompleted() {
+        // given
+        Product americano = productRepository.save(createProduct("001", HANDMADE, 4000));
+        Product croissant = productRepository.save(createProduct("002", BAKERY, 3500));
+
+        // when
+        orderRepository.save(createOrder(Map.of(americano, 2, croissant, 1), OrderStatus.PAYMENT_COMPLETED));
+        orderRepository.save(createOrder(Map.of(americano, 1), OrderStatus.PAYMENT_COMPLETED));
+        orderRepository.save(createOrder(Map.of(croissant, 1), OrderStatus.INIT));
+
+        // then
+        assertThat(dailySalesRepository.findAll())
+                .extracting("salesDate", "productType", "orderCount", "totalAmount")
+                .containsExactlyInAnyOrder(
+                        tuple(LocalDate.of(2023, 3, 5), DailySales.ALL_PRODUCT_TYPES, 2L, 15500L),
+                        tuple(LocalDate.of(2023, 3, 5), "HANDMADE", 2L, 12000L),
+                        tuple(LocalDate.of(2023, 3, 5), "BAKERY", 1L, 3500L)
+                );
+    }
+
+    @Test
+    @DisplayName("주문이 결제완료 상태가 되면 더하고, 결제완료 상태에서 벗어나면 뺀다.")
+    void recordStatusChange() {
+        // given
+        Product americano = productRepository.save(createProduct("001", HANDMADE, 4000));
+        Order order = orderRepository.save(createOrder(Map.of(americano, 1), OrderStatus.INIT));
+
+        // when
+        order.changeOrderStatus(OrderStatus.PAYMENT_COMPLETED);
+        orderRepository.save(order);
+        long completedAmount = totalAmountOf(LocalDate.of(2023, 3, 5));
+
+        order.changeOrderStatus(OrderStatus.CANCELED);
+        orderRepository.save(order);
+
+        // then
+        assertThat(completedAmount).isEqualTo(4000L);
+        assertThat(dailySalesRepository.findById(DailySalesId.of(LocalDate.of(2023, 3, 5), DailySales.ALL_PRODUCT_TYPES)))
+                .get()
+                .extracting("orderCount", "totalAmount")
+                .containsExactly(0L, 0L);
+    }
+
+    @Test
+    @DisplayName("주문을 저장한 트랜잭션이 롤백되면 매출 집계도 롤백된다.")
+    void rollbackWithOrder() {
+        // given
+        Product americano = productRepository.save(createProduct("001", HANDMADE, 4000));
+
+        // when
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            orderRepository.save(createOrder(Map.of(americano, 1), OrderStatus.PAYMENT_COMPLETED));
+            status.setRollbackOnly();
+        });
+
+        // then
+        assertThat(dailySalesRepository.findAll()).isEmpty();
+    }
+
+    private long totalAmountOf(LocalDate salesDate) {
+        return dailySalesRepository.findById(DailySalesId.of(salesDate, DailySales.ALL_PRODUCT_TYPES))
+                .map(DailySales::getTotalAmount)
+                .orElse(0L);
+    }
+
+    private Order createOrder(Map<Product, Integer> productQuantities, OrderStatus orderStatus) {
+        return Order.builder()
+                .productQuantities(productQuantities)
+                .orderStatus(orderStatus)
+                .registeredDateTime(REGISTERED_DATE_TIME)
+                .build();
+    }
+
+    private Product createProduct(String productNumber, ProductType type, int price) {
+        return Product.builder()
+                .type(type)
+                .productNumber(productNumber)
+                .price(price)
+                .sellingStatus(SELLING)
+                .name("메뉴 이름")
+                .build();
+    }
+
+}
@@ -8,7 +8,9 @@ import org.springframework.transaction.annotation.Transactional;
 import sampl.cafekiosk.spring.IntegrationTestSupport;
 import sampl.cafekiosk.spring.domain.product.Product;
 
+import javax.persistence.EntityManager;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
@@ -22,6 +24,9 @@ class StockRepositoryTest extends IntegrationTestSupport {
     @Autowired
     private StockRepository stockRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     @DisplayName("상품번호 리스트로 재고를 조회한다.")
     public void findAllByProductNumberIn() {
@@ -43,4 +48,50 @@ class StockRepositoryTest extends IntegrationTestSupport {
                 );
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("상품번호별 수량만큼 재고를 조건부로 차감한다.")
+    public void deductQuantities() {
+        // given
+        Stock stock1 = Stock.create("001", 1);
+        Stock stock2 = Stock.create("002", 2);
+        stockRepository.saveAll(List.of(stock1, stock2));
+
+        // when
+        List<String> shortageProductNumbers = stockRepository.deductQuantities(Map.of("001", 1, "002", 2));
+
+        // then
+        assertThat(shortageProductNumbers).isEmpty();
+
+        entityManager.clear();
+        assertThat(stockRepository.findAll()).hasSize(2)
+                .extracting("productNumber", "quantity")
+                .containsExactlyInAnyOrder(
+                        tuple("001", 0),
+                        tuple("002", 0)
+                );
+    }
+
+    @Test
+    @DisplayName("재고가 부족하거나 없는 상품은 차감하지 않고 상품번호를 반환한다.")
+    public void deductQuantitiesWithShortage() {
+        // given
+        Stock stock1 = Stock.create("001", 1);
+        Stock stock2 = Stock.create("002", 2);
+        stockRepository.saveAll(List.of(stock1, stock2));
+
+        // when
+        List<String> shortageProductNumbers = stockRepository.deductQuantities(Map.of("001", 2, "002", 1, "003", 1));
+
+        // then
+        assertThat(shortageProductNumbers).containsExactly("001", "003");
+
+        entityManager.clear();
+        assertThat(stockRepository.findAll()).hasSize(2)
+                .extracting("productNumber", "quantity")
+                .containsExactlyInAnyOrder(
+                        tuple("001", 1),
+                        tuple("002", 1)
+                );
+    }
+
+}
@@ -0,0 +1,88 @@
+package sampl.cafekiosk.spring.domain.stock;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class StripedStockTest {
+
+    @Test
+    @DisplayName("재고를 조각 수만큼 고르게 나누고 나머지는 앞쪽 조각에 담는다.")
+    void split() {
+        // when
+        List<StockShard> shards = StockShard.split("001", 10, 4);
+
+        // then
+        assertThat(shards).hasSize(4)
+                .extracting("shardIndex", "quantity")
+                .containsExactly(
+                        tuple(0, 3),
+                        tuple(1, 3),
+                        tuple(2, 2),
+                        tuple(3, 2)
+                );
+    }
+
+    @Test
+    @DisplayName("조각으로 나뉜 재고의 수량이 제공된 수량보다 작은지 모든 조각의 합으로 확인한다.")
+    void isQuantityLessThan() {
+        // given
+        StripedStock stripedStock = StripedStock.of("001", StockShard.split("001", 3, 2));
+
+        // when // then
+        assertThat(stripedStock.isQuantityLessThan(3)).isFalse();
+        assertThat(stripedStock.isQuantityLessThan(4)).isTrue();
+    }
+
+    @Test
+    @DisplayName("한 조각으로 부족한 수량은 여러 조각에서 나눠서 차감한다.")
+    void deductQuantity() {
+        // given
+        StripedStock stripedStock = StripedStock.of("001", StockShard.split("001", 5, 3));
+
+        // when
+        stripedStock.deductQuantity(4);
+
+        // then
+        assertThat(stripedStock.getQuantity()).isEqualTo(1);
+        assertThat(stripedStock.getShards())
+                .extracting("quantity")
+                .containsExactly(0, 0, 1);
+    }
+
+    @Test
+    @DisplayName("조각이 모두 비면 조각으로 나눈 뒤 Stock 에 채워진 재고에서 차감한다.")
+    void deductQuantityWithStock() {
+        // given
+        Stock stock = Stock.create("001", 3);
+        StripedStock stripedStock = StripedStock.of("001", StockShard.split("001", 2, 2), stock);
+
+        // when
+        stripedStock.deductQuantity(4);
+
+        // then
+        assertThat(stripedStock.getQuantity()).isEqualTo(1);
+        assertThat(stripedStock.getShards())
+                .extracting("quantity")
+                .containsExactly(0, 0);
+        assertThat(stock.getQuantity()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("조각 재고의 합보다 많은 수량으로 차감 시도하는 경우 예외가 발생한다.")
+    void deductQuantityWithShortage() {
+        // given
+        StripedStock stripedStock = StripedStock.of("001", StockShard.split("001", 2, 2));
+
+        // when // then
+        assertThatThrownBy(() -> stripedStock.deductQuantity(3))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("차감할 재고 수량이 없습니다.");
+    }
+
+}
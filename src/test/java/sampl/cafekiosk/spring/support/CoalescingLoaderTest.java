@@ -0,0 +1,139 @@
+package sampl.cafekiosk.spring.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CoalescingLoaderTest {
+
+    @Test
+    @DisplayName("window 안에 동시에 들어온 조회는 한 번의 조회로 처리하고, 중복된 키는 한 번만 조회한다.")
+    void loadAllConcurrently() throws Exception {
+        // given
+        List<List<String>> calls = new CopyOnWriteArrayList<>();
+        CoalescingLoader<String, String> loader = new CoalescingLoader<>(recording(calls), Duration.ofMillis(200), 128);
+
+        // when
+        List<Map<String, String>> results = loadConcurrently(loader, List.of(
+                List.of("001", "002"),
+                List.of("002", "003"),
+                List.of("003")
+        ));
+
+        // then
+        assertThat(calls).hasSize(1);
+        assertThat(calls.get(0)).containsExactlyInAnyOrder("001", "002", "003");
+        assertThat(results.get(0)).containsOnlyKeys("001", "002");
+        assertThat(results.get(1)).containsOnlyKeys("002", "003");
+        assertThat(results.get(2)).containsEntry("003", "상품-003");
+    }
+
+    @Test
+    @DisplayName("키가 maxBatchSize 개 모이면 window 를 기다리지 않고 조회하며, 넘치는 키는 다음 묶음에서 조회한다.")
+    void loadAllOverMaxBatchSize() throws Exception {
+        // given
+        List<List<String>> calls = new CopyOnWriteArrayList<>();
+        CoalescingLoader<String, String> loader = new CoalescingLoader<>(recording(calls), Duration.ofMillis(200), 2);
+
+        // when
+        List<Map<String, String>> results = loadConcurrently(loader, List.of(
+                List.of("001", "002"),
+                List.of("003", "004")
+        ));
+
+        // then
+        assertThat(calls).hasSize(2);
+        assertThat(calls).allSatisfy(keys -> assertThat(keys).hasSize(2));
+        assertThat(results.get(0)).containsOnlyKeys("001", "002");
+        assertThat(results.get(1)).containsOnlyKeys("003", "004");
+    }
+
+    @Test
+    @DisplayName("조회 결과에 없는 키는 결과에 포함하지 않는다.")
+    void loadAllWithMissingKey() {
+        // given
+        CoalescingLoader<String, String> loader = new CoalescingLoader<>(
+                keys -> Map.of("001", "상품-001"), Duration.ofMillis(1), 128
+        );
+
+        // when
+        Map<String, String> result = loader.loadAll(List.of("001", "999"));
+
+        // then
+        assertThat(result).containsOnlyKeys("001");
+    }
+
+    @Test
+    @DisplayName("조회에 실패하면 같은 묶음의 모든 요청에 예외가 전달된다.")
+    void loadAllWithFailure() throws Exception {
+        // given
+        CoalescingLoader<String, String> loader = new CoalescingLoader<>(keys -> {
+            throw new IllegalStateException("조회 실패");
+        }, Duration.ofMillis(200), 128);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<Map<String, String>>> futures = new ArrayList<>();
+        for (String key : List.of("001", "002")) {
+            futures.add(executorService.submit(() -> {
+                ready.await();
+                return loader.loadAll(List.of(key));
+            }));
+        }
+
+        // when
+        ready.countDown();
+
+        // then
+        for (Future<Map<String, String>> future : futures) {
+            assertThatThrownBy(future::get)
+                    .hasCauseInstanceOf(IllegalStateException.class)
+                    .hasRootCauseMessage("조회 실패");
+        }
+        executorService.shutdown();
+    }
+
+    private static Function<List<String>, Map<String, String>> recording(List<List<String>> calls) {
+        return keys -> {
+            calls.add(keys);
+            return keys.stream()
+                    .collect(Collectors.toMap(key -> key, key -> "상품-" + key));
+        };
+    }
+
+    private static List<Map<String, String>> loadConcurrently(CoalescingLoader<String, String> loader,
+                                                              List<List<String>> requests) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(requests.size());
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<Map<String, String>>> futures = new ArrayList<>();
+        for (List<String> keys : requests) {
+            futures.add(executorService.submit(() -> {
+                ready.await();
+                return loader.loadAll(keys);
+            }));
+        }
+
+        ready.countDown();
+        List<Map<String, String>> results = new ArrayList<>();
+        for (Future<Map<String, String>> future : futures) {
+            results.add(future.get());
+        }
+        executorService.shutdown();
+        return results;
+    }
+
+}
@@ -0,0 +1,71 @@
+package sampl.cafekiosk.spring.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CountMinSketchTest {
+
+    @Test
+    @DisplayName("추정치는 실제 수량보다 작지 않다.")
+    void estimate() {
+        // given
+        CountMinSketch sketch = new CountMinSketch(4, 16);
+        for (int i = 0; i < 100; i++) {
+            sketch.add(String.format("%03d", i), i);
+        }
+
+        // when // then
+        for (int i = 0; i < 100; i++) {
+            assertThat(sketch.estimate(String.format("%03d", i))).isGreaterThanOrEqualTo(i);
+        }
+        assertThat(sketch.getTotalCount()).isEqualTo(4950);
+    }
+
+    @Test
+    @DisplayName("크기가 같은 스케치를 합치면 두 스케치에 모두 더한 것과 같다.")
+    void merge() {
+        // given
+        CountMinSketch left = new CountMinSketch(4, 64);
+        CountMinSketch right = new CountMinSketch(4, 64);
+        CountMinSketch both = new CountMinSketch(4, 64);
+        left.add("001", 3);
+        right.add("001", 2);
+        right.add("002", 5);
+        both.add("001", 5);
+        both.add("002", 5);
+
+        // when
+        CountMinSketch merged = left.merge(right);
+
+        // then
+        assertThat(merged.toBytes()).isEqualTo(both.toBytes());
+    }
+
+    @Test
+    @DisplayName("크기가 다른 스케치는 합칠 수 없다.")
+    void mergeWithDifferentSize() {
+        // when // then
+        assertThatThrownBy(() -> new CountMinSketch(4, 64).merge(new CountMinSketch(4, 32)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("크기가 다른 스케치는 합칠 수 없습니다.");
+    }
+
+    @Test
+    @DisplayName("바이트로 저장한 스케치를 다시 읽으면 같은 추정치를 낸다.")
+    void toBytesAndFromBytes() {
+        // given
+        CountMinSketch sketch = new CountMinSketch(4, 64);
+        sketch.add("001", 7);
+
+        // when
+        CountMinSketch restored = CountMinSketch.fromBytes(sketch.toBytes());
+
+        // then
+        assertThat(restored.estimate("001")).isEqualTo(sketch.estimate("001"));
+        assertThat(restored.getTotalCount()).isEqualTo(7);
+    }
+
+}
@@ -0,0 +1,124 @@
+package sampl.cafekiosk.spring.support;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 상품 인기가 Zipf 분포를 따르는 주문 흐름을 만들어, 스케치의 추정치를 정확한 집계와 비교한다.
+ * 스케치 크기별 메모리와 오차를 출력하므로 설정값(sketch-width, capacity)을 정할 때 참고한다.
+ * 주문 50만 줄을 여러 번 만들어 오래 걸리므로 ./gradlew benchmark 로 실행한다.
+ */
+@Tag("benchmark")
+class SketchAccuracyTest {
+
+    private static final int PRODUCT_COUNT = 5_000;
+    private static final int ORDER_LINES = 500_000;
+    private static final int TOP = 10;
+
+    private static String[] productNumbers;
+    private static int[] orderLines;
+    private static long[] exactCounts;
+
+    @BeforeAll
+    static void createWorkload() {
+        productNumbers = IntStream.range(0, PRODUCT_COUNT)
+                .mapToObj(i -> String.format("%05d", i))
+                .toArray(String[]::new);
+
+        double[] cumulativeWeights = new double[PRODUCT_COUNT];
+        double sum = 0;
+        for (int rank = 0; rank < PRODUCT_COUNT; rank++) {
+            sum += 1.0 / (rank + 1);
+            cumulativeWeights[rank] = sum;
+        }
+
+        Random random = new Random(42);
+        orderLines = new int[ORDER_LINES];
+        exactCounts = new long[PRODUCT_COUNT];
+        for (int i = 0; i < ORDER_LINES; i++) {
+            int index = Arrays.binarySearch(cumulativeWeights, random.nextDouble() * sum);
+            int product = index >= 0 ? index : -index - 1;
+            orderLines[i] = product;
+            exactCounts[product]++;
+        }
+    }
+
+    @ParameterizedTest(name = "width = {0}")
+    @ValueSource(ints = {256, 1024, 4096})
+    @DisplayName("Count-Min Sketch 추정치는 실제 수량 이상이고, 초과분이 (e / width) * 전체 수량을 넘는 상품은 e^-depth 비율 안팎이다.")
+    void countMinSketchError(int width) {
+        // given
+        int depth = 5;
+        CountMinSketch sketch = new CountMinSketch(depth, width);
+        long errorBound = (long) (Math.E / width * ORDER_LINES);
+
+        // when
+        for (int product : orderLines) {
+            sketch.add(productNumbers[product], 1);
+        }
+
+        // then
+        long maxError = 0;
+        long totalError = 0;
+        int overBound = 0;
+        for (int product = 0; product < PRODUCT_COUNT; product++) {
+            long error = sketch.estimate(productNumbers[product]) - exactCounts[product];
+            assertThat(error).isGreaterThanOrEqualTo(0);
+            maxError = Math.max(maxError, error);
+            totalError += error;
+            if (error > errorBound) {
+                overBound++;
+            }
+        }
+        System.out.printf(">>> Count-Min 너비 : %d, 메모리 : %dKB, 오차 한계 : %d, 최대 오차 : %d, 평균 오차 : %.1f, 한계를 넘은 상품 수 : %d%n",
+                width, sketch.getMemoryBytes() / 1024, errorBound, maxError, (double) totalError / PRODUCT_COUNT, overBound);
+
+        // 확률적인 보장이므로 기대 비율의 두 배까지 허용한다.
+        assertThat((double) overBound / PRODUCT_COUNT).isLessThanOrEqualTo(2 * Math.exp(-depth));
+    }
+
+    @ParameterizedTest(name = "capacity = {0}")
+    @ValueSource(ints = {100, 200})
+    @DisplayName("Space-Saving 은 전체 수량 / capacity 보다 많이 팔린 상품을 놓치지 않고, 카운터의 오차는 그 이내이다.")
+    void spaceSavingTopProducts(int capacity) {
+        // given
+        SpaceSaving spaceSaving = new SpaceSaving(capacity);
+
+        // when
+        for (int product : orderLines) {
+            spaceSaving.add(productNumbers[product], 1);
+        }
+
+        // then
+        Set<String> exactTop = IntStream.range(0, PRODUCT_COUNT).boxed()
+                .sorted(Comparator.comparingLong((Integer product) -> exactCounts[product]).reversed())
+                .limit(TOP)
+                .map(product -> productNumbers[product])
+                .collect(Collectors.toSet());
+        List<SpaceSaving.Entry> monitored = spaceSaving.top(capacity);
+        long recalled = spaceSaving.top(TOP).stream().filter(entry -> exactTop.contains(entry.getKey())).count();
+        System.out.printf(">>> Space-Saving 용량 : %d, 상위 %d개 중 찾은 상품 수 : %d/%d%n", capacity, TOP, recalled, TOP);
+
+        assertThat(monitored).extracting(SpaceSaving.Entry::getKey).containsAll(exactTop);
+        assertThat(monitored).allSatisfy(entry -> {
+            long exact = exactCounts[Integer.parseInt(entry.getKey())];
+            assertThat(entry.getCount()).isGreaterThanOrEqualTo(exact);
+            assertThat(entry.getCount() - entry.getError()).isLessThanOrEqualTo(exact);
+            assertThat(entry.getError()).isLessThanOrEqualTo(ORDER_LINES / capacity);
+        });
+    }
+
+}
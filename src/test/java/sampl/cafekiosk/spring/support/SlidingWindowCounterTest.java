@@ -0,0 +1,98 @@
+package sampl.cafekiosk.spring.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlidingWindowCounterTest {
+
+    private static final long MINUTE = 60_000;
+
+    @Test
+    @DisplayName("window 안의 bucket 만 합친다.")
+    void sum() {
+        // given
+        AtomicLong now = new AtomicLong(100 * MINUTE);
+        SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofMinutes(1), 60, now::get);
+
+        counter.add(now.get(), 1, 1000);
+        counter.add(now.get() - 4 * MINUTE, 1, 2000);
+        counter.add(now.get() - 10 * MINUTE, 1, 4000);
+
+        // when
+        SlidingWindowCounter.Totals fiveMinutes = counter.sum(Duration.ofMinutes(5));
+        SlidingWindowCounter.Totals fifteenMinutes = counter.sum(Duration.ofMinutes(15));
+
+        // then
+        assertThat(fiveMinutes)
+                .extracting("count", "amount")
+                .containsExactly(2L, 3000L);
+        assertThat(fifteenMinutes)
+                .extracting("count", "amount")
+                .containsExactly(3L, 7000L);
+    }
+
+    @Test
+    @DisplayName("시간이 지나 window 를 벗어난 bucket 은 합치지 않고, 같은 칸을 다시 쓸 때 비운다.")
+    void sumAfterTimePassed() {
+        // given
+        AtomicLong now = new AtomicLong(100 * MINUTE);
+        SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofMinutes(1), 5, now::get);
+        counter.add(now.get(), 1, 1000);
+
+        // when
+        now.addAndGet(5 * MINUTE);
+        counter.add(now.get(), 1, 500);
+
+        // then
+        assertThat(counter.sum(Duration.ofMinutes(5)))
+                .extracting("count", "amount")
+                .containsExactly(1L, 500L);
+    }
+
+    @Test
+    @DisplayName("링 버퍼보다 오래된 시각의 값은 버린다.")
+    void addTooOld() {
+        // given
+        AtomicLong now = new AtomicLong(100 * MINUTE);
+        SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofMinutes(1), 5, now::get);
+        counter.add(now.get(), 1, 1000);
+
+        // when
+        counter.add(now.get() - 5 * MINUTE, 1, 9000);
+
+        // then
+        assertThat(counter.sum(Duration.ofMinutes(5)))
+                .extracting("count", "amount")
+                .containsExactly(1L, 1000L);
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 더해도 빠짐없이 센다.")
+    void addConcurrently() throws Exception {
+        // given
+        AtomicLong now = new AtomicLong(100 * MINUTE);
+        SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofMinutes(1), 60, now::get);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+
+        // when
+        for (int i = 0; i < 10_000; i++) {
+            executorService.submit(() -> counter.add(now.get(), 1, 100));
+        }
+        executorService.shutdown();
+        executorService.awaitTermination(10, TimeUnit.SECONDS);
+
+        // then
+        assertThat(counter.sum(Duration.ofMinutes(1)))
+                .extracting("count", "amount")
+                .containsExactly(10_000L, 1_000_000L);
+    }
+
+}
@@ -0,0 +1,100 @@
+package sampl.cafekiosk.spring.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class SpaceSavingTest {
+
+    @Test
+    @DisplayName("카운터가 가득 차면 가장 작은 카운터를 새 키에 넘기고, 넘겨받은 값을 오차로 기록한다.")
+    void addOverCapacity() {
+        // given
+        SpaceSaving spaceSaving = new SpaceSaving(2);
+        spaceSaving.add("001", 5);
+        spaceSaving.add("002", 2);
+
+        // when
+        spaceSaving.add("003", 1);
+
+        // then
+        assertThat(spaceSaving.top(10))
+                .extracting("key", "count", "error")
+                .containsExactly(
+                        tuple("001", 5L, 0L),
+                        tuple("003", 3L, 2L)
+                );
+    }
+
+    @Test
+    @DisplayName("두 요약을 합치면 같은 키의 수량을 더한다.")
+    void merge() {
+        // given
+        SpaceSaving left = new SpaceSaving(3);
+        left.add("001", 5);
+        left.add("002", 1);
+        SpaceSaving right = new SpaceSaving(3);
+        right.add("001", 2);
+        right.add("003", 4);
+
+        // when
+        SpaceSaving merged = left.merge(right);
+
+        // then
+        assertThat(merged.top(10))
+                .extracting("key", "count", "error")
+                .containsExactly(
+                        tuple("001", 7L, 0L),
+                        tuple("003", 4L, 0L),
+                        tuple("002", 1L, 0L)
+                );
+    }
+
+    @Test
+    @DisplayName("가득 찬 요약과 합치면 한쪽에만 있는 키는 다른 쪽의 가장 작은 카운터 값을 오차로 더한다.")
+    void mergeFull() {
+        // given
+        SpaceSaving left = new SpaceSaving(2);
+        left.add("001", 5);
+        left.add("002", 3);
+        SpaceSaving right = new SpaceSaving(2);
+        right.add("001", 4);
+        right.add("003", 2);
+
+        // when
+        SpaceSaving merged = left.merge(right);
+
+        // then
+        assertThat(merged.top(10))
+                .extracting("key", "count", "error")
+                .containsExactly(
+                        tuple("001", 9L, 0L),
+                        tuple("002", 5L, 2L)
+                );
+    }
+
+    @Test
+    @DisplayName("바이트로 저장한 요약을 다시 읽으면 같은 카운터를 가진다.")
+    void toBytesAndFromBytes() {
+        // given
+        SpaceSaving spaceSaving = new SpaceSaving(2);
+        spaceSaving.add("001", 5);
+        spaceSaving.add("002", 2);
+        spaceSaving.add("003", 1);
+
+        // when
+        SpaceSaving restored = SpaceSaving.fromBytes(spaceSaving.toBytes());
+
+        // then
+        assertThat(restored.getCapacity()).isEqualTo(2);
+        assertThat(restored.top(10))
+                .extracting("key", "count", "error")
+                .containsExactly(
+                        tuple("001", 5L, 0L),
+                        tuple("003", 3L, 2L)
+                );
+    }
+
+}